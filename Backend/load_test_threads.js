@@ -0,0 +1,64 @@
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+// Compares platform and virtual request threads (see scripts/compare-thread-modes.sh).
+// Each user signs up once, then keeps reading its reservations, the station catalog and a station's details.
+// Run with: k6 run -e BASE_URL=http://127.0.0.1:8080/api -e USERS=600 load_test_threads.js
+
+const BASE_URL = __ENV.BASE_URL || 'http://127.0.0.1:8080/api';
+const USERS = parseInt(__ENV.USERS || '600');
+
+export let options = {
+  scenarios: {
+    concurrent_users: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: USERS },
+        { duration: '2m', target: USERS },
+        { duration: '15s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    http_req_duration: ['p(95)<2000'],
+  },
+};
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export function setup() {
+  const station = http.post(`${BASE_URL}/stations`, JSON.stringify({
+    name: `Load ${Date.now()}`,
+    address: 'Rua da Carga',
+    city: 'Aveiro',
+    latitude: 40.6 + Math.random() * 0.01,
+    longitude: -8.6 + Math.random() * 0.01,
+  }), JSON_HEADERS);
+  return { stationId: station.json('id') };
+}
+
+let clientId;
+
+export default function (data) {
+  if (!clientId) {
+    const email = `load_${__VU}_${Date.now()}@mail.com`;
+    const signup = http.post(`${BASE_URL}/clients/signup`, JSON.stringify({
+      name: 'Load User', email: email, password: 'abcdefgh', batteryCapacityKwh: 70, fullRangeKm: 350,
+    }), JSON_HEADERS);
+    clientId = signup.json('id');
+  }
+
+  const responses = http.batch([
+    ['GET', `${BASE_URL}/reservations/client/${clientId}`],
+    ['GET', `${BASE_URL}/stations`],
+    ['GET', `${BASE_URL}/stations/${data.stationId}/details`],
+  ]);
+  check(responses[0], { 'reservations 200': (r) => r.status === 200 });
+  check(responses[1], { 'stations 200': (r) => r.status === 200 });
+  check(responses[2], { 'details 200': (r) => r.status === 200 });
+
+  sleep(0.5);
+}
@@ -0,0 +1,38 @@
+#!/bin/bash
+
+# Runs load_test_threads.js against the backend twice, once on Tomcat's platform thread pool and once on
+# virtual threads, and keeps each k6 summary in target/thread-modes/.
+# Needs k6 and a reachable PostgreSQL (docker compose up postgres); the datasource is taken from the
+# usual SPRING_DATASOURCE_* variables. USERS (default 600) and DB_POOL_SIZE (default 20) can be overridden.
+
+set -e
+cd "$(dirname "$0")"/..
+
+USERS="${USERS:-600}"
+PORT="${PORT:-8080}"
+OUT=target/thread-modes
+mkdir -p "$OUT"
+
+if [ ! -f target/Backend-0.0.1-SNAPSHOT.jar ]; then
+    ./mvnw -q package -DskipTests
+fi
+
+for MODE in platform virtual; do
+    if [ "$MODE" = "virtual" ]; then VIRTUAL=true; else VIRTUAL=false; fi
+    echo "Starting backend with VIRTUAL_THREADS=$VIRTUAL"
+    VIRTUAL_THREADS=$VIRTUAL java -jar target/Backend-0.0.1-SNAPSHOT.jar --server.port="$PORT" \
+        --spring.jpa.show-sql=false > "$OUT/$MODE-server.log" 2>&1 &
+    SERVER=$!
+    until curl -s -o /dev/null "http://127.0.0.1:$PORT/api/stations"; do sleep 1; done
+
+    k6 run -e BASE_URL="http://127.0.0.1:$PORT/api" -e USERS="$USERS" \
+        --summary-export "$OUT/$MODE.json" load_test_threads.js
+
+    kill "$SERVER"
+    wait "$SERVER" || true
+done
+
+for MODE in platform virtual; do
+    echo "$MODE: $(jq -r '"\(.metrics.http_reqs.rate | floor) req/s, p95 \(.metrics.http_req_duration["p(95)"] | floor) ms, failed \(.metrics.http_req_failed.value)"' "$OUT/$MODE.json")"
+done
+grep -h "Virtual thread pinned" "$OUT/virtual-server.log" | sed 's/.*pinned for [0-9]* ms at //' | sort | uniq -c | sort -rn | head || true
@@ -0,0 +1,119 @@
+package tqs.backend.config;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import tqs.backend.controller.ChargerGatewayEndpoint;
+import tqs.backend.service.ChargerGateway;
+import tqs.backend.service.ChargerService;
+
+import java.util.List;
+
+/**
+ * Registers the charger WebSocket endpoint with the servlet container's own WebSocket support, which the
+ * embedded Tomcat sets up before context listeners run.
+ * Every session gets message buffers of charger.gateway.max-message-bytes; OCPP frames are small, and the
+ * container default of 8 KB per buffer adds up over tens of thousands of connections.
+ * Chargers authenticate as in OCPP security profile 1: HTTP basic auth on the upgrade request, with the charger id
+ * as user name and the key issued to that charger as password. A charger may only open its own path.
+ * Meter values posted over HTTP, by chargers that do not keep a connection, are authenticated the same way.
+ */
+@Configuration
+public class ChargerGatewayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargerGatewayConfig.class);
+
+    static final String PATH = "/ocpp/{chargerId}";
+    static final String METER_VALUES_PATH = "/api/telemetry/meter-values";
+
+    // Checked ahead of the application chain; the upgrade is refused with 401 before any WebSocket is opened
+    @Bean
+    @Order(1)
+    public SecurityFilterChain chargerGatewaySecurity(HttpSecurity http, ChargerService chargerService) throws Exception {
+        http
+                .securityMatcher("/ocpp/**", METER_VALUES_PATH)
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // A plain status, as sendError would dispatch to /error, which the application chain answers with 403
+                .httpBasic(basic -> basic.authenticationEntryPoint((request, response, e) -> {
+                    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"ocpp\"");
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                }))
+                .authenticationManager(authentication -> {
+                    Long chargerId = parseChargerId(authentication.getName());
+                    if (chargerId == null || !(authentication.getCredentials() instanceof String key)
+                            || !chargerService.isGatewayKeyValid(chargerId, key)) {
+                        throw new BadCredentialsException("Invalid charger credentials");
+                    }
+                    return UsernamePasswordAuthenticationToken.authenticated(authentication.getName(), null, List.of());
+                })
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(PATH).access((authentication, context) -> new AuthorizationDecision(
+                                authentication.get().isAuthenticated()
+                                        && context.getVariables().get("chargerId").equals(authentication.get().getName())))
+                        // The controller checks the charger id in the body against the authenticated one
+                        .requestMatchers(HttpMethod.POST, METER_VALUES_PATH).authenticated()
+                        .anyRequest().denyAll()
+                );
+        return http.build();
+    }
+
+    private static Long parseChargerId(String name) {
+        try {
+            return Long.valueOf(name);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Bean
+    public ServletContextInitializer chargerGatewayEndpoint(ChargerGateway gateway,
+                                                            @Value("${charger.gateway.max-message-bytes:4096}") int maxMessageBytes) {
+        return servletContext -> servletContext.addListener(new ServletContextListener() {
+            @Override
+            public void contextInitialized(ServletContextEvent event) {
+                ServerContainer container = (ServerContainer) event.getServletContext()
+                        .getAttribute(ServerContainer.class.getName());
+                if (container == null) {
+                    logger.warn("No WebSocket support in the servlet container, charger gateway disabled");
+                    return;
+                }
+                container.setDefaultMaxTextMessageBufferSize(maxMessageBytes);
+                container.setDefaultMaxBinaryMessageBufferSize(maxMessageBytes);
+                ServerEndpointConfig config = ServerEndpointConfig.Builder.create(ChargerGatewayEndpoint.class, PATH)
+                        .subprotocols(List.of("ocpp1.6"))
+                        .configurator(new ServerEndpointConfig.Configurator() {
+                            @Override
+                            public <T> T getEndpointInstance(Class<T> endpointClass) {
+                                return endpointClass.cast(new ChargerGatewayEndpoint(gateway));
+                            }
+                        })
+                        .build();
+                try {
+                    container.addEndpoint(config);
+                } catch (DeploymentException e) {
+                    throw new IllegalStateException("Could not register the charger gateway", e);
+                }
+            }
+        });
+    }
+}
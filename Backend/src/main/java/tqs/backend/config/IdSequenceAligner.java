@@ -0,0 +1,72 @@
+package tqs.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Moves each entity's id sequence past the ids already in its table, once the schema is up to date.
+ * Ids used to come from identity columns, so on an existing database the new sequences start below rows
+ * that are already there; the same happens after rows are inserted with explicit ids, as data.sql does.
+ * With the pooled optimizer a sequence value is the top of the block handed out, so setting it to the
+ * highest id makes the next block start right after it. Aligning an already aligned sequence changes nothing.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // Table -> sequence, as declared by the entities' @SequenceGenerator
+    static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("station", "station_seq");
+        SEQUENCES.put("charger", "charger_seq");
+        SEQUENCES.put("client", "client_seq");
+        SEQUENCES.put("reservation", "reservation_seq");
+        SEQUENCES.put("charging_session", "charging_session_seq");
+        SEQUENCES.put("discount", "discount_seq");
+        SEQUENCES.put("trip_plan", "trip_plan_seq");
+        SEQUENCES.put("trip_plan_stop", "trip_plan_stop_seq");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate,
+                             @Value("${id.sequences.align-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void alignOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        // Only PostgreSQL databases predate the sequences; test databases are created from scratch
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(String table, String sequence) {
+        Long value = jdbcTemplate.queryForObject(
+                "SELECT setval('" + sequence + "', GREATEST((SELECT COALESCE(MAX(id), 0) FROM " + table + "), "
+                        + "(SELECT last_value FROM " + sequence + "), 1))",
+                Long.class);
+        logger.info("Sequence {} aligned with table {} at {}", sequence, table, value);
+    }
+}
@@ -0,0 +1,97 @@
+package tqs.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads that stayed pinned to their carrier for longer than
+ * virtual-threads.pinning-monitor.threshold-ms, which on Java 21 happens when they block inside synchronized
+ * code or a native frame. Each occurrence is logged with the first application frame on the stack and counted
+ * per site, so the monitors that need to become ReentrantLocks show up in the logs under real load.
+ * Runs from a JFR event stream in the same JVM; enabled by default only in virtual-thread mode.
+ */
+@Component
+@ConditionalOnProperty(name = "virtual-threads.pinning-monitor.enabled", havingValue = "true")
+public class PinnedThreadMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "tqs.backend.";
+
+    private final long thresholdMs;
+    private final LongAdder pinned = new LongAdder();
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(@Value("${virtual-threads.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("Watching for virtual threads pinned longer than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+        pinned.increment();
+        pinnedBySite.computeIfAbsent(site, key -> new LongAdder()).increment();
+        logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Long> bySite = new TreeMap<>();
+        pinnedBySite.forEach((site, count) -> bySite.put(site, count.sum()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("thresholdMs", thresholdMs);
+        stats.put("pinned", pinned.sum());
+        stats.put("bySite", bySite);
+        return stats;
+    }
+
+    // The innermost frame of our own code, or the innermost frame at all when the pin happened in a library
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
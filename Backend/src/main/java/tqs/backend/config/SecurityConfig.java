@@ -12,7 +12,12 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tqs.backend.model.Client;
+import tqs.backend.repository.ClientRepository;
 
 import java.util.List;
 
@@ -21,12 +26,25 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ClientRepository clientRepository) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
+                // Staff authenticate with HTTP basic auth, their email and password, for the operator endpoints
+                .httpBasic(basic -> {})
+                .authenticationManager(authentication -> {
+                    Client client = clientRepository.findByEmail(authentication.getName()).orElse(null);
+                    if (client == null || !(authentication.getCredentials() instanceof String password)
+                            || !passwordEncoder().matches(password, client.getPasswordHash())) {
+                        throw new BadCredentialsException("Invalid credentials");
+                    }
+                    return UsernamePasswordAuthenticationToken.authenticated(client.getEmail(), null,
+                            List.of(new SimpleGrantedAuthority("ROLE_" + client.getRole())));
+                })
                 .authorizeHttpRequests(auth -> auth
+                        // A gateway key lets its holder speak for the charger, so only operators may issue one
+                        .requestMatchers(HttpMethod.POST, "/api/chargers/*/gateway-key").hasAnyRole("EMPLOYEE", "MANAGER")
                         .requestMatchers(HttpMethod.POST, "/api/clients").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/clients/login").permitAll()
                         .requestMatchers(
@@ -36,7 +54,10 @@ public class SecurityConfig {
                                 "/api/stations/*/details",
                                 "/api/chargers/**",
                                 "/api/reservations/**",
+                                "/api/events/**",
                                 "/api/payment/**",
+                                "/api/trips/**",
+                                "/api/telemetry/stats",
                                 "/swagger-ui/**",
                                 "/api/discounts/**",
                                 "/v3/api-docs/**",
@@ -1,11 +1,20 @@
 package tqs.backend.config;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.web.servlet.config.annotation.*;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public WebConfig(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -14,4 +23,20 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    /**
+     * Open-in-view for every request except payments (spring.jpa.open-in-view is off). An open EntityManager
+     * keeps its connection until the response is written, which would hold a pooled connection for the whole
+     * Stripe call; payment handlers only read fields that are loaded with the reservation.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            return;
+        }
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(factory);
+        registry.addWebRequestInterceptor(interceptor).excludePathPatterns("/api/payment/**");
+    }
 }
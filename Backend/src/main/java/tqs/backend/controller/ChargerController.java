@@ -3,14 +3,25 @@ package tqs.backend.controller;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import tqs.backend.dto.ChargerCreationRequest;
 import tqs.backend.model.Charger;
+import tqs.backend.service.ChargerGateway;
+import tqs.backend.service.ChargerLivenessTracker;
 import tqs.backend.service.ChargerService;
+import tqs.backend.service.PricingService;
+import tqs.backend.util.NdjsonWriter;
 import tqs.backend.model.enums.ChargerStatus;
 import tqs.backend.dto.ChargerDTO;
+import tqs.backend.dto.ChargerResponse;
+import tqs.backend.dto.ChargerStatsDTO;
+import tqs.backend.dto.PriceQuoteDTO;
+import tqs.backend.dto.PriceQuoteRequest;
 
 @RestController
 @RequestMapping("/api/chargers")
@@ -19,9 +30,18 @@ public class ChargerController {
     private static final String ERROR_KEY = "error";
 
     private final ChargerService chargerService;
+    private final PricingService pricingService;
+    private final ObjectMapper objectMapper;
+    private final ChargerGateway chargerGateway;
+    private final ChargerLivenessTracker livenessTracker;
 
-    public ChargerController(ChargerService chargerService) {
+    public ChargerController(ChargerService chargerService, PricingService pricingService, ObjectMapper objectMapper,
+                             ChargerGateway chargerGateway, ChargerLivenessTracker livenessTracker) {
         this.chargerService = chargerService;
+        this.pricingService = pricingService;
+        this.objectMapper = objectMapper;
+        this.chargerGateway = chargerGateway;
+        this.livenessTracker = livenessTracker;
     }
 
     @PostMapping
@@ -41,12 +61,27 @@ public class ChargerController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Charger>> getAllChargers() {
-        return ResponseEntity.ok(chargerService.getAllChargers());
+    public ResponseEntity<Object> getAllChargers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(chargerService.getAllChargers());
+        }
+        try {
+            return ResponseEntity.ok(chargerService.getChargersPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChargers() {
+        return NdjsonWriter.<Charger>response(objectMapper, chargerService::streamChargers);
     }
 
     @GetMapping("/station/{stationId}")
-    public ResponseEntity<List<Charger>> getChargersByStation(@PathVariable Long stationId) {
+    public ResponseEntity<List<ChargerResponse>> getChargersByStation(@PathVariable Long stationId) {
         return ResponseEntity.ok(chargerService.getChargersForStation(stationId));
     }
 
@@ -84,11 +119,59 @@ public class ChargerController {
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * Every station's charger counts by status plus the totals, in one call.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ChargerStatsDTO> getChargerStats() {
+        return ResponseEntity.ok(chargerService.getStatusStats());
+    }
+
+    /**
+     * Chargers connected to the OCPP gateway right now and message counters since startup.
+     */
+    @GetMapping("/gateway/stats")
+    public ResponseEntity<Map<String, Object>> getGatewayStats() {
+        return ResponseEntity.ok(chargerGateway.stats());
+    }
+
+    /**
+     * Issues a new OCPP gateway key for the charger, replacing its previous one. The key is shown only here and is
+     * set on the charger as its AuthorizationKey.
+     */
+    @PostMapping("/{id}/gateway-key")
+    public ResponseEntity<Map<String, Object>> issueGatewayKey(@PathVariable Long id) {
+        try {
+            String key = chargerService.issueGatewayKey(id);
+            return ResponseEntity.ok(Map.of("chargerId", id, "key", key));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    /**
+     * Chargers heard from within the liveness timeout and those that went silent.
+     */
+    @GetMapping("/liveness/stats")
+    public ResponseEntity<Map<String, Object>> getLivenessStats() {
+        return ResponseEntity.ok(livenessTracker.stats());
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<ChargerDTO>> getAvailableChargers() {
         return ResponseEntity.ok(chargerService.getChargersByStatus(ChargerStatus.AVAILABLE));
     }
 
+    @PostMapping("/quotes")
+    public ResponseEntity<Object> quoteChargers(@RequestBody PriceQuoteRequest request) {
+        try {
+            List<PriceQuoteDTO> quotes = pricingService.quote(request);
+            return ResponseEntity.ok(quotes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateChargerStatus(@PathVariable Long id, @RequestBody Map<String, String> requestBody) {
         try {
@@ -0,0 +1,93 @@
+package tqs.backend.controller;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tqs.backend.service.ChargerGateway;
+
+import java.io.IOException;
+
+/**
+ * WebSocket endpoint chargers connect to at /ocpp/{chargerId}, one instance per connection. It runs on the
+ * servlet container's NIO connector, so an idle charger holds no thread; each text frame is handled on a
+ * connector thread (a virtual thread when spring.threads.virtual.enabled is set).
+ */
+public class ChargerGatewayEndpoint extends Endpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargerGatewayEndpoint.class);
+
+    private final ChargerGateway gateway;
+    private ChargerGateway.Connection connection;
+
+    public ChargerGatewayEndpoint(ChargerGateway gateway) {
+        this.gateway = gateway;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        long chargerId;
+        try {
+            chargerId = Long.parseLong(session.getPathParameters().get("chargerId"));
+        } catch (NumberFormatException e) {
+            close(session, "Invalid charger ID");
+            return;
+        }
+        connection = gateway.connect(chargerId, new SessionLink(session));
+        if (connection == null) {
+            close(session, "Charger not found");
+            return;
+        }
+        session.addMessageHandler(String.class, (MessageHandler.Whole<String>) message -> {
+            String reply = gateway.handle(connection, message);
+            if (reply != null) {
+                send(session, reply);
+            }
+        });
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        if (connection != null) {
+            gateway.disconnect(connection);
+        }
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        logger.debug("Charger connection error: {}", error.getMessage());
+    }
+
+    // Replies go out on the thread handling the message, which is the only one writing to the session
+    private static void send(Session session, String message) {
+        try {
+            session.getBasicRemote().sendText(message);
+        } catch (IOException e) {
+            logger.debug("Could not reply to charger: {}", e.getMessage());
+        }
+    }
+
+    private static void close(Session session, String reason) {
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, reason));
+        } catch (IOException e) {
+            logger.debug("Could not close charger connection: {}", e.getMessage());
+        }
+    }
+
+    private record SessionLink(Session session) implements ChargerGateway.Link {
+
+        @Override
+        public void send(String message) {
+            ChargerGatewayEndpoint.send(session, message);
+        }
+
+        @Override
+        public void close(String reason) {
+            ChargerGatewayEndpoint.close(session, reason);
+        }
+    }
+}
@@ -43,15 +43,7 @@ public class ClientController {
 
         try {
             Client client = clientService.signUp(signUpRequest);
-            return ResponseEntity.ok(ClientResponse.builder()
-                .id(client.getId())
-                .email(client.getEmail())
-                .name(client.getName())
-                .batteryCapacityKwh(client.getBatteryCapacityKwh())
-                .fullRangeKm(client.getFullRangeKm())
-                .reservations(client.getReservations())
-                .role(client.getRole())
-                .build());
+            return ResponseEntity.ok(toResponse(client));
         } catch (RuntimeException e) {
             if ("Email already exists".equals(e.getMessage())) {
                 return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -74,15 +66,7 @@ public class ClientController {
         Optional<Client> clientOpt = clientRepository.findByEmail(loginRequest.getEmail());
         if (clientOpt.isPresent() && passwordEncoder.matches(loginRequest.getPassword(), clientOpt.get().getPasswordHash())) {
             Client client = clientOpt.get();
-            return ResponseEntity.ok(ClientResponse.builder()
-                .id(client.getId())
-                .email(client.getEmail())
-                .name(client.getName())
-                .batteryCapacityKwh(client.getBatteryCapacityKwh())
-                .fullRangeKm(client.getFullRangeKm())
-                .reservations(client.getReservations())
-                .role(client.getRole())
-                .build());
+            return ResponseEntity.ok(toResponse(client));
         } else {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(ERROR_MESSAGE, "Invalid credentials"));
         }
@@ -104,15 +88,7 @@ public class ClientController {
 
         clientRepository.save(client);
 
-        return ResponseEntity.ok(ClientResponse.builder()
-            .id(client.getId())
-            .email(client.getEmail())
-            .name(client.getName())
-            .batteryCapacityKwh(client.getBatteryCapacityKwh())
-            .fullRangeKm(client.getFullRangeKm())
-            .reservations(client.getReservations())
-            .role(client.getRole())
-            .build());
+        return ResponseEntity.ok(toResponse(client));
     }
 
     @PutMapping("/changeRole/{id}")
@@ -166,5 +142,17 @@ public class ClientController {
         return ResponseEntity.ok(clientData);
     }
 
+    // Never touches client.getReservations(), so the lazy history is not loaded on login
+    private static ClientResponse toResponse(Client client) {
+        return ClientResponse.builder()
+            .id(client.getId())
+            .email(client.getEmail())
+            .name(client.getName())
+            .batteryCapacityKwh(client.getBatteryCapacityKwh())
+            .fullRangeKm(client.getFullRangeKm())
+            .role(client.getRole())
+            .build();
+    }
+
 
 }
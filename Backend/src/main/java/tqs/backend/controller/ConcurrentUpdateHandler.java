@@ -0,0 +1,28 @@
+package tqs.backend.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Answers 409 when a write lost a race on a versioned row, e.g. a charger update racing with a booking of the
+ * same charger (see {@link tqs.backend.model.Charger#getVersion()}). The client can read again and retry.
+ */
+@RestControllerAdvice
+public class ConcurrentUpdateHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentUpdateHandler.class);
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        logger.info("Concurrent update rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "The resource was changed by another request, please try again."));
+    }
+}
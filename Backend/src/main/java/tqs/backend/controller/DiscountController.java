@@ -5,13 +5,18 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import tqs.backend.dto.DiscountRequestDTO;
 import tqs.backend.model.Discount;
 import tqs.backend.service.DiscountService;
+import tqs.backend.util.NdjsonWriter;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -21,6 +26,7 @@ import jakarta.servlet.http.HttpServletRequest;
 public class DiscountController {
 
     private final DiscountService discountService;
+    private final ObjectMapper objectMapper;
 
     // CREATE
     @PostMapping
@@ -37,15 +43,29 @@ public class DiscountController {
             );
             return ResponseEntity.ok(discount);
         } catch (IllegalArgumentException e) {
-            return buildNotFoundResponse(e.getMessage(), request.getRequestURI());
+            return buildErrorResponse(e.getMessage(), request.getRequestURI());
         }
     }
 
-    // READ all
+    // READ all, or one page of them when a cursor or limit is given
     @GetMapping
-    public ResponseEntity<List<Discount>> getAll() {
-        List<Discount> discounts = discountService.getAllDiscounts();
-        return ResponseEntity.ok(discounts);
+    public ResponseEntity<?> getAll(@RequestParam(required = false) Long after,
+                                    @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            List<Discount> discounts = discountService.getAllDiscounts();
+            return ResponseEntity.ok(discounts);
+        }
+        try {
+            return ResponseEntity.ok(discountService.getDiscountsPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // READ all as NDJSON, one discount per line
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return NdjsonWriter.<Discount>response(objectMapper, discountService::streamDiscounts);
     }
 
     // READ one by id
@@ -63,7 +83,7 @@ public ResponseEntity<?> update(@PathVariable Long id, @RequestBody DiscountRequ
         Discount updatedDiscount = discountService.updateDiscount(id, dto);
         return ResponseEntity.ok(updatedDiscount);
     } catch (IllegalArgumentException e) {
-        return buildNotFoundResponse(e.getMessage(), request.getRequestURI());
+        return buildErrorResponse(e.getMessage(), request.getRequestURI());
     }
 }
 
@@ -80,6 +100,20 @@ public ResponseEntity<?> update(@PathVariable Long id, @RequestBody DiscountRequ
     }
 
     // Método auxiliar para criar resposta 404 com JSON esperado
+    // Lookups that fail end in "not found"; anything else is an invalid request
+    private ResponseEntity<Map<String, Object>> buildErrorResponse(String message, String path) {
+        if (message != null && message.endsWith("not found")) {
+            return buildNotFoundResponse(message, path);
+        }
+        return ResponseEntity.badRequest().body(Map.of(
+                "timestamp", ZonedDateTime.now().toString(),
+                "status", 400,
+                "error", "Bad Request",
+                "message", message,
+                "path", path
+        ));
+    }
+
     private ResponseEntity<Map<String, Object>> buildNotFoundResponse(String message, String path) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
                 "timestamp", ZonedDateTime.now().toString(),
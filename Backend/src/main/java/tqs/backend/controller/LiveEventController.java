@@ -0,0 +1,30 @@
+package tqs.backend.controller;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import tqs.backend.service.LiveEventHub;
+
+@RestController
+@RequestMapping("/api/events")
+public class LiveEventController {
+
+    private final LiveEventHub liveEventHub;
+
+    public LiveEventController(LiveEventHub liveEventHub) {
+        this.liveEventHub = liveEventHub;
+    }
+
+    /**
+     * Server-Sent Events stream of charger status and reservation changes, optionally limited to
+     * the stations given as repeated stationId parameters.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) List<Long> stationId) {
+        return liveEventHub.subscribe(stationId == null ? null : new HashSet<>(stationId));
+    }
+}
@@ -1,41 +1,60 @@
 package tqs.backend.controller;
 
 import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import tqs.backend.dto.PaymentSession;
+import tqs.backend.exception.PaymentGatewayUnavailableException;
 import tqs.backend.model.Reservation;
+import tqs.backend.service.PaymentGateway;
 import tqs.backend.service.ReservationService;
-import tqs.backend.service.StripeClient;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Payment endpoints return a future, so the request thread is released while the payment provider is called.
+ * Database work that follows a provider call runs on the application task executor, not on the gateway's
+ * threads.
+ */
 @RestController
 @RequestMapping("/api/payment")
-@RequiredArgsConstructor
 public class PaymentController {
 
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
 
     private final ReservationService reservationService;
-    private final StripeClient stripeClient;
+    private final PaymentGateway paymentGateway;
+    private final Executor taskExecutor;
+
+    public PaymentController(ReservationService reservationService, PaymentGateway paymentGateway,
+                             @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
+        this.reservationService = reservationService;
+        this.paymentGateway = paymentGateway;
+        this.taskExecutor = taskExecutor;
+    }
 
     @PostMapping("/create-checkout-session")
-    public ResponseEntity<?> createCheckoutSession(@RequestBody Map<String, Long> request) {
+    public CompletableFuture<ResponseEntity<?>> createCheckoutSession(@RequestBody Map<String, Long> request) {
         Long reservationId = request.get("reservationId");
 
         if (reservationId == null) {
             logger.error("Error: Missing reservationId");
-            return ResponseEntity.badRequest().body(Map.of("error", "Missing reservationId"));
+            return done(ResponseEntity.badRequest().body(Map.of("error", "Missing reservationId")));
         }
 
+        SessionCreateParams params;
         try {
             Reservation reservation = reservationService.getReservationById(reservationId);
             logger.debug("Found reservation: {}", (reservation != null ? "yes" : "no"));
@@ -48,28 +67,28 @@ public class PaymentController {
 
             if (reservation == null) {
                 logger.error("Error: Reservation not found");
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found"));
+                return done(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found")));
             }
 
             if (reservation.isPaid()) {
                 logger.error("Error: Reservation is already paid");
-                return ResponseEntity.badRequest().body(Map.of("error", "Reservation is already paid"));
+                return done(ResponseEntity.badRequest().body(Map.of("error", "Reservation is already paid")));
             }
 
             if (reservation.getEstimatedCost() == null) {
                 logger.error("Error: Reservation has no estimated cost");
-                return ResponseEntity.badRequest().body(Map.of("error", "Reservation cannot be paid"));
+                return done(ResponseEntity.badRequest().body(Map.of("error", "Reservation cannot be paid")));
             }
 
             if (reservation.getStatus() != tqs.backend.model.enums.ReservationStatus.ACTIVE &&
                 reservation.getStatus() != tqs.backend.model.enums.ReservationStatus.COMPLETED) {
                 logger.error("Error: Invalid reservation status: {}", reservation.getStatus());
-                return ResponseEntity.badRequest().body(Map.of("error", "Reservation cannot be paid"));
+                return done(ResponseEntity.badRequest().body(Map.of("error", "Reservation cannot be paid")));
             }
 
             logger.info("Creating checkout session for reservation with cost: {}", reservation.getEstimatedCost());
 
-            SessionCreateParams params = SessionCreateParams.builder()
+            params = SessionCreateParams.builder()
                     .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
                     .addLineItem(
                             SessionCreateParams.LineItem.builder()
@@ -94,68 +113,89 @@ public class PaymentController {
                     .setCancelUrl("http://localhost:80/cancel")
                     .putMetadata("reservationId", String.valueOf(reservation.getId())) // Store reservation ID in metadata
                     .build();
+        } catch (RuntimeException e) {
+            return done(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage())));
+        }
 
-            Session session = stripeClient.createCheckoutSession(params);
-            if (session == null) {
-                logger.error("Error: Failed to create Stripe session");
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to create checkout session"));
-            }
-
-            Map<String, String> responseData = new HashMap<>();
-            responseData.put("sessionId", session.getId());
+        return paymentGateway.createCheckoutSession(params)
+                .<ResponseEntity<?>>thenApply(session -> {
+                    if (session == null) {
+                        logger.error("Error: Failed to create Stripe session");
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Failed to create checkout session"));
+                    }
 
-            return ResponseEntity.ok(responseData);
+                    Map<String, String> responseData = new HashMap<>();
+                    responseData.put("sessionId", session.getId());
 
-        } catch (StripeException e) {
-            logger.error("Error creating checkout session: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error creating checkout session: " + e.getMessage().split(";")[0]));
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
-        }
+                    return ResponseEntity.ok(responseData);
+                })
+                .exceptionally(e -> failure("Error creating checkout session", e));
     }
 
     @GetMapping("/verify-session")
-    public ResponseEntity<?> verifyCheckoutSession(@RequestParam("session_id") String sessionId) {
-        try {
-            Session session = stripeClient.retrieveCheckoutSession(sessionId);
+    public CompletableFuture<ResponseEntity<?>> verifyCheckoutSession(@RequestParam("session_id") String sessionId) {
+        return paymentGateway.retrieveCheckoutSession(sessionId)
+                .thenApplyAsync(this::markReservationPaid, taskExecutor)
+                .exceptionally(e -> failure("Error verifying checkout session", e));
+    }
 
-            // Check if the payment was successful
-            if (!"paid".equals(session.getPaymentStatus())) {
-                 return ResponseEntity.badRequest().body(Map.of("error", "Payment not completed"));
-            }
+    private ResponseEntity<?> markReservationPaid(PaymentSession session) {
+        // Check if the payment was successful
+        if (!"paid".equals(session.getPaymentStatus())) {
+             return ResponseEntity.badRequest().body(Map.of("error", "Payment not completed"));
+        }
 
-            // Retrieve the reservation ID from metadata
-            String reservationIdString = session.getMetadata().get("reservationId");
-            if (reservationIdString == null) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Reservation ID not found in session metadata"));
-            }
-            Long reservationId = Long.parseLong(reservationIdString);
+        // Retrieve the reservation ID from metadata
+        String reservationIdString = session.getMetadata().get("reservationId");
+        if (reservationIdString == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Reservation ID not found in session metadata"));
+        }
+        Long reservationId;
+        try {
+            reservationId = Long.parseLong(reservationIdString);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid reservation ID in session metadata"));
+        }
 
-            // Update the reservation status to paid
-            Reservation reservation = reservationService.getReservationById(reservationId);
+        // Update the reservation status to paid
+        Reservation reservation = reservationService.getReservationById(reservationId);
 
-            if (reservation == null) {
-                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found"));
-            }
+        if (reservation == null) {
+             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Reservation not found"));
+        }
 
-            // Prevent double payment/update if already paid
-            if (reservation.isPaid()) {
-                 return ResponseEntity.ok(Map.of("message", "Reservation already marked as paid"));
-            }
+        // Prevent double payment/update if already paid
+        if (reservation.isPaid()) {
+             return ResponseEntity.ok(Map.of("message", "Reservation already marked as paid"));
+        }
 
-            // reservation.getChargingSession().setPaid(true);
-            reservation.setPaid(true);
-            reservationService.saveReservation(reservation); // Assuming a save method exists or use update method
+        reservation.setPaid(true);
+        reservationService.saveReservation(reservation);
 
-            return ResponseEntity.ok(Map.of("message", "Payment successfully verified and reservation updated"));
+        return ResponseEntity.ok(Map.of("message", "Payment successfully verified and reservation updated"));
+    }
 
-        } catch (StripeException e) {
-            logger.error("Error verifying checkout session: {}", e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Error verifying checkout session: " + e.getMessage().split(";")[0]));
-        } catch (NumberFormatException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid reservation ID in session metadata"));
-        } catch (RuntimeException e) {
-             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+    private ResponseEntity<?> failure(String action, Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof StripeException) {
+            logger.error("{}: {}", action, cause.getMessage(), cause);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", action + ": " + cause.getMessage().split(";")[0]));
         }
+        if (cause instanceof PaymentGatewayUnavailableException) {
+            logger.warn("{}: {}", action, cause.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", cause.getMessage()));
+        }
+        if (cause instanceof TimeoutException) {
+            logger.warn("{}: payment provider timed out", action);
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("error", "Payment provider did not respond in time"));
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", String.valueOf(cause.getMessage())));
+    }
+
+    private static CompletableFuture<ResponseEntity<?>> done(ResponseEntity<?> response) {
+        return CompletableFuture.completedFuture(response);
     }
-} 
\ No newline at end of file
+}
@@ -1,15 +1,22 @@
 package tqs.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tqs.backend.dto.BulkReservationMode;
+import tqs.backend.dto.BulkReservationResponse;
 import tqs.backend.dto.ReservationRequest;
 import tqs.backend.dto.ReservationResponse;
 import tqs.backend.model.Reservation;
 import tqs.backend.service.ReservationService;
+import tqs.backend.util.NdjsonWriter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -23,12 +30,28 @@ public class ReservationController {
     private static final Logger logger = LoggerFactory.getLogger(ReservationController.class);
 
     private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
 
     private static final String ERROR_KEY = "error";
 
     @GetMapping
-    public List<Reservation> getAllReservations() {
-        return reservationService.getAllReservations();
+    public ResponseEntity<?> getAllReservations(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(reservationService.getAllReservations());
+        }
+        try {
+            return ResponseEntity.ok(reservationService.getReservationsPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReservations() {
+        return NdjsonWriter.<Reservation>response(objectMapper, reservationService::streamReservations);
     }
 
     @GetMapping("/client/{clientId}")
@@ -42,6 +65,20 @@ public class ReservationController {
         }
     }
 
+    @GetMapping("/client/{clientId}/summary")
+    public ResponseEntity<?> getReservationSummary(
+            @PathVariable Long clientId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(reservationService.getReservationSummary(clientId, after, limit));
+        } catch (IllegalArgumentException e) {
+            HttpStatus status = "Client not found".equals(e.getMessage()) ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
     @PostMapping
     public ResponseEntity<?> createReservation(@RequestBody ReservationRequest request) {
         try {
@@ -53,6 +90,22 @@ public class ReservationController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createReservations(
+            @RequestBody List<ReservationRequest> requests,
+            @RequestParam(defaultValue = "ALL_OR_NOTHING") BulkReservationMode mode
+    ) {
+        try {
+            BulkReservationResponse response = reservationService.createReservations(requests, mode);
+            // Per-item results are returned either way; the status only tells whether anything was booked
+            HttpStatus status = response.getBooked() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+            return new ResponseEntity<>(response, status);
+        } catch (RuntimeException e) {
+            logger.error("Error creating reservations: {}", e.getMessage());
+            return handleRuntimeException(e);
+        }
+    }
+
     @DeleteMapping("/{reservationId}")
     public ResponseEntity<?> cancelReservation(@PathVariable Long reservationId) {
         try {
@@ -89,6 +142,12 @@ public class ReservationController {
         }
     }
 
+    // A cursor or limit that is not a number, rather than the conversion message of the handler below
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, String>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, "Invalid value for '" + ex.getName() + "'"));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
         logger.error("RuntimeException caught by handler: {}", ex.getMessage());
@@ -1,18 +1,33 @@
 package tqs.backend.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import tqs.backend.dto.CatalogImportEvent;
+import tqs.backend.dto.NearbyStationDTO;
+import tqs.backend.dto.StationAvailabilityDTO;
+import tqs.backend.dto.StationAvailabilityRequest;
 import tqs.backend.dto.StationDTO;
 import tqs.backend.dto.StationDetailsDTO;
 import tqs.backend.dto.StationRequest;
+import tqs.backend.dto.StationResponse;
 import tqs.backend.model.Station;
 import tqs.backend.model.enums.ChargerType;
+import tqs.backend.service.CatalogImportService;
 import tqs.backend.service.StationService;
+import tqs.backend.util.NdjsonWriter;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -24,31 +39,76 @@ public class StationController {
 
     private static final String ERROR_KEY = "error";
 
+    private static final String TEXT_CSV = "text/csv";
+
     private final StationService stationService;
+    private final CatalogImportService catalogImportService;
+    private final ObjectMapper objectMapper;
 
-    public StationController(StationService stationService) {
+    public StationController(StationService stationService, CatalogImportService catalogImportService,
+                             ObjectMapper objectMapper) {
         this.stationService = stationService;
+        this.catalogImportService = catalogImportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public ResponseEntity<List<StationDTO>> getAllStations() {
-        List<StationDTO> stations = stationService.getAllStations()
-                .stream()
-                .map(station -> StationDTO.builder()
-                        .id(station.getId())
-                        .name(station.getName())
-                        .city(station.getCity())
-                        .latitude(station.getLatitude())
-                        .longitude(station.getLongitude())
-                        .build()
-                ).toList();
-
-        return ResponseEntity.ok(stations);
+    public ResponseEntity<Object> getAllStations(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(stationService.getStationSummaries());
+        }
+        try {
+            return ResponseEntity.ok(stationService.getStationSummariesPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStations() {
+        return NdjsonWriter.<StationDTO>response(objectMapper, stationService::streamStationSummaries);
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<Object> getNearbyStations(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        try {
+            List<NearbyStationDTO> results = stationService.findNearbyStations(lat, lng, radiusKm, limit);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/neighbours")
+    public ResponseEntity<Object> getNeighbourStations(
+            @PathVariable Long id,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        try {
+            return ResponseEntity.ok(stationService.findNeighbourStations(id, radiusKm, limit));
+        } catch (IllegalArgumentException e) {
+            HttpStatus status = "Station not found".equals(e.getMessage()) ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCatalogCacheStats() {
+        return ResponseEntity.ok(stationService.getCatalogCacheStats());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Object> getStationById(@PathVariable Long id) {
-        Station station = stationService.getStationById(id);
+        StationResponse station = stationService.getStationById(id);
         if (station == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of(ERROR_KEY, "Station not found"));
@@ -83,9 +143,29 @@ public class StationController {
         }
     }
 
+    /**
+     * Imports stations and chargers from a CSV (with a header line) or NDJSON body, streaming back an NDJSON
+     * line for each rejected row, progress after each committed batch and the totals at the end.
+     */
+    @PostMapping(value = "/import", consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importCatalog(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) {
+        CatalogImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? CatalogImportService.Format.NDJSON
+                : CatalogImportService.Format.CSV;
+        return NdjsonWriter.<CatalogImportEvent>response(objectMapper, events -> catalogImportService.importCatalog(
+                new InputStreamReader(body, StandardCharsets.UTF_8), format, events), true);
+    }
+
     @GetMapping("/{id}/details")
-    public ResponseEntity<Object> getStationDetails(@PathVariable Long id) {
-        StationDetailsDTO dto = stationService.getStationDetails(id, LocalDateTime.now());
+    public ResponseEntity<Object> getStationDetails(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime datetime
+    ) {
+        StationDetailsDTO dto = stationService.getStationDetails(id, datetime != null ? datetime : LocalDateTime.now());
         if (dto == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of(ERROR_KEY, "Station not found"));
@@ -114,5 +194,15 @@ public class StationController {
         return ResponseEntity.ok(results);
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<Object> searchAvailableStations(@ModelAttribute StationAvailabilityRequest request) {
+        try {
+            List<StationAvailabilityDTO> results = stationService.searchAvailableStations(request);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
 
 }
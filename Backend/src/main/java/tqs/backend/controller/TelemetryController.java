@@ -0,0 +1,48 @@
+package tqs.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tqs.backend.dto.MeterValuesRequest;
+import tqs.backend.service.TelemetryService;
+
+import java.security.Principal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/telemetry")
+@RequiredArgsConstructor
+public class TelemetryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryController.class);
+
+    private static final String ERROR_KEY = "error";
+
+    private final TelemetryService telemetryService;
+
+    // Chargers post as themselves, with the same basic auth as on the gateway (see ChargerGatewayConfig)
+    @PostMapping("/meter-values")
+    public ResponseEntity<?> meterValues(@RequestBody MeterValuesRequest request, Principal charger) {
+        if (charger == null || (request.getChargerId() != null
+                && !charger.getName().equals(request.getChargerId().toString()))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of(ERROR_KEY, "Meter values can only be posted for the authenticated charger"));
+        }
+        try {
+            return ResponseEntity.accepted().body(Map.of("accepted", telemetryService.ingest(request)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(ERROR_KEY, e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected meter values: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(ERROR_KEY, e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return telemetryService.stats();
+    }
+}
@@ -0,0 +1,64 @@
+package tqs.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tqs.backend.dto.TripPlanRequest;
+import tqs.backend.service.TripPlanService;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/trips")
+@RequiredArgsConstructor
+public class TripPlanController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripPlanController.class);
+
+    private static final String ERROR_KEY = "error";
+
+    private final TripPlanService tripPlanService;
+
+    @PostMapping("/plan")
+    public ResponseEntity<?> planTrip(@RequestBody TripPlanRequest request) {
+        try {
+            return new ResponseEntity<>(tripPlanService.planTrip(request), HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            logger.error("Error planning trip: {}", e.getMessage());
+            return error(e);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getTripPlan(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(tripPlanService.getTripPlan(id));
+        } catch (RuntimeException e) {
+            return error(e);
+        }
+    }
+
+    @GetMapping("/client/{clientId}")
+    public ResponseEntity<?> getTripPlansByClient(@PathVariable Long clientId) {
+        try {
+            return ResponseEntity.ok(tripPlanService.getTripPlansByClient(clientId));
+        } catch (RuntimeException e) {
+            return error(e);
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> error(RuntimeException e) {
+        HttpStatus status;
+        if (e instanceof IllegalStateException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        } else if (e.getMessage() != null && e.getMessage().endsWith("not found")) {
+            status = HttpStatus.NOT_FOUND;
+        } else {
+            status = HttpStatus.BAD_REQUEST;
+        }
+        return ResponseEntity.status(status).body(Map.of(ERROR_KEY, String.valueOf(e.getMessage())));
+    }
+}
@@ -0,0 +1,15 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkReservationItemResult {
+    private int index;
+    private boolean booked;
+    private Long reservationId;
+    private String error;
+}
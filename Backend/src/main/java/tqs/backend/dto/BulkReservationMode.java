@@ -0,0 +1,8 @@
+package tqs.backend.dto;
+
+public enum BulkReservationMode {
+    // Nothing is booked unless every reservation in the batch can be
+    ALL_OR_NOTHING,
+    // Every reservation that can be booked is; the rest are reported as failed
+    BEST_EFFORT
+}
@@ -0,0 +1,17 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkReservationResponse {
+    private BulkReservationMode mode;
+    private int requested;
+    private int booked;
+    private List<BulkReservationItemResult> results;
+}
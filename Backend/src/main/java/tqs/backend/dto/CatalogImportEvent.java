@@ -0,0 +1,26 @@
+package tqs.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * A line of the import's response stream: a rejected row, progress after a committed batch, or the final totals.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogImportEvent {
+
+    public enum Type { ERROR, PROGRESS, DONE }
+
+    private Type type;
+    private Long line;
+    private String message;
+    private Long rowsRead;
+    private Long stationsCreated;
+    private Long chargersCreated;
+    private Long errors;
+}
@@ -0,0 +1,25 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a catalog import. A row without a charger type adds a station; a row with one adds a charger
+ * to the station at the row's coordinates, creating that station first if it does not exist yet.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CatalogImportRow {
+    private String name;
+    private String address;
+    private String city;
+    private Double latitude;
+    private Double longitude;
+    private String chargerType;
+    private String status;
+    private BigDecimal pricePerKwh;
+}
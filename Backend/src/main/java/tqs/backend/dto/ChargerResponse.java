@@ -0,0 +1,23 @@
+package tqs.backend.dto;
+
+import tqs.backend.model.Charger;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Immutable copy of a charger, safe to cache and to serialize after the session that loaded it is closed
+public record ChargerResponse(
+        Long id,
+        ChargerType chargerType,
+        ChargerStatus status,
+        BigDecimal pricePerKwh,
+        LocalDateTime lastMaintenance,
+        String maintenanceNote
+) {
+    public static ChargerResponse from(Charger charger) {
+        return new ChargerResponse(charger.getId(), charger.getChargerType(), charger.getStatus(),
+                charger.getPricePerKwh(), charger.getLastMaintenance(), charger.getMaintenanceNote());
+    }
+}
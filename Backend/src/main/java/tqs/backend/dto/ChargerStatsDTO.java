@@ -0,0 +1,21 @@
+package tqs.backend.dto;
+
+import lombok.*;
+import tqs.backend.model.enums.ChargerStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChargerStatsDTO {
+    private long total;
+    private Map<ChargerStatus, Long> totals;
+    private Map<Long, Map<ChargerStatus, Long>> byStation;
+    private LocalDateTime reconciledAt;
+    // How far the counters had drifted from the database when they were last reconciled
+    private long lastReconcileCorrections;
+}
@@ -0,0 +1,14 @@
+package tqs.backend.dto;
+
+import lombok.*;
+import tqs.backend.model.enums.ChargerStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChargerStatusCount {
+    private Long stationId;
+    private ChargerStatus status;
+    private Long count;
+}
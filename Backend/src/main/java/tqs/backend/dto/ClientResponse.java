@@ -1,10 +1,9 @@
 package tqs.backend.dto;
 
 import lombok.*;
-import java.util.List;
-import tqs.backend.model.Reservation;
 import tqs.backend.model.enums.UserRole;
 
+// Profile only: a client's reservations are served by GET /api/reservations/client/{id}/summary
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,6 +15,5 @@ public class ClientResponse {
     private String name;
     private Double batteryCapacityKwh;
     private Double fullRangeKm;
-    private List<Reservation> reservations;
     private UserRole role;
 }
@@ -0,0 +1,51 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list ordered by id. Pass nextCursor back as "after" to get the next page; it is null on the last page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    public static long resolveAfter(Long after) {
+        if (after != null && after < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return after != null ? after : 0L;
+    }
+
+    /**
+     * Builds the page from rows fetched with limit + 1, the extra row only telling whether another page exists.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(List.copyOf(items), idOf.apply(items.get(limit - 1)));
+    }
+}
@@ -0,0 +1,34 @@
+package tqs.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change pushed to dashboards over /api/events: a charger's status, a reservation, or a request to
+ * re-fetch everything because the subscriber fell too far behind.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiveEvent {
+
+    public enum Type { CHARGER_STATUS, RESERVATION, RESYNC }
+
+    private Type type;
+    private Long stationId;
+    private Long chargerId;
+    private ChargerStatus chargerStatus;
+    private Long reservationId;
+    private ReservationStatus reservationStatus;
+    private LocalDateTime startTime;
+    private LocalDateTime estimatedEndTime;
+    private Boolean removed;
+    private LocalDateTime at;
+}
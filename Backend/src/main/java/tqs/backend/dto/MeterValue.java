@@ -0,0 +1,18 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MeterValue {
+    // Id of the reservation being charged, sent by the charger as the OCPP transaction id
+    private Long transactionId;
+    private LocalDateTime timestamp;
+    // Energy.Active.Import.Register: the charger's cumulative meter, not the energy of this session
+    private Double energyWh;
+}
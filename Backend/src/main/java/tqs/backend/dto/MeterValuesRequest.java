@@ -0,0 +1,15 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MeterValuesRequest {
+    private Long chargerId;
+    private List<MeterValue> meterValues;
+}
@@ -0,0 +1,18 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class NearbyStationDTO {
+    private Long id;
+    private String name;
+    private String address;
+    private String city;
+    private Double latitude;
+    private Double longitude;
+    private double distanceKm;
+}
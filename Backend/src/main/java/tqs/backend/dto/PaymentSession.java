@@ -0,0 +1,19 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * The parts of a provider checkout session the payment endpoints need.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaymentSession {
+    private String id;
+    private String paymentStatus;
+    private Map<String, String> metadata;
+}
@@ -0,0 +1,20 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PriceQuoteDTO {
+    private Long chargerId;
+    private Long stationId;
+    private BigDecimal basePricePerKwh;
+    private BigDecimal effectivePricePerKwh;
+    private double discountPercent;
+    private Double estimatedKwh;
+    private BigDecimal estimatedCost;
+}
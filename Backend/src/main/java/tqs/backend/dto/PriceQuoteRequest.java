@@ -0,0 +1,18 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PriceQuoteRequest {
+    private List<Long> chargerIds;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private Double estimatedKwh;
+}
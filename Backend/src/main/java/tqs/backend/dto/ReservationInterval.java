@@ -0,0 +1,14 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ReservationInterval {
+    private Long reservationId;
+    private Long chargerId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
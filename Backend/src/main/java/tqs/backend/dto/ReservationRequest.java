@@ -17,5 +17,6 @@ public class ReservationRequest {
     private LocalDateTime estimatedEndTime;
     private Double batteryLevelStart;
     private Double estimatedKwh;
+    // Still accepted from older clients but ignored: bookings are always priced on the server
     private BigDecimal estimatedCost;
 }
@@ -0,0 +1,13 @@
+package tqs.backend.dto;
+
+import lombok.*;
+import tqs.backend.model.enums.ReservationStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationStatusCount {
+    private ReservationStatus status;
+    private Long count;
+}
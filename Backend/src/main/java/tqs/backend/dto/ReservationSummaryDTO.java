@@ -0,0 +1,23 @@
+package tqs.backend.dto;
+
+import lombok.*;
+import tqs.backend.model.enums.ReservationStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reservation counts of a client over their whole history, plus one keyset page of the reservations themselves.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationSummaryDTO {
+    private Long clientId;
+    private long total;
+    private Map<ReservationStatus, Long> countsByStatus;
+    private List<ReservationResponse> items;
+    private Long nextCursor;
+}
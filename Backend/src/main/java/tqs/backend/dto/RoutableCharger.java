@@ -0,0 +1,19 @@
+package tqs.backend.dto;
+
+import lombok.*;
+import tqs.backend.model.enums.ChargerType;
+
+/**
+ * A charger that trips may stop at, with its station's position.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutableCharger {
+    private Long stationId;
+    private Double latitude;
+    private Double longitude;
+    private Long chargerId;
+    private ChargerType chargerType;
+}
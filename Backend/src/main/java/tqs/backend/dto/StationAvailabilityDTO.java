@@ -0,0 +1,23 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StationAvailabilityDTO {
+    private Long id;
+    private String name;
+    private String address;
+    private String city;
+    private double latitude;
+    private double longitude;
+    private Double distanceKm;
+    private int availableChargers;
+    private String discountTag;
+    private List<ChargerDTO> chargers;
+}
@@ -0,0 +1,36 @@
+package tqs.backend.dto;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import tqs.backend.model.enums.ChargerType;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StationAvailabilityRequest {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime datetime;
+
+    private Set<ChargerType> chargerTypes;
+
+    // Optional bounding box
+    private Double minLat;
+    private Double maxLat;
+    private Double minLng;
+    private Double maxLng;
+
+    // Optional radius around a point, takes precedence over the bounding box
+    private Double lat;
+    private Double lng;
+    private Double radiusKm;
+
+    public boolean hasRadius() {
+        return lat != null && lng != null && radiusKm != null;
+    }
+}
@@ -17,4 +17,14 @@ public class StationDetailsDTO {
     private double latitude;
     private double longitude;
     private List<ChargerDTO> chargers;
+
+    // Used by the JPQL projection, which fills in the station columns only
+    public StationDetailsDTO(Long id, String name, String address, String city, Double latitude, Double longitude) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.city = city;
+        this.latitude = latitude != null ? latitude : 0.0;
+        this.longitude = longitude != null ? longitude : 0.0;
+    }
 }
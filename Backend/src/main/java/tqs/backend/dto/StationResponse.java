@@ -0,0 +1,23 @@
+package tqs.backend.dto;
+
+import tqs.backend.model.Station;
+
+import java.util.List;
+
+// Immutable copy of a station and its chargers; the chargers must be loaded with the station
+public record StationResponse(
+        Long id,
+        String name,
+        String address,
+        String city,
+        Double latitude,
+        Double longitude,
+        List<ChargerResponse> chargers
+) {
+    public static StationResponse from(Station station) {
+        List<ChargerResponse> chargers = station.getChargers() == null ? List.of()
+                : station.getChargers().stream().map(ChargerResponse::from).toList();
+        return new StationResponse(station.getId(), station.getName(), station.getAddress(), station.getCity(),
+                station.getLatitude(), station.getLongitude(), chargers);
+    }
+}
@@ -0,0 +1,24 @@
+package tqs.backend.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class TripPlanRequest {
+    private Long clientId;
+    // Optional labels stored with the plan; coordinates are used when missing
+    private String startLocation;
+    private String destination;
+    private Double startLatitude;
+    private Double startLongitude;
+    private Double destinationLatitude;
+    private Double destinationLongitude;
+    // Percentage of a full battery
+    private Double batteryLevelStart;
+    private LocalDateTime departureTime;
+}
@@ -0,0 +1,25 @@
+package tqs.backend.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TripPlanResponse {
+    private Long id;
+    private Long clientId;
+    private String startLocation;
+    private String destination;
+    private Double batteryLevelStart;
+    private LocalDateTime departureTime;
+    private LocalDateTime estimatedArrival;
+    private Double totalDistanceKm;
+    // Battery percentage left at the destination
+    private Double arrivalBattery;
+    private List<TripPlanStopDTO> stops;
+}
@@ -0,0 +1,27 @@
+package tqs.backend.dto;
+
+import lombok.*;
+import tqs.backend.model.enums.ChargerType;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TripPlanStopDTO {
+    private Integer stopOrder;
+    private Long chargerId;
+    private ChargerType chargerType;
+    private Long stationId;
+    private String stationName;
+    private String city;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceFromPreviousKm;
+    private LocalDateTime estimatedArrival;
+    // Battery percentage on arrival, before charging
+    private Double estimatedBattery;
+    private Double chargingMinutes;
+}
@@ -0,0 +1,16 @@
+package tqs.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tqs.backend.model.Charger;
+
+@Getter
+@AllArgsConstructor
+public class ChargerChangedEvent {
+    private final Charger charger;
+    private final boolean removed;
+
+    public Long getStationId() {
+        return charger.getStation() != null ? charger.getStation().getId() : null;
+    }
+}
@@ -0,0 +1,33 @@
+package tqs.backend.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import tqs.backend.model.Charger;
+
+/**
+ * Publishes a {@link ChargerChangedEvent} for every charger write.
+ */
+@Component
+public class ChargerEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public ChargerEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Charger charger) {
+        publisher.publishEvent(new ChargerChangedEvent(charger, false));
+    }
+
+    @PostRemove
+    public void onRemove(Charger charger) {
+        publisher.publishEvent(new ChargerChangedEvent(charger, true));
+    }
+}
@@ -0,0 +1,12 @@
+package tqs.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tqs.backend.model.Discount;
+
+@Getter
+@AllArgsConstructor
+public class DiscountChangedEvent {
+    private final Discount discount;
+    private final boolean removed;
+}
@@ -0,0 +1,33 @@
+package tqs.backend.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import tqs.backend.model.Discount;
+
+/**
+ * Publishes a {@link DiscountChangedEvent} for every discount write.
+ */
+@Component
+public class DiscountEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public DiscountEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Discount discount) {
+        publisher.publishEvent(new DiscountChangedEvent(discount, false));
+    }
+
+    @PostRemove
+    public void onRemove(Discount discount) {
+        publisher.publishEvent(new DiscountChangedEvent(discount, true));
+    }
+}
@@ -0,0 +1,12 @@
+package tqs.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tqs.backend.model.Reservation;
+
+@Getter
+@AllArgsConstructor
+public class ReservationChangedEvent {
+    private final Reservation reservation;
+    private final boolean removed;
+}
@@ -0,0 +1,34 @@
+package tqs.backend.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import tqs.backend.model.Reservation;
+
+/**
+ * Publishes a {@link ReservationChangedEvent} for every reservation write, including writes made
+ * directly through the repository. Subscribers use @TransactionalEventListener to act after commit.
+ */
+@Component
+public class ReservationEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public ReservationEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Reservation reservation) {
+        publisher.publishEvent(new ReservationChangedEvent(reservation, false));
+    }
+
+    @PostRemove
+    public void onRemove(Reservation reservation) {
+        publisher.publishEvent(new ReservationChangedEvent(reservation, true));
+    }
+}
@@ -0,0 +1,12 @@
+package tqs.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tqs.backend.model.Station;
+
+@Getter
+@AllArgsConstructor
+public class StationChangedEvent {
+    private final Station station;
+    private final boolean removed;
+}
@@ -0,0 +1,33 @@
+package tqs.backend.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import tqs.backend.model.Station;
+
+/**
+ * Publishes a {@link StationChangedEvent} for every station write.
+ */
+@Component
+public class StationEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public StationEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Station station) {
+        publisher.publishEvent(new StationChangedEvent(station, false));
+    }
+
+    @PostRemove
+    public void onRemove(Station station) {
+        publisher.publishEvent(new StationChangedEvent(station, true));
+    }
+}
@@ -0,0 +1,7 @@
+package tqs.backend.exception;
+
+public class PaymentGatewayUnavailableException extends RuntimeException {
+    public PaymentGatewayUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package tqs.backend.model;
 
 import jakarta.persistence.*;
+import tqs.backend.event.ChargerEntityListener;
 import tqs.backend.model.enums.ChargerStatus;
 import tqs.backend.model.enums.ChargerType;
 
@@ -8,10 +9,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.ColumnDefault;
 
 import lombok.*;
 
 @Entity
+@Table(indexes = @Index(name = "idx_charger_station", columnList = "station_id"))
+@EntityListeners(ChargerEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +25,8 @@ import lombok.*;
 public class Charger {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "charger_seq")
+    @SequenceGenerator(name = "charger_seq", sequenceName = "charger_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -38,6 +44,21 @@ public class Charger {
     private LocalDateTime lastMaintenance;
     private String maintenanceNote;
 
+    // Bumped by every booking (see ReservationService) so concurrent bookings of one charger conflict on commit
+    @Version
+    @ColumnDefault("0")
+    @JsonIgnore
+    private Long version;
+
+    // Status the charger had before it stopped reporting and was set to MAINTENANCE; null otherwise
+    @Enumerated(EnumType.STRING)
+    @JsonIgnore
+    private ChargerStatus statusBeforeSilence;
+
+    // SHA-256 of the key the charger authenticates to the OCPP gateway with (see ChargerService#issueGatewayKey)
+    @JsonIgnore
+    private String gatewayKeyHash;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
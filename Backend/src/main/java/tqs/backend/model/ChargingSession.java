@@ -17,7 +17,8 @@ import lombok.*;
 public class ChargingSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "charging_session_seq")
+    @SequenceGenerator(name = "charging_session_seq", sequenceName = "charging_session_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -29,5 +30,10 @@ public class ChargingSession {
     private Double energyDeliveredKwh;
     private BigDecimal totalCost;
 
+    // Charger meter register at the first and latest reading received for the session
+    private Double meterStartWh;
+    private Double meterLastWh;
+    private LocalDateTime lastReadingAt;
+
     private boolean paid;
 }
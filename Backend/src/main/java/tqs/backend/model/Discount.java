@@ -1,11 +1,13 @@
 package tqs.backend.model;
 
 import jakarta.persistence.*;
+import tqs.backend.event.DiscountEntityListener;
 import tqs.backend.model.enums.ChargerType;
 
 import lombok.*;
 
 @Entity
+@EntityListeners(DiscountEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +17,8 @@ import lombok.*;
 public class Discount {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "discount_seq")
+    @SequenceGenerator(name = "discount_seq", sequenceName = "discount_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -6,8 +6,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import lombok.*;
 import com.fasterxml.jackson.annotation.*;
+import tqs.backend.event.ReservationEntityListener;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_reservation_charger_time", columnList = "charger_id, start_time, estimated_end_time"),
+        @Index(name = "idx_reservation_user", columnList = "user_id, id")
+})
+@EntityListeners(ReservationEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +22,8 @@ import com.fasterxml.jackson.annotation.*;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
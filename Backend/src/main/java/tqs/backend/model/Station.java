@@ -1,6 +1,7 @@
 package tqs.backend.model;
 
 import jakarta.persistence.*;
+import tqs.backend.event.StationEntityListener;
 
 import java.util.List;
 
@@ -13,6 +14,7 @@ import lombok.*;
         name = "station",
         uniqueConstraints = @UniqueConstraint(columnNames = {"latitude", "longitude"})
 )
+@EntityListeners(StationEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,7 +24,8 @@ import lombok.*;
 public class Station {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "station_seq")
+    @SequenceGenerator(name = "station_seq", sequenceName = "station_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -2,6 +2,7 @@ package tqs.backend.model;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import lombok.*;
@@ -16,7 +17,8 @@ import lombok.*;
 public class TripPlan {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_plan_seq")
+    @SequenceGenerator(name = "trip_plan_seq", sequenceName = "trip_plan_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -27,6 +29,12 @@ public class TripPlan {
 
     private Double batteryLevelStart;
 
+    private LocalDateTime departureTime;
+    private LocalDateTime estimatedArrival;
+    private Double totalDistanceKm;
+    private Double arrivalBattery;
+
     @OneToMany(mappedBy = "tripPlan", cascade = CascadeType.ALL)
+    @OrderBy("stopOrder")
     private List<TripPlanStop> stops;
 }
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class TripPlanStop {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_plan_stop_seq")
+    @SequenceGenerator(name = "trip_plan_stop_seq", sequenceName = "trip_plan_stop_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -24,6 +25,9 @@ public class TripPlanStop {
     @ManyToOne
     private Charger charger;
 
+    private Integer stopOrder;
     private LocalDateTime estimatedArrival;
     private Double estimatedBattery;
+    private Double distanceFromPreviousKm;
+    private Double chargingMinutes;
 }
@@ -1,15 +1,89 @@
 package tqs.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import tqs.backend.dto.ChargerDTO;
+import tqs.backend.dto.ChargerStatusCount;
+import tqs.backend.dto.RoutableCharger;
 import tqs.backend.model.Charger;
 import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.util.EntityStreams;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ChargerRepository extends JpaRepository<Charger, Long> {
     List<Charger> findByStationId(Long stationId);
     List<Charger> findByStatus(ChargerStatus status);
 
+    // Increments the charger's version when the transaction commits, even though the charger itself is unchanged
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT c FROM Charger c WHERE c.id = :id")
+    Optional<Charger> findForBooking(Long id);
+
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT c FROM Charger c WHERE c.id IN :ids")
+    List<Charger> findAllForBooking(Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new tqs.backend.dto.ChargerDTO(c.id, c.chargerType, c.status, c.pricePerKwh, s.id, s.name, s.city) " +
+           "FROM Charger c LEFT JOIN c.station s WHERE c.status = :status")
+    List<ChargerDTO> findDtosByStatus(ChargerStatus status);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new tqs.backend.dto.ChargerDTO(c.id, c.chargerType, c.status, c.pricePerKwh, s.id, s.name, s.city) " +
+           "FROM Charger c JOIN c.station s WHERE s.id = :stationId ORDER BY c.id")
+    List<ChargerDTO> findDtosByStationId(Long stationId);
+
+    @Query("SELECT c FROM Charger c LEFT JOIN FETCH c.station WHERE c.id > :after ORDER BY c.id")
+    List<Charger> findPageAfter(long after, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Charger c LEFT JOIN FETCH c.station ORDER BY c.id")
+    Stream<Charger> streamAllOrderById();
+
+    @Transactional(readOnly = true)
+    @Query("SELECT c.id FROM Charger c WHERE c.statusBeforeSilence IS NOT NULL")
+    List<Long> findSilencedIds();
+
     long countByStatus(ChargerStatus status);
     long countByStationIdAndStatus(Long stationId, ChargerStatus status);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new tqs.backend.dto.ChargerStatusCount(c.station.id, c.status, COUNT(c)) FROM Charger c " +
+           "GROUP BY c.station.id, c.status")
+    List<ChargerStatusCount> countGroupedByStationAndStatus();
+
+    @Query("SELECT c FROM Charger c JOIN FETCH c.station s WHERE c.chargerType = :type ORDER BY s.id, c.id")
+    List<Charger> findWithStationByChargerType(ChargerType type);
+
+    @Query("SELECT c FROM Charger c LEFT JOIN FETCH c.station WHERE c.id IN :ids")
+    List<Charger> findWithStationByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c FROM Charger c JOIN FETCH c.station s " +
+           "WHERE c.chargerType IN :types " +
+           "AND s.latitude BETWEEN :minLat AND :maxLat " +
+           "AND s.longitude BETWEEN :minLng AND :maxLng")
+    List<Charger> findWithStationByTypeInArea(Collection<ChargerType> types,
+                                              double minLat, double maxLat,
+                                              double minLng, double maxLng);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new tqs.backend.dto.RoutableCharger(s.id, s.latitude, s.longitude, c.id, c.chargerType) " +
+           "FROM Charger c JOIN c.station s WHERE c.status IN :statuses " +
+           "AND s.latitude IS NOT NULL AND s.longitude IS NOT NULL")
+    List<RoutableCharger> findRoutable(Collection<ChargerStatus> statuses);
 }
@@ -0,0 +1,9 @@
+package tqs.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tqs.backend.model.ChargingSession;
+
+@Repository
+public interface ChargingSessionRepository extends JpaRepository<ChargingSession, Long> {
+}
@@ -1,11 +1,18 @@
 package tqs.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import tqs.backend.model.Discount;
 import tqs.backend.model.enums.ChargerType;
+import tqs.backend.util.EntityStreams;
 import java.util.*;
+import java.util.stream.Stream;
 
 @Repository
 public interface DiscountRepository extends JpaRepository<Discount, Long> {
@@ -13,5 +20,19 @@ public interface DiscountRepository extends JpaRepository<Discount, Long> {
     List<Discount> findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerType(
         int dayOfWeek, int startHour, int endHour, ChargerType chargerType
     );
+
+    List<Discount> findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerTypeIn(
+        int dayOfWeek, int startHour, int endHour, Collection<ChargerType> chargerTypes
+    );
+
+    @Query("SELECT d FROM Discount d LEFT JOIN FETCH d.station WHERE d.id > :after ORDER BY d.id")
+    List<Discount> findPageAfter(long after, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Discount d LEFT JOIN FETCH d.station ORDER BY d.id")
+    Stream<Discount> streamAllOrderById();
 }
 
@@ -1,19 +1,84 @@
 package tqs.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import tqs.backend.dto.ReservationInterval;
+import tqs.backend.dto.ReservationStatusCount;
 import tqs.backend.model.Reservation;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.model.enums.ReservationStatus;
+import tqs.backend.util.EntityStreams;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
-    boolean existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeBefore(Long chargerId, LocalDateTime startTime, LocalDateTime endTime);
+    // Busy checks count ACTIVE reservations only, the ones ReservationIntervalIndex holds, so both give the same answer
+    boolean existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(Long chargerId, ReservationStatus status,
+                                                                                  LocalDateTime startTime, LocalDateTime endTime);
     
     @Query("SELECT r FROM Reservation r JOIN FETCH r.charger c JOIN FETCH c.station WHERE r.user.id = :userId")
     List<Reservation> findByUserId(Long userId);
 
-    List<Reservation> findByStartTimeLessThanEqualAndEstimatedEndTimeAfter(LocalDateTime startTime, LocalDateTime endTime);
+    @Query("SELECT DISTINCT r.charger.id FROM Reservation r " +
+           "WHERE r.charger.station.id = :stationId " +
+           "AND r.status = tqs.backend.model.enums.ReservationStatus.ACTIVE " +
+           "AND r.startTime < :end AND r.estimatedEndTime > :start")
+    Set<Long> findBusyChargerIdsByStationBetween(Long stationId, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT DISTINCT r.charger.id FROM Reservation r " +
+           "WHERE r.charger.chargerType IN :types " +
+           "AND r.status = tqs.backend.model.enums.ReservationStatus.ACTIVE " +
+           "AND r.startTime <= :datetime AND r.estimatedEndTime > :datetime")
+    Set<Long> findBusyChargerIdsAt(Collection<ChargerType> types, LocalDateTime datetime);
+
+    @Query("SELECT DISTINCT r.charger.id FROM Reservation r " +
+           "WHERE r.charger.chargerType = :type " +
+           "AND r.status = tqs.backend.model.enums.ReservationStatus.ACTIVE " +
+           "AND r.estimatedEndTime > :start AND r.startTime <= :end")
+    Set<Long> findBusyChargerIdsBetween(ChargerType type, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new tqs.backend.dto.ReservationInterval(r.id, r.charger.id, r.startTime, r.estimatedEndTime) " +
+           "FROM Reservation r WHERE r.status = :status")
+    List<ReservationInterval> findIntervalsByStatus(ReservationStatus status);
+
+    @Query("SELECT new tqs.backend.dto.ReservationInterval(r.id, r.charger.id, r.startTime, r.estimatedEndTime) " +
+           "FROM Reservation r WHERE r.charger.id IN :chargerIds " +
+           "AND r.status = tqs.backend.model.enums.ReservationStatus.ACTIVE " +
+           "AND r.estimatedEndTime > :start AND r.startTime < :end")
+    List<ReservationInterval> findIntervalsForChargersBetween(Collection<Long> chargerIds, LocalDateTime start,
+                                                              LocalDateTime end);
+
+    @Query("SELECT new tqs.backend.dto.ReservationStatusCount(r.status, COUNT(r)) FROM Reservation r " +
+           "WHERE r.user.id = :userId GROUP BY r.status")
+    List<ReservationStatusCount> countByStatusForUser(Long userId);
+
+    @Query("SELECT r FROM Reservation r LEFT JOIN FETCH r.charger c LEFT JOIN FETCH c.station " +
+           "LEFT JOIN FETCH r.chargingSession WHERE r.user.id = :userId AND r.id > :after ORDER BY r.id")
+    List<Reservation> findPageByUserIdAfter(Long userId, long after, Limit limit);
+
+    // The user and the charger's station are eager, so they are fetched here too rather than one select per row
+    @Query("SELECT r FROM Reservation r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.charger c LEFT JOIN FETCH c.station " +
+           "LEFT JOIN FETCH r.chargingSession WHERE r.id > :after ORDER BY r.id")
+    List<Reservation> findPageAfter(long after, Limit limit);
+
+    @Query("SELECT r FROM Reservation r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.charger c LEFT JOIN FETCH c.station " +
+           "LEFT JOIN FETCH r.chargingSession WHERE r.id IN :ids")
+    List<Reservation> findWithSessionByIdIn(Collection<Long> ids);
 
-    boolean existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeLessThanEqual(Long chargerId, LocalDateTime startTime, LocalDateTime endTime);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reservation r LEFT JOIN FETCH r.user LEFT JOIN FETCH r.charger c LEFT JOIN FETCH c.station " +
+           "LEFT JOIN FETCH r.chargingSession ORDER BY r.id")
+    Stream<Reservation> streamAllOrderById();
 }
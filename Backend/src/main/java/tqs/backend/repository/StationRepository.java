@@ -1,10 +1,46 @@
 package tqs.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import tqs.backend.dto.StationDTO;
+import tqs.backend.dto.StationDetailsDTO;
 import tqs.backend.model.Station;
+import tqs.backend.util.EntityStreams;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StationRepository extends JpaRepository<Station, Long> {
     Optional<Station> findByLatitudeAndLongitude(Double latitude, Double longitude);
     Optional<Station> findByName(String name); 
+
+    @Query("SELECT s FROM Station s LEFT JOIN FETCH s.chargers WHERE s.id = :id")
+    Optional<Station> findWithChargersById(Long id);
+
+    @Query("SELECT DISTINCT s FROM Station s LEFT JOIN FETCH s.chargers")
+    List<Station> findAllWithChargers();
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new tqs.backend.dto.StationDTO(s.id, s.name, s.city, s.latitude, s.longitude) FROM Station s")
+    List<StationDTO> findAllSummaries();
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new tqs.backend.dto.StationDTO(s.id, s.name, s.city, s.latitude, s.longitude) " +
+           "FROM Station s WHERE s.id > :after ORDER BY s.id")
+    List<StationDTO> findSummariesAfter(long after, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE))
+    @Query("SELECT new tqs.backend.dto.StationDTO(s.id, s.name, s.city, s.latitude, s.longitude) " +
+           "FROM Station s ORDER BY s.id")
+    Stream<StationDTO> streamSummaries();
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new tqs.backend.dto.StationDetailsDTO(s.id, s.name, s.address, s.city, s.latitude, s.longitude) " +
+           "FROM Station s WHERE s.id = :id")
+    Optional<StationDetailsDTO> findDetailsById(Long id);
 }
@@ -0,0 +1,19 @@
+package tqs.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import tqs.backend.model.TripPlan;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TripPlanRepository extends JpaRepository<TripPlan, Long> {
+
+    @Query("SELECT DISTINCT t FROM TripPlan t LEFT JOIN FETCH t.user LEFT JOIN FETCH t.stops s " +
+           "LEFT JOIN FETCH s.charger c LEFT JOIN FETCH c.station WHERE t.id = :id")
+    Optional<TripPlan> findWithStopsById(Long id);
+
+    @Query("SELECT DISTINCT t FROM TripPlan t LEFT JOIN FETCH t.stops s LEFT JOIN FETCH s.charger c " +
+           "LEFT JOIN FETCH c.station WHERE t.user.id = :clientId ORDER BY t.id DESC")
+    List<TripPlan> findWithStopsByUserId(Long clientId);
+}
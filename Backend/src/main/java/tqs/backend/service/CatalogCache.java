@@ -0,0 +1,145 @@
+package tqs.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.event.StationChangedEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded LRU cache for station and charger catalog reads.
+ * Services invalidate it on their own writes; entity change events cover writes made elsewhere.
+ * Values are shared by every request and outlive the session that loaded them, so they must be immutable DTOs
+ * built inside the loader, never entities.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String ALL_STATIONS = "stations:all";
+    private static final String STATION_SUMMARIES = "stations:summaries";
+
+    private final int maxEntries;
+    private final Map<String, Object> entries;
+
+    // Bumped on every invalidation so a load that raced with a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public CatalogCache(@Value("${catalog.cache.max-entries:1000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                if (size() > CatalogCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static String allStationsKey() {
+        return ALL_STATIONS;
+    }
+
+    public static String stationSummariesKey() {
+        return STATION_SUMMARIES;
+    }
+
+    public static String stationKey(Long stationId) {
+        return "station:" + stationId;
+    }
+
+    public static String stationChargersKey(Long stationId) {
+        return "station:" + stationId + ":chargers";
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        synchronized (entries) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return (T) cached;
+            }
+        }
+        misses.increment();
+
+        long loadedAt = generation.get();
+        T loaded = loader.get();
+        if (loaded != null) {
+            synchronized (entries) {
+                if (generation.get() == loadedAt) {
+                    entries.put(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops everything derived from the station: its entry, its charger list and the station lists.
+     */
+    public void invalidateStation(Long stationId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(ALL_STATIONS);
+            entries.remove(STATION_SUMMARIES);
+            if (stationId != null) {
+                entries.remove(stationKey(stationId));
+                entries.remove(stationChargersKey(stationId));
+            }
+        }
+        invalidations.increment();
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        invalidateStation(event.getStation().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChargerChanged(ChargerChangedEvent event) {
+        invalidateStation(event.getStationId());
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,389 @@
+package tqs.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import tqs.backend.dto.CatalogImportEvent;
+import tqs.backend.dto.CatalogImportRow;
+import tqs.backend.dto.StationDTO;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.StationRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Loads stations and chargers from a CSV or NDJSON stream, applying the same rules as creating them one at a time:
+ * one station per coordinates, chargers belong to an existing station.
+ * The input is read line by line and written in batches of catalog.import.batch-size rows, one transaction each;
+ * duplicates are detected against the coordinates of every station known at the start plus those imported so far.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+
+    public enum Format { CSV, NDJSON }
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "name", "address", "city", "latitude", "longitude", "chargerType", "status", "pricePerKwh");
+
+    private final StationRepository stationRepository;
+    private final ChargerRepository chargerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ChargerStatusCounters statusCounters;
+    private final int batchSize;
+
+    public CatalogImportService(StationRepository stationRepository,
+                                ChargerRepository chargerRepository,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                ChargerStatusCounters statusCounters,
+                                @Value("${catalog.import.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("catalog.import.batch-size must be positive");
+        }
+        this.stationRepository = stationRepository;
+        this.chargerRepository = chargerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.statusCounters = statusCounters;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports every line of the input, sending an ERROR event for each rejected line and a PROGRESS event after each
+     * committed batch. Returns the final totals, which are also sent as the DONE event.
+     */
+    public CatalogImportEvent importCatalog(Reader input, Format format, Consumer<CatalogImportEvent> events) {
+        Run run = new Run(events);
+        try (BufferedReader reader = new BufferedReader(input)) {
+            Map<String, Integer> columns = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    try {
+                        columns = csvHeader(line);
+                        continue;
+                    } catch (IllegalArgumentException e) {
+                        // Without a usable header no row can be read
+                        run.reject(lineNumber, e.getMessage());
+                        break;
+                    }
+                }
+                run.rowsRead++;
+                try {
+                    CatalogImportRow row = format == Format.CSV ? csvRow(line, columns) : ndjsonRow(line);
+                    run.accept(lineNumber, row);
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, e.getMessage());
+                }
+                if (run.pendingRows() >= batchSize) {
+                    run.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        run.flush();
+
+        CatalogImportEvent done = run.totals(CatalogImportEvent.Type.DONE);
+        events.accept(done);
+        logger.info("Catalog import read {} rows: {} stations, {} chargers, {} errors",
+                done.getRowsRead(), done.getStationsCreated(), done.getChargersCreated(), done.getErrors());
+        return done;
+    }
+
+    private static Map<String, Integer> csvHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            for (String column : CSV_COLUMNS) {
+                if (column.equalsIgnoreCase(name)) {
+                    columns.putIfAbsent(column, i);
+                }
+            }
+        }
+        for (String required : List.of("name", "address", "city", "latitude", "longitude")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the " + required + " column");
+            }
+        }
+        return columns;
+    }
+
+    private static CatalogImportRow csvRow(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        return CatalogImportRow.builder()
+                .name(csvValue(values, columns, "name"))
+                .address(csvValue(values, columns, "address"))
+                .city(csvValue(values, columns, "city"))
+                .latitude(parseDouble(csvValue(values, columns, "latitude"), "latitude"))
+                .longitude(parseDouble(csvValue(values, columns, "longitude"), "longitude"))
+                .chargerType(csvValue(values, columns, "chargerType"))
+                .status(csvValue(values, columns, "status"))
+                .pricePerKwh(parseDecimal(csvValue(values, columns, "pricePerKwh")))
+                .build();
+    }
+
+    private CatalogImportRow ndjsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, CatalogImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and "" as an escaped quote inside them.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Double parseDouble(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid pricePerKwh: " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String column) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Coordinates {
+        private final double latitude;
+        private final double longitude;
+    }
+
+    @RequiredArgsConstructor
+    private static final class PendingCharger {
+        private final long line;
+        private final Charger charger;
+        private final Coordinates coordinates;
+    }
+
+    /**
+     * State of one import: the coordinates known so far and the rows waiting for the next batch.
+     */
+    private final class Run {
+
+        private final Consumer<CatalogImportEvent> events;
+        private final Map<Coordinates, Long> stationIds = new HashMap<>();
+        private final Map<Coordinates, Station> pendingStations = new LinkedHashMap<>();
+        private final Map<Coordinates, Long> pendingStationLines = new HashMap<>();
+        private final List<PendingCharger> pendingChargers = new ArrayList<>();
+
+        private long rowsRead;
+        private long stationsCreated;
+        private long chargersCreated;
+        private long errors;
+
+        Run(Consumer<CatalogImportEvent> events) {
+            this.events = events;
+            for (StationDTO station : stationRepository.findAllSummaries()) {
+                if (station.getLatitude() != null && station.getLongitude() != null) {
+                    stationIds.put(new Coordinates(station.getLatitude(), station.getLongitude()), station.getId());
+                }
+            }
+        }
+
+        int pendingRows() {
+            return pendingStations.size() + pendingChargers.size();
+        }
+
+        void accept(long line, CatalogImportRow row) {
+            requireText(row.getName(), "Name is required");
+            requireText(row.getAddress(), "Address is required");
+            requireText(row.getCity(), "City is required");
+            if (row.getLatitude() == null) {
+                throw new IllegalArgumentException("Latitude is required");
+            }
+            if (row.getLongitude() == null) {
+                throw new IllegalArgumentException("Longitude is required");
+            }
+            if (Math.abs(row.getLatitude()) > 90 || Math.abs(row.getLongitude()) > 180) {
+                throw new IllegalArgumentException("Coordinates out of range");
+            }
+            Coordinates coordinates = new Coordinates(row.getLatitude(), row.getLongitude());
+            boolean known = stationIds.containsKey(coordinates) || pendingStations.containsKey(coordinates);
+
+            if (row.getChargerType() == null || row.getChargerType().isBlank()) {
+                if (known) {
+                    throw new IllegalArgumentException("Station already exists at this location");
+                }
+                addStation(line, coordinates, row);
+                return;
+            }
+
+            ChargerType type = parseEnum(ChargerType.class, row.getChargerType(), "chargerType");
+            ChargerStatus status = row.getStatus() == null || row.getStatus().isBlank()
+                    ? ChargerStatus.AVAILABLE
+                    : parseEnum(ChargerStatus.class, row.getStatus(), "status");
+            if (row.getPricePerKwh() != null && row.getPricePerKwh().signum() < 0) {
+                throw new IllegalArgumentException("Price per kWh cannot be negative");
+            }
+            if (!known) {
+                addStation(line, coordinates, row);
+            }
+            pendingChargers.add(new PendingCharger(line, Charger.builder()
+                    .chargerType(type)
+                    .status(status)
+                    .pricePerKwh(row.getPricePerKwh())
+                    .build(), coordinates));
+        }
+
+        private void addStation(long line, Coordinates coordinates, CatalogImportRow row) {
+            pendingStations.put(coordinates, Station.builder()
+                    .name(row.getName().trim())
+                    .address(row.getAddress().trim())
+                    .city(row.getCity().trim())
+                    .latitude(row.getLatitude())
+                    .longitude(row.getLongitude())
+                    .build());
+            pendingStationLines.put(coordinates, line);
+        }
+
+        void flush() {
+            if (pendingRows() == 0) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    stationRepository.saveAll(pendingStations.values());
+                    List<Charger> chargers = new ArrayList<>(pendingChargers.size());
+                    for (PendingCharger pending : pendingChargers) {
+                        Station station = pendingStations.get(pending.coordinates);
+                        pending.charger.setStation(station != null
+                                ? station
+                                : stationRepository.getReferenceById(stationIds.get(pending.coordinates)));
+                        chargers.add(pending.charger);
+                    }
+                    chargerRepository.saveAll(chargers);
+                    chargers.forEach(charger -> statusCounters.added(charger.getStation().getId(), charger.getStatus()));
+                });
+                pendingStations.forEach((coordinates, station) -> stationIds.put(coordinates, station.getId()));
+                stationsCreated += pendingStations.size();
+                chargersCreated += pendingChargers.size();
+            } catch (RuntimeException e) {
+                // The whole batch rolled back: report its rows and forget its stations, so later rows recreate them
+                logger.warn("Catalog import batch failed: {}", e.getMessage());
+                String message = "Batch failed: " + e.getMessage();
+                pendingStationLines.values().forEach(line -> reject(line, message));
+                pendingChargers.forEach(pending -> reject(pending.line, message));
+            }
+            pendingStations.clear();
+            pendingStationLines.clear();
+            pendingChargers.clear();
+            events.accept(totals(CatalogImportEvent.Type.PROGRESS));
+        }
+
+        void reject(long line, String message) {
+            errors++;
+            events.accept(CatalogImportEvent.builder()
+                    .type(CatalogImportEvent.Type.ERROR)
+                    .line(line)
+                    .message(message)
+                    .build());
+        }
+
+        CatalogImportEvent totals(CatalogImportEvent.Type type) {
+            return CatalogImportEvent.builder()
+                    .type(type)
+                    .rowsRead(rowsRead)
+                    .stationsCreated(stationsCreated)
+                    .chargersCreated(chargersCreated)
+                    .errors(errors)
+                    .build();
+        }
+
+        private void requireText(String value, String message) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package tqs.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tqs.backend.dto.MeterValue;
+import tqs.backend.dto.MeterValuesRequest;
+import tqs.backend.model.enums.ChargerStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Charger side of the OCPP-J gateway: the chargers connected right now, by charger id, and the handling of the
+ * calls they send (BootNotification, Heartbeat, StatusNotification, MeterValues). Transport-agnostic; the WebSocket endpoint
+ * hands over each text frame and sends back the reply.
+ * A connection holds no thread, only the charger id and a way to reply. Chargers authenticate with HTTP basic auth
+ * on the upgrade request before they get here (see ChargerGatewayConfig).
+ */
+@Service
+public class ChargerGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargerGateway.class);
+
+    // OCPP-J message type ids
+    static final int CALL = 2;
+    static final int CALL_RESULT = 3;
+    static final int CALL_ERROR = 4;
+
+    static final String ENERGY_REGISTER = "Energy.Active.Import.Register";
+
+    /**
+     * Where replies go and how to drop the charger.
+     */
+    public interface Link {
+        void send(String message);
+
+        void close(String reason);
+    }
+
+    public static final class Connection {
+        private final long chargerId;
+        private final Link link;
+        private volatile long lastMessageAt;
+
+        private Connection(long chargerId, Link link) {
+            this.chargerId = chargerId;
+            this.link = link;
+        }
+
+        public long getChargerId() {
+            return chargerId;
+        }
+
+        public long getLastMessageAt() {
+            return lastMessageAt;
+        }
+    }
+
+    private final ChargerService chargerService;
+    private final ChargerLivenessTracker livenessTracker;
+    private final TelemetryService telemetryService;
+    private final ObjectMapper objectMapper;
+    private final int heartbeatIntervalSeconds;
+
+    private final Map<Long, Connection> connections = new ConcurrentHashMap<>();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder refusedConnections = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder statusChanges = new LongAdder();
+    private final LongAdder meterReadings = new LongAdder();
+    private final LongAdder callErrors = new LongAdder();
+
+    public ChargerGateway(ChargerService chargerService, ChargerLivenessTracker livenessTracker,
+                          TelemetryService telemetryService, ObjectMapper objectMapper,
+                          @Value("${charger.gateway.heartbeat-interval-s:300}") int heartbeatIntervalSeconds) {
+        this.chargerService = chargerService;
+        this.livenessTracker = livenessTracker;
+        this.telemetryService = telemetryService;
+        this.objectMapper = objectMapper;
+        this.heartbeatIntervalSeconds = heartbeatIntervalSeconds;
+    }
+
+    /**
+     * Registers a charger that just connected, replacing an older connection of the same charger. Returns null
+     * when no such charger exists.
+     */
+    public Connection connect(long chargerId, Link link) {
+        if (!chargerService.chargerExists(chargerId)) {
+            refusedConnections.increment();
+            return null;
+        }
+        Connection connection = new Connection(chargerId, link);
+        connection.lastMessageAt = System.currentTimeMillis();
+        Connection previous = connections.put(chargerId, connection);
+        if (previous != null) {
+            previous.link.close("Replaced by a new connection");
+        }
+        connects.increment();
+        livenessTracker.heartbeat(chargerId);
+        return connection;
+    }
+
+    public void disconnect(Connection connection) {
+        connections.remove(connection.chargerId, connection);
+    }
+
+    public boolean isConnected(long chargerId) {
+        return connections.containsKey(chargerId);
+    }
+
+    /**
+     * Handles one message from the charger and returns the reply to send, or null when none is due.
+     */
+    public String handle(Connection connection, String message) {
+        messages.increment();
+        connection.lastMessageAt = System.currentTimeMillis();
+        // Any message shows the charger is alive, not only Heartbeat
+        livenessTracker.heartbeat(connection.chargerId);
+        JsonNode frame;
+        try {
+            frame = objectMapper.readTree(message);
+        } catch (JsonProcessingException e) {
+            // Without a message id there is nothing to answer
+            callErrors.increment();
+            return null;
+        }
+        if (frame == null || !frame.isArray() || frame.size() < 3 || !frame.get(1).isTextual()) {
+            callErrors.increment();
+            return null;
+        }
+        String messageId = frame.get(1).asText();
+        if (frame.get(0).asInt() != CALL) {
+            // Results of calls to the charger; the gateway sends none yet
+            return null;
+        }
+        if (frame.size() < 4 || !frame.get(3).isObject()) {
+            return error(messageId, "FormationViolation", "A call needs an action and a payload");
+        }
+        String action = frame.get(2).asText();
+        JsonNode payload = frame.get(3);
+        try {
+            return switch (action) {
+                case "BootNotification" -> result(messageId, objectMapper.createObjectNode()
+                        .put("status", "Accepted")
+                        .put("currentTime", Instant.now().toString())
+                        .put("interval", heartbeatIntervalSeconds));
+                case "Heartbeat" -> result(messageId, objectMapper.createObjectNode()
+                        .put("currentTime", Instant.now().toString()));
+                case "StatusNotification" -> statusNotification(connection, messageId, payload);
+                case "MeterValues" -> meterValues(connection, messageId, payload);
+                default -> error(messageId, "NotImplemented", "Unsupported action " + action);
+            };
+        } catch (RuntimeException e) {
+            logger.warn("Charger {} {} failed: {}", connection.chargerId, action, e.getMessage());
+            return error(messageId, "InternalError", String.valueOf(e.getMessage()));
+        }
+    }
+
+    private String statusNotification(Connection connection, String messageId, JsonNode payload) {
+        String reported = payload.path("status").asText(null);
+        if (reported == null) {
+            return error(messageId, "PropertyConstraintViolation", "status is required");
+        }
+        ChargerStatus status = toChargerStatus(reported);
+        if (status == null) {
+            return error(messageId, "PropertyConstraintViolation", "Unknown status " + reported);
+        }
+        // Compared against the stored status, not the last report, so a report repeated after an operator change
+        // is applied again; an unchanged one is not written
+        String note = null;
+        if (status == ChargerStatus.MAINTENANCE) {
+            String errorCode = payload.path("errorCode").asText("NoError");
+            note = "NoError".equals(errorCode) ? "Reported by charger: " + reported
+                    : "Reported by charger: " + reported + " (" + errorCode + ")";
+        }
+        if (chargerService.applyReportedStatus(connection.chargerId, status, note)) {
+            statusChanges.increment();
+        }
+        return result(messageId, objectMapper.createObjectNode());
+    }
+
+    // The charger id is the one this connection authenticated as, never taken from the payload
+    private String meterValues(Connection connection, String messageId, JsonNode payload) {
+        JsonNode transactionId = payload.path("transactionId");
+        if (!transactionId.canConvertToLong()) {
+            // Readings outside a transaction belong to no session, there is nothing to bill
+            return result(messageId, objectMapper.createObjectNode());
+        }
+        List<MeterValue> values = new ArrayList<>();
+        try {
+            for (JsonNode meterValue : payload.path("meterValue")) {
+                Double energyWh = energyWh(meterValue.path("sampledValue"));
+                if (energyWh != null) {
+                    LocalDateTime timestamp = OffsetDateTime.parse(meterValue.path("timestamp").asText())
+                            .withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+                    values.add(new MeterValue(transactionId.asLong(), timestamp, energyWh));
+                }
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return error(messageId, "PropertyConstraintViolation", "Invalid meter value: " + e.getMessage());
+        }
+        if (values.isEmpty()) {
+            // Sampled other measurands only
+            return result(messageId, objectMapper.createObjectNode());
+        }
+        try {
+            meterReadings.add(telemetryService.ingest(new MeterValuesRequest(connection.chargerId, values)));
+        } catch (IllegalArgumentException e) {
+            return error(messageId, "PropertyConstraintViolation", e.getMessage());
+        }
+        return result(messageId, objectMapper.createObjectNode());
+    }
+
+    // The energy register in Wh, or null when this meter value does not sample it
+    private static Double energyWh(JsonNode sampledValues) {
+        for (JsonNode sampled : sampledValues) {
+            if (ENERGY_REGISTER.equals(sampled.path("measurand").asText(ENERGY_REGISTER))) {
+                double value = Double.parseDouble(sampled.path("value").asText());
+                return "kWh".equals(sampled.path("unit").asText("Wh")) ? value * 1000 : value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * OCPP 1.6 ChargePointStatus to ChargerStatus. Reserved chargers stay AVAILABLE here, reservations are
+     * tracked by the backend itself.
+     */
+    static ChargerStatus toChargerStatus(String ocppStatus) {
+        return switch (ocppStatus) {
+            case "Available", "Reserved" -> ChargerStatus.AVAILABLE;
+            case "Preparing", "Charging", "SuspendedEV", "SuspendedEVSE", "Finishing" -> ChargerStatus.IN_USE;
+            case "Unavailable", "Faulted" -> ChargerStatus.MAINTENANCE;
+            default -> null;
+        };
+    }
+
+    private String result(String messageId, ObjectNode payload) {
+        ArrayNode frame = objectMapper.createArrayNode().add(CALL_RESULT).add(messageId);
+        frame.add(payload);
+        return frame.toString();
+    }
+
+    private String error(String messageId, String code, String description) {
+        callErrors.increment();
+        ArrayNode frame = objectMapper.createArrayNode().add(CALL_ERROR).add(messageId).add(code).add(description);
+        frame.addObject();
+        return frame.toString();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connected", connections.size());
+        stats.put("connects", connects.sum());
+        stats.put("refusedConnections", refusedConnections.sum());
+        stats.put("messages", messages.sum());
+        stats.put("statusChanges", statusChanges.sum());
+        stats.put("meterReadings", meterReadings.sum());
+        stats.put("callErrors", callErrors.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,264 @@
+package tqs.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.util.HashedTimingWheel;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Notices chargers that stopped talking to the gateway and sets them to MAINTENANCE until they are heard from
+ * again, when they get back the status they had.
+ * A heartbeat only stores the time on the charger's entry. Entries sit in a {@link HashedTimingWheel} at the time
+ * they would go stale and are looked at again only when the tracker thread reaches their slot: an entry heard from
+ * meanwhile is moved to its new deadline, any other is dropped and its charger marked through
+ * {@link ChargerService}, the chargers of a tick in batches. The status to give back is stored with the charger, so a
+ * charger silenced before a restart is restored when it is heard from after it.
+ * Only chargers heard from since startup are tracked, and a deleted charger is forgotten.
+ */
+@Service
+public class ChargerLivenessTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargerLivenessTracker.class);
+
+    private static final class Entry {
+        private final long chargerId;
+        private volatile long lastSeenMs;
+
+        private Entry(long chargerId, long lastSeenMs) {
+            this.chargerId = chargerId;
+            this.lastSeenMs = lastSeenMs;
+        }
+    }
+
+    private final ChargerService chargerService;
+    private final long timeoutMs;
+    private final long tickMs;
+    private final LongSupplier clock;
+    private final String staleNote;
+
+    // Chargers heard from in the last timeout
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Chargers set to MAINTENANCE here and not heard from since
+    private final Set<Long> silenced = ConcurrentHashMap.newKeySet();
+    private final Queue<Entry> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> revived = new ConcurrentLinkedQueue<>();
+    // Tracker thread only
+    private final HashedTimingWheel<Entry> wheel;
+
+    private final LongAdder heartbeats = new LongAdder();
+    private final LongAdder markedStale = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+    private volatile long lastTickMs;
+
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public ChargerLivenessTracker(ChargerService chargerService,
+                                 @Value("${charger.liveness.timeout-ms:720000}") long timeoutMs,
+                                 @Value("${charger.liveness.tick-ms:1000}") long tickMs,
+                                 @Value("${charger.liveness.wheel-size:1024}") int wheelSize) {
+        this(chargerService, timeoutMs, tickMs, wheelSize, System::currentTimeMillis);
+    }
+
+    public ChargerLivenessTracker(ChargerService chargerService, long timeoutMs, long tickMs, int wheelSize,
+                                  LongSupplier clock) {
+        this.chargerService = chargerService;
+        this.timeoutMs = timeoutMs;
+        this.tickMs = tickMs;
+        this.clock = clock;
+        this.staleNote = "No heartbeat for more than " + TimeUnit.MILLISECONDS.toSeconds(timeoutMs) + " s";
+        this.wheel = new HashedTimingWheel<>(tickMs, wheelSize, clock.getAsLong());
+    }
+
+    @PostConstruct
+    public void start() {
+        // Before the gateway accepts connections, so a charger silenced before the restart is restored when it reports
+        silenced.addAll(chargerService.getSilencedChargerIds());
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("charger-liveness-");
+        threads.setDaemon(true);
+        ticker = Executors.newSingleThreadScheduledExecutor(threads);
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                logger.error("Charger liveness tick failed: {}", e.getMessage(), e);
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Records that the charger was just heard from.
+     */
+    public void heartbeat(long chargerId) {
+        heartbeats.increment();
+        long now = clock.getAsLong();
+        Entry entry = entries.get(chargerId);
+        if (entry == null) {
+            Entry created = new Entry(chargerId, now);
+            entry = entries.putIfAbsent(chargerId, created);
+            if (entry == null) {
+                added.add(created);
+                if (silenced.remove(chargerId)) {
+                    revived.add(chargerId);
+                }
+                return;
+            }
+        }
+        entry.lastSeenMs = now;
+    }
+
+    /**
+     * Advances the wheel to now, marks the chargers that went silent and restores the ones heard from again.
+     * Runs on the tracker thread once started; never call it from two threads.
+     */
+    public void tick() {
+        long t0 = System.nanoTime();
+        long now = clock.getAsLong();
+        Entry entry;
+        while ((entry = added.poll()) != null) {
+            wheel.schedule(entry, entry.lastSeenMs + timeoutMs);
+        }
+
+        List<Entry> expired = new ArrayList<>();
+        wheel.advance(now, e -> {
+            if (entries.get(e.chargerId) != e) {
+                // Forgotten, or dropped and heard from again under a new entry
+                return;
+            }
+            long due = e.lastSeenMs + timeoutMs;
+            if (due > now) {
+                wheel.schedule(e, due);
+            } else {
+                expired.add(e);
+            }
+        });
+        markStale(expired, now);
+
+        List<Long> back = new ArrayList<>();
+        Long chargerId;
+        while ((chargerId = revived.poll()) != null) {
+            back.add(chargerId);
+        }
+        for (Long id : back) {
+            restore(id);
+        }
+        lastTickMs = (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    private void markStale(List<Entry> expired, long now) {
+        List<Entry> dropped = new ArrayList<>(expired.size());
+        for (Entry entry : expired) {
+            long id = entry.chargerId;
+            // Silenced before the entry goes, so that a heartbeat creating a new entry meanwhile queues a restore
+            silenced.add(id);
+            if (!entries.remove(id, entry)) {
+                // Deleted meanwhile
+                silenced.remove(id);
+            } else if (entry.lastSeenMs + timeoutMs > now) {
+                // Heard from while it was being dropped
+                keep(entry, entry.lastSeenMs + timeoutMs);
+            } else {
+                dropped.add(entry);
+            }
+        }
+        if (dropped.isEmpty()) {
+            return;
+        }
+        Map<Long, Boolean> settled;
+        try {
+            settled = chargerService.markUnresponsive(dropped.stream().map(e -> e.chargerId).toList(), staleNote);
+        } catch (RuntimeException ex) {
+            logger.warn("Could not mark {} silent chargers, retrying: {}", dropped.size(), ex.getMessage());
+            settled = Map.of();
+        }
+        int marked = 0;
+        for (Entry entry : dropped) {
+            Boolean changed = settled.get(entry.chargerId);
+            if (changed == null) {
+                keep(entry, now + tickMs);
+            } else if (changed) {
+                marked++;
+            } else {
+                // Already in maintenance or deleted: nothing to restore
+                silenced.remove(entry.chargerId);
+            }
+        }
+        markedStale.add(marked);
+        if (marked > 0) {
+            logger.info("{} chargers silent for {} ms, set to MAINTENANCE", marked, timeoutMs);
+        }
+        if (settled.size() < dropped.size() && !settled.isEmpty()) {
+            logger.warn("Could not mark {} silent chargers, retrying", dropped.size() - settled.size());
+        }
+    }
+
+    // Puts a dropped entry back, unless the charger was heard from under a new entry already
+    private void keep(Entry entry, long dueMs) {
+        if (silenced.remove(entry.chargerId) && entries.putIfAbsent(entry.chargerId, entry) == null) {
+            wheel.schedule(entry, dueMs);
+        }
+    }
+
+    private void restore(Long chargerId) {
+        try {
+            if (chargerService.restoreResponsive(chargerId)) {
+                restored.increment();
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Could not restore charger {}, retrying: {}", chargerId, ex.getMessage());
+            revived.add(chargerId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChargerChanged(ChargerChangedEvent event) {
+        if (event.isRemoved() && event.getCharger().getId() != null) {
+            entries.remove(event.getCharger().getId());
+            silenced.remove(event.getCharger().getId());
+        }
+    }
+
+    public boolean isLive(long chargerId) {
+        return entries.containsKey(chargerId);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("live", entries.size());
+        stats.put("stale", silenced.size());
+        stats.put("heartbeats", heartbeats.sum());
+        stats.put("markedStale", markedStale.sum());
+        stats.put("restored", restored.sum());
+        stats.put("timeoutMs", timeoutMs);
+        stats.put("lastTickMs", lastTickMs);
+        return stats;
+    }
+}
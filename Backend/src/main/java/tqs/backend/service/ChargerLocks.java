@@ -0,0 +1,70 @@
+package tqs.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks that chargers hash onto, so bookings of one charger run one at a time on this instance
+ * while bookings of other chargers proceed in parallel. Instances do not share these locks; the charger's
+ * version column is what keeps bookings from different instances apart.
+ */
+@Component
+public class ChargerLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public ChargerLocks(@Value("${booking.lock.stripes:256}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("booking.lock.stripes must be positive");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Long chargerId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(chargerId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Holds the locks of all the given chargers while the action runs. Stripes are taken in index order,
+     * so two batches sharing chargers cannot each hold a lock the other is waiting for.
+     */
+    public <T> T withLocks(Collection<Long> chargerIds, Supplier<T> action) {
+        int[] indexes = chargerIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            while (locked > 0) {
+                stripes[indexes[--locked]].unlock();
+            }
+        }
+    }
+
+    ReentrantLock stripeFor(Long chargerId) {
+        return stripes[stripeIndex(chargerId)];
+    }
+
+    private int stripeIndex(Long chargerId) {
+        int hash = chargerId != null ? Long.hashCode(chargerId) : 0;
+        // Spread the bits so consecutive ids do not cluster when the stripe count is a power of two
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, stripes.length);
+    }
+}
@@ -1,64 +1,301 @@
 package tqs.backend.service;
 
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tqs.backend.model.Charger;
 import tqs.backend.model.Station;
 import tqs.backend.model.enums.ChargerStatus;
 import tqs.backend.repository.ChargerRepository;
 import tqs.backend.repository.StationRepository;
 import tqs.backend.dto.ChargerDTO;
+import tqs.backend.dto.ChargerResponse;
+import tqs.backend.dto.ChargerStatsDTO;
+import tqs.backend.dto.KeysetPage;
+import tqs.backend.util.EntityStreams;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 public class ChargerService {
 
+    static final int MAX_STATUS_ATTEMPTS = 3;
+    static final int MARK_BATCH_SIZE = 200;
+    // 160 bits, within the 16 to 40 bytes OCPP allows for an AuthorizationKey
+    static final int GATEWAY_KEY_BYTES = 20;
+
     private final ChargerRepository chargerRepository;
     private final StationRepository stationRepository;
+    private final CatalogCache catalogCache;
+    private final EntityManager entityManager;
+    private final ChargerStatusCounters statusCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
 
-    public ChargerService(ChargerRepository chargerRepository, StationRepository stationRepository) {
+    public ChargerService(ChargerRepository chargerRepository, StationRepository stationRepository,
+                          CatalogCache catalogCache, EntityManager entityManager,
+                          ChargerStatusCounters statusCounters, TransactionTemplate transactionTemplate) {
         this.chargerRepository = chargerRepository;
         this.stationRepository = stationRepository;
+        this.catalogCache = catalogCache;
+        this.entityManager = entityManager;
+        this.statusCounters = statusCounters;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    @Transactional
     public Charger addCharger(Long stationId, Charger charger) {
         Station station = stationRepository.findById(stationId)
                 .orElseThrow(() -> new IllegalArgumentException("Station not found"));
 
         charger.setStation(station);
-        return chargerRepository.save(charger);
+        Charger saved = chargerRepository.save(charger);
+        catalogCache.invalidateStation(stationId);
+        statusCounters.added(stationId, saved.getStatus());
+        return saved;
     }
 
-    public List<Charger> getChargersForStation(Long stationId) {
-        return chargerRepository.findByStationId(stationId);
+    public List<ChargerResponse> getChargersForStation(Long stationId) {
+        return catalogCache.get(CatalogCache.stationChargersKey(stationId),
+                () -> chargerRepository.findByStationId(stationId).stream().map(ChargerResponse::from).toList());
     }
 
     public List<Charger> getAllChargers() {
         return chargerRepository.findAll();
     }
 
+    public KeysetPage<Charger> getChargersPage(Long after, Integer limit) {
+        int pageSize = KeysetPage.resolveLimit(limit);
+        List<Charger> rows = chargerRepository.findPageAfter(KeysetPage.resolveAfter(after), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, Charger::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamChargers(Consumer<Charger> sink) {
+        return EntityStreams.forEach(chargerRepository.streamAllOrderById(), entityManager, sink);
+    }
+
+    // A charger that is not found has changed nothing, so a caller's transaction that handles it can still commit
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
     public void deleteCharger(Long id) {
-        if (!chargerRepository.existsById(id)) {
-            throw new IllegalArgumentException("Charger not found");
-        }
-        chargerRepository.deleteById(id);
+        Charger charger = chargerRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Charger not found"));
+
+        chargerRepository.delete(charger);
+        Long stationId = charger.getStation() != null ? charger.getStation().getId() : null;
+        catalogCache.invalidateStation(stationId);
+        statusCounters.removed(stationId, charger.getStatus());
     }
 
     public Optional<Charger> getChargerById(Long id) {
         return chargerRepository.findById(id);
     }
 
+    public boolean chargerExists(Long id) {
+        return chargerRepository.existsById(id);
+    }
+
     public Charger saveCharger(Charger charger) {
         return chargerRepository.save(charger);
     }
 
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
     public Charger updateChargerStatus(Long id, ChargerStatus status, String maintenanceNote) {
         Charger charger = chargerRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Charger not found"));
 
+        return applyStatus(charger, status, maintenanceNote);
+    }
+
+    /**
+     * Applies a status the charger reported itself, compared against the stored one so that a report repeated
+     * after an operator change is applied again. Nothing is written when the status and note are unchanged, and a
+     * charger an operator put under maintenance keeps that status. The note is kept for MAINTENANCE only.
+     * Returns whether anything changed.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public boolean applyReportedStatus(Long id, ChargerStatus status, String note) {
+        Charger charger = chargerRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Charger not found"));
+
+        String resolvedNote = status == ChargerStatus.MAINTENANCE ? note : null;
+        if (charger.getStatus() == ChargerStatus.UNDER_MAINTENANCE
+                || (charger.getStatus() == status && Objects.equals(charger.getMaintenanceNote(), resolvedNote))) {
+            return false;
+        }
+        applyStatus(charger, status, resolvedNote);
+        return true;
+    }
+
+    /**
+     * Gives the charger a new random key for the OCPP gateway, replacing the previous one, and returns it. Only
+     * its hash is stored, so the key cannot be read back later.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public String issueGatewayKey(Long id) {
+        Charger charger = chargerRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Charger not found"));
+
+        byte[] bytes = new byte[GATEWAY_KEY_BYTES];
+        secureRandom.nextBytes(bytes);
+        String key = HexFormat.of().formatHex(bytes);
+        charger.setGatewayKeyHash(hashGatewayKey(key));
+        chargerRepository.save(charger);
+        return key;
+    }
+
+    /**
+     * Whether the key is the one last issued to the charger. A charger never given a key cannot connect.
+     */
+    public boolean isGatewayKeyValid(Long id, String key) {
+        String stored = chargerRepository.findById(id).map(Charger::getGatewayKeyHash).orElse(null);
+        return stored != null && key != null && MessageDigest.isEqual(
+                stored.getBytes(StandardCharsets.US_ASCII), hashGatewayKey(key).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Keys are random, so a plain digest is enough and keeps a reconnect storm cheap, unlike a password hash
+    public static String hashGatewayKey(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Sets a charger that stopped reporting to MAINTENANCE with the given note and stores the status it had, so
+     * {@link #restoreResponsive} can give it back, after a restart too. Chargers already in MAINTENANCE or
+     * UNDER_MAINTENANCE, and deleted ones, are left alone. Returns whether the charger was changed.
+     */
+    public boolean markUnresponsive(Long id, String note) {
+        return inTransaction(() -> {
+            Charger charger = chargerRepository.findById(id).orElse(null);
+            if (!isMarkable(charger)) {
+                return false;
+            }
+            applyStatus(charger, ChargerStatus.MAINTENANCE, note, charger.getStatus());
+            return true;
+        });
+    }
+
+    /**
+     * {@link #markUnresponsive} for many chargers, one transaction per {@value #MARK_BATCH_SIZE} ids. A chunk that
+     * hits a version conflict, as a booking changed one of its chargers meanwhile, is done again one charger at a
+     * time. Returns, for each id settled, whether its charger was changed; an id that could not be is left out.
+     */
+    public Map<Long, Boolean> markUnresponsive(List<Long> ids, String note) {
+        Map<Long, Boolean> settled = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MARK_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MARK_BATCH_SIZE));
+            List<Charger> changed = new ArrayList<>();
+            List<ChargerStatus> previous = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Charger charger : chargerRepository.findAllById(chunk)) {
+                        if (isMarkable(charger)) {
+                            previous.add(charger.getStatus());
+                            setStatus(charger, ChargerStatus.MAINTENANCE, note, charger.getStatus());
+                            changed.add(charger);
+                        }
+                    }
+                    chargerRepository.saveAll(changed);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                for (Long id : chunk) {
+                    try {
+                        settled.put(id, markUnresponsive(id, note));
+                    } catch (RuntimeException ex) {
+                        // Left out, for the caller to try again
+                    }
+                }
+                continue;
+            }
+            chunk.forEach(id -> settled.put(id, false));
+            // Counted once committed, as a rolled back chunk is done again charger by charger
+            for (int i = 0; i < changed.size(); i++) {
+                Charger charger = changed.get(i);
+                settled.put(charger.getId(), true);
+                Long stationId = charger.getStation() != null ? charger.getStation().getId() : null;
+                statusCounters.changed(stationId, previous.get(i), ChargerStatus.MAINTENANCE);
+            }
+        }
+        return settled;
+    }
+
+    private static boolean isMarkable(Charger charger) {
+        return charger != null && charger.getStatus() != ChargerStatus.MAINTENANCE
+                && charger.getStatus() != ChargerStatus.UNDER_MAINTENANCE;
+    }
+
+    /**
+     * Gives a charger marked by {@link #markUnresponsive} its status back. A charger whose status was changed
+     * since then is left alone. Returns whether it was restored.
+     */
+    public boolean restoreResponsive(Long id) {
+        return inTransaction(() -> {
+            Charger charger = chargerRepository.findById(id).orElse(null);
+            if (charger == null || charger.getStatus() != ChargerStatus.MAINTENANCE
+                    || charger.getStatusBeforeSilence() == null) {
+                return false;
+            }
+            applyStatus(charger, charger.getStatusBeforeSilence(), null);
+            return true;
+        });
+    }
+
+    public List<Long> getSilencedChargerIds() {
+        return chargerRepository.findSilencedIds();
+    }
+
+    // One transaction per charger, retried when a booking bumped the charger's version in between
+    private boolean inTransaction(Supplier<Boolean> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return Boolean.TRUE.equals(transactionTemplate.execute(status -> action.get()));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_STATUS_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Charger applyStatus(Charger charger, ChargerStatus status, String maintenanceNote) {
+        return applyStatus(charger, status, maintenanceNote, null);
+    }
+
+    // The catalog cache is invalidated by the charger change event once the write is committed
+    private Charger applyStatus(Charger charger, ChargerStatus status, String maintenanceNote,
+                                ChargerStatus statusBeforeSilence) {
+        ChargerStatus previous = charger.getStatus();
+        setStatus(charger, status, maintenanceNote, statusBeforeSilence);
+
+        Charger saved = chargerRepository.save(charger);
+        Long stationId = charger.getStation() != null ? charger.getStation().getId() : null;
+        statusCounters.changed(stationId, previous, status);
+        return saved;
+    }
+
+    private static void setStatus(Charger charger, ChargerStatus status, String maintenanceNote,
+                                  ChargerStatus statusBeforeSilence) {
         charger.setStatus(status);
+        charger.setStatusBeforeSilence(statusBeforeSilence);
 
         // If setting status to AVAILABLE, clear the maintenance note
         if (status == ChargerStatus.AVAILABLE) {
@@ -67,30 +304,27 @@ public class ChargerService {
             // Otherwise, set the maintenance note from the provided argument
             charger.setMaintenanceNote(maintenanceNote);
         }
-
-        return chargerRepository.save(charger);
     }
 
     public List<ChargerDTO> getChargersByStatus(ChargerStatus status) {
-        List<Charger> chargers = chargerRepository.findByStatus(status);
-        return chargers.stream()
-                .map(charger -> ChargerDTO.builder()
-                        .id(charger.getId())
-                        .chargerType(charger.getChargerType())
-                        .status(charger.getStatus())
-                        .pricePerKwh(charger.getPricePerKwh())
-                        .stationId(charger.getStation() != null ? charger.getStation().getId() : null)
-                        .stationName(charger.getStation() != null ? charger.getStation().getName() : null)
-                        .stationCity(charger.getStation() != null ? charger.getStation().getCity() : null)
-                        .build())
-                .collect(Collectors.toList());
+        return chargerRepository.findDtosByStatus(status);
     }
 
     public long countByStatus(ChargerStatus status) {
+        if (statusCounters.isReady()) {
+            return statusCounters.count(status);
+        }
         return chargerRepository.countByStatus(status);
     }
 
     public long countByStationAndStatus(Long stationId, ChargerStatus status) {
+        if (statusCounters.isReady()) {
+            return statusCounters.count(stationId, status);
+        }
         return chargerRepository.countByStationIdAndStatus(stationId, status);
     }
+
+    public ChargerStatsDTO getStatusStats() {
+        return statusCounters.snapshot();
+    }
 }
\ No newline at end of file
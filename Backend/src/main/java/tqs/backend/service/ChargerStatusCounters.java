@@ -0,0 +1,298 @@
+package tqs.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import tqs.backend.dto.ChargerStatsDTO;
+import tqs.backend.dto.ChargerStatusCount;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.repository.ChargerRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Number of chargers per station and status, held in memory so dashboard counts cost no query.
+ * Charger writes report their change here. Inside a transaction the change is applied after the commit and
+ * dropped on rollback; outside one it is applied straight away.
+ * A reconcile recounts from the database on startup and every charger.stats.reconcile-interval-ms, correcting
+ * anything written without reporting here. It only keeps its count if no transaction was committing a change
+ * while it counted, since the count might then include a change whose delta is still to come. Otherwise it tries
+ * again, and after {@value #RECONCILE_ATTEMPTS} attempts leaves the counters to the next reconcile. Changes made
+ * outside a transaction cannot be ordered that way and may be off until the next reconcile.
+ * Callers should fall back to the repository while {@link #isReady()} is false.
+ */
+@Component
+public class ChargerStatusCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargerStatusCounters.class);
+
+    // Chargers without a station are counted in the totals under this key
+    static final long NO_STATION = 0L;
+
+    static final int RECONCILE_ATTEMPTS = 3;
+
+    private static final ChargerStatus[] STATUSES = ChargerStatus.values();
+
+    private final ChargerRepository chargerRepository;
+    private final Map<Long, LongAdder[]> byStation = new ConcurrentHashMap<>();
+
+    // Deltas are applied under the read lock and a reconcile checks and swaps under the write lock, so no delta
+    // lands on counts that are being replaced
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+    // Transactions between the start of their commit and the application of their deltas, and how many ever started
+    private final AtomicInteger committing = new AtomicInteger();
+    private final AtomicLong commitsStarted = new AtomicLong();
+    private volatile boolean ready;
+    private volatile LocalDateTime reconciledAt;
+    private volatile long lastReconcileCorrections;
+
+    public ChargerStatusCounters(ChargerRepository chargerRepository) {
+        this.chargerRepository = chargerRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${charger.stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${charger.stats.reconcile-interval-ms:60000}")
+    public synchronized void reconcile() {
+        for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+            // Read before checking committing: a transaction counts as committing before it counts as started
+            long started = commitsStarted.get();
+            if (committing.get() == 0 && swap(count(), started)) {
+                return;
+            }
+        }
+        logger.info("Charger status counters not reconciled, charger changes kept committing while counting");
+    }
+
+    private Map<Long, long[]> count() {
+        Map<Long, long[]> counted = new HashMap<>();
+        for (ChargerStatusCount row : chargerRepository.countGroupedByStationAndStatus()) {
+            if (row.getStatus() != null) {
+                counted.computeIfAbsent(key(row.getStationId()), id -> new long[STATUSES.length])
+                        [row.getStatus().ordinal()] = row.getCount();
+            }
+        }
+        return counted;
+    }
+
+    // Replaces the counters with the count, unless a transaction started committing since it was taken
+    private boolean swap(Map<Long, long[]> counted, long startedBefore) {
+        reconcileLock.writeLock().lock();
+        try {
+            if (committing.get() != 0 || commitsStarted.get() != startedBefore) {
+                return false;
+            }
+            long corrections = 0;
+            Set<Long> stations = new HashSet<>(byStation.keySet());
+            stations.addAll(counted.keySet());
+            for (Long stationId : stations) {
+                LongAdder[] current = byStation.get(stationId);
+                long[] actual = counted.getOrDefault(stationId, new long[STATUSES.length]);
+                for (int i = 0; i < STATUSES.length; i++) {
+                    corrections += Math.abs((current != null ? current[i].sum() : 0) - actual[i]);
+                }
+            }
+
+            byStation.clear();
+            counted.forEach((stationId, counts) -> {
+                LongAdder[] adders = newAdders();
+                for (int i = 0; i < STATUSES.length; i++) {
+                    adders[i].add(counts[i]);
+                }
+                byStation.put(stationId, adders);
+            });
+            lastReconcileCorrections = corrections;
+            reconciledAt = LocalDateTime.now();
+            ready = true;
+            if (corrections > 0) {
+                logger.info("Charger status counters reconciled for {} stations, {} corrections", counted.size(), corrections);
+            }
+            return true;
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void added(Long stationId, ChargerStatus status) {
+        add(stationId, status, 1);
+    }
+
+    public void removed(Long stationId, ChargerStatus status) {
+        add(stationId, status, -1);
+    }
+
+    public void changed(Long stationId, ChargerStatus from, ChargerStatus to) {
+        if (from == to) {
+            return;
+        }
+        add(stationId, from, -1);
+        add(stationId, to, 1);
+    }
+
+    /**
+     * Forgets a deleted station, whose chargers were removed with it.
+     */
+    public void removeStation(Long stationId) {
+        if (stationId == null) {
+            return;
+        }
+        reconcileLock.readLock().lock();
+        try {
+            byStation.remove(stationId);
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    public long count(ChargerStatus status) {
+        long total = 0;
+        for (LongAdder[] adders : byStation.values()) {
+            total += adders[status.ordinal()].sum();
+        }
+        return total;
+    }
+
+    public long count(Long stationId, ChargerStatus status) {
+        LongAdder[] adders = byStation.get(key(stationId));
+        return adders != null ? adders[status.ordinal()].sum() : 0;
+    }
+
+    /**
+     * Every status total and every station's counts, reconciling first if the counters were never built.
+     */
+    public ChargerStatsDTO snapshot() {
+        if (!ready) {
+            reconcile();
+        }
+        Map<ChargerStatus, Long> totals = zeroCounts();
+        Map<Long, Map<ChargerStatus, Long>> stations = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<Long, LongAdder[]> entry : byStation.entrySet()) {
+            Map<ChargerStatus, Long> counts = zeroCounts();
+            for (ChargerStatus status : STATUSES) {
+                long count = entry.getValue()[status.ordinal()].sum();
+                counts.put(status, count);
+                totals.merge(status, count, Long::sum);
+                total += count;
+            }
+            if (entry.getKey() != NO_STATION) {
+                stations.put(entry.getKey(), counts);
+            }
+        }
+        return ChargerStatsDTO.builder()
+                .total(total)
+                .totals(totals)
+                .byStation(stations)
+                .reconciledAt(reconciledAt)
+                .lastReconcileCorrections(lastReconcileCorrections)
+                .build();
+    }
+
+    private void add(Long stationId, ChargerStatus status, long delta) {
+        if (status == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingDeltas().add(stationId, status, delta);
+            return;
+        }
+        apply(stationId, status, delta);
+    }
+
+    private PendingDeltas pendingDeltas() {
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void apply(Long stationId, ChargerStatus status, long delta) {
+        reconcileLock.readLock().lock();
+        try {
+            byStation.computeIfAbsent(key(stationId), id -> newAdders())[status.ordinal()].add(delta);
+        } finally {
+            reconcileLock.readLock().unlock();
+        }
+    }
+
+    // The deltas of one transaction, applied once it commits
+    private final class PendingDeltas implements TransactionSynchronization {
+        private final List<Long> stationIds = new ArrayList<>();
+        private final List<ChargerStatus> statuses = new ArrayList<>();
+        private final List<Long> deltas = new ArrayList<>();
+        private boolean inFlight;
+
+        private void add(Long stationId, ChargerStatus status, long delta) {
+            stationIds.add(stationId);
+            statuses.add(status);
+            deltas.add(delta);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            committing.incrementAndGet();
+            commitsStarted.incrementAndGet();
+            inFlight = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChargerStatusCounters.this);
+            if (status == STATUS_COMMITTED) {
+                for (int i = 0; i < deltas.size(); i++) {
+                    apply(stationIds.get(i), statuses.get(i), deltas.get(i));
+                }
+            }
+            if (inFlight) {
+                committing.decrementAndGet();
+            }
+        }
+    }
+
+    private static long key(Long stationId) {
+        return stationId != null ? stationId : NO_STATION;
+    }
+
+    private static LongAdder[] newAdders() {
+        LongAdder[] adders = new LongAdder[STATUSES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static Map<ChargerStatus, Long> zeroCounts() {
+        Map<ChargerStatus, Long> counts = new EnumMap<>(ChargerStatus.class);
+        for (ChargerStatus status : STATUSES) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,271 @@
+package tqs.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tqs.backend.event.DiscountChangedEvent;
+import tqs.backend.model.Discount;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.DiscountRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Active discounts laid out as a (dayOfWeek, hour, chargerType) array of stationId -> discount percent.
+ * When several discounts of a station cover the same cell, the highest percent wins.
+ * Hours are matched inclusively (startHour <= hour <= endHour), like the repository query it replaces.
+ * Kept in sync from {@link DiscountChangedEvent}s after commit and rebuilt from the database on startup.
+ */
+@Component
+public class DiscountMatrix {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiscountMatrix.class);
+
+    private static final int DAYS = 7;
+    private static final int HOURS = 24;
+    private static final ChargerType[] TYPES = ChargerType.values();
+    private static final double[] EMPTY_SCHEDULE = new double[DAYS * HOURS * TYPES.length];
+
+    private final DiscountRepository discountRepository;
+
+    // Each cell holds an immutable map that is swapped on write, so lookups need no locking
+    private final AtomicReferenceArray<Map<Long, Double>> cells = new AtomicReferenceArray<>(DAYS * HOURS * TYPES.length);
+
+    // Per-station copy of the same layout (percent, 0 when none), replaced whole whenever the station's discounts change
+    private final Map<Long, double[]> schedules = new ConcurrentHashMap<>();
+
+    // Guards the slot maps. A ReentrantLock rather than synchronized: rebuild queries the database while
+    // holding it, which would pin the carrier thread of a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Slot> slotsByDiscount = new HashMap<>();
+    private final Map<Long, Map<Long, Slot>> slotsByStation = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public DiscountMatrix(DiscountRepository discountRepository) {
+        this.discountRepository = discountRepository;
+        for (int i = 0; i < cells.length(); i++) {
+            cells.set(i, Map.of());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.lock();
+        try {
+            slotsByDiscount.clear();
+            slotsByStation.clear();
+            schedules.clear();
+            for (int i = 0; i < cells.length(); i++) {
+                cells.set(i, Map.of());
+            }
+            for (Discount discount : discountRepository.findAll()) {
+                try {
+                    apply(discount, false);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Discount {} left out of the matrix: {}", discount.getId(), e.getMessage());
+                }
+            }
+            ready = true;
+            logger.info("Discount matrix built with {} active discounts", slotsByDiscount.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDiscountChanged(DiscountChangedEvent event) {
+        apply(event.getDiscount(), event.isRemoved());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void ensureBuilt() {
+        lock.lock();
+        try {
+            if (!ready) {
+                rebuild();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces whatever the matrix held for this discount; only the cells it covered or now covers are recomputed.
+     * Throws IllegalArgumentException, leaving the matrix unchanged, when the day of week is not 1 to 7.
+     */
+    public void apply(Discount discount, boolean removed) {
+        if (discount == null || discount.getId() == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            applyLocked(discount, removed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyLocked(Discount discount, boolean removed) {
+        // First, so that a discount that cannot be placed leaves the matrix as it was
+        Slot current = removed ? null : Slot.of(discount);
+        Slot previous = slotsByDiscount.remove(discount.getId());
+        if (previous != null) {
+            Map<Long, Slot> stationSlots = slotsByStation.get(previous.stationId);
+            stationSlots.remove(discount.getId());
+            if (stationSlots.isEmpty()) {
+                slotsByStation.remove(previous.stationId);
+            }
+        }
+
+        if (current != null) {
+            slotsByDiscount.put(discount.getId(), current);
+            slotsByStation.computeIfAbsent(current.stationId, id -> new HashMap<>()).put(discount.getId(), current);
+        }
+
+        if (previous != null) {
+            previous.cellIndexes().forEach(cell -> recompute(cell, previous.stationId));
+            refreshSchedule(previous.stationId);
+        }
+        if (current != null) {
+            current.cellIndexes().forEach(cell -> recompute(cell, current.stationId));
+            refreshSchedule(current.stationId);
+        }
+    }
+
+    public Map<Long, Double> bestDiscounts(int dayOfWeek, int hour, ChargerType type) {
+        if (dayOfWeek < 1 || dayOfWeek > DAYS || hour < 0 || hour >= HOURS || type == null) {
+            return Map.of();
+        }
+        return cells.get(index(dayOfWeek, hour, type.ordinal()));
+    }
+
+    /**
+     * Best discount percent of the station for every (dayOfWeek, hour, chargerType), laid out as {@link #cellIndex}.
+     * The returned array is shared and must not be modified.
+     */
+    public double[] stationSchedule(Long stationId) {
+        return schedules.getOrDefault(stationId, EMPTY_SCHEDULE);
+    }
+
+    /**
+     * Days run from 1 (Monday) to 7 (Sunday), as {@link java.time.DayOfWeek#getValue()}; null is left to the caller.
+     */
+    public static void checkDayOfWeek(Integer dayOfWeek) {
+        if (dayOfWeek != null && (dayOfWeek < 1 || dayOfWeek > DAYS)) {
+            throw new IllegalArgumentException("dayOfWeek must be between 1 and " + DAYS + ", was " + dayOfWeek);
+        }
+    }
+
+    public static int cellIndex(int dayOfWeek, int hour, ChargerType type) {
+        return index(dayOfWeek, hour, type.ordinal());
+    }
+
+    public Map<Long, Double> bestDiscounts(int dayOfWeek, int hour, Collection<ChargerType> types) {
+        Map<Long, Double> best = new HashMap<>();
+        for (ChargerType type : types) {
+            bestDiscounts(dayOfWeek, hour, type).forEach((stationId, percent) -> best.merge(stationId, percent, Math::max));
+        }
+        return best;
+    }
+
+    private void refreshSchedule(Long stationId) {
+        Map<Long, Slot> stationSlots = slotsByStation.get(stationId);
+        if (stationSlots == null) {
+            schedules.remove(stationId);
+            return;
+        }
+        double[] schedule = new double[cells.length()];
+        for (Slot slot : stationSlots.values()) {
+            for (int cell : slot.cellIndexes()) {
+                schedule[cell] = Math.max(schedule[cell], slot.percent);
+            }
+        }
+        schedules.put(stationId, schedule);
+    }
+
+    private void recompute(int cell, Long stationId) {
+        Double best = null;
+        for (Slot slot : slotsByStation.getOrDefault(stationId, Map.of()).values()) {
+            if (slot.covers(cell) && (best == null || slot.percent > best)) {
+                best = slot.percent;
+            }
+        }
+
+        Map<Long, Double> updated = new HashMap<>(cells.get(cell));
+        if (best == null) {
+            updated.remove(stationId);
+        } else {
+            updated.put(stationId, best);
+        }
+        cells.set(cell, Map.copyOf(updated));
+    }
+
+    private static int index(int dayOfWeek, int hour, int typeOrdinal) {
+        return ((dayOfWeek - 1) * HOURS + hour) * TYPES.length + typeOrdinal;
+    }
+
+    private static final class Slot {
+        private final Long stationId;
+        private final int dayOfWeek;
+        private final int fromHour;
+        private final int toHour;
+        private final int typeOrdinal;
+        private final double percent;
+
+        private Slot(Long stationId, int dayOfWeek, int fromHour, int toHour, int typeOrdinal, double percent) {
+            this.stationId = stationId;
+            this.dayOfWeek = dayOfWeek;
+            this.fromHour = fromHour;
+            this.toHour = toHour;
+            this.typeOrdinal = typeOrdinal;
+            this.percent = percent;
+        }
+
+        // Inactive or incomplete discounts never match the repository query, so they take no cells
+        private static Slot of(Discount d) {
+            checkDayOfWeek(d.getDayOfWeek());
+            if (!Boolean.TRUE.equals(d.getActive()) || d.getStation() == null || d.getStation().getId() == null
+                    || d.getChargerType() == null || d.getDayOfWeek() == null || d.getStartHour() == null
+                    || d.getEndHour() == null || d.getDiscountPercent() == null) {
+                return null;
+            }
+            int from = Math.max(0, d.getStartHour());
+            int to = Math.min(HOURS - 1, d.getEndHour());
+            if (from > to) {
+                return null;
+            }
+            return new Slot(d.getStation().getId(), d.getDayOfWeek(), from, to,
+                    d.getChargerType().ordinal(), d.getDiscountPercent());
+        }
+
+        private boolean covers(int cell) {
+            int type = cell % TYPES.length;
+            int hour = (cell / TYPES.length) % HOURS;
+            int day = cell / (TYPES.length * HOURS) + 1;
+            return type == typeOrdinal && day == dayOfWeek && hour >= fromHour && hour <= toHour;
+        }
+
+        private Set<Integer> cellIndexes() {
+            Set<Integer> indexes = new HashSet<>();
+            for (int hour = fromHour; hour <= toHour; hour++) {
+                indexes.add(index(dayOfWeek, hour, typeOrdinal));
+            }
+            return indexes;
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package tqs.backend.service;
 
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import tqs.backend.dto.DiscountRequestDTO;
+import tqs.backend.dto.KeysetPage;
 import tqs.backend.model.Discount;
 import tqs.backend.model.Station;
 import tqs.backend.model.enums.ChargerType;
 import tqs.backend.repository.DiscountRepository;
 import tqs.backend.repository.StationRepository;
+import tqs.backend.util.EntityStreams;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -19,14 +24,18 @@ public class DiscountService {
 
     private final DiscountRepository discountRepository;
     private final StationRepository stationRepository;
+    private final EntityManager entityManager;
 
-    public DiscountService(DiscountRepository discountRepository, StationRepository stationRepository) {
+    public DiscountService(DiscountRepository discountRepository, StationRepository stationRepository,
+                           EntityManager entityManager) {
         this.discountRepository = discountRepository;
         this.stationRepository = stationRepository;
+        this.entityManager = entityManager;
     }
 
     public Discount createDiscount(Long stationId, ChargerType chargerType, Integer dayOfWeek, Integer startHour,
                                    Integer endHour, Double discountPercent, Boolean active) {
+        DiscountMatrix.checkDayOfWeek(dayOfWeek);
         Station station = stationRepository.findById(stationId)
                 .orElseThrow(() -> new IllegalArgumentException("Station not found"));
 
@@ -51,7 +60,20 @@ public class DiscountService {
         return discountRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public KeysetPage<Discount> getDiscountsPage(Long after, Integer limit) {
+        int pageSize = KeysetPage.resolveLimit(limit);
+        List<Discount> rows = discountRepository.findPageAfter(KeysetPage.resolveAfter(after), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, Discount::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamDiscounts(Consumer<Discount> sink) {
+        return EntityStreams.forEach(discountRepository.streamAllOrderById(), entityManager, sink);
+    }
+
     public Discount updateDiscount(Long id, DiscountRequestDTO dto) {
+    DiscountMatrix.checkDayOfWeek(dto.getDayOfWeek());
     Discount discount = discountRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Discount not found"));
 
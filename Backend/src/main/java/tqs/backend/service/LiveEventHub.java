@@ -0,0 +1,281 @@
+package tqs.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import tqs.backend.dto.LiveEvent;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.event.ReservationChangedEvent;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Reservation;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed charger and reservation changes to Server-Sent Events subscribers.
+ * Each subscriber keeps only the latest pending event per charger and per reservation, and pending events are
+ * written together every live.events.flush-interval-ms, so a burst of updates costs one write per subscriber.
+ * A subscriber has at most one write in flight; one that falls more than live.events.max-pending events behind
+ * has its backlog dropped and is sent a single RESYNC event telling it to re-fetch.
+ * A write still blocked after live.events.send-timeout-ms drops its subscriber. The container only gives up on
+ * the write at its own socket timeout, so the sender pool gets an extra thread for as long as the write stays
+ * blocked, and slow clients never leave the others without a sender.
+ */
+@Component
+public class LiveEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveEventHub.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+    private final int senderThreads;
+    private final int maxPending;
+    private final long sendTimeoutMs;
+    private final long timeoutMs;
+    private final long heartbeatIntervalMs;
+
+    public LiveEventHub(@Value("${live.events.sender-threads:4}") int senderThreads,
+                        @Value("${live.events.max-pending:500}") int maxPending,
+                        @Value("${live.events.timeout-ms:1800000}") long timeoutMs,
+                        @Value("${live.events.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+                        @Value("${live.events.send-timeout-ms:10000}") long sendTimeoutMs) {
+        // Platform threads even in virtual-thread mode: ResponseBodyEmitter writes inside synchronized methods,
+        // so a virtual sender blocked on a slow client would pin its carrier
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        this.senderThreads = senderThreads;
+        this.maxPending = maxPending;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+    }
+
+    /**
+     * Opens a stream of events for the given stations, or for every station when none are given.
+     */
+    public SseEmitter subscribe(Set<Long> stationIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(emitter, stationIds);
+        return emitter;
+    }
+
+    Subscriber register(ResponseBodyEmitter emitter, Set<Long> stationIds) {
+        Subscriber subscriber = new Subscriber(emitter, stationIds == null ? Set.of() : Set.copyOf(stationIds));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChargerChanged(ChargerChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Charger charger = event.getCharger();
+        publish("charger:" + charger.getId(), LiveEvent.builder()
+                .type(LiveEvent.Type.CHARGER_STATUS)
+                .stationId(event.getStationId())
+                .chargerId(charger.getId())
+                .chargerStatus(charger.getStatus())
+                .removed(event.isRemoved() ? Boolean.TRUE : null)
+                .at(LocalDateTime.now())
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Reservation reservation = event.getReservation();
+        Charger charger = reservation.getCharger();
+        publish("reservation:" + reservation.getId(), LiveEvent.builder()
+                .type(LiveEvent.Type.RESERVATION)
+                .stationId(charger != null && charger.getStation() != null ? charger.getStation().getId() : null)
+                .chargerId(charger != null ? charger.getId() : null)
+                .reservationId(reservation.getId())
+                .reservationStatus(reservation.getStatus())
+                .startTime(reservation.getStartTime())
+                .estimatedEndTime(reservation.getEstimatedEndTime())
+                .removed(event.isRemoved() ? Boolean.TRUE : null)
+                .at(LocalDateTime.now())
+                .build());
+    }
+
+    void publish(String key, LiveEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.follows(event.getStationId())) {
+                subscriber.offer(key, event);
+            }
+        }
+    }
+
+    /**
+     * Hands every subscriber with pending events, or owing a heartbeat, to a sender thread.
+     * Subscribers still writing their previous batch are skipped and keep coalescing until the next flush, unless
+     * the write has taken longer than the send timeout, in which case the subscriber is dropped.
+     */
+    @Scheduled(fixedDelayString = "${live.events.flush-interval-ms:250}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isWriteOverdue(now) && subscriber.writeState.compareAndSet(WRITING, TIMED_OUT)) {
+                logger.debug("Dropping live event subscriber: write blocked for more than {} ms", sendTimeoutMs);
+                subscribers.remove(subscriber);
+                resizeSenders(1);
+                continue;
+            }
+            if (subscriber.isDue(now) && subscriber.sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(subscriber::drain);
+                } catch (RejectedExecutionException e) {
+                    subscriber.sending.set(false);
+                }
+            }
+        }
+    }
+
+    // One extra sender per write that timed out and is still blocked
+    private synchronized void resizeSenders(int delta) {
+        int size = senders.getCorePoolSize() + delta;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else if (size >= senderThreads) {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+
+    int senderPoolSize() {
+        return senders.getCorePoolSize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private static final int IDLE = 0;
+    private static final int WRITING = 1;
+    private static final int TIMED_OUT = 2;
+
+    class Subscriber {
+
+        private final ResponseBodyEmitter emitter;
+        private final Set<Long> stationIds;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // IDLE, WRITING while emitter.send runs, or TIMED_OUT once flush gave up on that write
+        private final AtomicInteger writeState = new AtomicInteger(IDLE);
+        private volatile long writeStartedAt;
+
+        // Latest event per charger or reservation, in the order each key was first seen
+        private final Map<String, LiveEvent> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        Subscriber(ResponseBodyEmitter emitter, Set<Long> stationIds) {
+            this.emitter = emitter;
+            this.stationIds = stationIds;
+        }
+
+        boolean follows(Long stationId) {
+            return stationIds.isEmpty() || stationIds.contains(stationId);
+        }
+
+        synchronized void offer(String key, LiveEvent event) {
+            if (overflowed) {
+                return;
+            }
+            pending.put(key, event);
+            if (pending.size() > maxPending) {
+                pending.clear();
+                overflowed = true;
+            }
+        }
+
+        boolean isWriteOverdue(long now) {
+            return writeState.get() == WRITING && now - writeStartedAt > sendTimeoutMs;
+        }
+
+        synchronized boolean isDue(long now) {
+            return overflowed || !pending.isEmpty() || now - lastSentAt >= heartbeatIntervalMs;
+        }
+
+        void drain() {
+            List<LiveEvent> batch;
+            synchronized (this) {
+                if (overflowed) {
+                    batch = List.of(LiveEvent.builder().type(LiveEvent.Type.RESYNC).at(LocalDateTime.now()).build());
+                    overflowed = false;
+                } else {
+                    batch = new ArrayList<>(pending.values());
+                }
+                pending.clear();
+            }
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> data = new LinkedHashSet<>();
+                if (batch.isEmpty()) {
+                    data.addAll(SseEmitter.event().comment("heartbeat").build());
+                }
+                for (LiveEvent event : batch) {
+                    data.addAll(SseEmitter.event().name(event.getType().name())
+                            .data(event, MediaType.APPLICATION_JSON).build());
+                }
+                // One write and one flush for the whole batch
+                writeStartedAt = System.currentTimeMillis();
+                writeState.set(WRITING);
+                try {
+                    emitter.send(data);
+                } finally {
+                    if (!writeState.compareAndSet(WRITING, IDLE)) {
+                        // Dropped by flush meanwhile: give back the thread added in its place
+                        resizeSenders(-1);
+                    }
+                }
+                lastSentAt = System.currentTimeMillis();
+                if (writeState.get() == TIMED_OUT) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping live event subscriber: {}", e.getMessage());
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+}
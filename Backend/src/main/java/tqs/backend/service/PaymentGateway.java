@@ -0,0 +1,18 @@
+package tqs.backend.service;
+
+import com.stripe.param.checkout.SessionCreateParams;
+import tqs.backend.dto.PaymentSession;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous access to the payment provider, so a slow provider never holds a request thread.
+ * Futures fail with the provider's exception, with PaymentGatewayUnavailableException when the call was
+ * refused without being attempted, or with TimeoutException when it did not finish in time.
+ */
+public interface PaymentGateway {
+
+    CompletableFuture<PaymentSession> createCheckoutSession(SessionCreateParams params);
+
+    CompletableFuture<PaymentSession> retrieveCheckoutSession(String sessionId);
+}
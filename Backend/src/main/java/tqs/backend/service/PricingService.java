@@ -0,0 +1,169 @@
+package tqs.backend.service;
+
+import org.springframework.stereotype.Service;
+
+import tqs.backend.dto.PriceQuoteDTO;
+import tqs.backend.dto.PriceQuoteRequest;
+import tqs.backend.model.Charger;
+import tqs.backend.repository.ChargerRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Effective price per kWh and estimated cost of charging over a time window.
+ * Energy is assumed to be delivered evenly across the window, so a discount that covers only part of it
+ * is prorated by the share of the window it covers. Discounts come from the per-station schedules in
+ * {@link DiscountMatrix}, so quoting chargers that are already loaded costs no queries.
+ */
+@Service
+public class PricingService {
+
+    public static final int PRICE_SCALE = 4;
+    public static final int COST_SCALE = 2;
+    static final Duration MAX_WINDOW = Duration.ofDays(31);
+
+    private final ChargerRepository chargerRepository;
+    private final DiscountMatrix discountMatrix;
+
+    public PricingService(ChargerRepository chargerRepository, DiscountMatrix discountMatrix) {
+        this.chargerRepository = chargerRepository;
+        this.discountMatrix = discountMatrix;
+    }
+
+    public List<PriceQuoteDTO> quote(PriceQuoteRequest request) {
+        if (request.getChargerIds() == null || request.getChargerIds().isEmpty()) {
+            throw new IllegalArgumentException("At least one charger is required");
+        }
+        Set<Long> ids = new LinkedHashSet<>(request.getChargerIds());
+        Map<Long, Charger> byId = new HashMap<>();
+        for (Charger charger : chargerRepository.findWithStationByIdIn(ids)) {
+            byId.put(charger.getId(), charger);
+        }
+        if (byId.size() != ids.size()) {
+            throw new IllegalArgumentException("Charger not found");
+        }
+        // Quotes come back in the order the chargers were asked for, not in row order
+        List<Charger> chargers = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            chargers.add(byId.get(id));
+        }
+        return quoteAll(chargers, request.getStartTime(), request.getEndTime(), request.getEstimatedKwh());
+    }
+
+    public PriceQuoteDTO quote(Charger charger, LocalDateTime start, LocalDateTime end, Double estimatedKwh) {
+        return quoteAll(List.of(charger), start, end, estimatedKwh).get(0);
+    }
+
+    public List<PriceQuoteDTO> quoteAll(Collection<Charger> chargers, LocalDateTime start, LocalDateTime end,
+                                        Double estimatedKwh) {
+        if (start == null) {
+            throw new IllegalArgumentException("Start time is required");
+        }
+        if (end != null && end.isBefore(start)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (end != null && Duration.between(start, end).compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Quote window cannot exceed " + MAX_WINDOW.toDays() + " days");
+        }
+        if (estimatedKwh != null && estimatedKwh < 0) {
+            throw new IllegalArgumentException("Estimated kWh cannot be negative");
+        }
+
+        discountMatrix.ensureBuilt();
+        Window window = Window.of(start, end);
+
+        List<PriceQuoteDTO> quotes = new ArrayList<>(chargers.size());
+        for (Charger charger : chargers) {
+            quotes.add(quoteCharger(charger, window, estimatedKwh));
+        }
+        return quotes;
+    }
+
+    private PriceQuoteDTO quoteCharger(Charger charger, Window window, Double estimatedKwh) {
+        Long stationId = charger.getStation() != null ? charger.getStation().getId() : null;
+
+        double discountPercent = 0.0;
+        if (stationId != null && charger.getChargerType() != null) {
+            double[] schedule = discountMatrix.stationSchedule(stationId);
+            for (int i = 0; i < window.days.length; i++) {
+                int cell = DiscountMatrix.cellIndex(window.days[i], window.hours[i], charger.getChargerType());
+                discountPercent += window.weights[i] * schedule[cell];
+            }
+        }
+
+        BigDecimal base = charger.getPricePerKwh();
+        BigDecimal effective = null;
+        BigDecimal cost = null;
+        if (base != null) {
+            effective = base.multiply(BigDecimal.valueOf(1.0 - discountPercent / 100.0))
+                    .setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+            if (estimatedKwh != null) {
+                cost = effective.multiply(BigDecimal.valueOf(estimatedKwh)).setScale(COST_SCALE, RoundingMode.HALF_UP);
+            }
+        }
+
+        return PriceQuoteDTO.builder()
+                .chargerId(charger.getId())
+                .stationId(stationId)
+                .basePricePerKwh(base)
+                .effectivePricePerKwh(effective)
+                .discountPercent(discountPercent)
+                .estimatedKwh(estimatedKwh)
+                .estimatedCost(cost)
+                .build();
+    }
+
+    /**
+     * The window cut at hour boundaries, with each piece's share of the total duration.
+     * Computed once per request and reused for every charger.
+     */
+    private static final class Window {
+        private final int[] days;
+        private final int[] hours;
+        private final double[] weights;
+
+        private Window(int[] days, int[] hours, double[] weights) {
+            this.days = days;
+            this.hours = hours;
+            this.weights = weights;
+        }
+
+        private static Window of(LocalDateTime start, LocalDateTime end) {
+            if (end == null || !end.isAfter(start)) {
+                return new Window(new int[]{start.getDayOfWeek().getValue()}, new int[]{start.getHour()}, new double[]{1.0});
+            }
+
+            double total = Duration.between(start, end).toNanos();
+            List<LocalDateTime> cuts = new ArrayList<>();
+            LocalDateTime cursor = start;
+            while (cursor.isBefore(end)) {
+                cuts.add(cursor);
+                LocalDateTime nextHour = cursor.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                cursor = nextHour.isBefore(end) ? nextHour : end;
+            }
+
+            int[] days = new int[cuts.size()];
+            int[] hours = new int[cuts.size()];
+            double[] weights = new double[cuts.size()];
+            for (int i = 0; i < cuts.size(); i++) {
+                LocalDateTime from = cuts.get(i);
+                LocalDateTime to = i + 1 < cuts.size() ? cuts.get(i + 1) : end;
+                days[i] = from.getDayOfWeek().getValue();
+                hours[i] = from.getHour();
+                weights[i] = Duration.between(from, to).toNanos() / total;
+            }
+            return new Window(days, hours, weights);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package tqs.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tqs.backend.dto.ReservationInterval;
+import tqs.backend.event.ReservationChangedEvent;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.enums.ReservationStatus;
+import tqs.backend.repository.ReservationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of ACTIVE reservations per charger, ordered by start time.
+ * Answers overlap and "busy at" questions without going to the database.
+ * Kept in sync from {@link ReservationChangedEvent}s after commit and rebuilt from the database on startup;
+ * callers should fall back to the repository while {@link #isReady()} is false.
+ */
+@Component
+public class ReservationIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationIntervalIndex.class);
+
+    // Ahead of the listeners that drop what was computed from the index, see StationAvailabilityCache
+    public static final int LISTENER_ORDER = 0;
+
+    private final ReservationRepository reservationRepository;
+    private final Map<Long, ChargerTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, Long> chargerByReservation = new ConcurrentHashMap<>();
+
+    // Writers share the read lock; a rebuild takes the write lock so no update is lost while it swaps the data
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public ReservationIntervalIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            timelines.clear();
+            chargerByReservation.clear();
+            int count = 0;
+            for (ReservationInterval interval : reservationRepository.findIntervalsByStatus(ReservationStatus.ACTIVE)) {
+                put(interval.getReservationId(), interval.getChargerId(), interval.getStartTime(), interval.getEndTime());
+                count++;
+            }
+            ready = true;
+            logger.info("Reservation index built with {} active reservations on {} chargers", count, timelines.size());
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(LISTENER_ORDER)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.isRemoved()) {
+            remove(event.getReservation());
+        } else {
+            upsert(event.getReservation());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void upsert(Reservation reservation) {
+        if (reservation == null || reservation.getId() == null) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            removeById(reservation.getId());
+            if (reservation.getStatus() == ReservationStatus.ACTIVE && reservation.getCharger() != null) {
+                put(reservation.getId(), reservation.getCharger().getId(),
+                        reservation.getStartTime(), reservation.getEstimatedEndTime());
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void remove(Reservation reservation) {
+        if (reservation == null || reservation.getId() == null) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            removeById(reservation.getId());
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /** True if the charger has an active reservation with start &lt; to and end &gt; from. */
+    public boolean hasOverlap(Long chargerId, LocalDateTime from, LocalDateTime to) {
+        ChargerTimeline timeline = timelines.get(chargerId);
+        return timeline != null && timeline.overlaps(from, to);
+    }
+
+    /** True if the charger has an active reservation with start &lt;= at and end &gt; at. */
+    public boolean isBusyAt(Long chargerId, LocalDateTime at) {
+        ChargerTimeline timeline = timelines.get(chargerId);
+        return timeline != null && timeline.busyAt(at);
+    }
+
+    public Set<Long> overlappingChargerIds(Collection<Long> chargerIds, LocalDateTime from, LocalDateTime to) {
+        Set<Long> busy = new HashSet<>();
+        for (Long chargerId : chargerIds) {
+            if (hasOverlap(chargerId, from, to)) {
+                busy.add(chargerId);
+            }
+        }
+        return busy;
+    }
+
+    public int size() {
+        return chargerByReservation.size();
+    }
+
+    private void put(Long reservationId, Long chargerId, LocalDateTime start, LocalDateTime end) {
+        if (reservationId == null || chargerId == null || start == null || end == null) {
+            return;
+        }
+        timelines.computeIfAbsent(chargerId, id -> new ChargerTimeline()).add(reservationId, start, end);
+        chargerByReservation.put(reservationId, chargerId);
+    }
+
+    private void removeById(Long reservationId) {
+        Long chargerId = chargerByReservation.remove(reservationId);
+        if (chargerId != null) {
+            ChargerTimeline timeline = timelines.get(chargerId);
+            if (timeline != null) {
+                timeline.remove(reservationId);
+            }
+        }
+    }
+
+    /**
+     * Reservations of one charger keyed by start time. Lookups scan only the entries whose start lies
+     * within the longest reservation held before the query window, so they stay O(log n) for bounded
+     * reservation lengths even if legacy data contains overlapping rows. Durations are counted, so the
+     * longest shrinks again once the long reservations are gone.
+     */
+    static final class ChargerTimeline {
+
+        private final NavigableMap<LocalDateTime, Map<Long, LocalDateTime>> byStart = new TreeMap<>();
+        private final Map<Long, LocalDateTime> startById = new HashMap<>();
+        private final NavigableMap<Duration, Integer> durations = new TreeMap<>();
+
+        synchronized void add(Long reservationId, LocalDateTime start, LocalDateTime end) {
+            byStart.computeIfAbsent(start, s -> new HashMap<>(2)).put(reservationId, end);
+            startById.put(reservationId, start);
+            durations.merge(Duration.between(start, end), 1, Integer::sum);
+        }
+
+        synchronized void remove(Long reservationId) {
+            LocalDateTime start = startById.remove(reservationId);
+            if (start == null) {
+                return;
+            }
+            Map<Long, LocalDateTime> atStart = byStart.get(start);
+            LocalDateTime end = atStart.remove(reservationId);
+            if (atStart.isEmpty()) {
+                byStart.remove(start);
+            }
+            durations.computeIfPresent(Duration.between(start, end), (duration, count) -> count > 1 ? count - 1 : null);
+        }
+
+        synchronized Duration maxDuration() {
+            return durations.isEmpty() ? Duration.ZERO : durations.lastKey();
+        }
+
+        synchronized boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            // Same predicate as the repository query (start < to and end > from), including inverted windows
+            LocalDateTime lowest = from.minus(maxDuration());
+            if (!lowest.isBefore(to)) {
+                return false;
+            }
+            return anyEndAfter(byStart.subMap(lowest, true, to, false), from);
+        }
+
+        synchronized boolean busyAt(LocalDateTime at) {
+            return anyEndAfter(byStart.subMap(at.minus(maxDuration()), true, at, true), at);
+        }
+
+        private static boolean anyEndAfter(NavigableMap<LocalDateTime, Map<Long, LocalDateTime>> candidates, LocalDateTime instant) {
+            for (Map<Long, LocalDateTime> ends : candidates.values()) {
+                for (LocalDateTime end : ends.values()) {
+                    if (end.isAfter(instant)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,8 +1,21 @@
 package tqs.backend.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tqs.backend.dto.BulkReservationItemResult;
+import tqs.backend.dto.BulkReservationMode;
+import tqs.backend.dto.BulkReservationResponse;
+import tqs.backend.dto.KeysetPage;
+import tqs.backend.dto.ReservationInterval;
 import tqs.backend.dto.ReservationRequest;
+import tqs.backend.dto.ReservationStatusCount;
+import tqs.backend.dto.ReservationSummaryDTO;
 import tqs.backend.model.Charger;
 import tqs.backend.model.Reservation;
 import tqs.backend.model.enums.ChargerStatus;
@@ -11,11 +24,24 @@ import tqs.backend.repository.ChargerRepository;
 import tqs.backend.repository.ReservationRepository;
 import tqs.backend.model.Client;
 import tqs.backend.repository.ClientRepository;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import tqs.backend.dto.ReservationResponse;
 import tqs.backend.dto.ReservationResponse.ChargerDto;
 import tqs.backend.dto.ReservationResponse.StationDto;
+import tqs.backend.util.EntityStreams;
 
 @Service
 @RequiredArgsConstructor
@@ -24,11 +50,30 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final ClientRepository clientRepository;
     private final ChargerRepository chargerRepository;
+    private final ReservationIntervalIndex reservationIndex;
+    private final PricingService pricingService;
+    private final EntityManager entityManager;
+    private final ChargerLocks chargerLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    static final int MAX_BOOKING_ATTEMPTS = 5;
+    public static final int MAX_BULK_RESERVATIONS = 500;
 
     public List<Reservation> getAllReservations() {
         return reservationRepository.findAll();
     }
 
+    public KeysetPage<Reservation> getReservationsPage(Long after, Integer limit) {
+        int pageSize = KeysetPage.resolveLimit(limit);
+        List<Reservation> rows = reservationRepository.findPageAfter(KeysetPage.resolveAfter(after), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, Reservation::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamReservations(Consumer<Reservation> sink) {
+        return EntityStreams.forEach(reservationRepository.streamAllOrderById(), entityManager, sink);
+    }
+
     public List<ReservationResponse> getReservationsByClientId(Long clientId) {
         List<Reservation> reservations = reservationRepository.findByUserId(clientId);
         return reservations.stream()
@@ -36,6 +81,41 @@ public class ReservationService {
                 .toList();
     }
 
+    /**
+     * Status counts over the client's whole history (one grouped query) and one page of their reservations,
+     * so the cost of the call does not grow with the number of reservations the client has made.
+     */
+    public ReservationSummaryDTO getReservationSummary(Long clientId, Long after, Integer limit) {
+        int pageSize = KeysetPage.resolveLimit(limit);
+        if (!clientRepository.existsById(clientId)) {
+            throw new IllegalArgumentException("Client not found");
+        }
+
+        Map<ReservationStatus, Long> counts = new EnumMap<>(ReservationStatus.class);
+        for (ReservationStatus status : ReservationStatus.values()) {
+            counts.put(status, 0L);
+        }
+        long total = 0;
+        for (ReservationStatusCount row : reservationRepository.countByStatusForUser(clientId)) {
+            if (row.getStatus() != null) {
+                counts.put(row.getStatus(), row.getCount());
+            }
+            total += row.getCount();
+        }
+
+        List<Reservation> rows = reservationRepository.findPageByUserIdAfter(
+                clientId, KeysetPage.resolveAfter(after), Limit.of(pageSize + 1));
+        KeysetPage<Reservation> page = KeysetPage.of(rows, pageSize, Reservation::getId);
+
+        return ReservationSummaryDTO.builder()
+                .clientId(clientId)
+                .total(total)
+                .countsByStatus(counts)
+                .items(page.getItems().stream().map(this::convertToDto).toList())
+                .nextCursor(page.getNextCursor())
+                .build();
+    }
+
     public Reservation getReservationById(Long reservationId) {
         return reservationRepository.findById(reservationId).orElse(null);
     }
@@ -74,14 +154,38 @@ public class ReservationService {
     }
 
     public boolean hasOverlappingReservation(Long chargerId, LocalDateTime startTime, LocalDateTime endTime) {
-        return reservationRepository.existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeBefore(chargerId, startTime, endTime);
+        if (reservationIndex.isReady()) {
+            return reservationIndex.hasOverlap(chargerId, startTime, endTime);
+        }
+        return reservationRepository.existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(
+                chargerId, ReservationStatus.ACTIVE, startTime, endTime);
     }
 
+    /**
+     * Books the charger if it is free for the requested window.
+     * Bookings of one charger are serialized on this instance by {@link ChargerLocks}; across instances the booking
+     * transaction bumps the charger's version, so of two racing bookings only one commits and the other is retried,
+     * this time seeing the first one's reservation.
+     */
     public Reservation createReservation(ReservationRequest request) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return chargerLocks.withLock(request.getChargerId(),
+                        () -> transactionTemplate.execute(status -> book(request)));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                    throw new RuntimeException("Charger is busy, please try again.");
+                }
+                pauseBeforeRetry(attempt);
+            }
+        }
+    }
+
+    private Reservation book(ReservationRequest request) {
         Client client = clientRepository.findById(request.getClientId())
                 .orElseThrow(() -> new RuntimeException("Client not found"));
 
-        Charger charger = chargerRepository.findById(request.getChargerId())
+        Charger charger = chargerRepository.findForBooking(request.getChargerId())
                 .orElseThrow(() -> new RuntimeException("Charger not found"));
 
         // 🔒 Prevent reservation if charger is in maintenance
@@ -89,23 +193,174 @@ public class ReservationService {
             throw new RuntimeException("This charger is currently under maintenance and cannot be reserved.");
         }
 
-        // Check for overlapping reservations
-        if (hasOverlappingReservation(charger.getId(), request.getStartTime(), request.getEstimatedEndTime())) {
+        // The index may lag behind bookings made on other instances: it can reject early, only the database can accept
+        if ((reservationIndex.isReady()
+                && reservationIndex.hasOverlap(charger.getId(), request.getStartTime(), request.getEstimatedEndTime()))
+                || reservationRepository.existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(
+                        charger.getId(), ReservationStatus.ACTIVE, request.getStartTime(), request.getEstimatedEndTime())) {
             throw new RuntimeException("Charger is already reserved for the requested time.");
         }
 
-        Reservation reservation = Reservation.builder()
+        return reservationRepository.save(newReservation(client, charger, request));
+    }
+
+    private Reservation newReservation(Client client, Charger charger, ReservationRequest request) {
+        // Always priced on the server, since this is what the client is charged; a cost the client sent is ignored.
+        // A window the engine cannot quote stays unpriced
+        BigDecimal estimatedCost = null;
+        if (request.getEstimatedKwh() != null && request.getStartTime() != null) {
+            try {
+                estimatedCost = pricingService.quote(charger, request.getStartTime(), request.getEstimatedEndTime(),
+                        request.getEstimatedKwh()).getEstimatedCost();
+            } catch (IllegalArgumentException e) {
+                // left unpriced
+            }
+        }
+
+        return Reservation.builder()
                 .user(client)
                 .charger(charger)
                 .startTime(request.getStartTime())
                 .estimatedEndTime(request.getEstimatedEndTime())
                 .batteryLevelStart(request.getBatteryLevelStart())
                 .estimatedKwh(request.getEstimatedKwh())
-                .estimatedCost(request.getEstimatedCost())
+                .estimatedCost(estimatedCost)
                 .status(ReservationStatus.ACTIVE)
                 .build();
+    }
 
-        return reservationRepository.save(reservation);
+    /**
+     * Books a batch of reservations with a fixed number of queries: one for the clients, one for the chargers and
+     * one for the existing reservations overlapping the batch's time span, followed by the inserts.
+     * Requests are checked in order, against the database and against the earlier requests of the same batch.
+     */
+    public BulkReservationResponse createReservations(List<ReservationRequest> requests, BulkReservationMode mode) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one reservation is required");
+        }
+        if (requests.size() > MAX_BULK_RESERVATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_RESERVATIONS + " reservations can be booked at once");
+        }
+        BulkReservationMode resolvedMode = mode != null ? mode : BulkReservationMode.ALL_OR_NOTHING;
+        Set<Long> chargerIds = requests.stream()
+                .map(ReservationRequest::getChargerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return chargerLocks.withLocks(chargerIds,
+                        () -> transactionTemplate.execute(status -> bookAll(requests, resolvedMode, chargerIds, status)));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_BOOKING_ATTEMPTS) {
+                    throw new RuntimeException("Chargers are busy, please try again.");
+                }
+                pauseBeforeRetry(attempt);
+            }
+        }
+    }
+
+    private BulkReservationResponse bookAll(List<ReservationRequest> requests, BulkReservationMode mode,
+                                            Set<Long> chargerIds, TransactionStatus status) {
+        Set<Long> clientIds = requests.stream()
+                .map(ReservationRequest::getClientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Client> clients = clientRepository.findAllById(clientIds).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+        Map<Long, Charger> chargers = chargerIds.isEmpty() ? Map.of()
+                : chargerRepository.findAllForBooking(chargerIds).stream()
+                        .collect(Collectors.toMap(Charger::getId, Function.identity()));
+
+        // Everything already booked on these chargers within the batch's overall span, grouped by charger
+        Map<Long, List<ReservationInterval>> taken = new HashMap<>();
+        LocalDateTime spanStart = requests.stream().map(ReservationRequest::getStartTime)
+                .filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+        LocalDateTime spanEnd = requests.stream().map(ReservationRequest::getEstimatedEndTime)
+                .filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+        if (!chargers.isEmpty() && spanStart != null && spanEnd != null) {
+            for (ReservationInterval interval : reservationRepository.findIntervalsForChargersBetween(
+                    chargers.keySet(), spanStart, spanEnd)) {
+                taken.computeIfAbsent(interval.getChargerId(), id -> new ArrayList<>()).add(interval);
+            }
+        }
+
+        List<BulkReservationItemResult> results = new ArrayList<>(requests.size());
+        List<Reservation> accepted = new ArrayList<>();
+        List<BulkReservationItemResult> acceptedResults = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequest request = requests.get(i);
+            String error = validateBulkItem(request, clients, chargers, taken);
+            if (error != null) {
+                results.add(BulkReservationItemResult.builder().index(i).booked(false).error(error).build());
+                continue;
+            }
+            Charger charger = chargers.get(request.getChargerId());
+            accepted.add(newReservation(clients.get(request.getClientId()), charger, request));
+            // Later requests of the batch must not overlap this one either
+            taken.computeIfAbsent(charger.getId(), id -> new ArrayList<>()).add(new ReservationInterval(
+                    null, charger.getId(), request.getStartTime(), request.getEstimatedEndTime()));
+            BulkReservationItemResult result = BulkReservationItemResult.builder().index(i).booked(true).build();
+            results.add(result);
+            acceptedResults.add(result);
+        }
+
+        if (mode == BulkReservationMode.ALL_OR_NOTHING && acceptedResults.size() < requests.size()) {
+            status.setRollbackOnly();
+            for (BulkReservationItemResult result : acceptedResults) {
+                result.setBooked(false);
+                result.setError("Not booked: another reservation in the batch was rejected.");
+            }
+            accepted.clear();
+            acceptedResults.clear();
+        }
+
+        List<Reservation> saved = reservationRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            acceptedResults.get(i).setReservationId(saved.get(i).getId());
+        }
+
+        return BulkReservationResponse.builder()
+                .mode(mode)
+                .requested(requests.size())
+                .booked(saved.size())
+                .results(results)
+                .build();
+    }
+
+    private static String validateBulkItem(ReservationRequest request, Map<Long, Client> clients,
+                                           Map<Long, Charger> chargers, Map<Long, List<ReservationInterval>> taken) {
+        if (request.getStartTime() == null || request.getEstimatedEndTime() == null
+                || !request.getStartTime().isBefore(request.getEstimatedEndTime())) {
+            return "Start time must be before the estimated end time.";
+        }
+        if (!clients.containsKey(request.getClientId())) {
+            return "Client not found";
+        }
+        Charger charger = chargers.get(request.getChargerId());
+        if (charger == null) {
+            return "Charger not found";
+        }
+        if (charger.getStatus() == ChargerStatus.UNDER_MAINTENANCE) {
+            return "This charger is currently under maintenance and cannot be reserved.";
+        }
+        for (ReservationInterval interval : taken.getOrDefault(charger.getId(), List.of())) {
+            if (interval.getEndTime().isAfter(request.getStartTime())
+                    && interval.getStartTime().isBefore(request.getEstimatedEndTime())) {
+                return "Charger is already reserved for the requested time.";
+            }
+        }
+        return null;
+    }
+
+    private static void pauseBeforeRetry(int attempt) {
+        try {
+            // Jittered so that retries of bookings that collided once do not collide again
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while booking", e);
+        }
     }
 
     public Reservation cancelReservation(Long reservationId) {
@@ -0,0 +1,90 @@
+package tqs.backend.service;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tqs.backend.dto.StationDetailsDTO;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.event.ReservationChangedEvent;
+import tqs.backend.model.Reservation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-station availability snapshots keyed by 15-minute bucket. A station's snapshots are dropped
+ * as a whole whenever one of its chargers or reservations changes.
+ */
+@Component
+public class StationAvailabilityCache {
+
+    public static final Duration BUCKET = Duration.ofMinutes(15);
+    static final int MAX_BUCKETS_PER_STATION = 96;
+
+    private final ConcurrentMap<Long, ConcurrentMap<LocalDateTime, StationDetailsDTO>> snapshots = new ConcurrentHashMap<>();
+
+    public static LocalDateTime bucketStart(LocalDateTime datetime) {
+        LocalDateTime hour = datetime.truncatedTo(ChronoUnit.HOURS);
+        long minutes = Duration.between(hour, datetime).toMinutes();
+        return hour.plusMinutes(minutes - minutes % BUCKET.toMinutes());
+    }
+
+    public StationDetailsDTO get(Long stationId, LocalDateTime bucket, Supplier<StationDetailsDTO> loader) {
+        // Grab the holder before loading: if the station is evicted meanwhile, the result lands in a detached map
+        ConcurrentMap<LocalDateTime, StationDetailsDTO> buckets =
+                snapshots.computeIfAbsent(stationId, id -> new ConcurrentHashMap<>());
+
+        StationDetailsDTO cached = buckets.get(bucket);
+        if (cached != null) {
+            return cached;
+        }
+
+        StationDetailsDTO loaded = loader.get();
+        if (loaded != null) {
+            if (buckets.size() >= MAX_BUCKETS_PER_STATION) {
+                prune(buckets);
+            }
+            buckets.put(bucket, loaded);
+        }
+        return loaded;
+    }
+
+    public void evictStation(Long stationId) {
+        if (stationId != null) {
+            snapshots.remove(stationId);
+        }
+    }
+
+    public void clear() {
+        snapshots.clear();
+    }
+
+    // After the reservation index took the change, or a snapshot loaded in between would be cached from the old index
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ReservationIntervalIndex.LISTENER_ORDER + 1)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Reservation reservation = event.getReservation();
+        if (reservation.getCharger() != null && reservation.getCharger().getStation() != null) {
+            evictStation(reservation.getCharger().getStation().getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChargerChanged(ChargerChangedEvent event) {
+        evictStation(event.getStationId());
+    }
+
+    private void prune(Map<LocalDateTime, StationDetailsDTO> buckets) {
+        LocalDateTime current = bucketStart(LocalDateTime.now());
+        buckets.keySet().removeIf(bucket -> bucket.isBefore(current));
+        if (buckets.size() >= MAX_BUCKETS_PER_STATION) {
+            buckets.clear();
+        }
+    }
+}
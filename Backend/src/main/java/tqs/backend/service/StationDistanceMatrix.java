@@ -0,0 +1,581 @@
+package tqs.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tqs.backend.dto.StationDTO;
+import tqs.backend.event.StationChangedEvent;
+import tqs.backend.model.Station;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.util.GeoUtils;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Great-circle distances from every station to the stations within station.distances.radius-km of it, closest
+ * first, held as one pair of primitive arrays per station. Built in the background on startup and then kept
+ * up to date one station at a time from {@link StationChangedEvent}s, so creating or deleting a station only
+ * rewrites the rows of its neighbours.
+ * A station's neighbours are looked up in a grid of cells at least the radius wide, so an update only measures
+ * the stations of the cells around it.
+ * When station.distances.file is set the matrix is written there through a memory-mapped buffer whenever it
+ * has changed; the next startup maps it back and only recomputes the stations that changed in the meantime.
+ * A relative file is resolved against app.data-dir.
+ */
+@Component
+public class StationDistanceMatrix {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationDistanceMatrix.class);
+
+    private static final int MAGIC = 0x53444d31;
+    // magic, radius, station count
+    private static final int HEADER_BYTES = 4 + 4 + 4;
+    // id, latitude, longitude, neighbour count
+    private static final int STATION_BYTES = 8 + 8 + 8 + 4;
+    // neighbour id, distance
+    private static final int ENTRY_BYTES = 8 + 4;
+    // Above this share of changed stations a saved matrix is rebuilt rather than patched
+    private static final double MAX_RECONCILE_SHARE = 0.1;
+
+    private final StationRepository stationRepository;
+    private final Executor executor;
+    private final double radiusKm;
+    private final Path file;
+    // Grid cell size: 360 divided into whole cells at least the radius wide, so longitude cells wrap exactly
+    private final int lngCells;
+    private final double cellDegrees;
+
+    // Rows are immutable and replaced whole; writers serialise on the lock, readers never block
+    private final Object lock = new Object();
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+    private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+    // Station ids by grid cell, writers only
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    // Changes seen while the startup build runs, replayed on top of it; null once the matrix is ready
+    private List<Runnable> pending = new ArrayList<>();
+    private volatile boolean ready;
+
+    public StationDistanceMatrix(StationRepository stationRepository,
+                                 @Qualifier("applicationTaskExecutor") Executor executor,
+                                 @Value("${station.distances.radius-km:25}") double radiusKm,
+                                 @Value("${station.distances.file:}") String file,
+                                 @Value("${app.data-dir:}") String dataDir) {
+        this.stationRepository = stationRepository;
+        this.executor = executor;
+        this.radiusKm = radiusKm;
+        this.file = resolveFile(file, dataDir);
+        double latDegrees = Math.toDegrees(radiusKm / GeoUtils.EARTH_RADIUS_KM);
+        this.lngCells = (int) Math.max(1, Math.min(1 << 20, Math.floor(360.0 / latDegrees)));
+        this.cellDegrees = 360.0 / lngCells;
+    }
+
+    // A relative file goes in the data directory, by default .nikcharge in the user's home
+    static Path resolveFile(String file, String dataDir) {
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        Path path = Path.of(file);
+        if (path.isAbsolute()) {
+            return path;
+        }
+        Path directory = dataDir == null || dataDir.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".nikcharge") : Path.of(dataDir);
+        return directory.resolve(path).toAbsolutePath().normalize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                logger.error("Could not build the station distance matrix: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Builds the matrix from the database, reusing the saved file when it was written for the same radius.
+     */
+    public void load() {
+        long t0 = System.nanoTime();
+        List<StationDTO> stations = stationRepository.findAllSummaries().stream()
+                .filter(s -> s.getId() != null && s.getLatitude() != null && s.getLongitude() != null)
+                .toList();
+
+        Snapshot snapshot = file != null ? read(file, radiusKm) : null;
+        List<StationDTO> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        if (snapshot != null) {
+            Map<Long, Point> unseen = new HashMap<>(snapshot.points());
+            for (StationDTO station : stations) {
+                Point saved = unseen.remove(station.getId());
+                if (saved == null || saved.latitude() != station.getLatitude() || saved.longitude() != station.getLongitude()) {
+                    changed.add(station);
+                }
+            }
+            removed.addAll(unseen.keySet());
+            if (changed.size() + removed.size() > stations.size() * MAX_RECONCILE_SHARE) {
+                snapshot = null;
+            }
+        }
+        if (snapshot == null) {
+            snapshot = build(stations, radiusKm);
+            changed.clear();
+            removed.clear();
+        }
+
+        synchronized (lock) {
+            points.clear();
+            rows.clear();
+            cells.clear();
+            points.putAll(snapshot.points());
+            rows.putAll(snapshot.rows());
+            points.forEach((id, point) -> cells.computeIfAbsent(cellKey(point), key -> new HashSet<>()).add(id));
+            removed.forEach(this::delete);
+            changed.forEach(s -> put(s.getId(), s.getLatitude(), s.getLongitude()));
+            if (pending != null) {
+                pending.forEach(Runnable::run);
+                pending = null;
+            }
+            ready = true;
+            dirty.set(file != null && (snapshot.rebuilt() || !changed.isEmpty() || !removed.isEmpty()));
+        }
+        logger.info("Station distance matrix ready with {} stations and {} pairs within {} km in {} ms ({})",
+                points.size(), entryCount(), radiusKm, (System.nanoTime() - t0) / 1_000_000,
+                snapshot.rebuilt() ? "computed" : "loaded from " + file + ", " + (changed.size() + removed.size()) + " stations updated");
+        flushIfDirty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        Station station = event.getStation();
+        if (station == null || station.getId() == null) {
+            return;
+        }
+        Long id = station.getId();
+        if (event.isRemoved() || station.getLatitude() == null || station.getLongitude() == null) {
+            apply(() -> delete(id));
+        } else {
+            double lat = station.getLatitude();
+            double lng = station.getLongitude();
+            apply(() -> put(id, lat, lng));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${station.distances.flush-interval-ms:30000}",
+            initialDelayString = "${station.distances.flush-interval-ms:30000}")
+    public void flushIfDirty() {
+        if (file == null || !ready || !dirty.get()) {
+            return;
+        }
+        Map<Long, Point> pointsCopy;
+        Map<Long, Row> rowsCopy;
+        synchronized (lock) {
+            dirty.set(false);
+            pointsCopy = new HashMap<>(points);
+            rowsCopy = new HashMap<>(rows);
+        }
+        try {
+            write(file, radiusKm, pointsCopy, rowsCopy);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Could not save the station distance matrix to {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushIfDirty();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public long entryCount() {
+        long entries = 0;
+        for (Row row : rows.values()) {
+            entries += row.size();
+        }
+        return entries;
+    }
+
+    /**
+     * Stations within the matrix radius of the given one, closest first, or null when it is not in the matrix.
+     */
+    public Row neighbours(long stationId) {
+        return rows.get(stationId);
+    }
+
+    /**
+     * Distance between two stations, or NaN when they are not within the matrix radius of each other.
+     */
+    public double distanceKm(long from, long to) {
+        Row row = rows.get(from);
+        if (row == null) {
+            return Double.NaN;
+        }
+        for (int i = 0; i < row.ids.length; i++) {
+            if (row.ids[i] == to) {
+                return row.distancesKm[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    private void apply(Runnable change) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                change.run();
+            }
+        }
+    }
+
+    // Both run under the lock
+    private void put(long id, double lat, double lng) {
+        Point previous = points.get(id);
+        if (previous != null) {
+            if (previous.latitude() == lat && previous.longitude() == lng) {
+                return;
+            }
+            delete(id);
+        }
+        double latDegrees = Math.toDegrees(radiusKm / GeoUtils.EARTH_RADIUS_KM);
+        double lngDegrees = GeoUtils.lngSpanDegrees(lat, radiusKm);
+        long[] ids = new long[16];
+        float[] distances = new float[16];
+        int count = 0;
+        for (long candidate : candidates(lat, lng, latDegrees, lngDegrees)) {
+            Point point = points.get(candidate);
+            if (Math.abs(point.latitude() - lat) > latDegrees
+                    || Math.abs(GeoUtils.lngDelta(lng, point.longitude())) > lngDegrees) {
+                continue;
+            }
+            double km = GeoUtils.haversineKm(lat, lng, point.latitude(), point.longitude());
+            if (km > radiusKm) {
+                continue;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                distances = Arrays.copyOf(distances, count * 2);
+            }
+            ids[count] = candidate;
+            distances[count] = (float) km;
+            count++;
+            rows.compute(candidate, (key, row) -> (row != null ? row : Row.EMPTY).with(id, (float) km));
+        }
+        Point point = new Point(lat, lng);
+        points.put(id, point);
+        cells.computeIfAbsent(cellKey(point), key -> new HashSet<>()).add(id);
+        rows.put(id, Row.sorted(ids, distances, count));
+        dirty.set(true);
+    }
+
+    private void delete(long id) {
+        Row row = rows.remove(id);
+        Point point = points.remove(id);
+        if (point != null) {
+            Set<Long> cell = cells.get(cellKey(point));
+            if (cell != null && cell.remove(id) && cell.isEmpty()) {
+                cells.remove(cellKey(point));
+            }
+        }
+        if (row == null) {
+            return;
+        }
+        for (long neighbour : row.ids) {
+            rows.computeIfPresent(neighbour, (key, neighbourRow) -> neighbourRow.without(id));
+        }
+        dirty.set(true);
+    }
+
+    // Stations in the cells overlapping the band around the point; callers still check the distance
+    private List<Long> candidates(double lat, double lng, double latDegrees, double lngDegrees) {
+        long fromLat = latCell(Math.max(-90.0, lat - latDegrees));
+        long toLat = latCell(Math.min(90.0, lat + latDegrees));
+        long fromLng = (long) Math.floor((lng - lngDegrees + 180.0) / cellDegrees);
+        long toLng = (long) Math.floor((lng + lngDegrees + 180.0) / cellDegrees);
+        if (toLng - fromLng + 1 >= lngCells) {
+            fromLng = 0;
+            toLng = lngCells - 1L;
+        }
+        List<Long> candidates = new ArrayList<>();
+        if ((toLat - fromLat + 1) * (toLng - fromLng + 1) > cells.size()) {
+            cells.values().forEach(candidates::addAll);
+            return candidates;
+        }
+        for (long latIdx = fromLat; latIdx <= toLat; latIdx++) {
+            for (long lngIdx = fromLng; lngIdx <= toLng; lngIdx++) {
+                Set<Long> cell = cells.get(latIdx * lngCells + Math.floorMod(lngIdx, lngCells));
+                if (cell != null) {
+                    candidates.addAll(cell);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private long cellKey(Point point) {
+        long lngIdx = Math.floorMod((long) Math.floor((point.longitude() + 180.0) / cellDegrees), lngCells);
+        return latCell(point.latitude()) * lngCells + lngIdx;
+    }
+
+    private long latCell(double lat) {
+        return (long) Math.floor((lat + 90.0) / cellDegrees);
+    }
+
+    /**
+     * Every pair within radiusKm, found by sweeping the stations in latitude order.
+     */
+    static Snapshot build(List<StationDTO> stations, double radiusKm) {
+        StationDTO[] sorted = stations.toArray(StationDTO[]::new);
+        Arrays.sort(sorted, Comparator.comparingDouble(StationDTO::getLatitude));
+        int n = sorted.length;
+        long[] ids = new long[n];
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = sorted[i].getId();
+            lat[i] = sorted[i].getLatitude();
+            lng[i] = sorted[i].getLongitude();
+        }
+
+        int[][] neighbours = new int[n][];
+        float[][] distances = new float[n][];
+        int[] counts = new int[n];
+        double latDegrees = Math.toDegrees(radiusKm / GeoUtils.EARTH_RADIUS_KM);
+        for (int i = 0; i < n; i++) {
+            double lngDegrees = GeoUtils.lngSpanDegrees(lat[i], radiusKm);
+            for (int j = i + 1; j < n && lat[j] - lat[i] <= latDegrees; j++) {
+                if (Math.abs(GeoUtils.lngDelta(lng[i], lng[j])) > lngDegrees) {
+                    continue;
+                }
+                double km = GeoUtils.haversineKm(lat[i], lng[i], lat[j], lng[j]);
+                if (km <= radiusKm) {
+                    append(neighbours, distances, counts, i, j, (float) km);
+                    append(neighbours, distances, counts, j, i, (float) km);
+                }
+            }
+        }
+
+        Map<Long, Point> points = new HashMap<>(n * 2);
+        Map<Long, Row> rows = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            long[] rowIds = new long[counts[i]];
+            for (int k = 0; k < counts[i]; k++) {
+                rowIds[k] = ids[neighbours[i][k]];
+            }
+            points.put(ids[i], new Point(lat[i], lng[i]));
+            rows.put(ids[i], Row.sorted(rowIds, counts[i] == 0 ? new float[0] : distances[i], counts[i]));
+        }
+        return new Snapshot(points, rows, true);
+    }
+
+    // Widest longitude difference a station within radiusKm of the latitude can have, wherever it sits in the band
+    private static void append(int[][] neighbours, float[][] distances, int[] counts, int from, int to, float km) {
+        if (neighbours[from] == null) {
+            neighbours[from] = new int[8];
+            distances[from] = new float[8];
+        } else if (counts[from] == neighbours[from].length) {
+            neighbours[from] = Arrays.copyOf(neighbours[from], counts[from] * 2);
+            distances[from] = Arrays.copyOf(distances[from], counts[from] * 2);
+        }
+        neighbours[from][counts[from]] = to;
+        distances[from][counts[from]] = km;
+        counts[from]++;
+    }
+
+    static void write(Path file, double radiusKm, Map<Long, Point> points, Map<Long, Row> rows) throws IOException {
+        long size = HEADER_BYTES;
+        for (Long id : points.keySet()) {
+            Row row = rows.getOrDefault(id, Row.EMPTY);
+            size += STATION_BYTES + (long) row.size() * ENTRY_BYTES;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Distance matrix too large to map (" + size + " bytes)");
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        // Written next to the target and moved over it, so a crash never leaves a half-written matrix behind
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putFloat((float) radiusKm);
+            buffer.putInt(points.size());
+            for (Map.Entry<Long, Point> entry : points.entrySet()) {
+                Row row = rows.getOrDefault(entry.getKey(), Row.EMPTY);
+                buffer.putLong(entry.getKey());
+                buffer.putDouble(entry.getValue().latitude());
+                buffer.putDouble(entry.getValue().longitude());
+                buffer.putInt(row.size());
+                for (int i = 0; i < row.size(); i++) {
+                    buffer.putLong(row.ids[i]);
+                    buffer.putFloat(row.distancesKm[i]);
+                }
+            }
+            buffer.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The matrix saved in file, or null when there is none, it is unreadable or it was built for another radius.
+     */
+    static Snapshot read(Path file, double radiusKm) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getFloat() != (float) radiusKm) {
+                return null;
+            }
+            int stations = buffer.getInt();
+            Map<Long, Point> points = new HashMap<>(stations * 2);
+            Map<Long, Row> rows = new HashMap<>(stations * 2);
+            for (int s = 0; s < stations; s++) {
+                long id = buffer.getLong();
+                points.put(id, new Point(buffer.getDouble(), buffer.getDouble()));
+                int count = buffer.getInt();
+                long[] ids = new long[count];
+                float[] distances = new float[count];
+                for (int i = 0; i < count; i++) {
+                    ids[i] = buffer.getLong();
+                    distances[i] = buffer.getFloat();
+                }
+                rows.put(id, new Row(ids, distances));
+            }
+            return new Snapshot(points, rows, false);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable station distance matrix {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    record Point(double latitude, double longitude) {
+    }
+
+    record Snapshot(Map<Long, Point> points, Map<Long, Row> rows, boolean rebuilt) {
+    }
+
+    /**
+     * Neighbours of one station, closest first. Never modified once built.
+     */
+    public static final class Row {
+        static final Row EMPTY = new Row(new long[0], new float[0]);
+
+        private final long[] ids;
+        private final float[] distancesKm;
+
+        Row(long[] ids, float[] distancesKm) {
+            this.ids = ids;
+            this.distancesKm = distancesKm;
+        }
+
+        public int size() {
+            return ids.length;
+        }
+
+        public long stationId(int index) {
+            return ids[index];
+        }
+
+        public float distanceKm(int index) {
+            return distancesKm[index];
+        }
+
+        /**
+         * Sorts the first count pairs by distance: distances are non-negative, so their float bits sort in the
+         * same order and can be packed above the index into one long.
+         */
+        static Row sorted(long[] ids, float[] distancesKm, int count) {
+            long[] packed = new long[count];
+            for (int i = 0; i < count; i++) {
+                packed[i] = ((long) Float.floatToRawIntBits(distancesKm[i]) << 32) | i;
+            }
+            Arrays.sort(packed);
+            long[] sortedIds = new long[count];
+            float[] sortedDistances = new float[count];
+            for (int i = 0; i < count; i++) {
+                int index = (int) packed[i];
+                sortedIds[i] = ids[index];
+                sortedDistances[i] = distancesKm[index];
+            }
+            return new Row(sortedIds, sortedDistances);
+        }
+
+        Row with(long id, float km) {
+            int at = 0;
+            while (at < distancesKm.length && distancesKm[at] <= km) {
+                at++;
+            }
+            long[] newIds = new long[ids.length + 1];
+            float[] newDistances = new float[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, at);
+            System.arraycopy(distancesKm, 0, newDistances, 0, at);
+            newIds[at] = id;
+            newDistances[at] = km;
+            System.arraycopy(ids, at, newIds, at + 1, ids.length - at);
+            System.arraycopy(distancesKm, at, newDistances, at + 1, ids.length - at);
+            return new Row(newIds, newDistances);
+        }
+
+        Row without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    long[] newIds = new long[ids.length - 1];
+                    float[] newDistances = new float[ids.length - 1];
+                    System.arraycopy(ids, 0, newIds, 0, i);
+                    System.arraycopy(distancesKm, 0, newDistances, 0, i);
+                    System.arraycopy(ids, i + 1, newIds, i, ids.length - i - 1);
+                    System.arraycopy(distancesKm, i + 1, newDistances, i, ids.length - i - 1);
+                    return new Row(newIds, newDistances);
+                }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package tqs.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tqs.backend.dto.RoutableCharger;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.event.StationChangedEvent;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Stations that trips can charge at, with precomputed driving legs between them, held as primitive arrays.
+ * Each station keeps at most one edge per bearing sector and distance ring within trip.graph.max-edge-km, so
+ * the graph stays sparse on dense networks while still offering a long hop in every direction. Edges only
+ * lead to one representative station per small grid cell (the one with the fastest charger); every station
+ * can still be the first stop of a trip.
+ * Built on startup and rebuilt in the background once a change reaches it: a station added, moved or deleted, or
+ * a charger joining or leaving a station's routable chargers or changing type. Status changes between routable
+ * statuses, price and note edits leave the graph as it is.
+ */
+@Component
+public class StationReachabilityGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationReachabilityGraph.class);
+
+    static final int SECTORS = 8;
+    static final int RINGS = 10;
+    // Grid used to pick edge targets, about 11 km of latitude
+    static final double TARGET_CELL_DEGREES = 0.1;
+    // Grid used to find stations around a point
+    static final double LOOKUP_CELL_DEGREES = 0.5;
+    private static final double KM_PER_DEGREE = Math.toRadians(GeoUtils.EARTH_RADIUS_KM);
+
+    private static final EnumSet<ChargerStatus> ROUTABLE = EnumSet.of(ChargerStatus.AVAILABLE, ChargerStatus.IN_USE);
+
+    private final ChargerRepository chargerRepository;
+    private final double maxEdgeKm;
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Graph graph;
+
+    public StationReachabilityGraph(ChargerRepository chargerRepository,
+                                    @Value("${trip.graph.max-edge-km:300}") double maxEdgeKm) {
+        this.chargerRepository = chargerRepository;
+        this.maxEdgeKm = maxEdgeKm;
+    }
+
+    /**
+     * Builds the graph from the current chargers and publishes it. Only one build runs at a time, so a graph read
+     * earlier never replaces one read later; a call made while another build runs does nothing, and a change that
+     * build missed leaves the graph stale for the next scheduled run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            stale.set(false);
+            long t0 = System.nanoTime();
+            Graph built = build(chargerRepository.findRoutable(ROUTABLE), maxEdgeKm);
+            graph = built;
+            logger.info("Station reachability graph built with {} stations and {} edges in {} ms",
+                    built.size(), built.edgeCount(), (System.nanoTime() - t0) / 1_000_000);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trip.graph.rebuild-interval-ms:60000}",
+            initialDelayString = "${trip.graph.rebuild-interval-ms:60000}")
+    public void rebuildIfStale() {
+        if (stale.get()) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        Graph current = graph;
+        if (current == null || current.isChangedBy(event.getStation(), event.isRemoved())) {
+            stale.set(true);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChargerChanged(ChargerChangedEvent event) {
+        Graph current = graph;
+        if (current == null || current.isChangedBy(event.getCharger(), event.isRemoved())) {
+            stale.set(true);
+        }
+    }
+
+    public boolean isReady() {
+        return graph != null;
+    }
+
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    /**
+     * The current graph, or null before the first build. A graph never changes once published.
+     */
+    Graph current() {
+        return graph;
+    }
+
+    static Graph build(List<RoutableCharger> chargers, double maxEdgeKm) {
+        // One node per station, stopping at its fastest charger
+        Map<Long, RoutableCharger> best = new HashMap<>();
+        for (RoutableCharger charger : chargers) {
+            best.merge(charger.getStationId(), charger, (a, b) -> faster(b, a) ? b : a);
+        }
+        RoutableCharger[] nodes = best.values().toArray(RoutableCharger[]::new);
+        Arrays.sort(nodes, (a, b) -> Long.compare(a.getStationId(), b.getStationId()));
+
+        int n = nodes.length;
+        long[] stationIds = new long[n];
+        long[] chargerIds = new long[n];
+        ChargerType[] types = new ChargerType[n];
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        for (int i = 0; i < n; i++) {
+            stationIds[i] = nodes[i].getStationId();
+            chargerIds[i] = nodes[i].getChargerId();
+            types[i] = nodes[i].getChargerType();
+            lat[i] = nodes[i].getLatitude();
+            lng[i] = nodes[i].getLongitude();
+        }
+
+        Map<Long, Integer> representatives = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            representatives.merge(cellKey(lat[i], lng[i], TARGET_CELL_DEGREES), i,
+                    (a, b) -> faster(nodes[b], nodes[a]) ? b : a);
+        }
+        int[] targetNodes = representatives.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        Map<Long, int[]> targetCells = cells(targetNodes, lat, lng);
+        Map<Long, int[]> lookupCells = cells(allNodes(n), lat, lng);
+
+        int buckets = SECTORS * RINGS;
+        double ringKm = maxEdgeKm / RINGS;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[Math.max(16, n * 8)];
+        float[] lengths = new float[targets.length];
+        int[] bucketNode = new int[buckets];
+        double[] bucketKm = new double[buckets];
+        int edges = 0;
+
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(bucketNode, -1);
+            final int from = i;
+            // Local flat projection for bucketing; only the kept edges get a great-circle length
+            double kmPerLngDegree = KM_PER_DEGREE * Math.cos(Math.toRadians(lat[i]));
+            forEachCandidate(targetCells, lat[i], lng[i], maxEdgeKm, j -> {
+                if (j == from) {
+                    return;
+                }
+                double dy = (lat[j] - lat[from]) * KM_PER_DEGREE;
+                // The short way round, so stations across the antimeridian are near
+                double dx = GeoUtils.lngDelta(lng[from], lng[j]) * kmPerLngDegree;
+                double squared = dx * dx + dy * dy;
+                if (squared > maxEdgeKm * maxEdgeKm) {
+                    return;
+                }
+                double km = Math.sqrt(squared);
+                int bucket = sector(dx, dy) * RINGS + Math.min(RINGS - 1, (int) (km / ringKm));
+                // The farthest station of each bucket gives the longest hop in that direction
+                if (bucketNode[bucket] < 0 || km > bucketKm[bucket]) {
+                    bucketNode[bucket] = j;
+                    bucketKm[bucket] = km;
+                }
+            });
+
+            offsets[i] = edges;
+            for (int b = 0; b < buckets; b++) {
+                if (bucketNode[b] < 0) {
+                    continue;
+                }
+                int j = bucketNode[b];
+                double km = GeoUtils.haversineKm(lat[i], lng[i], lat[j], lng[j]);
+                if (km > maxEdgeKm) {
+                    continue;
+                }
+                if (edges == targets.length) {
+                    targets = Arrays.copyOf(targets, targets.length * 2);
+                    lengths = Arrays.copyOf(lengths, targets.length);
+                }
+                targets[edges] = j;
+                lengths[edges] = (float) km;
+                edges++;
+            }
+        }
+        offsets[n] = edges;
+
+        Map<Long, RoutableCharger> routable = new HashMap<>(chargers.size() * 2);
+        for (RoutableCharger charger : chargers) {
+            routable.put(charger.getChargerId(), charger);
+        }
+        return new Graph(stationIds, chargerIds, types, lat, lng, offsets,
+                Arrays.copyOf(targets, edges), Arrays.copyOf(lengths, edges), lookupCells, routable);
+    }
+
+    /**
+     * Nominal charging power used to estimate stop durations.
+     */
+    static double powerKw(ChargerType type) {
+        if (type == null) {
+            return 11;
+        }
+        return switch (type) {
+            case AC_STANDARD -> 11;
+            case DC_FAST -> 50;
+            case DC_ULTRA_FAST -> 150;
+        };
+    }
+
+    private static boolean faster(RoutableCharger candidate, RoutableCharger current) {
+        double candidatePower = powerKw(candidate.getChargerType());
+        double currentPower = powerKw(current.getChargerType());
+        if (candidatePower != currentPower) {
+            return candidatePower > currentPower;
+        }
+        return candidate.getChargerId() < current.getChargerId();
+    }
+
+    // Octant of the direction (dx east, dy north), counted anticlockwise from west
+    private static int sector(double dx, double dy) {
+        if (dy >= 0) {
+            if (dx >= 0) {
+                return dy < dx ? 4 : 5;
+            }
+            return dy > -dx ? 6 : 7;
+        }
+        if (dx < 0) {
+            return dy > dx ? 0 : 1;
+        }
+        return -dy > dx ? 2 : 3;
+    }
+
+    private static int[] allNodes(int n) {
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    private static Map<Long, int[]> cells(int[] members, double[] lat, double[] lng) {
+        Map<Long, List<Integer>> lists = new HashMap<>();
+        for (int i : members) {
+            lists.computeIfAbsent(cellKey(lat[i], lng[i], LOOKUP_CELL_DEGREES), key -> new ArrayList<>()).add(i);
+        }
+        Map<Long, int[]> cells = new HashMap<>(lists.size() * 2);
+        lists.forEach((key, list) -> cells.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        return cells;
+    }
+
+    private static long cellKey(double lat, double lng, double cellDegrees) {
+        long latIdx = (long) Math.floor((lat + 90.0) / cellDegrees);
+        long lngIdx = (long) Math.floor((lng + 180.0) / cellDegrees);
+        return latIdx * 100_000L + lngIdx;
+    }
+
+    // Every member of the lookup cells overlapping the circle's bounding boxes; callers check the distance
+    private static void forEachCandidate(Map<Long, int[]> cells, double lat, double lng, double radiusKm, IntConsumer action) {
+        List<double[]> boxes = GeoUtils.boundingBoxes(lat, lng, radiusKm);
+        long lookups = 0;
+        for (double[] box : boxes) {
+            lookups += (cellIndex(box[1], 90.0) - cellIndex(box[0], 90.0) + 1)
+                    * (cellIndex(box[3], 180.0) - cellIndex(box[2], 180.0) + 1);
+        }
+        if (lookups > cells.size()) {
+            for (int[] members : cells.values()) {
+                for (int member : members) {
+                    action.accept(member);
+                }
+            }
+            return;
+        }
+        for (double[] box : boxes) {
+            for (long latIdx = cellIndex(box[0], 90.0); latIdx <= cellIndex(box[1], 90.0); latIdx++) {
+                for (long lngIdx = cellIndex(box[2], 180.0); lngIdx <= cellIndex(box[3], 180.0); lngIdx++) {
+                    int[] members = cells.get(latIdx * 100_000L + lngIdx);
+                    if (members != null) {
+                        for (int member : members) {
+                            action.accept(member);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static long cellIndex(double degrees, double offset) {
+        return (long) Math.floor((degrees + offset) / LOOKUP_CELL_DEGREES);
+    }
+
+    /**
+     * Immutable adjacency in compressed sparse row form: the edges of node i are
+     * targets/lengthsKm[offsets[i] .. offsets[i + 1]).
+     */
+    static final class Graph {
+        final long[] stationIds;
+        final long[] chargerIds;
+        final ChargerType[] chargerTypes;
+        final double[] latitudes;
+        final double[] longitudes;
+        final int[] offsets;
+        final int[] targets;
+        final float[] lengthsKm;
+        private final Map<Long, int[]> lookupCells;
+        // Every charger the graph was built from, by id, not only the one kept per station
+        private final Map<Long, RoutableCharger> routable;
+
+        Graph(long[] stationIds, long[] chargerIds, ChargerType[] chargerTypes, double[] latitudes, double[] longitudes,
+              int[] offsets, int[] targets, float[] lengthsKm, Map<Long, int[]> lookupCells,
+              Map<Long, RoutableCharger> routable) {
+            this.stationIds = stationIds;
+            this.chargerIds = chargerIds;
+            this.chargerTypes = chargerTypes;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.lengthsKm = lengthsKm;
+            this.lookupCells = lookupCells;
+            this.routable = routable;
+        }
+
+        int size() {
+            return stationIds.length;
+        }
+
+        int edgeCount() {
+            return targets.length;
+        }
+
+        /**
+         * Whether the station write changes what the graph was built from: a station it holds was deleted or
+         * moved, or a station it does not hold was saved, which may have given it routable chargers.
+         */
+        boolean isChangedBy(Station station, boolean removed) {
+            int node = station.getId() != null ? Arrays.binarySearch(stationIds, station.getId()) : -1;
+            if (node < 0) {
+                return !removed;
+            }
+            return removed || !Objects.equals(station.getLatitude(), latitudes[node])
+                    || !Objects.equals(station.getLongitude(), longitudes[node]);
+        }
+
+        /**
+         * Whether the charger write changes the station's routable chargers: the charger joined or left them, or
+         * changed type or station while routable.
+         */
+        boolean isChangedBy(Charger charger, boolean removed) {
+            RoutableCharger known = routable.get(charger.getId());
+            Station station = charger.getStation();
+            boolean isRoutable = !removed && ROUTABLE.contains(charger.getStatus()) && station != null
+                    && station.getLatitude() != null && station.getLongitude() != null;
+            if (known == null || !isRoutable) {
+                return isRoutable || known != null;
+            }
+            return known.getChargerType() != charger.getChargerType()
+                    || !Objects.equals(known.getStationId(), station.getId());
+        }
+
+        /**
+         * Calls action with every node within radiusKm of the point.
+         */
+        void forEachWithin(double lat, double lng, double radiusKm, IntConsumer action) {
+            forEachCandidate(lookupCells, lat, lng, radiusKm, node -> {
+                if (GeoUtils.haversineKm(lat, lng, latitudes[node], longitudes[node]) <= radiusKm) {
+                    action.accept(node);
+                }
+            });
+        }
+    }
+}
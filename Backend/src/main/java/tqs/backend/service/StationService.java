@@ -1,46 +1,82 @@
 package tqs.backend.service;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import tqs.backend.dto.ChargerDTO;
+import tqs.backend.dto.KeysetPage;
+import tqs.backend.dto.NearbyStationDTO;
+import tqs.backend.dto.StationAvailabilityDTO;
+import tqs.backend.dto.StationAvailabilityRequest;
+import tqs.backend.dto.StationDTO;
 import tqs.backend.dto.StationDetailsDTO;
 import tqs.backend.dto.StationRequest;
+import tqs.backend.dto.StationResponse;
 import tqs.backend.model.Charger;
-import tqs.backend.model.Discount;
 import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
 import tqs.backend.model.enums.ChargerType;
 import tqs.backend.repository.StationRepository;
 import tqs.backend.repository.ChargerRepository;
 import tqs.backend.repository.DiscountRepository;
+import tqs.backend.util.EntityStreams;
+import tqs.backend.util.GeoUtils;
 
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import tqs.backend.repository.ReservationRepository;
 import java.time.LocalDateTime;
 import java.util.Set;
-import tqs.backend.model.Reservation;
+import java.util.function.Consumer;
 
 @Service
 public class StationService {
 
+    public static final int MAX_NEARBY_LIMIT = 200;
+
     private final StationRepository stationRepository;
     private final ChargerRepository chargerRepository;
     private final DiscountRepository discountRepository;
     private final ReservationRepository reservationRepository;
+    private final ReservationIntervalIndex reservationIndex;
+    private final StationAvailabilityCache availabilityCache;
+    private final StationSpatialIndex spatialIndex;
+    private final CatalogCache catalogCache;
+    private final DiscountMatrix discountMatrix;
+    private final ChargerStatusCounters statusCounters;
+    private final StationDistanceMatrix distanceMatrix;
 
     public StationService(
             StationRepository stationRepository,
             ChargerRepository chargerRepository,
             DiscountRepository discountRepository,
-            ReservationRepository reservationRepository
+            ReservationRepository reservationRepository,
+            ReservationIntervalIndex reservationIndex,
+            StationAvailabilityCache availabilityCache,
+            StationSpatialIndex spatialIndex,
+            CatalogCache catalogCache,
+            DiscountMatrix discountMatrix,
+            ChargerStatusCounters statusCounters,
+            StationDistanceMatrix distanceMatrix
     ) {
         this.stationRepository = stationRepository;
         this.chargerRepository = chargerRepository;
         this.discountRepository = discountRepository;
         this.reservationRepository = reservationRepository;
+        this.reservationIndex = reservationIndex;
+        this.availabilityCache = availabilityCache;
+        this.spatialIndex = spatialIndex;
+        this.catalogCache = catalogCache;
+        this.discountMatrix = discountMatrix;
+        this.statusCounters = statusCounters;
+        this.distanceMatrix = distanceMatrix;
     }
 
 
@@ -58,12 +94,122 @@ public class StationService {
         return discountRepository;
     }
 
-    public List<Station> getAllStations() {
-        return stationRepository.findAll();
+    public List<StationResponse> getAllStations() {
+        return catalogCache.get(CatalogCache.allStationsKey(),
+                () -> stationRepository.findAllWithChargers().stream().map(StationResponse::from).toList());
+    }
+
+    public List<StationDTO> getStationSummaries() {
+        return catalogCache.get(CatalogCache.stationSummariesKey(),
+                () -> List.copyOf(stationRepository.findAllSummaries()));
+    }
+
+    public KeysetPage<StationDTO> getStationSummariesPage(Long after, Integer limit) {
+        int pageSize = KeysetPage.resolveLimit(limit);
+        List<StationDTO> rows = stationRepository.findSummariesAfter(KeysetPage.resolveAfter(after), Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, StationDTO::getId);
+    }
+
+    // Rows are projections, so there is no persistence context to keep small
+    @Transactional(readOnly = true)
+    public long streamStationSummaries(Consumer<StationDTO> sink) {
+        return EntityStreams.forEach(stationRepository.streamSummaries(), null, sink);
+    }
+
+    public StationResponse getStationById(Long id) {
+        // Chargers are fetched with the station so the copy can be built from it
+        return catalogCache.get(CatalogCache.stationKey(id),
+                () -> stationRepository.findWithChargersById(id).map(StationResponse::from).orElse(null));
+    }
+
+    public Map<String, Object> getCatalogCacheStats() {
+        return catalogCache.stats();
+    }
+
+    public List<NearbyStationDTO> findNearbyStations(double lat, double lng, Double radiusKm, int limit) {
+        if (lat < -90.0 || lat > 90.0 || lng < -180.0 || lng > 180.0) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+        validateNearby(radiusKm, limit);
+        return nearest(lat, lng, radiusKm, limit);
+    }
+
+    /**
+     * Other stations within radiusKm of the given one, closest first. Served from the distance matrix when the
+     * radius fits in it, otherwise from the spatial index.
+     */
+    public List<NearbyStationDTO> findNeighbourStations(Long stationId, Double radiusKm, int limit) {
+        validateNearby(radiusKm, limit);
+        Station station = stationRepository.findById(stationId)
+                .orElseThrow(() -> new IllegalArgumentException("Station not found"));
+        if (station.getLatitude() == null || station.getLongitude() == null) {
+            return List.of();
+        }
+
+        double radius = radiusKm != null ? radiusKm : distanceMatrix.getRadiusKm();
+        StationDistanceMatrix.Row row = distanceMatrix.isReady() && radius <= distanceMatrix.getRadiusKm()
+                ? distanceMatrix.neighbours(stationId) : null;
+        if (row == null) {
+            return nearest(station.getLatitude(), station.getLongitude(), radius, limit + 1).stream()
+                    .filter(dto -> !stationId.equals(dto.getId()))
+                    .limit(limit)
+                    .toList();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < row.size() && ids.size() < limit && row.distanceKm(i) <= radius; i++) {
+            ids.add(row.stationId(i));
+        }
+        Map<Long, Station> stations = new HashMap<>();
+        stationRepository.findAllById(ids).forEach(s -> stations.put(s.getId(), s));
+        List<NearbyStationDTO> neighbours = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Station neighbour = stations.get(ids.get(i));
+            if (neighbour != null) {
+                neighbours.add(NearbyStationDTO.builder()
+                        .id(neighbour.getId())
+                        .name(neighbour.getName())
+                        .address(neighbour.getAddress())
+                        .city(neighbour.getCity())
+                        .latitude(neighbour.getLatitude())
+                        .longitude(neighbour.getLongitude())
+                        .distanceKm(row.distanceKm(i))
+                        .build());
+            }
+        }
+        return neighbours;
+    }
+
+    private static void validateNearby(Double radiusKm, int limit) {
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        if (limit <= 0 || limit > MAX_NEARBY_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_NEARBY_LIMIT);
+        }
     }
 
-    public Station getStationById(Long id) {
-        return stationRepository.findById(id).orElse(null);
+    private List<NearbyStationDTO> nearest(double lat, double lng, Double radiusKm, int limit) {
+        if (spatialIndex.isReady()) {
+            return spatialIndex.nearest(lat, lng, limit, radiusKm);
+        }
+
+        // Index not built yet: rank every station
+        return stationRepository.findAll().stream()
+                .filter(s -> s.getLatitude() != null && s.getLongitude() != null)
+                .map(s -> NearbyStationDTO.builder()
+                        .id(s.getId())
+                        .name(s.getName())
+                        .address(s.getAddress())
+                        .city(s.getCity())
+                        .latitude(s.getLatitude())
+                        .longitude(s.getLongitude())
+                        .distanceKm(GeoUtils.haversineKm(lat, lng, s.getLatitude(), s.getLongitude()))
+                        .build())
+                .filter(dto -> radiusKm == null || dto.getDistanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(NearbyStationDTO::getDistanceKm))
+                .limit(limit)
+                .toList();
     }
 
     public Station createStationFromRequest(StationRequest req) {
@@ -82,22 +228,37 @@ public class StationService {
                 .longitude(req.getLongitude())
                 .build();
 
-        return stationRepository.save(station);
+        Station saved = stationRepository.save(station);
+        catalogCache.invalidateStation(saved.getId());
+        return saved;
     }
 
     public StationDetailsDTO getStationDetails(Long stationId, LocalDateTime datetime) {
-        Station station = stationRepository.findById(stationId).orElse(null);
-        if (station == null) return null;
+        if (datetime == null) {
+            return loadStationDetails(stationId, null);
+        }
+        // Served from the 15-minute bucket snapshot: chargers free for the whole bucket containing datetime
+        LocalDateTime bucket = StationAvailabilityCache.bucketStart(datetime);
+        return availabilityCache.get(stationId, bucket, () -> loadStationDetails(stationId, bucket));
+    }
 
-        List<Charger> chargers = chargerRepository.findByStationId(stationId);
+    private StationDetailsDTO loadStationDetails(Long stationId, LocalDateTime bucket) {
+        // Column projections: nothing here is hydrated as a managed entity
+        StationDetailsDTO details = stationRepository.findDetailsById(stationId).orElse(null);
+        if (details == null) return null;
 
-        if (datetime != null) {
-            // Fetch reservations that conflict with this datetime
-            List<Reservation> reservations = reservationRepository.findByStartTimeLessThanEqualAndEstimatedEndTimeAfter(datetime, datetime);
+        List<ChargerDTO> chargers = chargerRepository.findDtosByStationId(stationId);
 
-            Set<Long> reservedChargerIds = reservations.stream()
-                    .map(r -> r.getCharger().getId())
-                    .collect(Collectors.toSet());
+        if (bucket != null) {
+            LocalDateTime bucketEnd = bucket.plus(StationAvailabilityCache.BUCKET);
+            Set<Long> reservedChargerIds;
+            if (reservationIndex.isReady()) {
+                reservedChargerIds = reservationIndex.overlappingChargerIds(
+                        chargers.stream().map(ChargerDTO::getId).toList(), bucket, bucketEnd);
+            } else {
+                // Only this station's chargers that are reserved at some point in the bucket
+                reservedChargerIds = reservationRepository.findBusyChargerIdsByStationBetween(stationId, bucket, bucketEnd);
+            }
 
             // Filter out reserved chargers
             chargers = chargers.stream()
@@ -105,45 +266,137 @@ public class StationService {
                     .toList();
         }
 
-        List<ChargerDTO> chargerDTOs = chargers.stream()
-                .map(c -> ChargerDTO.builder()
-                        .id(c.getId())
-                        .chargerType(c.getChargerType())
-                        .status(c.getStatus())
-                        .pricePerKwh(c.getPricePerKwh())
-                        .stationId(c.getStation() != null ? c.getStation().getId() : null)
-                        .stationName(c.getStation() != null ? c.getStation().getName() : null)
-                        .stationCity(c.getStation() != null ? c.getStation().getCity() : null)
-                        .build())
-                .toList();
+        details.setChargers(chargers);
+        return details;
+    }
 
-        return StationDetailsDTO.builder()
-                .id(station.getId())
-                .name(station.getName())
-                .address(station.getAddress())
-                .city(station.getCity())
-                .latitude(station.getLatitude())
-                .longitude(station.getLongitude())
-                .chargers(chargerDTOs)
-                .build();
+
+    public List<StationAvailabilityDTO> searchAvailableStations(StationAvailabilityRequest request) {
+        LocalDateTime datetime = request.getDatetime() != null ? request.getDatetime() : LocalDateTime.now();
+        Set<ChargerType> types = request.getChargerTypes() == null || request.getChargerTypes().isEmpty()
+                ? EnumSet.allOf(ChargerType.class)
+                : EnumSet.copyOf(request.getChargerTypes());
+
+        // Two queries regardless of how many stations match (chargers with station, busy chargers), one more for a
+        // circle across the antimeridian; discounts come from the matrix
+        List<Charger> candidates = new ArrayList<>();
+        for (double[] box : resolveBoundingBoxes(request)) {
+            candidates.addAll(chargerRepository.findWithStationByTypeInArea(types, box[0], box[1], box[2], box[3]));
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> busyChargerIds = reservationRepository.findBusyChargerIdsAt(types, datetime);
+
+        Map<Long, Double> bestDiscountByStation = bestDiscounts(datetime.getDayOfWeek().getValue(), datetime.getHour(), types);
+
+        Map<Station, List<Charger>> availableByStation = new LinkedHashMap<>();
+        for (Charger charger : candidates) {
+            if (isBookable(charger) && !busyChargerIds.contains(charger.getId())) {
+                availableByStation.computeIfAbsent(charger.getStation(), s -> new ArrayList<>()).add(charger);
+            }
+        }
+
+        List<StationAvailabilityDTO> results = new ArrayList<>();
+        availableByStation.forEach((station, chargers) -> {
+            Double distanceKm = null;
+            if (request.hasRadius()) {
+                distanceKm = GeoUtils.haversineKm(request.getLat(), request.getLng(),
+                        station.getLatitude(), station.getLongitude());
+                if (distanceKm > request.getRadiusKm()) {
+                    return;
+                }
+            }
+
+            Double percent = bestDiscountByStation.get(station.getId());
+            results.add(StationAvailabilityDTO.builder()
+                    .id(station.getId())
+                    .name(station.getName())
+                    .address(station.getAddress())
+                    .city(station.getCity())
+                    .latitude(station.getLatitude())
+                    .longitude(station.getLongitude())
+                    .distanceKm(distanceKm)
+                    .availableChargers(chargers.size())
+                    .discountTag(percent != null ? String.format("%.0f%% off", percent) : null)
+                    .chargers(chargers.stream().map(this::toChargerDTO).toList())
+                    .build());
+        });
+
+        if (request.hasRadius()) {
+            results.sort(Comparator.comparing(StationAvailabilityDTO::getDistanceKm));
+        }
+        return results;
     }
 
+    // Overlapping discounts of the same station resolve to the highest percent, with or without the matrix
+    private Map<Long, Double> bestDiscounts(int dayOfWeek, int hour, Set<ChargerType> types) {
+        if (discountMatrix.isReady()) {
+            return discountMatrix.bestDiscounts(dayOfWeek, hour, types);
+        }
+        Map<Long, Double> best = new HashMap<>();
+        discountRepository.findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerTypeIn(
+                dayOfWeek, hour, hour, types
+        ).forEach(d -> best.merge(d.getStation().getId(), d.getDiscountPercent(), Math::max));
+        return best;
+    }
+
+    private Map<Long, Double> bestDiscounts(int dayOfWeek, int hour, ChargerType type) {
+        if (discountMatrix.isReady()) {
+            return discountMatrix.bestDiscounts(dayOfWeek, hour, type);
+        }
+        Map<Long, Double> best = new HashMap<>();
+        discountRepository.findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerType(
+                dayOfWeek, hour, hour, type
+        ).forEach(d -> best.merge(d.getStation().getId(), d.getDiscountPercent(), Math::max));
+        return best;
+    }
+
+    private List<double[]> resolveBoundingBoxes(StationAvailabilityRequest request) {
+        if (request.hasRadius()) {
+            if (request.getRadiusKm() <= 0) {
+                throw new IllegalArgumentException("Radius must be positive");
+            }
+            return GeoUtils.boundingBoxes(request.getLat(), request.getLng(), request.getRadiusKm());
+        }
+        return List.<double[]>of(new double[]{
+                request.getMinLat() != null ? request.getMinLat() : -90.0,
+                request.getMaxLat() != null ? request.getMaxLat() : 90.0,
+                request.getMinLng() != null ? request.getMinLng() : -180.0,
+                request.getMaxLng() != null ? request.getMaxLng() : 180.0
+        });
+    }
+
+    private boolean isBookable(Charger charger) {
+        return charger.getStatus() != ChargerStatus.UNDER_MAINTENANCE
+                && charger.getStatus() != ChargerStatus.MAINTENANCE;
+    }
+
+    private ChargerDTO toChargerDTO(Charger c) {
+        return ChargerDTO.builder()
+                .id(c.getId())
+                .chargerType(c.getChargerType())
+                .status(c.getStatus())
+                .pricePerKwh(c.getPricePerKwh())
+                .stationId(c.getStation() != null ? c.getStation().getId() : null)
+                .stationName(c.getStation() != null ? c.getStation().getName() : null)
+                .stationCity(c.getStation() != null ? c.getStation().getCity() : null)
+                .build();
+    }
 
     public void deleteStation(Long id) {
         if (!stationRepository.existsById(id)) {
             throw new IllegalArgumentException("Station not found");
         }
         stationRepository.deleteById(id);
+        availabilityCache.evictStation(id);
+        catalogCache.invalidateStation(id);
+        statusCounters.removeStation(id);
     }
 
     public List<Map<String, Object>> searchStationsWithDiscount(int dayOfWeek, int hour, ChargerType type) {
-        List<Station> stations = stationRepository.findAll();
-        List<Discount> discounts = discountRepository.findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerType(
-                dayOfWeek, hour, hour, type
-        );
-
-        Map<Long, Discount> stationToDiscount = discounts.stream()
-                .collect(Collectors.toMap(d -> d.getStation().getId(), d -> d));
+        Map<Long, Double> stationToDiscount = bestDiscounts(dayOfWeek, hour, type);
 
         // Calculate target time window
         java.time.LocalDateTime now = java.time.LocalDateTime.now();
@@ -152,34 +405,34 @@ public class StationService {
                 .withHour(hour).withMinute(0).withSecond(0).withNano(0);
         java.time.LocalDateTime targetEnd = targetStart.plusHours(1);
 
-        return stations.stream()
-                .map(station -> {
-                    List<Charger> availableChargers = station.getChargers().stream()
-                            .filter(ch -> ch.getChargerType() == type)
-                            .filter(ch -> !reservationRepository.existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeLessThanEqual(
-                                    ch.getId(), targetStart, targetEnd))
-                            .toList();
-
-                    if (availableChargers.isEmpty()) {
-                        return null;
-                    }
-
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", station.getId());
-                    map.put("name", station.getName());
-                    map.put("latitude", station.getLatitude());
-                    map.put("longitude", station.getLongitude());
-                    map.put("availableChargers", availableChargers.size());
-
-                    if (stationToDiscount.containsKey(station.getId())) {
-                        double percent = stationToDiscount.get(station.getId()).getDiscountPercent();
-                        map.put("discountTag", String.format("%.0f%% off", percent));
-                    }
-
-                    return map;
-                })
-                .filter(java.util.Objects::nonNull)
-                .toList();
+        // One query for the chargers (station fetch-joined) and one for the ones busy in the window
+        List<Charger> chargers = chargerRepository.findWithStationByChargerType(type);
+        Set<Long> busyChargerIds = reservationRepository.findBusyChargerIdsBetween(type, targetStart, targetEnd);
+
+        Map<Station, Integer> availableByStation = new LinkedHashMap<>();
+        for (Charger charger : chargers) {
+            if (!busyChargerIds.contains(charger.getId())) {
+                availableByStation.merge(charger.getStation(), 1, Integer::sum);
+            }
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(availableByStation.size());
+        availableByStation.forEach((station, availableChargers) -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", station.getId());
+            map.put("name", station.getName());
+            map.put("latitude", station.getLatitude());
+            map.put("longitude", station.getLongitude());
+            map.put("availableChargers", availableChargers);
+
+            Double percent = stationToDiscount.get(station.getId());
+            if (percent != null) {
+                map.put("discountTag", String.format("%.0f%% off", percent));
+            }
+
+            results.add(map);
+        });
+        return results;
     }
 
 
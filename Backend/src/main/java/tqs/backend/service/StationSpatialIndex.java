@@ -0,0 +1,240 @@
+package tqs.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tqs.backend.dto.NearbyStationDTO;
+import tqs.backend.event.StationChangedEvent;
+import tqs.backend.model.Station;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid of station coordinates (fixed-size lat/lng cells) for radius and nearest-neighbour lookups.
+ * Only the cells overlapping the search circle are scanned; longitude wraps around the antimeridian.
+ * Kept in sync from {@link StationChangedEvent}s after commit and rebuilt from the database on startup.
+ */
+@Component
+public class StationSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationSpatialIndex.class);
+
+    static final double CELL_DEGREES = 0.5;
+    private static final int LAT_CELLS = (int) (180 / CELL_DEGREES);
+    private static final int LNG_CELLS = (int) (360 / CELL_DEGREES);
+    private static final double INITIAL_KNN_RADIUS_KM = 5.0;
+    private static final double MAX_DISTANCE_KM = Math.PI * GeoUtils.EARTH_RADIUS_KM;
+
+    private final StationRepository stationRepository;
+    private final Map<Long, IndexedStation> byId = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Long, IndexedStation>> cells = new ConcurrentHashMap<>();
+
+    // Writers share the read lock; a rebuild takes the write lock so no update is lost while it swaps the data
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public StationSpatialIndex(StationRepository stationRepository) {
+        this.stationRepository = stationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            byId.clear();
+            cells.clear();
+            stationRepository.findAll().forEach(this::put);
+            ready = true;
+            logger.info("Station spatial index built with {} stations in {} cells", byId.size(), cells.size());
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStationChanged(StationChangedEvent event) {
+        if (event.isRemoved()) {
+            remove(event.getStation().getId());
+        } else {
+            upsert(event.getStation());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public void upsert(Station station) {
+        if (station == null || station.getId() == null) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            removeById(station.getId());
+            put(station);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long stationId) {
+        if (stationId == null) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            removeById(stationId);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stations within radiusKm of the point, closest first, at most limit of them.
+     */
+    public List<NearbyStationDTO> withinRadius(double lat, double lng, double radiusKm, int limit) {
+        List<NearbyStationDTO> matches = collectWithin(lat, lng, radiusKm);
+        matches.sort(Comparator.comparingDouble(NearbyStationDTO::getDistanceKm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * The k stations closest to the point, optionally bounded by maxRadiusKm.
+     * Grows the search circle until it holds k stations, so only the cells around the point are visited.
+     */
+    public List<NearbyStationDTO> nearest(double lat, double lng, int k, Double maxRadiusKm) {
+        double limitKm = maxRadiusKm != null ? Math.min(maxRadiusKm, MAX_DISTANCE_KM) : MAX_DISTANCE_KM;
+        double radiusKm = Math.min(INITIAL_KNN_RADIUS_KM, limitKm);
+        while (true) {
+            List<NearbyStationDTO> matches = collectWithin(lat, lng, radiusKm);
+            if (matches.size() >= k || radiusKm >= limitKm) {
+                matches.sort(Comparator.comparingDouble(NearbyStationDTO::getDistanceKm));
+                return matches.size() > k ? new ArrayList<>(matches.subList(0, k)) : matches;
+            }
+            radiusKm = Math.min(radiusKm * 4, limitKm);
+        }
+    }
+
+    private List<NearbyStationDTO> collectWithin(double lat, double lng, double radiusKm) {
+        List<NearbyStationDTO> matches = new ArrayList<>();
+
+        double angular = radiusKm / GeoUtils.EARTH_RADIUS_KM;
+        double minLat = lat - Math.toDegrees(angular);
+        double maxLat = lat + Math.toDegrees(angular);
+        int fromLat = latCell(Math.max(-90.0, minLat));
+        int toLat = latCell(Math.min(90.0, maxLat));
+
+        int fromLng = 0;
+        int lngSpan = LNG_CELLS;
+        double ratio = Math.sin(angular) / Math.cos(Math.toRadians(lat));
+        if (minLat > -90.0 && maxLat < 90.0 && angular < Math.PI / 2 && ratio < 1.0) {
+            double dLng = Math.toDegrees(Math.asin(ratio));
+            fromLng = (int) Math.floor((lng - dLng + 180.0) / CELL_DEGREES);
+            lngSpan = Math.min(LNG_CELLS, (int) Math.floor((lng + dLng + 180.0) / CELL_DEGREES) - fromLng + 1);
+        }
+
+        // A wide circle touches more cells than there are stations: a plain scan is cheaper then
+        if ((long) (toLat - fromLat + 1) * lngSpan > byId.size()) {
+            for (IndexedStation station : byId.values()) {
+                addIfWithin(matches, station, lat, lng, radiusKm);
+            }
+            return matches;
+        }
+
+        for (int latIdx = fromLat; latIdx <= toLat; latIdx++) {
+            for (int i = 0; i < lngSpan; i++) {
+                Map<Long, IndexedStation> cell = cells.get(cellKey(latIdx, Math.floorMod(fromLng + i, LNG_CELLS)));
+                if (cell == null) {
+                    continue;
+                }
+                for (IndexedStation station : cell.values()) {
+                    addIfWithin(matches, station, lat, lng, radiusKm);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void addIfWithin(List<NearbyStationDTO> matches, IndexedStation station, double lat, double lng, double radiusKm) {
+        double distance = GeoUtils.haversineKm(lat, lng, station.latitude, station.longitude);
+        if (distance <= radiusKm) {
+            matches.add(NearbyStationDTO.builder()
+                    .id(station.id)
+                    .name(station.name)
+                    .address(station.address)
+                    .city(station.city)
+                    .latitude(station.latitude)
+                    .longitude(station.longitude)
+                    .distanceKm(distance)
+                    .build());
+        }
+    }
+
+    private void put(Station station) {
+        if (station.getId() == null || station.getLatitude() == null || station.getLongitude() == null) {
+            return;
+        }
+        IndexedStation indexed = new IndexedStation(station);
+        byId.put(indexed.id, indexed);
+        cells.computeIfAbsent(indexed.cell, key -> new ConcurrentHashMap<>()).put(indexed.id, indexed);
+    }
+
+    private void removeById(Long stationId) {
+        IndexedStation previous = byId.remove(stationId);
+        if (previous != null) {
+            cells.computeIfPresent(previous.cell, (key, cell) -> {
+                cell.remove(stationId);
+                return cell.isEmpty() ? null : cell;
+            });
+        }
+    }
+
+    private static int latCell(double lat) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((lat + 90.0) / CELL_DEGREES));
+    }
+
+    private static int lngCell(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180.0) / CELL_DEGREES), LNG_CELLS);
+    }
+
+    private static int cellKey(int latIdx, int lngIdx) {
+        return latIdx * LNG_CELLS + lngIdx;
+    }
+
+    // Immutable copy of the fields served by the nearby endpoint, so lookups never touch the persistence context
+    private static final class IndexedStation {
+        private final Long id;
+        private final String name;
+        private final String address;
+        private final String city;
+        private final double latitude;
+        private final double longitude;
+        private final int cell;
+
+        private IndexedStation(Station station) {
+            this.id = station.getId();
+            this.name = station.getName();
+            this.address = station.getAddress();
+            this.city = station.getCity();
+            this.latitude = station.getLatitude();
+            this.longitude = station.getLongitude();
+            this.cell = cellKey(latCell(latitude), lngCell(longitude));
+        }
+    }
+}
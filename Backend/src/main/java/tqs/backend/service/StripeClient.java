@@ -3,6 +3,7 @@ package tqs.backend.service;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.checkout.SessionCreateParams;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -20,11 +21,11 @@ public class StripeClient {
         Stripe.apiKey = apiKey;
     }
 
-    public Session createCheckoutSession(SessionCreateParams params) throws StripeException {
-        return Session.create(params);
+    public Session createCheckoutSession(SessionCreateParams params, RequestOptions options) throws StripeException {
+        return Session.create(params, options);
     }
 
-    public Session retrieveCheckoutSession(String id) throws StripeException {
-        return Session.retrieve(id);
+    public Session retrieveCheckoutSession(String id, RequestOptions options) throws StripeException {
+        return Session.retrieve(id, options);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package tqs.backend.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import tqs.backend.dto.PaymentSession;
+import tqs.backend.exception.PaymentGatewayUnavailableException;
+import tqs.backend.util.CircuitBreaker;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs StripeClient calls on a bounded pool of its own: at most max-concurrent calls in flight and max-queued
+ * waiting, beyond which calls are refused straight away rather than queueing behind a slow Stripe.
+ * Each attempt has Stripe connect and read timeouts and the whole call, retries included, is cut off after
+ * timeout-ms. Network errors, rate limits and 5xx responses are retried with exponential backoff and full
+ * jitter under one idempotency key; they also count towards the circuit breaker, which refuses calls for
+ * breaker.open-ms once breaker.failure-threshold of them happen in a row.
+ */
+@Service
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stripe", matchIfMissing = true)
+public class StripePaymentGateway implements PaymentGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripePaymentGateway.class);
+
+    @FunctionalInterface
+    interface StripeCall {
+        Session execute(RequestOptions options) throws StripeException;
+    }
+
+    private final StripeClient stripeClient;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final long timeoutMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+
+    @Autowired
+    public StripePaymentGateway(StripeClient stripeClient,
+                                @Value("${payment.gateway.max-concurrent:16}") int maxConcurrent,
+                                @Value("${payment.gateway.max-queued:32}") int maxQueued,
+                                @Value("${payment.gateway.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                @Value("${payment.gateway.read-timeout-ms:5000}") int readTimeoutMs,
+                                @Value("${payment.gateway.timeout-ms:10000}") long timeoutMs,
+                                @Value("${payment.gateway.max-attempts:3}") int maxAttempts,
+                                @Value("${payment.gateway.backoff-ms:200}") long backoffMs,
+                                @Value("${payment.gateway.max-backoff-ms:2000}") long maxBackoffMs,
+                                @Value("${payment.gateway.breaker.failure-threshold:5}") int failureThreshold,
+                                @Value("${payment.gateway.breaker.open-ms:30000}") long openMs) {
+        this(stripeClient, maxConcurrent, maxQueued, connectTimeoutMs, readTimeoutMs, timeoutMs, maxAttempts,
+                backoffMs, maxBackoffMs, new CircuitBreaker(failureThreshold, openMs));
+    }
+
+    StripePaymentGateway(StripeClient stripeClient, int maxConcurrent, int maxQueued, int connectTimeoutMs,
+                         int readTimeoutMs, long timeoutMs, int maxAttempts, long backoffMs, long maxBackoffMs,
+                         CircuitBreaker circuitBreaker) {
+        this.stripeClient = stripeClient;
+        this.circuitBreaker = circuitBreaker;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+        this.timeoutMs = timeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        CustomizableThreadFactory workerThreads = new CustomizableThreadFactory("stripe-");
+        workerThreads.setDaemon(true);
+        workers = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueued)), workerThreads, new ThreadPoolExecutor.AbortPolicy());
+        workers.allowCoreThreadTimeOut(true);
+
+        CustomizableThreadFactory retryThreads = new CustomizableThreadFactory("stripe-retry-");
+        retryThreads.setDaemon(true);
+        retries = Executors.newSingleThreadScheduledExecutor(retryThreads);
+    }
+
+    @Override
+    public CompletableFuture<PaymentSession> createCheckoutSession(SessionCreateParams params) {
+        // One key for every attempt, so a retry after a lost response cannot create a second session
+        String idempotencyKey = UUID.randomUUID().toString();
+        return call("create checkout session", idempotencyKey, options -> stripeClient.createCheckoutSession(params, options));
+    }
+
+    @Override
+    public CompletableFuture<PaymentSession> retrieveCheckoutSession(String sessionId) {
+        return call("retrieve checkout session", null, options -> stripeClient.retrieveCheckoutSession(sessionId, options));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private CompletableFuture<PaymentSession> call(String operation, String idempotencyKey, StripeCall call) {
+        CompletableFuture<PaymentSession> result = new CompletableFuture<>();
+        RequestOptions.RequestOptionsBuilder options = RequestOptions.builder()
+                .setConnectTimeout(connectTimeoutMs)
+                .setReadTimeout(readTimeoutMs)
+                .setMaxNetworkRetries(0);
+        if (idempotencyKey != null) {
+            options.setIdempotencyKey(idempotencyKey);
+        }
+        attempt(operation, call, options.build(), 1, result);
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void attempt(String operation, StripeCall call, RequestOptions options, int attempt,
+                         CompletableFuture<PaymentSession> result) {
+        if (result.isDone()) {
+            return;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            result.completeExceptionally(new PaymentGatewayUnavailableException("Payment provider is unavailable, try again later"));
+            return;
+        }
+        try {
+            workers.execute(() -> run(operation, call, options, attempt, result));
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.releasePermission();
+            result.completeExceptionally(new PaymentGatewayUnavailableException("Payment provider is busy, try again later"));
+        }
+    }
+
+    private void run(String operation, StripeCall call, RequestOptions options, int attempt,
+                     CompletableFuture<PaymentSession> result) {
+        if (result.isDone()) {
+            circuitBreaker.releasePermission();
+            return;
+        }
+        try {
+            Session session = call.execute(options);
+            circuitBreaker.onSuccess();
+            result.complete(toPaymentSession(session));
+        } catch (StripeException e) {
+            if (!isRetryable(e)) {
+                // Stripe answered, so it is up; the request itself was wrong
+                circuitBreaker.onSuccess();
+                result.completeExceptionally(e);
+                return;
+            }
+            circuitBreaker.onFailure();
+            if (attempt >= maxAttempts) {
+                result.completeExceptionally(e);
+                return;
+            }
+            long delay = backoff(attempt);
+            logger.warn("Stripe {} failed (attempt {} of {}), retrying in {} ms: {}",
+                    operation, attempt, maxAttempts, delay, e.getMessage());
+            retries.schedule(() -> attempt(operation, call, options, attempt + 1, result), delay, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            result.completeExceptionally(e);
+        }
+    }
+
+    // Full jitter: anywhere between zero and the exponential ceiling, so clients that failed together spread out
+    long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    static boolean isRetryable(StripeException e) {
+        if (e instanceof ApiConnectionException || e instanceof RateLimitException) {
+            return true;
+        }
+        Integer status = e.getStatusCode();
+        return status != null && status >= 500;
+    }
+
+    private static PaymentSession toPaymentSession(Session session) {
+        if (session == null) {
+            return null;
+        }
+        return PaymentSession.builder()
+                .id(session.getId())
+                .paymentStatus(session.getPaymentStatus())
+                .metadata(session.getMetadata())
+                .build();
+    }
+}
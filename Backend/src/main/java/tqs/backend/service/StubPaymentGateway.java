@@ -0,0 +1,62 @@
+package tqs.backend.service;
+
+import com.stripe.param.checkout.SessionCreateParams;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import tqs.backend.dto.PaymentSession;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-in for Stripe, selected with payment.gateway=stub, for local runs and tests without
+ * network access. Sessions are created paid when payment.gateway.stub.auto-pay is set, otherwise unpaid until
+ * {@link #markPaid(String)} is called.
+ */
+@Service
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final boolean autoPay;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<String, PaymentSession> sessions = new ConcurrentHashMap<>();
+
+    public StubPaymentGateway(@Value("${payment.gateway.stub.auto-pay:true}") boolean autoPay) {
+        this.autoPay = autoPay;
+    }
+
+    @Override
+    public CompletableFuture<PaymentSession> createCheckoutSession(SessionCreateParams params) {
+        Map<String, String> metadata = params.getMetadata() != null ? new HashMap<>(params.getMetadata()) : new HashMap<>();
+        PaymentSession session = PaymentSession.builder()
+                .id("cs_stub_" + ids.incrementAndGet())
+                .paymentStatus(autoPay ? "paid" : "unpaid")
+                .metadata(metadata)
+                .build();
+        sessions.put(session.getId(), session);
+        return CompletableFuture.completedFuture(session);
+    }
+
+    @Override
+    public CompletableFuture<PaymentSession> retrieveCheckoutSession(String sessionId) {
+        PaymentSession session = sessions.get(sessionId);
+        if (session == null) {
+            return CompletableFuture.failedFuture(new NoSuchElementException("No such checkout session: " + sessionId));
+        }
+        return CompletableFuture.completedFuture(session);
+    }
+
+    public void markPaid(String sessionId) {
+        PaymentSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new NoSuchElementException("No such checkout session: " + sessionId);
+        }
+        session.setPaymentStatus("paid");
+    }
+}
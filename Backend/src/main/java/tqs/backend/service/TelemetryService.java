@@ -0,0 +1,343 @@
+package tqs.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import tqs.backend.dto.MeterValue;
+import tqs.backend.dto.MeterValuesRequest;
+import tqs.backend.model.ChargingSession;
+import tqs.backend.model.Reservation;
+import tqs.backend.repository.ChargingSessionRepository;
+import tqs.backend.repository.ReservationRepository;
+import tqs.backend.util.MeterReadingRing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ingests charger meter readings (OCPP MeterValues) into {@link ChargingSession}s.
+ * Requests only copy readings into a lock-free {@link MeterReadingRing}; a single ingest thread drains it, folds
+ * the readings into one running total per transaction and, every telemetry.flush-interval-ms, writes the totals
+ * of up to telemetry.flush-batch-size sessions per database transaction. A session therefore costs one row write
+ * per flush however many readings it sent. When the ring has no room the whole batch is refused so the charger
+ * can send it again. A batch whose write fails is retried on later flushes, one session per transaction so a
+ * single bad session cannot hold back the others, and a session that failed telemetry.max-flush-attempts times is
+ * dropped.
+ * The energy of a session is its latest meter register minus its first one, priced at the rate booked with the
+ * reservation (estimated cost over estimated energy), or at the charger's price when nothing was booked.
+ */
+@Service
+public class TelemetryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryService.class);
+
+    private static final int DRAIN_CHUNK = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final ReservationRepository reservationRepository;
+    private final ChargingSessionRepository chargingSessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterReadingRing ring;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+    private final int flushBatchSize;
+    private final int maxFlushAttempts;
+
+    // Owned by the ingest thread, or by whoever drains once it has stopped
+    private final Map<Long, SessionTotals> pending = new HashMap<>();
+    private long nextFlushAt;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder flushedSessions = new LongAdder();
+    private final LongAdder unknownTransactions = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder droppedSessions = new LongAdder();
+    private volatile int pendingSessions;
+    private volatile long lastFlushMs;
+
+    private ExecutorService worker;
+    private volatile boolean running;
+
+    public TelemetryService(ReservationRepository reservationRepository,
+                            ChargingSessionRepository chargingSessionRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${telemetry.ring-capacity:65536}") int ringCapacity,
+                            @Value("${telemetry.max-batch-size:1000}") int maxBatchSize,
+                            @Value("${telemetry.flush-interval-ms:1000}") long flushIntervalMs,
+                            @Value("${telemetry.flush-batch-size:500}") int flushBatchSize,
+                            @Value("${telemetry.max-flush-attempts:5}") int maxFlushAttempts) {
+        this.reservationRepository = reservationRepository;
+        this.chargingSessionRepository = chargingSessionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ring = new MeterReadingRing(ringCapacity);
+        this.maxBatchSize = Math.min(maxBatchSize, ringCapacity);
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        this.maxFlushAttempts = Math.max(1, maxFlushAttempts);
+    }
+
+    @PostConstruct
+    public void start() {
+        CustomizableThreadFactory threads = new CustomizableThreadFactory("telemetry-ingest-");
+        threads.setDaemon(true);
+        worker = Executors.newSingleThreadExecutor(threads);
+        running = true;
+        worker.execute(this::run);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.shutdown();
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Telemetry ingest thread did not stop, {} sessions not saved", pendingSessions);
+                return;
+            }
+        }
+        // The ingest thread is gone, so this thread can drain what is left
+        while (drain() > 0) {
+            // keep going until the ring is empty
+        }
+        flush();
+    }
+
+    /**
+     * Queues the readings of one charger and returns how many were accepted.
+     */
+    public int ingest(MeterValuesRequest request) {
+        if (request == null || request.getChargerId() == null) {
+            throw new IllegalArgumentException("Charger ID is required");
+        }
+        List<MeterValue> values = request.getMeterValues();
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("At least one meter value is required");
+        }
+        if (values.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " meter values per request");
+        }
+        for (MeterValue value : values) {
+            if (value == null || value.getTransactionId() == null || value.getTimestamp() == null
+                    || value.getEnergyWh() == null || value.getEnergyWh() < 0) {
+                throw new IllegalArgumentException("Each meter value needs a transaction ID, a timestamp and a non-negative energy reading");
+            }
+        }
+
+        long position = ring.claim(values.size());
+        if (position < 0) {
+            refused.add(values.size());
+            throw new IllegalStateException("Telemetry buffer is full, retry later");
+        }
+        long chargerId = request.getChargerId();
+        for (MeterValue value : values) {
+            ring.put(position++, chargerId, value.getTransactionId(), toEpochMs(value.getTimestamp()), value.getEnergyWh());
+        }
+        accepted.add(values.size());
+        return values.size();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("accepted", accepted.sum());
+        stats.put("refused", refused.sum());
+        stats.put("buffered", ring.size());
+        stats.put("bufferCapacity", ring.capacity());
+        stats.put("pendingSessions", pendingSessions);
+        stats.put("flushedSessions", flushedSessions.sum());
+        stats.put("unknownTransactions", unknownTransactions.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        stats.put("droppedSessions", droppedSessions.sum());
+        stats.put("lastFlushMs", lastFlushMs);
+        return stats;
+    }
+
+    private void run() {
+        nextFlushAt = System.currentTimeMillis() + flushIntervalMs;
+        while (running) {
+            try {
+                int drained = drain();
+                long now = System.currentTimeMillis();
+                if (now >= nextFlushAt) {
+                    flush();
+                    nextFlushAt = now + flushIntervalMs;
+                }
+                if (drained == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Telemetry ingest failed: {}", e.getMessage(), e);
+                nextFlushAt = System.currentTimeMillis() + flushIntervalMs;
+            }
+        }
+    }
+
+    int drain() {
+        int drained = ring.drain(this::aggregate, DRAIN_CHUNK);
+        pendingSessions = pending.size();
+        return drained;
+    }
+
+    private void aggregate(long chargerId, long transactionId, long timestampMs, double energyWh) {
+        SessionTotals totals = pending.get(transactionId);
+        if (totals == null) {
+            pending.put(transactionId, new SessionTotals(chargerId, timestampMs, energyWh));
+        } else {
+            totals.add(chargerId, timestampMs, energyWh);
+        }
+    }
+
+    /**
+     * Writes every pending session total, flush-batch-size sessions per database transaction. Sessions that failed
+     * before are written one per transaction. A failed batch stays pending and the next batches are still written.
+     */
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long t0 = System.nanoTime();
+        List<Long> fresh = new ArrayList<>();
+        List<Long> retried = new ArrayList<>();
+        for (Map.Entry<Long, SessionTotals> entry : pending.entrySet()) {
+            (entry.getValue().failedAttempts == 0 ? fresh : retried).add(entry.getKey());
+        }
+        for (int from = 0; from < fresh.size(); from += flushBatchSize) {
+            flushBatch(fresh.subList(from, Math.min(from + flushBatchSize, fresh.size())));
+        }
+        for (Long id : retried) {
+            flushBatch(List.of(id));
+        }
+        lastFlushMs = (System.nanoTime() - t0) / 1_000_000;
+    }
+
+    private void flushBatch(List<Long> transactionIds) {
+        Map<Long, SessionTotals> batch = new HashMap<>();
+        for (Long id : transactionIds) {
+            batch.put(id, pending.get(id));
+        }
+        try {
+            write(batch);
+            pending.keySet().removeAll(transactionIds);
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            List<Long> dropped = new ArrayList<>();
+            for (Map.Entry<Long, SessionTotals> entry : batch.entrySet()) {
+                if (++entry.getValue().failedAttempts >= maxFlushAttempts) {
+                    pending.remove(entry.getKey());
+                    dropped.add(entry.getKey());
+                }
+            }
+            logger.warn("Could not write {} telemetry sessions: {}", batch.size(), e.getMessage());
+            if (!dropped.isEmpty()) {
+                droppedSessions.add(dropped.size());
+                logger.error("Dropped the readings of transactions {} after {} failed writes", dropped, maxFlushAttempts);
+            }
+        }
+        pendingSessions = pending.size();
+    }
+
+    private void write(Map<Long, SessionTotals> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ChargingSession> created = new ArrayList<>();
+            int matched = 0;
+            for (Reservation reservation : reservationRepository.findWithSessionByIdIn(batch.keySet())) {
+                SessionTotals totals = batch.get(reservation.getId());
+                if (reservation.getCharger() == null || reservation.getCharger().getId() != totals.chargerId) {
+                    continue;
+                }
+                matched++;
+                ChargingSession session = reservation.getChargingSession();
+                if (session == null) {
+                    session = ChargingSession.builder().reservation(reservation).build();
+                    reservation.setChargingSession(session);
+                    created.add(session);
+                }
+                apply(session, totals, ratePerKwh(reservation));
+            }
+            chargingSessionRepository.saveAll(created);
+            flushedSessions.add(matched);
+            unknownTransactions.add(batch.size() - matched);
+        });
+    }
+
+    private static void apply(ChargingSession session, SessionTotals totals, BigDecimal ratePerKwh) {
+        LocalDateTime first = toTime(totals.firstAt);
+        LocalDateTime last = toTime(totals.lastAt);
+        if (session.getStartTime() == null || session.getMeterStartWh() == null || first.isBefore(session.getStartTime())) {
+            session.setStartTime(first);
+            session.setMeterStartWh(totals.firstWh);
+        }
+        if (session.getLastReadingAt() == null || session.getMeterLastWh() == null || !last.isBefore(session.getLastReadingAt())) {
+            session.setLastReadingAt(last);
+            session.setMeterLastWh(totals.lastWh);
+        }
+        double kwh = Math.max(0, session.getMeterLastWh() - session.getMeterStartWh()) / 1000.0;
+        session.setEnergyDeliveredKwh(kwh);
+        session.setTotalCost(ratePerKwh == null ? null
+                : ratePerKwh.multiply(BigDecimal.valueOf(kwh)).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal ratePerKwh(Reservation reservation) {
+        if (reservation.getEstimatedCost() != null && reservation.getEstimatedKwh() != null && reservation.getEstimatedKwh() > 0) {
+            return reservation.getEstimatedCost().divide(BigDecimal.valueOf(reservation.getEstimatedKwh()), 6, RoundingMode.HALF_UP);
+        }
+        return reservation.getCharger() != null ? reservation.getCharger().getPricePerKwh() : null;
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneOffset.UTC);
+    }
+
+    // Earliest and latest reading of one transaction since the last flush
+    private static final class SessionTotals {
+        private long chargerId;
+        private long firstAt;
+        private double firstWh;
+        private long lastAt;
+        private double lastWh;
+        private int failedAttempts;
+
+        private SessionTotals(long chargerId, long timestampMs, double energyWh) {
+            this.chargerId = chargerId;
+            this.firstAt = timestampMs;
+            this.firstWh = energyWh;
+            this.lastAt = timestampMs;
+            this.lastWh = energyWh;
+        }
+
+        private void add(long chargerId, long timestampMs, double energyWh) {
+            this.chargerId = chargerId;
+            if (timestampMs < firstAt) {
+                firstAt = timestampMs;
+                firstWh = energyWh;
+            }
+            if (timestampMs >= lastAt) {
+                lastAt = timestampMs;
+                lastWh = energyWh;
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package tqs.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import tqs.backend.dto.TripPlanRequest;
+import tqs.backend.dto.TripPlanResponse;
+import tqs.backend.dto.TripPlanStopDTO;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Client;
+import tqs.backend.model.Station;
+import tqs.backend.model.TripPlan;
+import tqs.backend.model.TripPlanStop;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.ClientRepository;
+import tqs.backend.repository.TripPlanRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class TripPlanService {
+
+    // Plans tried before giving up on chargers being deleted under the route
+    static final int MAX_ROUTE_ATTEMPTS = 3;
+
+    private final TripPlanner tripPlanner;
+    private final TripPlanRepository tripPlanRepository;
+    private final ClientRepository clientRepository;
+    private final ChargerRepository chargerRepository;
+
+    @Transactional
+    public TripPlanResponse planTrip(TripPlanRequest request) {
+        validate(request);
+        Client client = clientRepository.findById(request.getClientId())
+                .orElseThrow(() -> new IllegalArgumentException("Client not found"));
+        if (client.getFullRangeKm() == null || client.getFullRangeKm() <= 0
+                || client.getBatteryCapacityKwh() == null || client.getBatteryCapacityKwh() <= 0) {
+            throw new IllegalArgumentException("Client has no battery capacity or range set");
+        }
+
+        // A stop's charger may have been deleted after the graph was built. The graph is rebuilt in the background,
+        // so plan again around the missing chargers rather than wait for it
+        Set<Long> excluded = new HashSet<>();
+        TripPlanner.Route route = route(request, client, excluded);
+        Map<Long, Charger> chargers = stopChargers(route);
+        for (int attempt = 1; chargers.size() < route.stops().size(); attempt++) {
+            if (attempt >= MAX_ROUTE_ATTEMPTS) {
+                throw new IllegalStateException("A charger on the route was just removed, please try again");
+            }
+            for (TripPlanner.Stop stop : route.stops()) {
+                if (!chargers.containsKey(stop.chargerId())) {
+                    excluded.add(stop.chargerId());
+                }
+            }
+            route = route(request, client, excluded);
+            chargers = stopChargers(route);
+        }
+
+        LocalDateTime departure = request.getDepartureTime() != null
+                ? request.getDepartureTime() : LocalDateTime.now().withNano(0);
+        TripPlan plan = TripPlan.builder()
+                .user(client)
+                .startLocation(label(request.getStartLocation(), request.getStartLatitude(), request.getStartLongitude()))
+                .destination(label(request.getDestination(), request.getDestinationLatitude(), request.getDestinationLongitude()))
+                .batteryLevelStart(request.getBatteryLevelStart())
+                .departureTime(departure)
+                .estimatedArrival(plusMinutes(departure, route.totalMinutes()))
+                .totalDistanceKm(round(route.totalDistanceKm()))
+                .arrivalBattery(round(route.arrivalSoc() * 100))
+                .stops(new ArrayList<>())
+                .build();
+
+        int order = 1;
+        for (TripPlanner.Stop stop : route.stops()) {
+            plan.getStops().add(TripPlanStop.builder()
+                    .tripPlan(plan)
+                    .charger(chargers.get(stop.chargerId()))
+                    .stopOrder(order++)
+                    .estimatedArrival(plusMinutes(departure, stop.arrivalMinutes()))
+                    .estimatedBattery(round(stop.arrivalSoc() * 100))
+                    .distanceFromPreviousKm(round(stop.distanceFromPreviousKm()))
+                    .chargingMinutes(round(stop.chargingMinutes()))
+                    .build());
+        }
+
+        return toResponse(tripPlanRepository.save(plan));
+    }
+
+    private TripPlanner.Route route(TripPlanRequest request, Client client, Set<Long> excludedChargerIds) {
+        TripPlanner.Route route = tripPlanner.plan(
+                request.getStartLatitude(), request.getStartLongitude(),
+                request.getDestinationLatitude(), request.getDestinationLongitude(),
+                request.getBatteryLevelStart() / 100.0, client.getFullRangeKm(), client.getBatteryCapacityKwh(),
+                Set.copyOf(excludedChargerIds));
+        if (route == null) {
+            throw new IllegalArgumentException("No route found within the vehicle's range");
+        }
+        return route;
+    }
+
+    // The chargers of the route's stops that still exist, by id; a route stops at most once per station
+    private Map<Long, Charger> stopChargers(TripPlanner.Route route) {
+        return route.stops().isEmpty() ? Map.of() : chargerRepository.findWithStationByIdIn(
+                        route.stops().stream().map(TripPlanner.Stop::chargerId).toList())
+                .stream().collect(Collectors.toMap(Charger::getId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
+    public TripPlanResponse getTripPlan(Long id) {
+        return tripPlanRepository.findWithStopsById(id)
+                .map(this::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("Trip plan not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TripPlanResponse> getTripPlansByClient(Long clientId) {
+        if (!clientRepository.existsById(clientId)) {
+            throw new IllegalArgumentException("Client not found");
+        }
+        return tripPlanRepository.findWithStopsByUserId(clientId).stream().map(this::toResponse).toList();
+    }
+
+    private static void validate(TripPlanRequest request) {
+        if (request.getClientId() == null) {
+            throw new IllegalArgumentException("Client ID is required");
+        }
+        if (request.getStartLatitude() == null || request.getStartLongitude() == null
+                || request.getDestinationLatitude() == null || request.getDestinationLongitude() == null) {
+            throw new IllegalArgumentException("Start and destination coordinates are required");
+        }
+        if (Math.abs(request.getStartLatitude()) > 90 || Math.abs(request.getDestinationLatitude()) > 90
+                || Math.abs(request.getStartLongitude()) > 180 || Math.abs(request.getDestinationLongitude()) > 180) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+        if (request.getBatteryLevelStart() == null || request.getBatteryLevelStart() < 0 || request.getBatteryLevelStart() > 100) {
+            throw new IllegalArgumentException("Battery level must be between 0 and 100");
+        }
+    }
+
+    private TripPlanResponse toResponse(TripPlan plan) {
+        List<TripPlanStopDTO> stops = plan.getStops() == null ? List.of() : plan.getStops().stream().map(stop -> {
+            Charger charger = stop.getCharger();
+            Station station = charger != null ? charger.getStation() : null;
+            return TripPlanStopDTO.builder()
+                    .stopOrder(stop.getStopOrder())
+                    .chargerId(charger != null ? charger.getId() : null)
+                    .chargerType(charger != null ? charger.getChargerType() : null)
+                    .stationId(station != null ? station.getId() : null)
+                    .stationName(station != null ? station.getName() : null)
+                    .city(station != null ? station.getCity() : null)
+                    .latitude(station != null ? station.getLatitude() : null)
+                    .longitude(station != null ? station.getLongitude() : null)
+                    .distanceFromPreviousKm(stop.getDistanceFromPreviousKm())
+                    .estimatedArrival(stop.getEstimatedArrival())
+                    .estimatedBattery(stop.getEstimatedBattery())
+                    .chargingMinutes(stop.getChargingMinutes())
+                    .build();
+        }).toList();
+
+        return TripPlanResponse.builder()
+                .id(plan.getId())
+                .clientId(plan.getUser() != null ? plan.getUser().getId() : null)
+                .startLocation(plan.getStartLocation())
+                .destination(plan.getDestination())
+                .batteryLevelStart(plan.getBatteryLevelStart())
+                .departureTime(plan.getDepartureTime())
+                .estimatedArrival(plan.getEstimatedArrival())
+                .totalDistanceKm(plan.getTotalDistanceKm())
+                .arrivalBattery(plan.getArrivalBattery())
+                .stops(stops)
+                .build();
+    }
+
+    private static String label(String label, double lat, double lng) {
+        return label != null && !label.isBlank() ? label : String.format(Locale.ROOT, "%.5f,%.5f", lat, lng);
+    }
+
+    private static LocalDateTime plusMinutes(LocalDateTime time, double minutes) {
+        return time.plusSeconds(Math.round(minutes * 60)).withNano(0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,259 @@
+package tqs.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A* over the {@link StationReachabilityGraph}, minimising driving plus charging time.
+ * The car leaves the start with the given charge and every stop charges it to trip.planner.charge-to-soc, so
+ * the range of a leg depends only on where it starts and a node's best time never depends on how it was
+ * reached. No leg may bring the battery below trip.planner.reserve-soc. Each stop also costs
+ * trip.planner.stop-overhead-minutes, so fewer, longer stops win when charging time is otherwise equal.
+ * Distances are great-circle and the heuristic is the straight-line driving time to the destination, which
+ * never overestimates.
+ */
+@Component
+public class TripPlanner {
+
+    private static final int START = -1;
+
+    private final StationReachabilityGraph reachabilityGraph;
+    private final double reserveSoc;
+    private final double chargeToSoc;
+    private final double speedKmh;
+    private final double stopOverheadMinutes;
+
+    public TripPlanner(StationReachabilityGraph reachabilityGraph,
+                       @Value("${trip.planner.reserve-soc:0.1}") double reserveSoc,
+                       @Value("${trip.planner.charge-to-soc:0.8}") double chargeToSoc,
+                       @Value("${trip.planner.avg-speed-kmh:90}") double speedKmh,
+                       @Value("${trip.planner.stop-overhead-minutes:5}") double stopOverheadMinutes) {
+        this.reachabilityGraph = reachabilityGraph;
+        this.reserveSoc = reserveSoc;
+        this.chargeToSoc = chargeToSoc;
+        this.speedKmh = speedKmh;
+        this.stopOverheadMinutes = stopOverheadMinutes;
+    }
+
+    public record Stop(long stationId, long chargerId, ChargerType chargerType, double latitude, double longitude,
+                       double distanceFromPreviousKm, double arrivalMinutes, double arrivalSoc, double chargingMinutes) {
+    }
+
+    public record Route(List<Stop> stops, double finalLegKm, double totalDistanceKm, double totalMinutes,
+                        double arrivalSoc) {
+    }
+
+    /**
+     * The fastest route, or null when the destination cannot be reached within the car's range.
+     *
+     * @param startSoc    charge at departure, as a fraction of a full battery
+     * @param rangeKm     distance driven on a full battery
+     * @param capacityKwh usable battery capacity
+     */
+    public Route plan(double startLat, double startLng, double destLat, double destLng,
+                      double startSoc, double rangeKm, double capacityKwh) {
+        return plan(startLat, startLng, destLat, destLng, startSoc, rangeKm, capacityKwh, Set.of());
+    }
+
+    /**
+     * The fastest route that stops at none of the given chargers, e.g. ones deleted since the graph was built.
+     */
+    public Route plan(double startLat, double startLng, double destLat, double destLng,
+                      double startSoc, double rangeKm, double capacityKwh, Set<Long> excludedChargerIds) {
+        StationReachabilityGraph.Graph graph = reachabilityGraph.current();
+        if (graph == null) {
+            throw new IllegalStateException("Trip planner is not ready yet");
+        }
+        double firstLegKm = (startSoc - reserveSoc) * rangeKm;
+        if (firstLegKm <= 0) {
+            throw new IllegalArgumentException("Battery level is too low to start the trip");
+        }
+        double legKm = (chargeToSoc - reserveSoc) * rangeKm;
+
+        double direct = GeoUtils.haversineKm(startLat, startLng, destLat, destLng);
+        if (direct <= firstLegKm) {
+            return new Route(List.of(), direct, direct, minutes(direct), startSoc - direct / rangeKm);
+        }
+
+        int n = graph.size();
+        double[] best = new double[n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        int[] previous = new int[n];
+        float[] incomingKm = new float[n];
+        boolean[] closed = new boolean[n];
+        NodeHeap open = new NodeHeap(Math.min(n, 1024));
+
+        graph.forEachWithin(startLat, startLng, firstLegKm, v -> {
+            if (isExcluded(graph, v, excludedChargerIds)) {
+                return;
+            }
+            double km = GeoUtils.haversineKm(startLat, startLng, graph.latitudes[v], graph.longitudes[v]);
+            double cost = minutes(km) + stopOverheadMinutes + chargingMinutes(graph, v, startSoc - km / rangeKm, capacityKwh);
+            if (cost < best[v]) {
+                best[v] = cost;
+                previous[v] = START;
+                incomingKm[v] = (float) km;
+                open.push(cost + heuristic(graph, v, destLat, destLng), v);
+            }
+        });
+
+        double goalCost = Double.POSITIVE_INFINITY;
+        int goalPrevious = START;
+        double goalKm = 0;
+        while (!open.isEmpty()) {
+            double f = open.peekKey();
+            int u = open.pop();
+            if (f >= goalCost) {
+                break;
+            }
+            if (closed[u]) {
+                continue;
+            }
+            closed[u] = true;
+
+            double toGoal = GeoUtils.haversineKm(graph.latitudes[u], graph.longitudes[u], destLat, destLng);
+            if (toGoal <= legKm && best[u] + minutes(toGoal) < goalCost) {
+                goalCost = best[u] + minutes(toGoal);
+                goalPrevious = u;
+                goalKm = toGoal;
+            }
+
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                double km = graph.lengthsKm[e];
+                if (km > legKm) {
+                    continue;
+                }
+                int v = graph.targets[e];
+                if (closed[v] || isExcluded(graph, v, excludedChargerIds)) {
+                    continue;
+                }
+                double cost = best[u] + minutes(km) + stopOverheadMinutes
+                        + chargingMinutes(graph, v, chargeToSoc - km / rangeKm, capacityKwh);
+                if (cost < best[v]) {
+                    best[v] = cost;
+                    previous[v] = u;
+                    incomingKm[v] = (float) km;
+                    open.push(cost + heuristic(graph, v, destLat, destLng), v);
+                }
+            }
+        }
+
+        if (goalPrevious == START) {
+            return null;
+        }
+
+        List<Integer> path = new ArrayList<>();
+        for (int v = goalPrevious; v != START; v = previous[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+
+        List<Stop> stops = new ArrayList<>(path.size());
+        double elapsed = 0;
+        double soc = startSoc;
+        double totalKm = goalKm;
+        for (int v : path) {
+            double km = incomingKm[v];
+            double arrivalSoc = soc - km / rangeKm;
+            double charging = chargingMinutes(graph, v, arrivalSoc, capacityKwh);
+            elapsed += minutes(km);
+            stops.add(new Stop(graph.stationIds[v], graph.chargerIds[v], graph.chargerTypes[v],
+                    graph.latitudes[v], graph.longitudes[v], km, elapsed, arrivalSoc, charging));
+            elapsed += stopOverheadMinutes + charging;
+            soc = chargeToSoc;
+            totalKm += km;
+        }
+        return new Route(stops, goalKm, totalKm, elapsed + minutes(goalKm), soc - goalKm / rangeKm);
+    }
+
+    private static boolean isExcluded(StationReachabilityGraph.Graph graph, int v, Set<Long> excludedChargerIds) {
+        return !excludedChargerIds.isEmpty() && excludedChargerIds.contains(graph.chargerIds[v]);
+    }
+
+    private double minutes(double km) {
+        return km / speedKmh * 60;
+    }
+
+    private double heuristic(StationReachabilityGraph.Graph graph, int v, double destLat, double destLng) {
+        return minutes(GeoUtils.haversineKm(graph.latitudes[v], graph.longitudes[v], destLat, destLng));
+    }
+
+    private double chargingMinutes(StationReachabilityGraph.Graph graph, int v, double arrivalSoc, double capacityKwh) {
+        double kwh = Math.max(0, chargeToSoc - arrivalSoc) * capacityKwh;
+        return kwh / StationReachabilityGraph.powerKw(graph.chargerTypes[v]) * 60;
+    }
+
+    // Binary min-heap of (key, node) on primitive arrays; stale entries are skipped by the caller
+    private static final class NodeHeap {
+        private double[] keys;
+        private int[] nodes;
+        private int size;
+
+        NodeHeap(int capacity) {
+            keys = new double[Math.max(16, capacity)];
+            nodes = new int[keys.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(double key, int node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            double key = keys[size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package tqs.backend.util;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public final class EntityStreams {
+
+    // JDBC fetch size for streamed queries; the value of a query hint, hence a string
+    public static final String FETCH_SIZE = "500";
+
+    static final int CLEAR_EVERY = 500;
+
+    private EntityStreams() {
+    }
+
+    /**
+     * Hands every row to the sink, clearing the persistence context every {@link #CLEAR_EVERY} rows
+     * so that memory stays flat however many rows the stream yields. The stream is closed on return.
+     * Pass a null entityManager when the rows are projections rather than entities.
+     */
+    public static <T> long forEach(Stream<T> rows, EntityManager entityManager, Consumer<? super T> sink) {
+        long count = 0;
+        try (rows) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                if (++count % CLEAR_EVERY == 0 && entityManager != null) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,71 @@
+package tqs.backend.util;
+
+import java.util.List;
+
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private GeoUtils() {
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Returns the {minLat, maxLat, minLng, maxLng} boxes enclosing the circle of the given radius: one, or two when
+     * the circle crosses the antimeridian, split there so that each box has minLng <= maxLng.
+     * Longitude is widened to the full range near the poles.
+     */
+    public static List<double[]> boundingBoxes(double lat, double lng, double radiusKm) {
+        double dLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = Math.max(-90.0, lat - dLat);
+        double maxLat = Math.min(90.0, lat + dLat);
+
+        double dLng = lngSpanDegrees(lat, radiusKm);
+        if (maxLat >= 90.0 || minLat <= -90.0 || dLng >= 180.0) {
+            return List.<double[]>of(new double[]{minLat, maxLat, -180.0, 180.0});
+        }
+        double minLng = lng - dLng;
+        double maxLng = lng + dLng;
+        if (minLng < -180.0) {
+            return List.of(new double[]{minLat, maxLat, minLng + 360.0, 180.0},
+                    new double[]{minLat, maxLat, -180.0, maxLng});
+        }
+        if (maxLng > 180.0) {
+            return List.of(new double[]{minLat, maxLat, minLng, 180.0},
+                    new double[]{minLat, maxLat, -180.0, maxLng - 360.0});
+        }
+        return List.<double[]>of(new double[]{minLat, maxLat, minLng, maxLng});
+    }
+
+    /**
+     * How far in longitude, either way, the circle of the given radius around a point at this latitude reaches:
+     * asin(sin(r / R) / cos(lat)), or 180 when the circle reaches a pole.
+     */
+    public static double lngSpanDegrees(double lat, double radiusKm) {
+        double angular = radiusKm / EARTH_RADIUS_KM;
+        if (Math.abs(lat) + Math.toDegrees(angular) >= 90.0) {
+            return 180.0;
+        }
+        double ratio = Math.sin(angular) / Math.cos(Math.toRadians(lat));
+        return ratio < 1.0 ? Math.toDegrees(Math.asin(ratio)) : 180.0;
+    }
+
+    /**
+     * The signed longitude difference from one point to another, the short way round: in [-180, 180].
+     */
+    public static double lngDelta(double fromLng, double toLng) {
+        double delta = (toLng - fromLng) % 360.0;
+        if (delta > 180.0) {
+            return delta - 360.0;
+        }
+        return delta < -180.0 ? delta + 360.0 : delta;
+    }
+}
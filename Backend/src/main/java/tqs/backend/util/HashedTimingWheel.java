@@ -0,0 +1,89 @@
+package tqs.backend.util;
+
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: wheelSize slots of tickMs each, an item due at time t sits in slot (t / tickMs) mod
+ * wheelSize. Scheduling is O(1) and advancing the wheel by one tick only looks at the items of one slot, so
+ * items due more than one turn ahead are passed over once per turn.
+ * Not thread-safe: one thread schedules and advances.
+ */
+public class HashedTimingWheel<T> {
+
+    private static final class Node<T> {
+        private final T item;
+        private final long dueTick;
+        private Node<T> next;
+
+        private Node(T item, long dueTick) {
+            this.item = item;
+            this.dueTick = dueTick;
+        }
+    }
+
+    private final long tickMs;
+    private final int mask;
+    private final Node<T>[] slots;
+    // Last tick whose slot was processed
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.slots = (Node<T>[]) new Node[wheelSize];
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedules the item to expire at dueMs, or on the next tick when that is already past.
+     */
+    public void schedule(T item, long dueMs) {
+        long dueTick = Math.max(Math.ceilDiv(dueMs, tickMs), currentTick + 1);
+        int slot = (int) dueTick & mask;
+        Node<T> node = new Node<>(item, dueTick);
+        node.next = slots[slot];
+        slots[slot] = node;
+        size++;
+    }
+
+    /**
+     * Processes every tick up to nowMs and hands each item that became due to the consumer, which may schedule
+     * it again. Returns how many items expired.
+     */
+    public int advance(long nowMs, Consumer<T> expired) {
+        long targetTick = nowMs / tickMs;
+        int count = 0;
+        while (currentTick < targetTick) {
+            currentTick++;
+            int slot = (int) currentTick & mask;
+            // Detach the slot first: items rescheduled a whole turn ahead land in this same slot
+            Node<T> node = slots[slot];
+            slots[slot] = null;
+            while (node != null) {
+                Node<T> next = node.next;
+                if (node.dueTick <= currentTick) {
+                    size--;
+                    count++;
+                    expired.accept(node.item);
+                } else {
+                    node.next = slots[slot];
+                    slots[slot] = node;
+                }
+                node = next;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,101 @@
+package tqs.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring of meter readings for many producers and one consumer, stored field by field in
+ * primitive arrays so a reading costs no allocation.
+ * A producer reserves a run of slots with one compare-and-set on the tail, fills them and publishes each slot by
+ * writing its position into the slot's sequence. The consumer reads slots in order up to the first one that is
+ * not published yet and hands the space back by advancing the head.
+ */
+public class MeterReadingRing {
+
+    @FunctionalInterface
+    public interface Sink {
+        void accept(long chargerId, long transactionId, long timestampMs, double energyWh);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final long[] chargerIds;
+    private final long[] transactionIds;
+    private final long[] timestamps;
+    private final double[] energyWh;
+    // Position + 1 once the slot holds the reading for that position
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public MeterReadingRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.chargerIds = new long[capacity];
+        this.transactionIds = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.energyWh = new double[capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Reserves count consecutive slots and returns the first position, or -1 when the ring has no room for all
+     * of them. Every reserved position must then be filled with {@link #put}.
+     */
+    public long claim(int count) {
+        if (count <= 0 || count > capacity) {
+            return -1;
+        }
+        while (true) {
+            long current = tail.get();
+            if (current + count - head > capacity) {
+                return -1;
+            }
+            if (tail.compareAndSet(current, current + count)) {
+                return current;
+            }
+        }
+    }
+
+    public void put(long position, long chargerId, long transactionId, long timestampMs, double energy) {
+        int slot = (int) position & mask;
+        chargerIds[slot] = chargerId;
+        transactionIds[slot] = transactionId;
+        timestamps[slot] = timestampMs;
+        energyWh[slot] = energy;
+        // Volatile write: the fields above are visible to the consumer once it sees the sequence
+        published.set(slot, position + 1);
+    }
+
+    /**
+     * Hands up to max published readings to the sink, oldest first. Must only be called from one thread.
+     */
+    public int drain(Sink sink, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) position & mask;
+            if (published.get(slot) != position + 1) {
+                break;
+            }
+            sink.accept(chargerIds[slot], transactionIds[slot], timestamps[slot], energyWh[slot]);
+            position++;
+            drained++;
+        }
+        if (drained > 0) {
+            head = position;
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,65 @@
+package tqs.backend.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes one JSON document per line (application/x-ndjson) to a response body.
+ */
+public final class NdjsonWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream out;
+    private final boolean flushEachRow;
+
+    private NdjsonWriter(ObjectMapper objectMapper, OutputStream out, boolean flushEachRow) {
+        this.objectMapper = objectMapper;
+        this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+        this.flushEachRow = flushEachRow;
+    }
+
+    /**
+     * A streaming response that runs the producer on the response thread, writing each row it emits as it comes.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(ObjectMapper objectMapper,
+                                                                     Consumer<Consumer<T>> producer) {
+        return response(objectMapper, producer, false);
+    }
+
+    /**
+     * As {@link #response(ObjectMapper, Consumer)}; with flushEachRow every row reaches the client as soon as
+     * it is written, for slow producers whose rows report progress.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(ObjectMapper objectMapper,
+                                                                     Consumer<Consumer<T>> producer,
+                                                                     boolean flushEachRow) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out, flushEachRow);
+            producer.accept(writer::write);
+            writer.out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void write(Object row) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+            if (flushEachRow) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
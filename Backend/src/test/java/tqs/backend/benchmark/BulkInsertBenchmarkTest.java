@@ -0,0 +1,144 @@
+package tqs.backend.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Client;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.model.enums.ReservationStatus;
+import tqs.backend.model.enums.UserRole;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.ClientRepository;
+import tqs.backend.repository.ReservationRepository;
+import tqs.backend.repository.StationRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures bulk inserts of stations, chargers and reservations through JPA, unbatched and batched.
+ * A JDBC batch size of 1 reproduces what identity ids forced on every insert: one statement per row.
+ * Run with: mvn test -Dtest=BulkInsertBenchmarkTest -Dbenchmark=true
+ * Size can be changed with -Dbenchmark.stations and -Dbenchmark.chargersPerStation.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:insertbenchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkInsertBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkInsertBenchmarkTest.class);
+
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 2_000);
+    private static final int CHARGERS_PER_STATION = Integer.getInteger("benchmark.chargersPerStation", 5);
+    private static final int BATCH_SIZE = 50;
+
+    private static final ChargerType[] TYPES = ChargerType.values();
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ChargerRepository chargerRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void bulkInsertThroughput_unbatchedVersusBatched() {
+        // Warm-up round so both measured rounds run on loaded classes and a JIT-compiled persistence path
+        insertAll(BATCH_SIZE, false);
+        insertAll(1, true);
+        insertAll(BATCH_SIZE, true);
+    }
+
+    private void insertAll(int jdbcBatchSize, boolean report) {
+        reservationRepository.deleteAllInBatch();
+        chargerRepository.deleteAllInBatch();
+        stationRepository.deleteAllInBatch();
+        clientRepository.deleteAllInBatch();
+
+        Client client = clientRepository.save(Client.builder()
+                .name("Fleet").email("fleet@example.com").passwordHash("hash").role(UserRole.CLIENT).build());
+
+        List<Station> stations = new ArrayList<>(STATIONS);
+        for (int i = 0; i < STATIONS; i++) {
+            stations.add(Station.builder().name("Station " + i).address("Address " + i).city("City " + (i % 100))
+                    .latitude(36.9 + (i % 400) * 0.01).longitude(-9.5 + (i / 400) * 0.01).build());
+        }
+        List<Station> savedStations = measure("stations", jdbcBatchSize, stations.size(), report,
+                () -> stationRepository.saveAll(stations));
+
+        List<Charger> chargers = new ArrayList<>(STATIONS * CHARGERS_PER_STATION);
+        for (Station station : savedStations) {
+            for (int i = 0; i < CHARGERS_PER_STATION; i++) {
+                chargers.add(Charger.builder().station(station).chargerType(TYPES[i % TYPES.length])
+                        .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.30)).build());
+            }
+        }
+        List<Charger> savedChargers = measure("chargers", jdbcBatchSize, chargers.size(), report,
+                () -> chargerRepository.saveAll(chargers));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Reservation> reservations = new ArrayList<>(savedChargers.size());
+        for (Charger charger : savedChargers) {
+            reservations.add(Reservation.builder().user(client).charger(charger)
+                    .startTime(start).estimatedEndTime(start.plusHours(1)).status(ReservationStatus.ACTIVE).build());
+        }
+        List<Reservation> savedReservations = measure("reservations", jdbcBatchSize, reservations.size(), report,
+                () -> reservationRepository.saveAll(reservations));
+
+        assertThat(savedReservations).hasSize(STATIONS * CHARGERS_PER_STATION);
+    }
+
+    private <T> List<T> measure(String label, int jdbcBatchSize, int rows, boolean report, Supplier<List<T>> insert) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long t0 = System.nanoTime();
+        List<T> saved = transactionTemplate.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            return insert.get();
+        });
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        if (report) {
+            logger.info("Inserted {} {} with JDBC batch size {} in {} s ({} rows/s), {} statements prepared",
+                    rows, label, jdbcBatchSize, String.format("%.3f", seconds), String.format("%.0f", rows / seconds),
+                    statistics.getPrepareStatementCount());
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,64 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tqs.backend.dto.CatalogImportEvent;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.service.CatalogImportService;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports a generated CSV of one station row plus its charger rows per station.
+ * Run with: mvn test -Dtest=CatalogImportBenchmarkTest -Dbenchmark=true
+ * Size can be changed with -Dbenchmark.stations and -Dbenchmark.chargersPerStation.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:importbenchmark;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogImportBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportBenchmarkTest.class);
+
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 20_000);
+    private static final int CHARGERS_PER_STATION = Integer.getInteger("benchmark.chargersPerStation", 4);
+
+    private static final ChargerType[] TYPES = ChargerType.values();
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Test
+    void importCsv_rowsPerSecond() {
+        StringBuilder csv = new StringBuilder("name,address,city,latitude,longitude,chargerType,status,pricePerKwh\n");
+        for (int i = 0; i < STATIONS; i++) {
+            String station = "Station " + i + ",Address " + i + ",City " + (i % 100) + ","
+                    + (36.9 + (i % 400) * 0.01) + "," + (-9.5 + (i / 400) * 0.01) + ",";
+            csv.append(station).append(",,\n");
+            for (int c = 0; c < CHARGERS_PER_STATION; c++) {
+                csv.append(station).append(TYPES[c % TYPES.length]).append(",AVAILABLE,0.30\n");
+            }
+        }
+        long rows = (long) STATIONS * (CHARGERS_PER_STATION + 1);
+
+        long t0 = System.nanoTime();
+        CatalogImportEvent done = catalogImportService.importCatalog(
+                new StringReader(csv.toString()), CatalogImportService.Format.CSV, event -> { });
+        double seconds = (System.nanoTime() - t0) / 1e9;
+
+        logger.info("Imported {} rows ({} stations, {} chargers) in {} s ({} rows/s)", rows,
+                done.getStationsCreated(), done.getChargersCreated(), String.format("%.2f", seconds),
+                String.format("%.0f", rows / seconds));
+
+        assertThat(done.getErrors()).isZero();
+        assertThat(done.getStationsCreated()).isEqualTo(STATIONS);
+        assertThat(done.getChargersCreated()).isEqualTo((long) STATIONS * CHARGERS_PER_STATION);
+    }
+}
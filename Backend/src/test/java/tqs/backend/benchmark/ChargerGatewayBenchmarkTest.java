@@ -0,0 +1,301 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.service.ChargerGateway;
+import tqs.backend.service.ChargerService;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * In-process charger simulator for the OCPP gateway: benchmark.chargers simulated chargers, each a virtual thread
+ * with a plain socket speaking just enough WebSocket, connect to the embedded server, boot and report their
+ * status, then send heartbeats back to back for benchmark.seconds. Reports connect time, heap per connection
+ * (server and simulator side together, so an upper bound for the server) and messages per second.
+ * Every connection takes two file descriptors in this JVM, so the open-files limit must allow twice the chargers.
+ * Run with: mvn test -Dtest=ChargerGatewayBenchmarkTest -Dbenchmark=true
+ * Load can be changed with -Dbenchmark.chargers and -Dbenchmark.seconds.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:gateway;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "server.tomcat.accept-count=1000"
+})
+@ActiveProfiles({"test", "gateway"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ChargerGatewayBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargerGatewayBenchmarkTest.class);
+
+    private static final int CHARGERS = Integer.getInteger("benchmark.chargers", 50_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final int CONCURRENT_HANDSHAKES = 500;
+    // One source address runs out of ephemeral ports at about 28k connections to the same server port
+    private static final int LOCAL_ADDRESSES = 16;
+    private static final String KEY = "simulated-charger-key";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ChargerRepository chargerRepository;
+
+    @Autowired
+    private ChargerGateway chargerGateway;
+
+    @Test
+    void simulatedChargers_connectionMemoryAndThroughput() throws Exception {
+        Station station = stationRepository.save(Station.builder().name("Simulated").address("A").city("C")
+                .latitude(40.0).longitude(-8.0).build());
+        long[] chargerIds = new long[CHARGERS];
+        for (int from = 0; from < CHARGERS; from += 5_000) {
+            List<Charger> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + 5_000, CHARGERS); i++) {
+                batch.add(Charger.builder().station(station).chargerType(ChargerType.AC_STANDARD)
+                        .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.25))
+                        .gatewayKeyHash(ChargerService.hashGatewayKey(KEY)).build());
+            }
+            List<Charger> saved = chargerRepository.saveAll(batch);
+            for (int i = 0; i < saved.size(); i++) {
+                chargerIds[from + i] = saved.get(i).getId();
+            }
+        }
+
+        long heapBefore = usedHeap();
+        Semaphore handshakes = new Semaphore(CONCURRENT_HANDSHAKES);
+        CountDownLatch connected = new CountDownLatch(CHARGERS);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch stop = new CountDownLatch(1);
+        LongAdder failures = new LongAdder();
+        LongAdder heartbeats = new LongAdder();
+        Queue<Long> sampledMicros = new ConcurrentLinkedQueue<>();
+        long[] deadline = new long[1];
+
+        long t0 = System.nanoTime();
+        try (ExecutorService chargers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CHARGERS; i++) {
+                long chargerId = chargerIds[i];
+                InetAddress local = InetAddress.getByName("127.0.0." + (1 + i % LOCAL_ADDRESSES));
+                chargers.execute(() -> {
+                    boolean ready = false;
+                    try (SimulatedCharger charger = new SimulatedCharger()) {
+                        handshakes.acquire();
+                        try {
+                            charger.connect(local, port, chargerId);
+                            charger.call("BootNotification", "{\"chargePointVendor\":\"Sim\",\"chargePointModel\":\"S1\"}");
+                            charger.call("StatusNotification", "{\"connectorId\":1,\"status\":\"Available\",\"errorCode\":\"NoError\"}");
+                        } finally {
+                            handshakes.release();
+                        }
+                        ready = true;
+                        connected.countDown();
+                        go.await();
+                        long n = 0;
+                        while (System.nanoTime() < deadline[0]) {
+                            long start = System.nanoTime();
+                            charger.call("Heartbeat", "{}");
+                            heartbeats.increment();
+                            if ((++n & 15) == 0) {
+                                sampledMicros.add((System.nanoTime() - start) / 1_000);
+                            }
+                        }
+                        stop.await();
+                    } catch (Exception e) {
+                        failures.increment();
+                        if (!ready) {
+                            connected.countDown();
+                        }
+                    }
+                });
+            }
+            connected.await();
+            long connectMs = (System.nanoTime() - t0) / 1_000_000;
+            long heapAfter = usedHeap();
+            logger.info("{} chargers connected, booted and reported status in {} ms ({} failed); gateway {}",
+                    CHARGERS, connectMs, failures.sum(), chargerGateway.stats());
+            logger.info("Heap +{} MB for {} connections, {} KB each (server and simulator); {} platform threads",
+                    (heapAfter - heapBefore) >> 20, CHARGERS, (heapAfter - heapBefore) / 1024 / Math.max(1, CHARGERS),
+                    ManagementFactory.getThreadMXBean().getThreadCount());
+            assertThat(chargerGateway.stats()).containsEntry("connected", CHARGERS - (int) failures.sum());
+
+            deadline[0] = System.nanoTime() + SECONDS * 1_000_000_000L;
+            go.countDown();
+            Thread.sleep(SECONDS * 1000L);
+            long[] sorted = sampledMicros.stream().mapToLong(Long::longValue).sorted().toArray();
+            logger.info("{} heartbeats in {} s ({} msg/s), round trip p50 {} ms, p99 {} ms, {} failed",
+                    heartbeats.sum(), SECONDS, heartbeats.sum() / SECONDS,
+                    percentile(sorted, 50) / 1000.0, percentile(sorted, 99) / 1000.0, failures.sum());
+            stop.countDown();
+        }
+        for (int i = 0; i < 100 && chargerGateway.isConnected(chargerIds[0]); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(failures.sum()).isZero();
+        assertThat(heartbeats.sum()).isPositive();
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Just enough of a WebSocket client for OCPP-J calls: the upgrade handshake, masked text frames out and
+     * unmasked text frames in.
+     */
+    private static final class SimulatedCharger implements AutoCloseable {
+        private final Socket socket = new Socket();
+        private final byte[] mask = new byte[4];
+        private InputStream in;
+        private OutputStream out;
+        private int nextMessageId;
+
+        void connect(InetAddress localAddress, int port, long chargerId) throws IOException {
+            ThreadLocalRandom.current().nextBytes(mask);
+            socket.bind(new InetSocketAddress(localAddress, 0));
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 30_000);
+            socket.setTcpNoDelay(true);
+            in = new BufferedInputStream(socket.getInputStream(), 512);
+            out = socket.getOutputStream();
+            byte[] key = new byte[16];
+            ThreadLocalRandom.current().nextBytes(key);
+            out.write(("GET /ocpp/" + chargerId + " HTTP/1.1\r\n"
+                    + "Host: localhost:" + port + "\r\n"
+                    + "Authorization: Basic " + Base64.getEncoder()
+                            .encodeToString((chargerId + ":" + KEY).getBytes(StandardCharsets.US_ASCII)) + "\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: " + Base64.getEncoder().encodeToString(key) + "\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n"
+                    + "Sec-WebSocket-Protocol: ocpp1.6\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            String statusLine = readLine();
+            if (!statusLine.startsWith("HTTP/1.1 101")) {
+                throw new IOException("Upgrade refused: " + statusLine);
+            }
+            while (!readLine().isEmpty()) {
+                // skip the response headers
+            }
+        }
+
+        String call(String action, String payload) throws IOException {
+            String id = Integer.toString(nextMessageId++);
+            writeText("[2,\"" + id + "\",\"" + action + "\"," + payload + "]");
+            String reply = readText();
+            if (!reply.startsWith("[3,\"" + id + "\"")) {
+                throw new IOException("Unexpected reply to " + action + ": " + reply);
+            }
+            return reply;
+        }
+
+        private void writeText(String text) throws IOException {
+            byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+            int header = payload.length < 126 ? 2 : 4;
+            byte[] frame = new byte[header + 4 + payload.length];
+            frame[0] = (byte) 0x81;
+            if (payload.length < 126) {
+                frame[1] = (byte) (0x80 | payload.length);
+            } else {
+                frame[1] = (byte) (0x80 | 126);
+                frame[2] = (byte) (payload.length >> 8);
+                frame[3] = (byte) payload.length;
+            }
+            System.arraycopy(mask, 0, frame, header, 4);
+            for (int i = 0; i < payload.length; i++) {
+                frame[header + 4 + i] = (byte) (payload[i] ^ mask[i & 3]);
+            }
+            out.write(frame);
+        }
+
+        private String readText() throws IOException {
+            while (true) {
+                int first = in.read();
+                int second = in.read();
+                if (first < 0 || second < 0) {
+                    throw new EOFException("Connection closed");
+                }
+                int length = second & 0x7F;
+                if (length == 126) {
+                    length = (in.read() << 8) | in.read();
+                } else if (length == 127) {
+                    throw new IOException("Frame too large");
+                }
+                byte[] data = in.readNBytes(length);
+                int opcode = first & 0x0F;
+                if (opcode == 0x8) {
+                    throw new EOFException("Closed by server: " + Arrays.toString(data));
+                }
+                if (opcode == 0x1) {
+                    return new String(data, StandardCharsets.UTF_8);
+                }
+            }
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c < 0) {
+                    throw new EOFException("Connection closed during handshake");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
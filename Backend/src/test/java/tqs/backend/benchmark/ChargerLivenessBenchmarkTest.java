@@ -0,0 +1,107 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tqs.backend.service.ChargerLivenessTracker;
+import tqs.backend.service.ChargerService;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures {@link ChargerLivenessTracker} with a simulated clock and no database: the cost of a heartbeat, the
+ * cost of a tick while every charger reports on time, and the tick that finds a tenth of them silent at once.
+ * Run with: mvn test -Dtest=ChargerLivenessBenchmarkTest -Dbenchmark=true
+ * Size can be changed with -Dbenchmark.chargers.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ChargerLivenessBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargerLivenessBenchmarkTest.class);
+
+    private static final int CHARGERS = Integer.getInteger("benchmark.chargers", 100_000);
+    private static final long HEARTBEAT_INTERVAL_MS = 300_000;
+    private static final long TIMEOUT_MS = 720_000;
+    private static final long TICK_MS = 1000;
+
+    @Test
+    void heartbeatsAndTicks() {
+        AtomicLong now = new AtomicLong(0);
+        ChargerService chargerService = mock(ChargerService.class);
+        when(chargerService.markUnresponsive(anyList(), any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> true));
+        });
+        ChargerLivenessTracker tracker = new ChargerLivenessTracker(chargerService, TIMEOUT_MS, TICK_MS, 1024, now::get);
+
+        for (long id = 1; id <= CHARGERS; id++) {
+            tracker.heartbeat(id);
+        }
+        tracker.tick();
+
+        // Warm up, then time heartbeats of chargers already tracked
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= CHARGERS; id++) {
+                tracker.heartbeat(id);
+            }
+        }
+        long t0 = System.nanoTime();
+        int rounds = 50;
+        for (int round = 0; round < rounds; round++) {
+            for (long id = 1; id <= CHARGERS; id++) {
+                tracker.heartbeat(id);
+            }
+        }
+        double nsPerHeartbeat = (System.nanoTime() - t0) / (double) rounds / CHARGERS;
+        logger.info("Heartbeat: {} ns each over {} tracked chargers", String.format("%.1f", nsPerHeartbeat), CHARGERS);
+
+        // Two timeouts of simulated time, each charger heartbeating every interval at its own offset
+        long ticks = 2 * TIMEOUT_MS / TICK_MS;
+        long slowestTickNs = 0;
+        long totalTickNs = 0;
+        long perTick = CHARGERS * TICK_MS / HEARTBEAT_INTERVAL_MS;
+        long next = 1;
+        for (long i = 0; i < ticks; i++) {
+            now.addAndGet(TICK_MS);
+            for (long j = 0; j < perTick; j++) {
+                tracker.heartbeat(next);
+                next = next == CHARGERS ? 1 : next + 1;
+            }
+            long start = System.nanoTime();
+            tracker.tick();
+            long took = System.nanoTime() - start;
+            totalTickNs += took;
+            slowestTickNs = Math.max(slowestTickNs, took);
+        }
+        logger.info("Steady state over {} ticks: mean tick {} ms, slowest {} ms; {}", ticks,
+                String.format("%.3f", totalTickNs / (double) ticks / 1e6), slowestTickNs / 1e6, tracker.stats());
+        assertThat(tracker.stats()).containsEntry("stale", 0);
+
+        // A tenth of the chargers go silent together
+        int silent = CHARGERS / 10;
+        long ticksUntilStale = TIMEOUT_MS / TICK_MS + HEARTBEAT_INTERVAL_MS / TICK_MS + 1;
+        slowestTickNs = 0;
+        for (long i = 0; i < ticksUntilStale; i++) {
+            now.addAndGet(TICK_MS);
+            for (long id = silent + 1; id <= CHARGERS; id++) {
+                if (id % (HEARTBEAT_INTERVAL_MS / TICK_MS) == i % (HEARTBEAT_INTERVAL_MS / TICK_MS)) {
+                    tracker.heartbeat(id);
+                }
+            }
+            long start = System.nanoTime();
+            tracker.tick();
+            slowestTickNs = Math.max(slowestTickNs, System.nanoTime() - start);
+        }
+        logger.info("{} chargers went silent: slowest tick {} ms, {} calls to the service; {}", silent, slowestTickNs / 1e6,
+                mockingDetails(chargerService).getInvocations().size(), tracker.stats());
+        assertThat(tracker.stats()).containsEntry("stale", silent).containsEntry("markedStale", (long) silent);
+    }
+}
@@ -0,0 +1,93 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tqs.backend.dto.PriceQuoteDTO;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Discount;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.DiscountRepository;
+import tqs.backend.service.DiscountMatrix;
+import tqs.backend.service.PricingService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures {@link PricingService#quoteAll} over a page of already loaded chargers; no database involved.
+ * Run with: mvn test -Dtest=PricingBenchmarkTest -Dbenchmark=true
+ * Size can be changed with -Dbenchmark.chargers.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PricingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingBenchmarkTest.class);
+
+    private static final int CHARGERS = Integer.getInteger("benchmark.chargers", 10_000);
+    private static final int CHARGERS_PER_STATION = 5;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+
+    private static final ChargerType[] TYPES = ChargerType.values();
+
+    @Test
+    void quoteAll_latency() {
+        List<Station> stations = new ArrayList<>();
+        List<Discount> discounts = new ArrayList<>();
+        List<Charger> chargers = new ArrayList<>(CHARGERS);
+        for (long id = 1; id <= CHARGERS / CHARGERS_PER_STATION; id++) {
+            Station station = Station.builder().id(id).name("Station " + id).build();
+            stations.add(station);
+            if (id % 3 == 0) {
+                discounts.add(Discount.builder().id(id).station(station).chargerType(TYPES[(int) (id % TYPES.length)])
+                        .dayOfWeek((int) (id % 7) + 1).startHour(8).endHour(20).discountPercent(5.0 + id % 30)
+                        .active(true).build());
+            }
+        }
+        for (long id = 1; id <= CHARGERS; id++) {
+            chargers.add(Charger.builder().id(id).station(stations.get((int) ((id - 1) / CHARGERS_PER_STATION)))
+                    .chargerType(TYPES[(int) (id % TYPES.length)]).pricePerKwh(new BigDecimal("0.35")).build());
+        }
+
+        DiscountRepository discountRepository = mock(DiscountRepository.class);
+        when(discountRepository.findAll()).thenReturn(discounts);
+        DiscountMatrix matrix = new DiscountMatrix(discountRepository);
+        matrix.rebuild();
+        ChargerRepository chargerRepository = mock(ChargerRepository.class);
+        PricingService pricingService = new PricingService(chargerRepository, matrix);
+
+        // Three-hour window starting mid-hour, so every quote prorates across four hour slots
+        LocalDateTime start = LocalDateTime.now().withMinute(30).withSecond(0).withNano(0);
+        LocalDateTime end = start.plusHours(3);
+
+        for (int i = 0; i < WARMUP; i++) {
+            pricingService.quoteAll(chargers, start, end, 40.0);
+        }
+
+        long[] nanos = new long[ITERATIONS];
+        List<PriceQuoteDTO> quotes = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long t0 = System.nanoTime();
+            quotes = pricingService.quoteAll(chargers, start, end, 40.0);
+            nanos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(nanos);
+
+        logger.info("quoteAll over {} chargers / {} discounts: p50={} ms, p99={} ms",
+                CHARGERS, discounts.size(), nanos[ITERATIONS / 2] / 1_000_000.0,
+                nanos[(int) (ITERATIONS * 0.99) - 1] / 1_000_000.0);
+
+        assertThat(quotes).hasSize(CHARGERS);
+        verifyNoInteractions(chargerRepository);
+    }
+}
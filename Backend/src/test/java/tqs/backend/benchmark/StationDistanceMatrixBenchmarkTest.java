@@ -0,0 +1,80 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tqs.backend.dto.StationDTO;
+import tqs.backend.event.StationChangedEvent;
+import tqs.backend.model.Station;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.service.StationDistanceMatrix;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures {@link StationDistanceMatrix}: the full build, single-station updates and a restart from the saved
+ * file, over synthetic stations spread across the Iberian peninsula; no database involved.
+ * Run with: mvn test -Dtest=StationDistanceMatrixBenchmarkTest -Dbenchmark=true
+ * Size can be changed with -Dbenchmark.stations and -Dbenchmark.radius-km.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StationDistanceMatrixBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationDistanceMatrixBenchmarkTest.class);
+
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 20_000);
+    private static final int RADIUS_KM = Integer.getInteger("benchmark.radius-km", 25);
+    private static final int UPDATES = 500;
+
+    @Test
+    void build_update_and_reload(@TempDir Path dir) throws Exception {
+        Random random = new Random(42);
+        List<StationDTO> stations = new ArrayList<>(STATIONS);
+        for (long id = 1; id <= STATIONS; id++) {
+            stations.add(new StationDTO(id, "Station " + id, "City",
+                    36.5 + random.nextDouble() * 7, -9.0 + random.nextDouble() * 12));
+        }
+        StationRepository stationRepository = mock(StationRepository.class);
+        when(stationRepository.findAllSummaries()).thenReturn(stations);
+        Path file = dir.resolve("station-distances.bin");
+
+        StationDistanceMatrix matrix = new StationDistanceMatrix(stationRepository, Runnable::run, RADIUS_KM, file.toString(), "");
+        long t0 = System.nanoTime();
+        matrix.load();
+        long buildMs = (System.nanoTime() - t0) / 1_000_000;
+        logger.info("Built {} stations / {} pairs within {} km in {} ms, saved {} KB",
+                matrix.size(), matrix.entryCount(), RADIUS_KM, buildMs, Files.size(file) / 1024);
+
+        long[] nanos = new long[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            Station station = Station.builder().id((long) STATIONS + i + 1)
+                    .latitude(36.5 + random.nextDouble() * 7).longitude(-9.0 + random.nextDouble() * 12).build();
+            long start = System.nanoTime();
+            matrix.onStationChanged(new StationChangedEvent(station, false));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        logger.info("Station create over {} updates: p50={} ms, p99={} ms",
+                UPDATES, nanos[UPDATES / 2] / 1_000_000.0, nanos[(int) (UPDATES * 0.99) - 1] / 1_000_000.0);
+        matrix.flushIfDirty();
+
+        // The database never saw the updates, so the restart removes them again
+        StationDistanceMatrix restarted = new StationDistanceMatrix(stationRepository, Runnable::run, RADIUS_KM, file.toString(), "");
+        t0 = System.nanoTime();
+        restarted.load();
+        logger.info("Restart from file with {} stations removed meanwhile in {} ms (full build {} ms)",
+                UPDATES, (System.nanoTime() - t0) / 1_000_000, buildMs);
+
+        assertThat(restarted.size()).isEqualTo(STATIONS);
+    }
+}
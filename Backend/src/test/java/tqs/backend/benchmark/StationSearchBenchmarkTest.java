@@ -0,0 +1,127 @@
+package tqs.backend.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.service.StationService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a large network and measures {@link StationService#searchStationsWithDiscount}.
+ * Run with: mvn test -Dtest=StationSearchBenchmarkTest -Dbenchmark=true
+ * Size can be changed with -Dbenchmark.stations and -Dbenchmark.chargersPerStation.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StationSearchBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationSearchBenchmarkTest.class);
+
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 10_000);
+    private static final int CHARGERS_PER_STATION = Integer.getInteger("benchmark.chargersPerStation", 5);
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    private static final ChargerType[] TYPES = ChargerType.values();
+
+    @Autowired
+    private StationService stationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int dayOfWeek;
+    private int hour;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        dayOfWeek = now.getDayOfWeek().getValue();
+        hour = now.getHour();
+
+        List<Object[]> stations = new ArrayList<>(STATIONS);
+        for (long id = 1; id <= STATIONS; id++) {
+            stations.add(new Object[]{id, "Station " + id, "Address " + id, "City " + (id % 100),
+                    36.9 + (id % 400) * 0.01, -9.5 + (id / 400) * 0.01});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO station (id, name, address, city, latitude, longitude) VALUES (?, ?, ?, ?, ?, ?)", stations);
+
+        List<Object[]> chargers = new ArrayList<>(STATIONS * CHARGERS_PER_STATION);
+        List<Object[]> reservations = new ArrayList<>();
+        Timestamp start = Timestamp.valueOf(now.minusDays(1));
+        Timestamp end = Timestamp.valueOf(now.plusDays(8));
+        long chargerId = 1;
+        for (long stationId = 1; stationId <= STATIONS; stationId++) {
+            for (int i = 0; i < CHARGERS_PER_STATION; i++, chargerId++) {
+                chargers.add(new Object[]{chargerId, stationId, TYPES[i % TYPES.length].name(), "AVAILABLE", 0.30});
+                if (chargerId % 5 == 0) {
+                    reservations.add(new Object[]{chargerId, chargerId, start, end, "ACTIVE", false});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO charger (id, station_id, charger_type, status, price_per_kwh) VALUES (?, ?, ?, ?, ?)", chargers);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO reservation (id, charger_id, start_time, estimated_end_time, status, paid) VALUES (?, ?, ?, ?, ?, ?)",
+                reservations);
+
+        logger.info("Seeded {} stations, {} chargers, {} reservations", STATIONS, chargers.size(), reservations.size());
+    }
+
+    @Test
+    void searchStationsWithDiscount_queryCountAndLatency() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int i = 0; i < WARMUP; i++) {
+            stationService.searchStationsWithDiscount(dayOfWeek, hour, ChargerType.DC_FAST);
+        }
+
+        statistics.clear();
+        List<Map<String, Object>> result = stationService.searchStationsWithDiscount(dayOfWeek, hour, ChargerType.DC_FAST);
+        long queries = statistics.getPrepareStatementCount();
+
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long t0 = System.nanoTime();
+            stationService.searchStationsWithDiscount(dayOfWeek, hour, ChargerType.DC_FAST);
+            nanos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(nanos);
+
+        logger.info("searchStationsWithDiscount over {} stations / {} chargers: {} results, {} SQL statements, p50={} ms, p99={} ms",
+                STATIONS, STATIONS * CHARGERS_PER_STATION, result.size(), queries,
+                nanos[ITERATIONS / 2] / 1_000_000.0, nanos[(int) (ITERATIONS * 0.99) - 1] / 1_000_000.0);
+
+        assertThat(result).isNotEmpty();
+        assertThat(queries).isLessThanOrEqualTo(3);
+    }
+}
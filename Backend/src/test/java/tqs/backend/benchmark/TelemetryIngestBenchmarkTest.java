@@ -0,0 +1,229 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tqs.backend.model.Charger;
+import tqs.backend.model.ChargingSession;
+import tqs.backend.model.Client;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.model.enums.ReservationStatus;
+import tqs.backend.model.enums.UserRole;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.ChargingSessionRepository;
+import tqs.backend.repository.ClientRepository;
+import tqs.backend.repository.ReservationRepository;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.service.ChargerService;
+import tqs.backend.service.TelemetryService;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Charger simulator for the telemetry endpoint: benchmark.chargers chargers, each charging one reservation, post
+ * MeterValues batches of benchmark.batch readings over benchmark.connections concurrent connections for
+ * benchmark.seconds. Reports accepted readings per second, then waits for the flush and checks that every
+ * session in the database holds exactly the energy its charger reported.
+ * Run with: mvn test -Dtest=TelemetryIngestBenchmarkTest -Dbenchmark=true
+ * Load can be changed with -Dbenchmark.chargers, -Dbenchmark.connections, -Dbenchmark.batch and -Dbenchmark.seconds.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:telemetry;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TelemetryIngestBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryIngestBenchmarkTest.class);
+
+    private static final int CHARGERS = Integer.getInteger("benchmark.chargers", 5_000);
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 64);
+    private static final int BATCH = Integer.getInteger("benchmark.batch", 50);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final double WH_PER_READING = 25;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 5, 1, 8, 0);
+    private static final String GATEWAY_KEY = "benchmark-key";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ChargerRepository chargerRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ChargingSessionRepository chargingSessionRepository;
+
+    @Autowired
+    private TelemetryService telemetryService;
+
+    @Test
+    void simulatedChargers_readingsPerSecond() throws Exception {
+        Client client = clientRepository.save(Client.builder()
+                .name("Fleet").email("fleet@example.com").passwordHash("hash").role(UserRole.CLIENT).build());
+        Station station = stationRepository.save(Station.builder().name("Telemetry").address("A").city("C")
+                .latitude(40.0).longitude(-8.0).build());
+        List<Charger> chargers = new ArrayList<>(CHARGERS);
+        for (int i = 0; i < CHARGERS; i++) {
+            chargers.add(Charger.builder().station(station).chargerType(ChargerType.DC_FAST)
+                    .status(ChargerStatus.IN_USE).pricePerKwh(BigDecimal.valueOf(0.30))
+                    .gatewayKeyHash(ChargerService.hashGatewayKey(GATEWAY_KEY)).build());
+        }
+        chargers = chargerRepository.saveAll(chargers);
+        List<Reservation> reservations = new ArrayList<>(CHARGERS);
+        for (Charger charger : chargers) {
+            reservations.add(Reservation.builder().user(client).charger(charger)
+                    .startTime(T0).estimatedEndTime(T0.plusHours(2)).status(ReservationStatus.ACTIVE).build());
+        }
+        reservations = reservationRepository.saveAll(reservations);
+
+        SimulatedCharger[] simulated = new SimulatedCharger[CHARGERS];
+        for (int i = 0; i < CHARGERS; i++) {
+            simulated[i] = new SimulatedCharger(chargers.get(i).getId(), reservations.get(i).getId(), 1_000_000.0 * i);
+        }
+
+        URI uri = URI.create("http://localhost:" + port + "/api/telemetry/meter-values");
+        ExecutorService clientThreads = Executors.newFixedThreadPool(2);
+        AtomicLong readings = new AtomicLong();
+        AtomicLong refused = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long t0 = System.nanoTime();
+        try {
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10)).executor(clientThreads).build();
+            long deadline = t0 + SECONDS * 1_000_000_000L;
+            List<CompletableFuture<Void>> connections = new ArrayList<>(CONNECTIONS);
+            for (int c = 0; c < CONNECTIONS; c++) {
+                connections.add(send(http, uri, simulated, c, deadline, readings, refused, errors));
+            }
+            CompletableFuture.allOf(connections.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            clientThreads.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        logger.info("{} chargers over {} connections, {} readings per request: {} readings in {} s ({} readings/s), "
+                        + "{} requests refused while the buffer was full, {} errors",
+                CHARGERS, CONNECTIONS, BATCH, readings.get(), String.format("%.1f", seconds),
+                String.format("%.0f", readings.get() / seconds), refused.get(), errors.get());
+
+        long flushStart = System.nanoTime();
+        while (!drained()) {
+            Thread.sleep(100);
+        }
+        logger.info("Remaining readings saved {} ms after the load stopped; stats {}",
+                (System.nanoTime() - flushStart) / 1_000_000, telemetryService.stats());
+
+        Map<Long, ChargingSession> sessions = new HashMap<>();
+        for (ChargingSession session : chargingSessionRepository.findAll()) {
+            sessions.put(session.getReservation().getId(), session);
+        }
+        for (SimulatedCharger charger : simulated) {
+            if (charger.sent == 0) {
+                continue;
+            }
+            ChargingSession session = sessions.get(charger.transactionId);
+            assertThat(session).isNotNull();
+            assertThat(session.getEnergyDeliveredKwh())
+                    .isEqualTo((charger.sent - 1) * WH_PER_READING / 1000.0);
+        }
+        assertThat(errors.get()).isZero();
+        assertThat(readings.get()).isPositive();
+    }
+
+    private boolean drained() {
+        Map<String, Object> stats = telemetryService.stats();
+        long flushed = (long) stats.get("flushedSessions");
+        return (int) stats.get("buffered") == 0 && (int) stats.get("pendingSessions") == 0 && flushed > 0;
+    }
+
+    // One connection: posts the next batch of its chargers in turn until the deadline
+    private CompletableFuture<Void> send(HttpClient http, URI uri, SimulatedCharger[] chargers, int next, long deadline,
+                                         AtomicLong readings, AtomicLong refused, AtomicLong errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        SimulatedCharger charger = chargers[next % chargers.length];
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Content-Type", "application/json")
+                .header("Authorization", charger.authorization)
+                .POST(HttpRequest.BodyPublishers.ofString(charger.nextBatch())).build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure == null && response.statusCode() == 202) {
+                        charger.sent += BATCH;
+                        readings.addAndGet(BATCH);
+                    } else if (failure == null && response.statusCode() == 503) {
+                        // Not counted as sent, so the charger repeats the same readings later
+                        refused.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> send(http, uri, chargers, next + CONNECTIONS, deadline, readings, refused, errors));
+    }
+
+    // Only ever used by one connection, since connection c serves chargers c, c + CONNECTIONS, ...
+    private static final class SimulatedCharger {
+        private final long chargerId;
+        private final long transactionId;
+        private final double registerStartWh;
+        private final String authorization;
+        private long sent;
+
+        private SimulatedCharger(long chargerId, long transactionId, double registerStartWh) {
+            this.chargerId = chargerId;
+            this.authorization = "Basic " + Base64.getEncoder()
+                    .encodeToString((chargerId + ":" + GATEWAY_KEY).getBytes(StandardCharsets.UTF_8));
+            this.transactionId = transactionId;
+            this.registerStartWh = registerStartWh;
+        }
+
+        private String nextBatch() {
+            StringBuilder json = new StringBuilder(64 + BATCH * 90)
+                    .append("{\"chargerId\":").append(chargerId).append(",\"meterValues\":[");
+            for (int i = 0; i < BATCH; i++) {
+                long reading = sent + i;
+                json.append(i == 0 ? "" : ",")
+                        .append("{\"transactionId\":").append(transactionId)
+                        .append(",\"timestamp\":\"").append(T0.plusSeconds(reading)).append('"')
+                        .append(",\"energyWh\":").append(registerStartWh + reading * WH_PER_READING).append('}');
+            }
+            return json.append("]}").toString();
+        }
+    }
+}
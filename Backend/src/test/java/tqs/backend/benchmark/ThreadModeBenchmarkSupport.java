@@ -0,0 +1,234 @@
+package tqs.backend.benchmark;
+
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Client;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.model.enums.ReservationStatus;
+import tqs.backend.model.enums.UserRole;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.ClientRepository;
+import tqs.backend.repository.ReservationRepository;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.service.StripeClient;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs many concurrent users against the embedded server, each alternating a reservation listing (one query)
+ * with a checkout (one query plus a Stripe call stubbed to answer after benchmark.stripeLatencyMs), and reports
+ * throughput and latency percentiles. Subclasses pick platform or virtual request threads.
+ * Run with: mvn test -Dtest='*ThreadsBenchmarkTest' -Dbenchmark=true
+ * Load can be changed with -Dbenchmark.users, -Dbenchmark.seconds and -Dbenchmark.stripeLatencyMs.
+ */
+abstract class ThreadModeBenchmarkSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModeBenchmarkSupport.class);
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 600);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 20);
+    private static final int WARMUP_SECONDS = 5;
+    static final long STRIPE_LATENCY_MS = Long.getLong("benchmark.stripeLatencyMs", 150);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ChargerRepository chargerRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    protected abstract String mode();
+
+    /**
+     * Stands in for Stripe with a local HTTP endpoint that answers after the configured latency, so the
+     * payment gateway's thread blocks on a socket read as it would on the real API.
+     */
+    @TestConfiguration
+    static class SlowStripeConfig {
+
+        @Bean(destroyMethod = "stop")
+        public SlowEndpoint slowStripeEndpoint() throws IOException {
+            return new SlowEndpoint(STRIPE_LATENCY_MS);
+        }
+
+        @Bean
+        @Primary
+        public StripeClient slowStripeClient(SlowEndpoint endpoint) {
+            return new StripeClient() {
+                @Override
+                public Session createCheckoutSession(SessionCreateParams params, RequestOptions options) {
+                    // Plain blocking socket I/O, like the Stripe SDK's default HttpURLConnection client
+                    try {
+                        HttpURLConnection connection = (HttpURLConnection) endpoint.uri().toURL().openConnection();
+                        connection.getResponseCode();
+                        connection.disconnect();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    Session session = new Session();
+                    session.setId("cs_benchmark");
+                    return session;
+                }
+            };
+        }
+    }
+
+    static class SlowEndpoint {
+
+        private final HttpServer server;
+        private final ScheduledExecutorService delays = Executors.newScheduledThreadPool(2);
+
+        SlowEndpoint(long latencyMs) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+            server.createContext("/", exchange -> delays.schedule(() -> {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+                return null;
+            }, latencyMs, TimeUnit.MILLISECONDS));
+            server.setExecutor(Executors.newFixedThreadPool(2));
+            server.start();
+        }
+
+        URI uri() {
+            return URI.create("http://localhost:" + server.getAddress().getPort() + "/");
+        }
+
+        void stop() {
+            server.stop(0);
+            delays.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentUsers_throughputAndLatency() throws Exception {
+        Client client = clientRepository.save(Client.builder()
+                .name("Load").email("load-" + mode() + "@example.com").passwordHash("hash").role(UserRole.CLIENT).build());
+        Station station = stationRepository.save(Station.builder().name("Load " + mode()).address("A").city("C")
+                .latitude(40.0).longitude(-8.0).build());
+        Charger charger = chargerRepository.save(Charger.builder().station(station).chargerType(ChargerType.DC_FAST)
+                .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.30)).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Reservation reservation = reservationRepository.save(Reservation.builder().user(client).charger(charger)
+                .startTime(start).estimatedEndTime(start.plusHours(1)).estimatedCost(BigDecimal.valueOf(12.50))
+                .status(ReservationStatus.ACTIVE).build());
+
+        String base = "http://localhost:" + port + "/api";
+        HttpRequest list = HttpRequest.newBuilder(URI.create(base + "/reservations/client/" + client.getId())).GET().build();
+        HttpRequest checkout = HttpRequest.newBuilder(URI.create(base + "/payment/create-checkout-session"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"reservationId\":" + reservation.getId() + "}"))
+                .build();
+
+        // Users are asynchronous request chains on two client threads, so that the load generator takes little
+        // CPU from the server and never competes with it for carrier threads
+        ExecutorService clientThreads = Executors.newFixedThreadPool(2);
+        try {
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10)).executor(clientThreads).build();
+
+            drive(http, List.of(list, checkout), WARMUP_SECONDS);
+            Result result = drive(http, List.of(list, checkout), SECONDS);
+
+            logger.info("{} threads, {} users, {} s: {} requests ({} req/s), {} errors, "
+                            + "latency p50 {} ms, p95 {} ms, p99 {} ms, max {} ms",
+                    mode(), USERS, SECONDS, result.count(), String.format("%.0f", result.count() / (double) SECONDS),
+                    result.errors, result.percentile(50), result.percentile(95), result.percentile(99),
+                    result.percentile(100));
+            assertThat(result.count()).isPositive();
+        } finally {
+            clientThreads.shutdownNow();
+        }
+    }
+
+    private Result drive(HttpClient http, List<HttpRequest> requests, int seconds) {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> users = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            users.add(loop(http, requests, u, deadline, latencies, errors));
+        }
+        CompletableFuture.allOf(users.toArray(CompletableFuture[]::new)).join();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(sorted, errors.get());
+    }
+
+    // One user: sends its next request when the previous one completes, until the deadline
+    private CompletableFuture<Void> loop(HttpClient http, List<HttpRequest> requests, int i, long deadline,
+                                         Queue<Long> latencies, AtomicLong errors) {
+        if (System.nanoTime() >= deadline) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long t0 = System.nanoTime();
+        return http.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add((System.nanoTime() - t0) / 1_000_000);
+                    return null;
+                })
+                .thenCompose(ignored -> loop(http, requests, i + 1, deadline, latencies, errors));
+    }
+
+    private record Result(long[] sortedLatencies, long errors) {
+
+        long count() {
+            return sortedLatencies.length;
+        }
+
+        long percentile(int p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tqs.backend.dto.RoutableCharger;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.service.StationReachabilityGraph;
+import tqs.backend.service.TripPlanner;
+import tqs.backend.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures {@link StationReachabilityGraph} build time and {@link TripPlanner#plan} latency over a synthetic
+ * network of stations spread across the Iberian peninsula; no database involved.
+ * Run with: mvn test -Dtest=TripPlannerBenchmarkTest -Dbenchmark=true
+ * Size can be changed with -Dbenchmark.stations and -Dbenchmark.trips.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TripPlannerBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripPlannerBenchmarkTest.class);
+
+    private static final int STATIONS = Integer.getInteger("benchmark.stations", 20_000);
+    private static final int TRIPS = Integer.getInteger("benchmark.trips", 500);
+    private static final int WARMUP = 100;
+    private static final double MIN_TRIP_KM = 400;
+    private static final double RANGE_KM = 350;
+    private static final double CAPACITY_KWH = 60;
+
+    private static final ChargerType[] TYPES = ChargerType.values();
+
+    @Test
+    void plan_latency() {
+        Random random = new Random(42);
+        List<RoutableCharger> chargers = new ArrayList<>();
+        long chargerId = 1;
+        for (long stationId = 1; stationId <= STATIONS; stationId++) {
+            double lat = 36.5 + random.nextDouble() * 7;
+            double lng = -9.0 + random.nextDouble() * 12;
+            int count = 1 + random.nextInt(4);
+            for (int c = 0; c < count; c++) {
+                chargers.add(new RoutableCharger(stationId, lat, lng, chargerId++, TYPES[random.nextInt(TYPES.length)]));
+            }
+        }
+
+        ChargerRepository chargerRepository = mock(ChargerRepository.class);
+        when(chargerRepository.findRoutable(any())).thenReturn(chargers);
+        StationReachabilityGraph graph = new StationReachabilityGraph(chargerRepository, 300);
+        long t0 = System.nanoTime();
+        graph.rebuild();
+        logger.info("Graph over {} stations / {} chargers built in {} ms",
+                STATIONS, chargers.size(), (System.nanoTime() - t0) / 1_000_000);
+
+        TripPlanner planner = new TripPlanner(graph, 0.1, 0.8, 90, 5);
+        double[][] trips = new double[WARMUP + TRIPS][];
+        for (int i = 0; i < trips.length; i++) {
+            double[] trip;
+            do {
+                trip = new double[]{36.5 + random.nextDouble() * 7, -9.0 + random.nextDouble() * 12,
+                        36.5 + random.nextDouble() * 7, -9.0 + random.nextDouble() * 12};
+            } while (GeoUtils.haversineKm(trip[0], trip[1], trip[2], trip[3]) < MIN_TRIP_KM);
+            trips[i] = trip;
+        }
+
+        for (int i = 0; i < WARMUP; i++) {
+            plan(planner, trips[i]);
+        }
+
+        long[] nanos = new long[TRIPS];
+        int routed = 0;
+        int stops = 0;
+        for (int i = 0; i < TRIPS; i++) {
+            long start = System.nanoTime();
+            TripPlanner.Route route = plan(planner, trips[WARMUP + i]);
+            nanos[i] = System.nanoTime() - start;
+            if (route != null) {
+                routed++;
+                stops += route.stops().size();
+            }
+        }
+        Arrays.sort(nanos);
+
+        logger.info("plan over {} trips of at least {} km: p50={} ms, p95={} ms, p99={} ms, max={} ms, {} routed, {} stops on average",
+                TRIPS, MIN_TRIP_KM, nanos[TRIPS / 2] / 1_000_000.0, nanos[(int) (TRIPS * 0.95) - 1] / 1_000_000.0,
+                nanos[(int) (TRIPS * 0.99) - 1] / 1_000_000.0, nanos[TRIPS - 1] / 1_000_000.0,
+                routed, routed == 0 ? 0 : (double) stops / routed);
+
+        assertThat(routed).isEqualTo(TRIPS);
+    }
+
+    private static TripPlanner.Route plan(TripPlanner planner, double[] trip) {
+        return planner.plan(trip[0], trip[1], trip[2], trip[3], 0.8, RANGE_KM, CAPACITY_KWH);
+    }
+}
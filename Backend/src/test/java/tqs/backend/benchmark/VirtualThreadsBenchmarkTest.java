@@ -0,0 +1,30 @@
+package tqs.backend.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link ThreadModeBenchmarkSupport} with requests on virtual threads.
+ * Run with: mvn test -Dtest='*ThreadsBenchmarkTest' -Dbenchmark=true
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtualthreads;DB_CLOSE_DELAY=-1",
+        "spring.threads.virtual.enabled=true",
+        "virtual-threads.pinning-monitor.enabled=true",
+        "spring.jpa.show-sql=false",
+        // Large enough that every user's checkout reaches the stub rather than being shed by the gateway
+        "payment.gateway.max-concurrent=600",
+        "payment.gateway.max-queued=600"
+})
+@Import(ThreadModeBenchmarkSupport.SlowStripeConfig.class)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadsBenchmarkTest extends ThreadModeBenchmarkSupport {
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,61 @@
+package tqs.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PinnedThreadMonitorTest {
+
+    private final PinnedThreadMonitor monitor = new PinnedThreadMonitor(10);
+    private final Object monitorLock = new Object();
+    private final ReentrantLock reentrantLock = new ReentrantLock();
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    private void sleepInsideSynchronized() {
+        synchronized (monitorLock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void sleepInsideReentrantLock() {
+        reentrantLock.lock();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            reentrantLock.unlock();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void blockingInsideSynchronized_IsReportedWithItsSite() throws InterruptedException {
+        monitor.start();
+
+        Thread.ofVirtual().start(this::sleepInsideReentrantLock).join();
+        Thread.ofVirtual().start(this::sleepInsideSynchronized).join();
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while ((long) monitor.stats().get("pinned") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Map<String, Object> stats = monitor.stats();
+        assertThat(stats.get("pinned")).isEqualTo(1L);
+        assertThat(((Map<String, Long>) stats.get("bySite")).keySet())
+                .singleElement().asString().contains("PinnedThreadMonitorTest.sleepInsideSynchronized");
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -20,11 +21,19 @@ import tqs.backend.model.enums.ChargerStatus;
 import tqs.backend.model.enums.ChargerType;
 import tqs.backend.repository.ChargerRepository;
 import tqs.backend.repository.StationRepository;
+import tqs.backend.service.ChargerGateway;
+import tqs.backend.service.ChargerLivenessTracker;
 import tqs.backend.service.ChargerService;
+import tqs.backend.service.PricingService;
 import tqs.backend.dto.ChargerCreationRequest;
 import tqs.backend.dto.ChargerDTO;
+import tqs.backend.dto.ChargerResponse;
+import tqs.backend.dto.ChargerStatsDTO;
+import tqs.backend.dto.PriceQuoteDTO;
+import tqs.backend.dto.PriceQuoteRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -48,6 +57,15 @@ class ChargerControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ChargerGateway chargerGateway;
+
+    @Autowired
+    private ChargerLivenessTracker livenessTracker;
+
+    @Autowired
+    private PricingService pricingService;
+
     @TestConfiguration
     static class MockConfig {
         @Bean
@@ -65,6 +83,21 @@ class ChargerControllerTest {
             return mock(ChargerService.class);
         }
 
+        @Bean
+        public PricingService pricingService() {
+            return mock(PricingService.class);
+        }
+
+        @Bean
+        public ChargerGateway chargerGateway() {
+            return mock(ChargerGateway.class);
+        }
+
+        @Bean
+        public ChargerLivenessTracker livenessTracker() {
+            return mock(ChargerLivenessTracker.class);
+        }
+
 
         @Bean
         public Validator validator() {
@@ -150,8 +183,8 @@ class ChargerControllerTest {
     @Test
     void getChargersByStation_ReturnsList() throws Exception {
         Long stationId = 1L;
-        List<Charger> chargers = List.of(
-                Charger.builder().id(3L).chargerType(ChargerType.AC_STANDARD).status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.22)).build()
+        List<ChargerResponse> chargers = List.of(
+                new ChargerResponse(3L, ChargerType.AC_STANDARD, ChargerStatus.AVAILABLE, BigDecimal.valueOf(0.22), null, null)
         );
 
         when(chargerService.getChargersForStation(stationId)).thenReturn(chargers);
@@ -183,6 +216,18 @@ class ChargerControllerTest {
                 .andExpect(jsonPath("$.error").value("Charger not found"));
     }
 
+    @Test
+    void whenUpdateStatusRacesWithBooking_thenReturnConflict() throws Exception {
+        when(chargerService.updateChargerStatus(1L, ChargerStatus.AVAILABLE, null))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Charger.class, 1L));
+
+        mockMvc.perform(put("/api/chargers/{id}/status", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("status", "AVAILABLE"))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
     @Test
     void countAvailableChargersTotal_ReturnsCount() throws Exception {
         when(chargerService.countByStatus(ChargerStatus.AVAILABLE)).thenReturn(5L);
@@ -192,6 +237,43 @@ class ChargerControllerTest {
                 .andExpect(content().string("5"));
     }
 
+    @Test
+    void getChargerStats_ReturnsTotalsAndStations() throws Exception {
+        ChargerStatsDTO stats = ChargerStatsDTO.builder()
+                .total(3)
+                .totals(Map.of(ChargerStatus.AVAILABLE, 2L, ChargerStatus.IN_USE, 1L))
+                .byStation(Map.of(1L, Map.of(ChargerStatus.AVAILABLE, 2L, ChargerStatus.IN_USE, 1L)))
+                .lastReconcileCorrections(0)
+                .build();
+        when(chargerService.getStatusStats()).thenReturn(stats);
+
+        mockMvc.perform(get("/api/chargers/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.totals.AVAILABLE").value(2))
+                .andExpect(jsonPath("$.byStation['1'].IN_USE").value(1));
+    }
+
+    @Test
+    void getGatewayStats_ReturnsConnectedChargers() throws Exception {
+        when(chargerGateway.stats()).thenReturn(Map.of("connected", 12, "messages", 340L));
+
+        mockMvc.perform(get("/api/chargers/gateway/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.connected").value(12))
+                .andExpect(jsonPath("$.messages").value(340));
+    }
+
+    @Test
+    void getLivenessStats_ReturnsLiveAndStaleCounts() throws Exception {
+        when(livenessTracker.stats()).thenReturn(Map.of("live", 40, "stale", 2));
+
+        mockMvc.perform(get("/api/chargers/liveness/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.live").value(40))
+                .andExpect(jsonPath("$.stale").value(2));
+    }
+
     @Test
     void countAvailableChargersByStation_ReturnsCount() throws Exception {
         Long stationId = 1L;
@@ -372,4 +454,36 @@ class ChargerControllerTest {
                 .andExpect(jsonPath("$.status").value("AVAILABLE"))
                 .andExpect(jsonPath("$.maintenanceNote").isEmpty()); // Assert maintenance note is empty/null in JSON
     }
+
+    @Test
+    void whenQuoteChargers_thenReturnQuotes() throws Exception {
+        PriceQuoteDTO quote = PriceQuoteDTO.builder()
+                .chargerId(1L).stationId(1L)
+                .basePricePerKwh(new BigDecimal("0.40")).effectivePricePerKwh(new BigDecimal("0.3000"))
+                .discountPercent(25.0).estimatedKwh(10.0).estimatedCost(new BigDecimal("3.00"))
+                .build();
+        when(pricingService.quote(any(PriceQuoteRequest.class))).thenReturn(List.of(quote));
+
+        PriceQuoteRequest request = new PriceQuoteRequest(List.of(1L), LocalDateTime.of(2030, 1, 7, 10, 0),
+                LocalDateTime.of(2030, 1, 7, 11, 0), 10.0);
+
+        mockMvc.perform(post("/api/chargers/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].effectivePricePerKwh").value(0.3))
+                .andExpect(jsonPath("$[0].estimatedCost").value(3.0));
+    }
+
+    @Test
+    void whenQuoteChargersWithInvalidWindow_thenReturnBadRequest() throws Exception {
+        when(pricingService.quote(any(PriceQuoteRequest.class)))
+                .thenThrow(new IllegalArgumentException("End time must be after start time"));
+
+        mockMvc.perform(post("/api/chargers/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"chargerIds\":[1]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("End time must be after start time"));
+    }
 }
@@ -206,7 +206,8 @@ class ClientControllerTest {
                 .andExpect(jsonPath("$.email").value(email))
                 .andExpect(jsonPath("$.name").value("LoginUser"))
                 .andExpect(jsonPath("$.batteryCapacityKwh").value(45.0))
-                .andExpect(jsonPath("$.fullRangeKm").value(320.0));
+                .andExpect(jsonPath("$.fullRangeKm").value(320.0))
+                .andExpect(jsonPath("$.reservations").doesNotExist());
     }
 
     @Test
@@ -285,7 +286,6 @@ class ClientControllerTest {
             .name("Name")
             .batteryCapacityKwh(50.0)
             .fullRangeKm(300.0)
-            .reservations(new ArrayList<>())
             .role(UserRole.CLIENT)
             .build();
 
@@ -310,7 +310,6 @@ class ClientControllerTest {
             .name("Name")
             .batteryCapacityKwh(50.0)
             .fullRangeKm(300.0)
-            .reservations(new ArrayList<>())
             .role(UserRole.CLIENT)
             .build();
 
@@ -148,6 +148,29 @@ class DiscountControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Station not found"));    }
 
+    @Test
+    void createDiscount_DayOfWeekOutOfRange_ReturnsBadRequest() throws Exception {
+        Map<String, Object> requestBody = Map.of(
+                "stationId", 1L,
+                "chargerType", "AC_STANDARD",
+                "dayOfWeek", 8,
+                "startHour", 9,
+                "endHour", 18,
+                "discountPercent", 20.0,
+                "active", true
+        );
+
+        // The mock is shared by the whole class, so only this exact call is stubbed
+        doThrow(new IllegalArgumentException("dayOfWeek must be between 1 and 7, was 8"))
+                .when(discountService).createDiscount(1L, ChargerType.AC_STANDARD, 8, 9, 18, 20.0, true);
+
+        mockMvc.perform(post("/api/discounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestBody)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("dayOfWeek must be between 1 and 7, was 8"));
+    }
+
     @Test
     void getAllDiscounts_ReturnsList() throws Exception {
         List<Discount> discounts = List.of(
@@ -0,0 +1,79 @@
+package tqs.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tqs.backend.service.LiveEventHub;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LiveEventController.class)
+@Import({LiveEventControllerTest.MockConfig.class, LiveEventControllerTest.SecurityConfig.class})
+@ActiveProfiles("test")
+class LiveEventControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LiveEventHub liveEventHub;
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public LiveEventHub liveEventHub() {
+            return mock(LiveEventHub.class);
+        }
+    }
+
+    @TestConfiguration
+    @EnableWebSecurity
+    static class SecurityConfig {
+        @Bean
+        public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+            http.csrf(csrf -> csrf.disable())
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers("/api/events/**").permitAll()
+                            .anyRequest().authenticated());
+            return http.build();
+        }
+    }
+
+    @Test
+    void subscribe_WithStations_OpensStreamForThem() throws Exception {
+        when(liveEventHub.subscribe(any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/events").param("stationId", "1", "2").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+
+        verify(liveEventHub).subscribe(Set.of(1L, 2L));
+    }
+
+    @Test
+    void subscribe_WithoutStations_FollowsEverything() throws Exception {
+        reset(liveEventHub);
+        when(liveEventHub.subscribe(isNull())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/events"))
+                .andExpect(request().asyncStarted());
+
+        verify(liveEventHub).subscribe(null);
+    }
+}
@@ -1,8 +1,6 @@
 package tqs.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.stripe.exception.StripeException;
-import com.stripe.model.checkout.Session;
 import com.stripe.param.checkout.SessionCreateParams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,18 +17,27 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import tqs.backend.dto.PaymentSession;
+import tqs.backend.exception.PaymentGatewayUnavailableException;
 import tqs.backend.model.Reservation;
 import tqs.backend.service.ReservationService;
-import tqs.backend.service.StripeClient;
+import tqs.backend.service.PaymentGateway;
 
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.CoreMatchers.is;
@@ -50,10 +57,10 @@ class PaymentControllerTest {
     private ReservationService reservationService;
 
     @MockBean
-    private StripeClient stripeClient;
+    private PaymentGateway paymentGateway;
 
     private Reservation mockReservation;
-    private Session mockSession;
+    private PaymentSession mockSession;
 
     @BeforeEach
     void setUp() {
@@ -63,7 +70,7 @@ class PaymentControllerTest {
         when(mockReservation.isPaid()).thenReturn(false);
         when(mockReservation.getStatus()).thenReturn(tqs.backend.model.enums.ReservationStatus.ACTIVE);
 
-        mockSession = mock(Session.class);
+        mockSession = mock(PaymentSession.class);
         when(mockSession.getId()).thenReturn("cs_test_123");
         Map<String, String> metadata = new HashMap<>();
         metadata.put("reservationId", "1");
@@ -75,19 +82,19 @@ class PaymentControllerTest {
     @DisplayName("Create checkout session - Success")
     void whenCreateCheckoutSession_thenReturnSessionId() throws Exception {
         when(reservationService.getReservationById(1L)).thenReturn(mockReservation);
-        when(stripeClient.createCheckoutSession(any(SessionCreateParams.class))).thenReturn(mockSession);
+        when(paymentGateway.createCheckoutSession(any(SessionCreateParams.class))).thenReturn(CompletableFuture.completedFuture(mockSession));
 
         Map<String, Long> requestBody = new HashMap<>();
         requestBody.put("reservationId", 1L);
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.sessionId", is("cs_test_123")));
 
         verify(reservationService, times(1)).getReservationById(1L);
-        verify(stripeClient, times(1)).createCheckoutSession(any(SessionCreateParams.class));
+        verify(paymentGateway, times(1)).createCheckoutSession(any(SessionCreateParams.class));
     }
 
     @Test
@@ -99,14 +106,14 @@ class PaymentControllerTest {
         Map<String, Long> requestBody = new HashMap<>();
         requestBody.put("reservationId", 1L);
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Reservation cannot be paid")));
 
         verify(reservationService, times(1)).getReservationById(1L);
-        verify(stripeClient, never()).createCheckoutSession(any());
+        verify(paymentGateway, never()).createCheckoutSession(any());
     }
 
     @Test
@@ -115,14 +122,14 @@ class PaymentControllerTest {
         Map<String, Long> requestBody = new HashMap<>();
         // missing reservationId
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Missing reservationId")));
 
         verify(reservationService, never()).getReservationById(any());
-        verify(stripeClient, never()).createCheckoutSession(any());
+        verify(paymentGateway, never()).createCheckoutSession(any());
     }
 
      @Test
@@ -133,14 +140,14 @@ class PaymentControllerTest {
         Map<String, Long> requestBody = new HashMap<>();
         requestBody.put("reservationId", 999L);
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error", is("Reservation not found")));
 
         verify(reservationService, times(1)).getReservationById(999L);
-        verify(stripeClient, never()).createCheckoutSession(any());
+        verify(paymentGateway, never()).createCheckoutSession(any());
     }
 
     @Test
@@ -152,14 +159,14 @@ class PaymentControllerTest {
         Map<String, Long> requestBody = new HashMap<>();
         requestBody.put("reservationId", 1L);
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Reservation is already paid")));
 
         verify(reservationService, times(1)).getReservationById(1L);
-        verify(stripeClient, never()).createCheckoutSession(any());
+        verify(paymentGateway, never()).createCheckoutSession(any());
     }
 
     @Test
@@ -171,53 +178,53 @@ class PaymentControllerTest {
         Map<String, Long> requestBody = new HashMap<>();
         requestBody.put("reservationId", 1L);
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Reservation cannot be paid")));
 
         verify(reservationService, times(1)).getReservationById(1L);
-        verify(stripeClient, never()).createCheckoutSession(any());
+        verify(paymentGateway, never()).createCheckoutSession(any());
     }
 
     @Test
     @DisplayName("Create checkout session - Stripe API error")
     void whenCreateCheckoutSessionThrowsStripeException_thenReturnInternalServerError() throws Exception {
         when(reservationService.getReservationById(1L)).thenReturn(mockReservation);
-        when(stripeClient.createCheckoutSession(any(SessionCreateParams.class)))
-                .thenThrow(new com.stripe.exception.ApiException("Stripe API error", "req_test_123", "api_error", 500, null));
+        when(paymentGateway.createCheckoutSession(any(SessionCreateParams.class)))
+                .thenReturn(CompletableFuture.failedFuture(new com.stripe.exception.ApiException("Stripe API error", "req_test_123", "api_error", 500, null)));
 
         Map<String, Long> requestBody = new HashMap<>();
         requestBody.put("reservationId", 1L);
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.error", is("Error creating checkout session: Stripe API error")));
 
         verify(reservationService, times(1)).getReservationById(1L);
-        verify(stripeClient, times(1)).createCheckoutSession(any(SessionCreateParams.class));
+        verify(paymentGateway, times(1)).createCheckoutSession(any(SessionCreateParams.class));
     }
 
     @Test
     @DisplayName("Create checkout session - Failed to create Stripe session (returns null)")
     void whenCreateCheckoutSessionReturnsNull_thenReturnInternalServerError() throws Exception {
         when(reservationService.getReservationById(1L)).thenReturn(mockReservation);
-        when(stripeClient.createCheckoutSession(any(SessionCreateParams.class))).thenReturn(null);
+        when(paymentGateway.createCheckoutSession(any(SessionCreateParams.class))).thenReturn(CompletableFuture.completedFuture(null));
 
         Map<String, Long> requestBody = new HashMap<>();
         requestBody.put("reservationId", 1L);
 
-        mockMvc.perform(post("/api/payment/create-checkout-session")
+        perform(post("/api/payment/create-checkout-session")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.error", is("Failed to create checkout session")));
 
         verify(reservationService, times(1)).getReservationById(1L);
-        verify(stripeClient, times(1)).createCheckoutSession(any(SessionCreateParams.class));
+        verify(paymentGateway, times(1)).createCheckoutSession(any(SessionCreateParams.class));
     }
 
     // Test cases for /api/payment/verify-session
@@ -228,18 +235,18 @@ class PaymentControllerTest {
         Map<String, String> metadata = new HashMap<>();
         metadata.put("reservationId", "1");
 
-        when(stripeClient.retrieveCheckoutSession(testSessionId)).thenReturn(mockSession);
+        when(paymentGateway.retrieveCheckoutSession(testSessionId)).thenReturn(CompletableFuture.completedFuture(mockSession));
         when(mockSession.getPaymentStatus()).thenReturn("paid");
         when(mockSession.getMetadata()).thenReturn(metadata);
         when(reservationService.getReservationById(1L)).thenReturn(mockReservation);
         when(reservationService.saveReservation(any(Reservation.class))).thenReturn(mockReservation);
 
-        mockMvc.perform(get("/api/payment/verify-session")
+        perform(get("/api/payment/verify-session")
                 .param("session_id", testSessionId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("Payment successfully verified and reservation updated")));
 
-        verify(stripeClient, times(1)).retrieveCheckoutSession(testSessionId);
+        verify(paymentGateway, times(1)).retrieveCheckoutSession(testSessionId);
         verify(mockSession, times(1)).getPaymentStatus();
         verify(mockSession, times(1)).getMetadata();
         verify(reservationService, times(1)).getReservationById(1L);
@@ -252,15 +259,15 @@ class PaymentControllerTest {
     void whenVerifyCheckoutSessionWithUnpaidSession_thenReturnBadRequest() throws Exception {
         String testSessionId = "cs_test_unpaid";
 
-        when(stripeClient.retrieveCheckoutSession(testSessionId)).thenReturn(mockSession);
+        when(paymentGateway.retrieveCheckoutSession(testSessionId)).thenReturn(CompletableFuture.completedFuture(mockSession));
         when(mockSession.getPaymentStatus()).thenReturn("unpaid");
 
-        mockMvc.perform(get("/api/payment/verify-session")
+        perform(get("/api/payment/verify-session")
                 .param("session_id", testSessionId))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Payment not completed")));
 
-        verify(stripeClient, times(1)).retrieveCheckoutSession(testSessionId);
+        verify(paymentGateway, times(1)).retrieveCheckoutSession(testSessionId);
         verify(mockSession, times(1)).getPaymentStatus();
         verify(mockSession, never()).getMetadata();
         verify(reservationService, never()).getReservationById(any());
@@ -273,16 +280,16 @@ class PaymentControllerTest {
         String testSessionId = "cs_test_missing_metadata";
         Map<String, String> metadata = new HashMap<>(); // Missing reservationId
 
-        when(stripeClient.retrieveCheckoutSession(testSessionId)).thenReturn(mockSession);
+        when(paymentGateway.retrieveCheckoutSession(testSessionId)).thenReturn(CompletableFuture.completedFuture(mockSession));
         when(mockSession.getPaymentStatus()).thenReturn("paid");
         when(mockSession.getMetadata()).thenReturn(metadata);
 
-        mockMvc.perform(get("/api/payment/verify-session")
+        perform(get("/api/payment/verify-session")
                 .param("session_id", testSessionId))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Reservation ID not found in session metadata")));
 
-        verify(stripeClient, times(1)).retrieveCheckoutSession(testSessionId);
+        verify(paymentGateway, times(1)).retrieveCheckoutSession(testSessionId);
         verify(mockSession, times(1)).getPaymentStatus();
         verify(mockSession, times(1)).getMetadata();
         verify(reservationService, never()).getReservationById(any());
@@ -296,16 +303,16 @@ class PaymentControllerTest {
         Map<String, String> metadata = new HashMap<>();
         metadata.put("reservationId", "abc"); // Invalid format
 
-        when(stripeClient.retrieveCheckoutSession(testSessionId)).thenReturn(mockSession);
+        when(paymentGateway.retrieveCheckoutSession(testSessionId)).thenReturn(CompletableFuture.completedFuture(mockSession));
         when(mockSession.getPaymentStatus()).thenReturn("paid");
         when(mockSession.getMetadata()).thenReturn(metadata);
 
-        mockMvc.perform(get("/api/payment/verify-session")
+        perform(get("/api/payment/verify-session")
                 .param("session_id", testSessionId))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error", is("Invalid reservation ID in session metadata")));
 
-        verify(stripeClient, times(1)).retrieveCheckoutSession(testSessionId);
+        verify(paymentGateway, times(1)).retrieveCheckoutSession(testSessionId);
         verify(mockSession, times(1)).getPaymentStatus();
         verify(mockSession, times(1)).getMetadata();
         verify(reservationService, never()).getReservationById(any());
@@ -319,17 +326,17 @@ class PaymentControllerTest {
         Map<String, String> metadata = new HashMap<>();
         metadata.put("reservationId", "999");
 
-        when(stripeClient.retrieveCheckoutSession(testSessionId)).thenReturn(mockSession);
+        when(paymentGateway.retrieveCheckoutSession(testSessionId)).thenReturn(CompletableFuture.completedFuture(mockSession));
         when(mockSession.getPaymentStatus()).thenReturn("paid");
         when(mockSession.getMetadata()).thenReturn(metadata);
         when(reservationService.getReservationById(999L)).thenReturn(null);
 
-        mockMvc.perform(get("/api/payment/verify-session")
+        perform(get("/api/payment/verify-session")
                 .param("session_id", testSessionId))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error", is("Reservation not found")));
 
-        verify(stripeClient, times(1)).retrieveCheckoutSession(testSessionId);
+        verify(paymentGateway, times(1)).retrieveCheckoutSession(testSessionId);
         verify(mockSession, times(1)).getPaymentStatus();
         verify(mockSession, times(1)).getMetadata();
         verify(reservationService, times(1)).getReservationById(999L);
@@ -343,18 +350,18 @@ class PaymentControllerTest {
         Map<String, String> metadata = new HashMap<>();
         metadata.put("reservationId", "1");
 
-        when(stripeClient.retrieveCheckoutSession(testSessionId)).thenReturn(mockSession);
+        when(paymentGateway.retrieveCheckoutSession(testSessionId)).thenReturn(CompletableFuture.completedFuture(mockSession));
         when(mockSession.getPaymentStatus()).thenReturn("paid");
         when(mockSession.getMetadata()).thenReturn(metadata);
         when(mockReservation.isPaid()).thenReturn(true);
         when(reservationService.getReservationById(1L)).thenReturn(mockReservation);
 
-        mockMvc.perform(get("/api/payment/verify-session")
+        perform(get("/api/payment/verify-session")
                 .param("session_id", testSessionId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("Reservation already marked as paid")));
 
-        verify(stripeClient, times(1)).retrieveCheckoutSession(testSessionId);
+        verify(paymentGateway, times(1)).retrieveCheckoutSession(testSessionId);
         verify(mockSession, times(1)).getPaymentStatus();
         verify(mockSession, times(1)).getMetadata();
         verify(reservationService, times(1)).getReservationById(1L);
@@ -366,19 +373,51 @@ class PaymentControllerTest {
     void whenVerifyCheckoutSessionThrowsStripeException_thenReturnInternalServerError() throws Exception {
         String testSessionId = "cs_test_stripe_error";
 
-        when(stripeClient.retrieveCheckoutSession(testSessionId))
-                .thenThrow(new com.stripe.exception.ApiException("Stripe API error during verification", "req_test_456", "api_error", 500, null));
+        when(paymentGateway.retrieveCheckoutSession(testSessionId))
+                .thenReturn(CompletableFuture.failedFuture(new com.stripe.exception.ApiException("Stripe API error during verification", "req_test_456", "api_error", 500, null)));
 
-        mockMvc.perform(get("/api/payment/verify-session")
+        perform(get("/api/payment/verify-session")
                 .param("session_id", testSessionId))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.error", is("Error verifying checkout session: Stripe API error during verification")));
 
-        verify(stripeClient, times(1)).retrieveCheckoutSession(testSessionId);
+        verify(paymentGateway, times(1)).retrieveCheckoutSession(testSessionId);
         verify(reservationService, never()).getReservationById(any());
         verify(reservationService, never()).saveReservation(any());
     }
 
+    @Test
+    @DisplayName("Create checkout session - Payment provider unavailable")
+    void whenGatewayRefusesCall_thenReturnServiceUnavailable() throws Exception {
+        when(reservationService.getReservationById(1L)).thenReturn(mockReservation);
+        when(paymentGateway.createCheckoutSession(any(SessionCreateParams.class))).thenReturn(CompletableFuture.failedFuture(
+                new PaymentGatewayUnavailableException("Payment provider is unavailable, try again later")));
+
+        perform(post("/api/payment/create-checkout-session")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("reservationId", 1L))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error", is("Payment provider is unavailable, try again later")));
+    }
+
+    @Test
+    @DisplayName("Verify checkout session - Payment provider timed out")
+    void whenGatewayTimesOut_thenReturnGatewayTimeout() throws Exception {
+        when(paymentGateway.retrieveCheckoutSession("cs_test_slow")).thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        perform(get("/api/payment/verify-session")
+                .param("session_id", "cs_test_slow"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error", is("Payment provider did not respond in time")));
+
+        verify(reservationService, never()).getReservationById(any());
+    }
+
+    private ResultActions perform(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
     @TestConfiguration
     @EnableWebSecurity
     static class SecurityConfig {
@@ -11,6 +11,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import tqs.backend.dto.BulkReservationItemResult;
+import tqs.backend.dto.BulkReservationMode;
+import tqs.backend.dto.BulkReservationResponse;
 import tqs.backend.dto.ReservationRequest;
 import tqs.backend.model.Charger;
 import tqs.backend.model.Client;
@@ -24,14 +27,18 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import tqs.backend.dto.ReservationResponse;
+import tqs.backend.dto.ReservationSummaryDTO;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -151,6 +158,49 @@ class ReservationControllerTest {
         verify(reservationService, times(1)).getReservationsByClientId(1L);
     }
 
+    @Test
+    void whenGetReservationSummary_thenReturnCountsAndPage() throws Exception {
+        ReservationSummaryDTO summary = ReservationSummaryDTO.builder()
+                .clientId(1L)
+                .total(3)
+                .countsByStatus(Map.of(ReservationStatus.ACTIVE, 1L, ReservationStatus.COMPLETED, 2L))
+                .items(List.of())
+                .nextCursor(7L)
+                .build();
+        when(reservationService.getReservationSummary(1L, 5L, 2)).thenReturn(summary);
+
+        mockMvc.perform(get("/api/reservations/client/{clientId}/summary", 1L)
+                        .param("after", "5").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.countsByStatus.COMPLETED", is(2)))
+                .andExpect(jsonPath("$.nextCursor", is(7)));
+    }
+
+    @Test
+    void whenGetReservationSummaryForUnknownClient_thenReturnNotFound() throws Exception {
+        when(reservationService.getReservationSummary(99L, null, null))
+                .thenThrow(new IllegalArgumentException("Client not found"));
+
+        mockMvc.perform(get("/api/reservations/client/{clientId}/summary", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Client not found")));
+    }
+
+    @Test
+    void whenGetReservationsPageWithInvalidCursor_thenReturnBadRequest() throws Exception {
+        when(reservationService.getReservationsPage(-1L, null))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/reservations").param("after", "-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid cursor")));
+
+        mockMvc.perform(get("/api/reservations").param("after", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid value for 'after'")));
+    }
+
     @Test
     void whenGetAllReservations_thenReturnReservationsList() throws Exception {
         List<Reservation> reservations = Arrays.asList(reservation);
@@ -224,6 +274,45 @@ class ReservationControllerTest {
         verify(reservationService, times(1)).createReservation(any(ReservationRequest.class));
     }
 
+    @Test
+    void whenCreateReservationsInBulk_thenReturnPerItemResults() throws Exception {
+        BulkReservationResponse response = BulkReservationResponse.builder()
+                .mode(BulkReservationMode.BEST_EFFORT)
+                .requested(2)
+                .booked(1)
+                .results(List.of(
+                        BulkReservationItemResult.builder().index(0).booked(true).reservationId(1L).build(),
+                        BulkReservationItemResult.builder().index(1).booked(false).error("Charger not found").build()))
+                .build();
+        when(reservationService.createReservations(anyList(), eq(BulkReservationMode.BEST_EFFORT))).thenReturn(response);
+
+        mockMvc.perform(post("/api/reservations/bulk")
+                        .param("mode", "BEST_EFFORT")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request, request))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.booked", is(1)))
+                .andExpect(jsonPath("$.results[0].reservationId", is(1)))
+                .andExpect(jsonPath("$.results[1].error", is("Charger not found")));
+    }
+
+    @Test
+    void whenCreateReservationsInBulkBooksNothing_thenReturnBadRequest() throws Exception {
+        BulkReservationResponse response = BulkReservationResponse.builder()
+                .mode(BulkReservationMode.ALL_OR_NOTHING)
+                .requested(1)
+                .booked(0)
+                .results(List.of(BulkReservationItemResult.builder().index(0).booked(false).error("Client not found").build()))
+                .build();
+        when(reservationService.createReservations(anyList(), eq(BulkReservationMode.ALL_OR_NOTHING))).thenReturn(response);
+
+        mockMvc.perform(post("/api/reservations/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(request))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.results[0].error", is("Client not found")));
+    }
+
     @Test
     void whenGetReservationsByClientIdThrowsException_thenReturnBadRequest() throws Exception {
         when(reservationService.getReservationsByClientId(1L))
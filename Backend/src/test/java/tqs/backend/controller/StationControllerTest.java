@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Validator;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -20,6 +21,10 @@ import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import static org.mockito.Mockito.doNothing;
 
 
+import tqs.backend.dto.ChargerDTO;
+import tqs.backend.dto.NearbyStationDTO;
+import tqs.backend.dto.StationDTO;
+import tqs.backend.dto.StationDetailsDTO;
 import tqs.backend.dto.StationRequest;
 import tqs.backend.model.Charger;
 import tqs.backend.model.Discount;
@@ -27,6 +32,14 @@ import tqs.backend.model.Station;
 import tqs.backend.repository.ChargerRepository;
 import tqs.backend.repository.DiscountRepository;
 import tqs.backend.repository.StationRepository;
+import tqs.backend.service.ReservationIntervalIndex;
+import tqs.backend.service.CatalogCache;
+import tqs.backend.service.CatalogImportService;
+import tqs.backend.service.ChargerStatusCounters;
+import tqs.backend.service.DiscountMatrix;
+import tqs.backend.service.StationAvailabilityCache;
+import tqs.backend.service.StationDistanceMatrix;
+import tqs.backend.service.StationSpatialIndex;
 import tqs.backend.service.StationService;
 
 import tqs.backend.model.enums.ChargerStatus;
@@ -34,9 +47,13 @@ import tqs.backend.model.enums.ChargerType;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -57,6 +74,24 @@ class StationControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private StationAvailabilityCache stationAvailabilityCache;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StationSpatialIndex stationSpatialIndex;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void clearCaches() {
+        stationAvailabilityCache.clear();
+        catalogCache.clear();
+    }
+
 
     @TestConfiguration
     static class MockConfig {
@@ -80,14 +115,63 @@ class StationControllerTest {
             return mock(ReservationRepository.class);
         }
 
+        @Bean
+        public ReservationIntervalIndex reservationIntervalIndex() {
+            return mock(ReservationIntervalIndex.class);
+        }
+
+        @Bean
+        public StationAvailabilityCache stationAvailabilityCache() {
+            return new StationAvailabilityCache();
+        }
+
+        @Bean
+        public DiscountMatrix discountMatrix() {
+            return mock(DiscountMatrix.class);
+        }
+
+        @Bean
+        public CatalogCache catalogCache() {
+            return new CatalogCache(100);
+        }
+
+        @Bean
+        public StationSpatialIndex stationSpatialIndex() {
+            return mock(StationSpatialIndex.class);
+        }
+
+        @Bean
+        public CatalogImportService catalogImportService() {
+            return mock(CatalogImportService.class);
+        }
+
+        @Bean
+        public ChargerStatusCounters chargerStatusCounters() {
+            return mock(ChargerStatusCounters.class);
+        }
+
+        @Bean
+        public StationDistanceMatrix stationDistanceMatrix() {
+            return mock(StationDistanceMatrix.class);
+        }
+
         @Bean
         public StationService stationService(
                 StationRepository stationRepository,
                 ChargerRepository chargerRepository,
                 DiscountRepository discountRepository,
-                ReservationRepository reservationRepository
+                ReservationRepository reservationRepository,
+                ReservationIntervalIndex reservationIntervalIndex,
+                StationAvailabilityCache stationAvailabilityCache,
+                StationSpatialIndex stationSpatialIndex,
+                CatalogCache catalogCache,
+                DiscountMatrix discountMatrix,
+                ChargerStatusCounters chargerStatusCounters,
+                StationDistanceMatrix stationDistanceMatrix
         ) {
-            return new StationService(stationRepository, chargerRepository, discountRepository, reservationRepository);
+            return new StationService(stationRepository, chargerRepository, discountRepository, reservationRepository,
+                    reservationIntervalIndex, stationAvailabilityCache, stationSpatialIndex, catalogCache, discountMatrix,
+                    chargerStatusCounters, stationDistanceMatrix);
         }
 
 
@@ -176,12 +260,12 @@ class StationControllerTest {
 
     @Test
     void getAllStations_shouldReturnList() throws Exception {
-        List<Station> stations = List.of(
-                Station.builder().id(1L).name("S1").latitude(40.1).longitude(-8.1).build(),
-                Station.builder().id(2L).name("S2").latitude(41.2).longitude(-8.2).build());
+        List<StationDTO> stations = List.of(
+                new StationDTO(1L, "S1", null, 40.1, -8.1),
+                new StationDTO(2L, "S2", null, 41.2, -8.2));
 
         StationRepository repository = stationService.getStationRepository();
-        when(repository.findAll()).thenReturn(stations);
+        when(repository.findAllSummaries()).thenReturn(stations);
 
         mockMvc.perform(get("/api/stations"))
                 .andExpect(status().isOk())
@@ -200,7 +284,7 @@ class StationControllerTest {
                 .build();
 
         StationRepository repository = stationService.getStationRepository();
-        when(repository.findById(1L)).thenReturn(Optional.of(station));
+        when(repository.findWithChargersById(1L)).thenReturn(Optional.of(station));
 
         mockMvc.perform(get("/api/stations/1"))
                 .andExpect(status().isOk())
@@ -226,26 +310,19 @@ class StationControllerTest {
         void getStationDetails_shouldReturnStationWithChargers() throws Exception {
         long stationId = 1L;
 
-        Station station = Station.builder()
-                .id(stationId)
-                .name("Station D")
-                .address("Rua Z")
-                .city("Lisboa")
-                .latitude(38.722)
-                .longitude(-9.139)
-                .build();
+        StationDetailsDTO station = new StationDetailsDTO(stationId, "Station D", "Rua Z", "Lisboa", 38.722, -9.139);
 
-        List<Charger> chargers = List.of(
-                Charger.builder()
+        List<ChargerDTO> chargers = List.of(
+                ChargerDTO.builder()
                         .id(1L)
-                        .station(station)
+                        .stationId(stationId)
                         .chargerType(ChargerType.DC_FAST)
                         .status(ChargerStatus.AVAILABLE)
                         .pricePerKwh(BigDecimal.valueOf(0.30))
                         .build(),
-                Charger.builder()
+                ChargerDTO.builder()
                         .id(2L)
-                        .station(station)
+                        .stationId(stationId)
                         .chargerType(ChargerType.AC_STANDARD)
                         .status(ChargerStatus.AVAILABLE)
                         .pricePerKwh(BigDecimal.valueOf(0.20))
@@ -255,8 +332,8 @@ class StationControllerTest {
         StationRepository stationRepository = stationService.getStationRepository();
         ChargerRepository chargerRepository = stationService.getChargerRepository();
 
-        when(stationRepository.findById(stationId)).thenReturn(Optional.of(station));
-        when(chargerRepository.findByStationId(stationId)).thenReturn(chargers);
+        when(stationRepository.findDetailsById(stationId)).thenReturn(Optional.of(station));
+        when(chargerRepository.findDtosByStationId(stationId)).thenReturn(chargers);
 
         mockMvc.perform(get("/api/stations/{id}/details", stationId))
                 .andExpect(status().isOk())
@@ -269,6 +346,82 @@ class StationControllerTest {
                 .andExpect(jsonPath("$.chargers[0].pricePerKwh").value(0.30));
         }
 
+        @Test
+        void getStationDetails_withDatetime_filtersChargersReservedInBucket() throws Exception {
+        long stationId = 2L;
+        StationDetailsDTO station = new StationDetailsDTO(stationId, "Station E", null, null, 38.7, -9.1);
+        List<ChargerDTO> chargers = List.of(
+                ChargerDTO.builder().id(3L).stationId(stationId).chargerType(ChargerType.DC_FAST)
+                        .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.30)).build(),
+                ChargerDTO.builder().id(4L).stationId(stationId).chargerType(ChargerType.DC_FAST)
+                        .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.30)).build()
+        );
+        LocalDateTime bucket = LocalDateTime.of(2030, 3, 4, 18, 30);
+
+        when(stationService.getStationRepository().findDetailsById(stationId)).thenReturn(Optional.of(station));
+        when(stationService.getChargerRepository().findDtosByStationId(stationId)).thenReturn(chargers);
+        when(reservationRepository.findBusyChargerIdsByStationBetween(stationId, bucket, bucket.plusMinutes(15)))
+                .thenReturn(Set.of(4L));
+
+        mockMvc.perform(get("/api/stations/{id}/details", stationId).param("datetime", "2030-03-04T18:40:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chargers.length()").value(1))
+                .andExpect(jsonPath("$.chargers[0].id").value(3));
+        }
+
+        @Test
+        void getNearbyStations_shouldReturnIndexResults() throws Exception {
+        NearbyStationDTO nearby = NearbyStationDTO.builder()
+                .id(9L).name("Station N").city("Aveiro").latitude(40.64).longitude(-8.65).distanceKm(1.2).build();
+        when(stationSpatialIndex.isReady()).thenReturn(true);
+        when(stationSpatialIndex.nearest(40.63, -8.66, 3, 5.0)).thenReturn(List.of(nearby));
+
+        mockMvc.perform(get("/api/stations/nearby")
+                        .param("lat", "40.63").param("lng", "-8.66")
+                        .param("radiusKm", "5").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(9))
+                .andExpect(jsonPath("$[0].distanceKm").value(1.2));
+        }
+
+        @Test
+        void getNearbyStations_withInvalidLimit_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/stations/nearby")
+                        .param("lat", "40.63").param("lng", "-8.66").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        }
+
+        @Test
+        void getNeighbourStations_unknownStation_shouldReturnNotFound() throws Exception {
+        when(stationService.getStationRepository().findById(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/stations/99/neighbours"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Station not found"));
+        }
+
+        @Test
+        void getNeighbourStations_withInvalidRadius_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/stations/1/neighbours").param("radiusKm", "-5"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Radius must be positive"));
+        }
+
+        @Test
+        void getCatalogCacheStats_shouldReportHitsAndMisses() throws Exception {
+        when(stationService.getStationRepository().findAllSummaries()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/stations")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/stations")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/stations/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(1))
+                .andExpect(jsonPath("$.misses").value(1))
+                .andExpect(jsonPath("$.hitRatio").value(0.5));
+        }
+
         @Test
         void deleteExistingStation_shouldReturnNoContent() throws Exception {
         long stationId = 1L;
@@ -327,10 +480,10 @@ class StationControllerTest {
                         .build();
 
                 // Mocka os repositórios
-                StationRepository stationRepo = stationService.getStationRepository();
                 DiscountRepository discountRepo = stationService.getDiscountRepository();
-
-                when(stationRepo.findAll()).thenReturn(List.of(station));
+                ChargerRepository chargerRepo = stationService.getChargerRepository();
+                station.getChargers().forEach(c -> c.setStation(station));
+                when(chargerRepo.findWithStationByChargerType(ChargerType.AC_STANDARD)).thenReturn(station.getChargers());
                 when(discountRepo.findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerType(
                         1, 15, 15, ChargerType.AC_STANDARD)).thenReturn(List.of(discount));
 
@@ -345,7 +498,46 @@ class StationControllerTest {
                         .andExpect(jsonPath("$[0].discountTag").value("15% off"));
                 }
 
+        @Test
+        @DisplayName("GET /api/stations/availability - Should return available chargers per station")
+        void searchAvailableStations_shouldReturnStationsWithAvailableChargers() throws Exception {
+            Station station = Station.builder()
+                    .id(1L)
+                    .name("Station Batch")
+                    .latitude(40.633)
+                    .longitude(-8.660)
+                    .build();
+
+            Charger charger = Charger.builder()
+                    .id(7L)
+                    .station(station)
+                    .chargerType(ChargerType.DC_FAST)
+                    .status(ChargerStatus.AVAILABLE)
+                    .pricePerKwh(BigDecimal.valueOf(0.40))
+                    .build();
 
+            ChargerRepository chargerRepo = stationService.getChargerRepository();
+            when(chargerRepo.findWithStationByTypeInArea(anySet(), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                    .thenReturn(List.of(charger));
+
+            mockMvc.perform(get("/api/stations/availability")
+                            .param("datetime", "2030-01-07T10:00")
+                            .param("chargerTypes", "DC_FAST,AC_STANDARD")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].name").value("Station Batch"))
+                    .andExpect(jsonPath("$[0].availableChargers").value(1))
+                    .andExpect(jsonPath("$[0].chargers[0].id").value(7));
+        }
 
+        @Test
+        @DisplayName("GET /api/stations/availability - Should reject a non-positive radius")
+        void searchAvailableStations_withInvalidRadius_shouldReturnBadRequest() throws Exception {
+            mockMvc.perform(get("/api/stations/availability")
+                            .param("lat", "40.0")
+                            .param("lng", "-8.0")
+                            .param("radiusKm", "-1"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Radius must be positive"));
+        }
 }
-
@@ -0,0 +1,111 @@
+package tqs.backend.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tqs.backend.dto.MeterValuesRequest;
+import tqs.backend.service.TelemetryService;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TelemetryController.class)
+@Import({TelemetryControllerTest.MockConfig.class, TelemetryControllerTest.SecurityConfig.class})
+@ActiveProfiles("test")
+class TelemetryControllerTest {
+
+    private static final String BODY = """
+            {"chargerId": 5, "meterValues": [
+              {"transactionId": 1, "timestamp": "2025-05-01T10:00:00", "energyWh": 120000.0},
+              {"transactionId": 1, "timestamp": "2025-05-01T10:01:00", "energyWh": 121500.0}
+            ]}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TelemetryService telemetryService;
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public TelemetryService telemetryService() {
+            return mock(TelemetryService.class);
+        }
+    }
+
+    @TestConfiguration
+    @EnableWebSecurity
+    static class SecurityConfig {
+        @Bean
+        public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+            http.csrf(csrf -> csrf.disable())
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers("/api/telemetry/**").permitAll()
+                            .anyRequest().authenticated());
+            return http.build();
+        }
+    }
+
+    @Test
+    void meterValues_ValidBatch_ReturnsAccepted() throws Exception {
+        when(telemetryService.ingest(any(MeterValuesRequest.class))).thenReturn(2);
+
+        mockMvc.perform(post("/api/telemetry/meter-values").with(user("5")).contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted").value(2));
+    }
+
+    @Test
+    void meterValues_InvalidBatch_ReturnsBadRequest() throws Exception {
+        when(telemetryService.ingest(any(MeterValuesRequest.class)))
+                .thenThrow(new IllegalArgumentException("Charger ID is required"));
+
+        mockMvc.perform(post("/api/telemetry/meter-values").with(user("5")).contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Charger ID is required"));
+    }
+
+    @Test
+    void meterValues_BufferFull_ReturnsServiceUnavailable() throws Exception {
+        when(telemetryService.ingest(any(MeterValuesRequest.class)))
+                .thenThrow(new IllegalStateException("Telemetry buffer is full, retry later"));
+
+        mockMvc.perform(post("/api/telemetry/meter-values").with(user("5")).contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void meterValues_ForAnotherCharger_ReturnsForbidden() throws Exception {
+        clearInvocations(telemetryService);
+        mockMvc.perform(post("/api/telemetry/meter-values").with(user("6")).contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/telemetry/meter-values").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isForbidden());
+
+        verify(telemetryService, never()).ingest(any(MeterValuesRequest.class));
+    }
+
+    @Test
+    void stats_ReturnsCounters() throws Exception {
+        when(telemetryService.stats()).thenReturn(Map.of("accepted", 42L));
+
+        mockMvc.perform(get("/api/telemetry/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(42));
+    }
+}
@@ -0,0 +1,170 @@
+package tqs.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import tqs.backend.dto.TripPlanRequest;
+import tqs.backend.dto.TripPlanResponse;
+import tqs.backend.dto.TripPlanStopDTO;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.service.TripPlanService;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TripPlanController.class)
+@Import({TripPlanControllerTest.MockConfig.class, TripPlanControllerTest.SecurityConfig.class})
+@ActiveProfiles("test")
+class TripPlanControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TripPlanService tripPlanService;
+
+    @TestConfiguration
+    static class MockConfig {
+        @Bean
+        public TripPlanService tripPlanService() {
+            return mock(TripPlanService.class);
+        }
+    }
+
+    @TestConfiguration
+    @EnableWebSecurity
+    static class SecurityConfig {
+        @Bean
+        public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+            http.csrf(csrf -> csrf.disable())
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers("/api/trips/**").permitAll()
+                            .anyRequest().authenticated());
+            return http.build();
+        }
+    }
+
+    private static TripPlanRequest request() {
+        TripPlanRequest request = new TripPlanRequest();
+        request.setClientId(1L);
+        request.setStartLocation("Aveiro");
+        request.setDestination("Faro");
+        request.setStartLatitude(40.64);
+        request.setStartLongitude(-8.65);
+        request.setDestinationLatitude(37.02);
+        request.setDestinationLongitude(-7.93);
+        request.setBatteryLevelStart(80.0);
+        return request;
+    }
+
+    @Test
+    void planTrip_ValidRequest_ReturnsCreated() throws Exception {
+        TripPlanResponse response = TripPlanResponse.builder()
+                .id(7L)
+                .clientId(1L)
+                .startLocation("Aveiro")
+                .destination("Faro")
+                .totalDistanceKm(409.2)
+                .arrivalBattery(35.4)
+                .stops(List.of(TripPlanStopDTO.builder()
+                        .stopOrder(1)
+                        .chargerId(12L)
+                        .chargerType(ChargerType.DC_FAST)
+                        .stationName("Coimbra Sul")
+                        .chargingMinutes(28.1)
+                        .build()))
+                .build();
+        when(tripPlanService.planTrip(any(TripPlanRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/trips/plan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.totalDistanceKm").value(409.2))
+                .andExpect(jsonPath("$.stops[0].chargerId").value(12))
+                .andExpect(jsonPath("$.stops[0].chargerType").value("DC_FAST"));
+    }
+
+    @Test
+    void planTrip_NoRoute_ReturnsBadRequest() throws Exception {
+        when(tripPlanService.planTrip(any(TripPlanRequest.class)))
+                .thenThrow(new IllegalArgumentException("No route found within the vehicle's range"));
+
+        mockMvc.perform(post("/api/trips/plan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("No route found within the vehicle's range"));
+    }
+
+    @Test
+    void planTrip_UnknownClient_ReturnsNotFound() throws Exception {
+        when(tripPlanService.planTrip(any(TripPlanRequest.class)))
+                .thenThrow(new IllegalArgumentException("Client not found"));
+
+        mockMvc.perform(post("/api/trips/plan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void planTrip_GraphNotReady_ReturnsServiceUnavailable() throws Exception {
+        when(tripPlanService.planTrip(any(TripPlanRequest.class)))
+                .thenThrow(new IllegalStateException("Trip planner is not ready yet"));
+
+        mockMvc.perform(post("/api/trips/plan")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("Trip planner is not ready yet"));
+    }
+
+    @Test
+    void getTripPlan_Exists_ReturnsOk() throws Exception {
+        when(tripPlanService.getTripPlan(7L)).thenReturn(TripPlanResponse.builder().id(7L).stops(List.of()).build());
+
+        mockMvc.perform(get("/api/trips/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7));
+    }
+
+    @Test
+    void getTripPlan_Missing_ReturnsNotFound() throws Exception {
+        when(tripPlanService.getTripPlan(99L)).thenThrow(new IllegalArgumentException("Trip plan not found"));
+
+        mockMvc.perform(get("/api/trips/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Trip plan not found"));
+    }
+
+    @Test
+    void getTripPlansByClient_ReturnsList() throws Exception {
+        when(tripPlanService.getTripPlansByClient(1L)).thenReturn(List.of(
+                TripPlanResponse.builder().id(7L).build(),
+                TripPlanResponse.builder().id(8L).build()));
+
+        mockMvc.perform(get("/api/trips/client/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(8));
+    }
+}
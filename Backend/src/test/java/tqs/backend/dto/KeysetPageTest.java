@@ -0,0 +1,42 @@
+package tqs.backend.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPageTest {
+
+    @Test
+    void testExtraRowSetsCursorToLastItem() {
+        KeysetPage<Long> page = KeysetPage.of(List.of(3L, 5L, 8L), 2, Function.identity());
+
+        assertEquals(List.of(3L, 5L), page.getItems());
+        assertEquals(5L, page.getNextCursor());
+    }
+
+    @Test
+    void testLastPageHasNoCursor() {
+        KeysetPage<Long> page = KeysetPage.of(List.of(3L, 5L), 2, Function.identity());
+
+        assertEquals(List.of(3L, 5L), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testResolveLimit() {
+        assertEquals(KeysetPage.DEFAULT_LIMIT, KeysetPage.resolveLimit(null));
+        assertEquals(10, KeysetPage.resolveLimit(10));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.resolveLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.resolveLimit(KeysetPage.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void testResolveAfterStartsBeforeFirstId() {
+        assertEquals(0L, KeysetPage.resolveAfter(null));
+        assertEquals(42L, KeysetPage.resolveAfter(42L));
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.resolveAfter(-1L));
+    }
+}
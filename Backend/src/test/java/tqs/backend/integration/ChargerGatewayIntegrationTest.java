@@ -0,0 +1,180 @@
+package tqs.backend.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.service.ChargerGateway;
+import tqs.backend.service.ChargerService;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.net.http.WebSocketHandshakeException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ChargerGatewayIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ChargerRepository chargerRepository;
+
+    @Autowired
+    private ChargerGateway chargerGateway;
+
+    @Autowired
+    private ChargerService chargerService;
+
+    private Station station;
+    private Charger charger;
+
+    // Collects text frames and the close code
+    private static class Listener implements WebSocket.Listener {
+        private final LinkedBlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Integer> closed = new CompletableFuture<>();
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            messages.add(data.toString());
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            closed.complete(statusCode);
+            return null;
+        }
+    }
+
+    private CompletableFuture<WebSocket> open(Object chargerId, String user, String key, Listener listener) {
+        String credentials = Base64.getEncoder().encodeToString((user + ":" + key).getBytes(StandardCharsets.UTF_8));
+        return HttpClient.newHttpClient().newWebSocketBuilder()
+                .subprotocols("ocpp1.6")
+                .header("Authorization", "Basic " + credentials)
+                .buildAsync(URI.create("ws://localhost:" + port + "/ocpp/" + chargerId), listener);
+    }
+
+    private void saveCharger() {
+        station = stationRepository.save(Station.builder().name("Gateway Station").address("Rua").city("Aveiro")
+                .latitude(40.64).longitude(-8.65).build());
+        charger = chargerRepository.save(Charger.builder().station(station).chargerType(ChargerType.DC_FAST)
+                .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.35)).build());
+    }
+
+    private static int refusedStatus(CompletableFuture<WebSocket> handshake) {
+        assertThatThrownBy(handshake::join).hasCauseInstanceOf(WebSocketHandshakeException.class);
+        return ((WebSocketHandshakeException) handshake.handle((socket, e) -> e.getCause()).join())
+                .getResponse().statusCode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (charger != null) {
+            chargerRepository.deleteById(charger.getId());
+        }
+        if (station != null) {
+            stationRepository.deleteById(station.getId());
+        }
+    }
+
+    @Test
+    void chargerReportsStatusOverWebSocket() throws Exception {
+        saveCharger();
+        String key = chargerService.issueGatewayKey(charger.getId());
+        Listener listener = new Listener();
+        WebSocket socket = open(charger.getId(), charger.getId().toString(), key, listener).join();
+
+        socket.sendText("[2,\"1\",\"BootNotification\",{\"chargePointVendor\":\"Sim\",\"chargePointModel\":\"S1\"}]", true).join();
+        assertThat(listener.messages.poll(5, TimeUnit.SECONDS)).startsWith("[3,\"1\",{\"status\":\"Accepted\"");
+        assertThat(chargerGateway.isConnected(charger.getId())).isTrue();
+
+        socket.sendText("[2,\"2\",\"StatusNotification\",{\"connectorId\":1,\"status\":\"Faulted\",\"errorCode\":\"PowerMeterFailure\"}]", true).join();
+        assertThat(listener.messages.poll(5, TimeUnit.SECONDS)).isEqualTo("[3,\"2\",{}]");
+
+        Charger updated = chargerRepository.findById(charger.getId()).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(ChargerStatus.MAINTENANCE);
+        assertThat(updated.getMaintenanceNote()).contains("PowerMeterFailure");
+
+        socket.sendClose(WebSocket.NORMAL_CLOSURE, "").join();
+        listener.closed.get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 50 && chargerGateway.isConnected(charger.getId()); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(chargerGateway.isConnected(charger.getId())).isFalse();
+    }
+
+    @Test
+    void chargerWithWrongKeyIsRefused() {
+        saveCharger();
+        chargerService.issueGatewayKey(charger.getId());
+
+        assertThat(refusedStatus(open(charger.getId(), charger.getId().toString(), "guessed", new Listener())))
+                .isEqualTo(401);
+        assertThat(chargerGateway.isConnected(charger.getId())).isFalse();
+    }
+
+    @Test
+    void chargerCannotOpenAnotherChargersPath() {
+        saveCharger();
+        String key = chargerService.issueGatewayKey(charger.getId());
+
+        assertThat(refusedStatus(open(charger.getId() + 1, charger.getId().toString(), key, new Listener())))
+                .isEqualTo(403);
+    }
+
+    @Test
+    void unknownChargerIsRefused() {
+        assertThat(refusedStatus(open(999_999L, "999999", "any", new Listener()))).isEqualTo(401);
+    }
+
+    private int postMeterValues(long bodyChargerId, String authorization) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/telemetry/meter-values"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"chargerId\":" + bodyChargerId + ",\"meterValues\":["
+                        + "{\"transactionId\":1,\"timestamp\":\"2025-05-01T10:00:00\",\"energyWh\":1000.0}]}"));
+        if (authorization != null) {
+            request.header("Authorization", "Basic " + Base64.getEncoder()
+                    .encodeToString(authorization.getBytes(StandardCharsets.UTF_8)));
+        }
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    void meterValuesOverHttpNeedTheChargersOwnCredentials() throws Exception {
+        saveCharger();
+        String key = chargerService.issueGatewayKey(charger.getId());
+        String credentials = charger.getId() + ":" + key;
+
+        assertThat(postMeterValues(charger.getId(), null)).isEqualTo(401);
+        assertThat(postMeterValues(charger.getId(), charger.getId() + ":guessed")).isEqualTo(401);
+        assertThat(postMeterValues(charger.getId() + 1, credentials)).isEqualTo(403);
+        assertThat(postMeterValues(charger.getId(), credentials)).isEqualTo(202);
+    }
+}
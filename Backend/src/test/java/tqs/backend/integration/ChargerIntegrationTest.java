@@ -7,12 +7,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import tqs.backend.model.Charger;
+import tqs.backend.model.Client;
 import tqs.backend.model.Station;
 import tqs.backend.model.enums.ChargerStatus;
 import tqs.backend.model.enums.ChargerType;
+import tqs.backend.model.enums.UserRole;
 import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.ClientRepository;
 import tqs.backend.repository.StationRepository;
 
 import java.math.BigDecimal;
@@ -36,6 +40,12 @@ public class ChargerIntegrationTest {
     @Autowired
     private ChargerRepository chargerRepository;
 
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @BeforeEach
     void setUp() {
         RestAssured.port = port;
@@ -270,4 +280,79 @@ public class ChargerIntegrationTest {
                 .body("size()", greaterThanOrEqualTo(1))
                 .body("find { it.id == " + charger.getId() + " }.status", equalTo("AVAILABLE"));
     }
+
+    @Test
+    void testListChargers_KeysetPageAndNdjsonStream() {
+        Station station = createStation();
+        for (int i = 0; i < 3; i++) {
+            chargerRepository.save(Charger.builder().station(station).chargerType(ChargerType.AC_STANDARD)
+                    .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.20)).build());
+        }
+        List<Long> ids = chargerRepository.findAll().stream().map(Charger::getId).sorted().toList();
+
+        given().queryParam("limit", 2)
+                .when().get("/api/chargers")
+                .then().statusCode(200)
+                .body("items.size()", equalTo(2))
+                .body("items[0].id", equalTo(ids.get(0).intValue()))
+                .body("nextCursor", equalTo(ids.get(1).intValue()));
+
+        given().queryParam("after", ids.get(1)).queryParam("limit", 2)
+                .when().get("/api/chargers")
+                .then().statusCode(200)
+                .body("items.size()", equalTo(1))
+                .body("items[0].id", equalTo(ids.get(2).intValue()))
+                .body("nextCursor", nullValue());
+
+        String body = given().when().get("/api/chargers/stream")
+                .then().statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+        assertThat(body.lines().toList()).hasSize(3);
+    }
+
+    // ---------- GATEWAY KEY ----------
+
+    private void createUser(String email, UserRole role) {
+        if (clientRepository.findByEmail(email).isEmpty()) {
+            clientRepository.save(Client.builder().name(role.name()).email(email)
+                    .passwordHash(passwordEncoder.encode("secret123")).role(role).build());
+        }
+    }
+
+    private Charger createCharger() {
+        return chargerRepository.save(Charger.builder().station(createStation()).chargerType(ChargerType.AC_STANDARD)
+                .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.20)).build());
+    }
+
+    @Test
+    void testIssueGatewayKey_Anonymous_IsRefused() {
+        Charger charger = createCharger();
+
+        given().when().post("/api/chargers/" + charger.getId() + "/gateway-key")
+                .then().statusCode(anyOf(is(401), is(403)))
+                .body(not(containsString("key")));
+    }
+
+    @Test
+    void testIssueGatewayKey_Client_ReturnsForbidden() {
+        createUser("gateway-client@example.com", UserRole.CLIENT);
+        Charger charger = createCharger();
+
+        given().auth().preemptive().basic("gateway-client@example.com", "secret123")
+                .when().post("/api/chargers/" + charger.getId() + "/gateway-key")
+                .then().statusCode(403);
+    }
+
+    @Test
+    void testIssueGatewayKey_Employee_ReturnsKey() {
+        createUser("gateway-employee@example.com", UserRole.EMPLOYEE);
+        Charger charger = createCharger();
+
+        given().auth().preemptive().basic("gateway-employee@example.com", "secret123")
+                .when().post("/api/chargers/" + charger.getId() + "/gateway-key")
+                .then().statusCode(200)
+                .body("chargerId", equalTo(charger.getId().intValue()))
+                .body("key", not(emptyOrNullString()));
+    }
 }
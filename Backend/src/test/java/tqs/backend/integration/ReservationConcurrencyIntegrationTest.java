@@ -0,0 +1,178 @@
+package tqs.backend.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tqs.backend.dto.ReservationRequest;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Client;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.model.enums.UserRole;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.ClientRepository;
+import tqs.backend.repository.ReservationRepository;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.service.ReservationService;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many threads booking a few chargers over overlapping windows at once: no two reservations of a charger may overlap.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ReservationConcurrencyIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationConcurrencyIntegrationTest.class);
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int CHARGERS = 4;
+    private static final int SLOTS = 20;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ChargerRepository chargerRepository;
+
+    @Autowired
+    private StationRepository stationRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Client client;
+    private List<Charger> chargers;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        clientRepository.deleteAll();
+        chargerRepository.deleteAll();
+        stationRepository.deleteAll();
+
+        client = clientRepository.save(Client.builder()
+                .name("Load User")
+                .email("load@example.com")
+                .passwordHash("hashedPassword")
+                .role(UserRole.CLIENT)
+                .build());
+
+        Station station = stationRepository.save(Station.builder()
+                .name("Contended Station").address("Rua C").city("Aveiro")
+                .latitude(40.64).longitude(-8.65).build());
+
+        chargers = new ArrayList<>();
+        for (int i = 0; i < CHARGERS; i++) {
+            chargers.add(chargerRepository.save(Charger.builder()
+                    .station(station)
+                    .chargerType(ChargerType.DC_FAST)
+                    .status(ChargerStatus.AVAILABLE)
+                    .pricePerKwh(BigDecimal.valueOf(0.30))
+                    .build()));
+        }
+    }
+
+    // Deleted here rather than left for another test, so this context's in-memory indexes see the removal
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        chargerRepository.deleteAll();
+        stationRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBookings_NeverDoubleBookACharger() throws Exception {
+        // One-hour windows starting every 30 minutes, so each slot overlaps its neighbours
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    Charger charger = chargers.get(random.nextInt(CHARGERS));
+                    LocalDateTime from = base.plusMinutes(30L * random.nextInt(SLOTS));
+                    ReservationRequest request = new ReservationRequest();
+                    request.setClientId(client.getId());
+                    request.setChargerId(charger.getId());
+                    request.setStartTime(from);
+                    request.setEstimatedEndTime(from.plusHours(1));
+                    request.setEstimatedCost(BigDecimal.TEN);
+                    try {
+                        reservationService.createReservation(request);
+                        booked.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        assertThat(e.getMessage()).contains("already reserved");
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        pool.shutdown();
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        logger.info("{} booking attempts by {} threads on {} chargers in {} s ({} attempts/s): {} booked, {} rejected",
+                attempts, THREADS, CHARGERS, String.format("%.2f", seconds),
+                String.format("%.0f", attempts / seconds), booked.get(), rejected.get());
+
+        assertThat(booked.get() + rejected.get()).isEqualTo(attempts);
+        assertThat(booked.get()).isPositive();
+
+        // Every committed booking bumped its charger's version; rejected ones rolled back
+        long versionBumps = chargerRepository.findAll().stream().mapToLong(Charger::getVersion).sum();
+        assertThat(versionBumps).isEqualTo(booked.get());
+
+        Map<Long, List<Reservation>> byCharger = reservationRepository.findAll().stream()
+                .collect(Collectors.groupingBy(r -> r.getCharger().getId()));
+        assertThat(byCharger.values().stream().mapToInt(List::size).sum()).isEqualTo(booked.get());
+        for (List<Reservation> reservations : byCharger.values()) {
+            reservations.sort(Comparator.comparing(Reservation::getStartTime));
+            for (int i = 1; i < reservations.size(); i++) {
+                assertThat(reservations.get(i).getStartTime())
+                        .isAfterOrEqualTo(reservations.get(i - 1).getEstimatedEndTime());
+            }
+        }
+    }
+}
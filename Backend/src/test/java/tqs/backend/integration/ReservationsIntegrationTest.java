@@ -4,6 +4,9 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +15,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.ActiveProfiles;
+import tqs.backend.dto.KeysetPage;
 import tqs.backend.model.Charger;
 import tqs.backend.model.Client;
 import tqs.backend.model.Reservation;
@@ -24,11 +28,14 @@ import tqs.backend.repository.ChargerRepository;
 import tqs.backend.repository.ClientRepository;
 import tqs.backend.repository.ReservationRepository;
 import tqs.backend.repository.StationRepository;
+import tqs.backend.service.ReservationService;
 import tqs.backend.service.StripeClient;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
@@ -55,6 +62,12 @@ class ReservationsIntegrationTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @MockBean
     private StripeClient stripeClient;
 
@@ -75,8 +88,8 @@ class ReservationsIntegrationTest {
         Map<String, String> metadata = new HashMap<>();
         metadata.put("reservationId", "1");
         when(mockSession.getMetadata()).thenReturn(metadata);
-        when(stripeClient.createCheckoutSession(any())).thenReturn(mockSession);
-        when(stripeClient.retrieveCheckoutSession(any())).thenReturn(mockSession);
+        when(stripeClient.createCheckoutSession(any(), any())).thenReturn(mockSession);
+        when(stripeClient.retrieveCheckoutSession(any(), any())).thenReturn(mockSession);
 
         // Clean up repositories
         reservationRepository.deleteAll();
@@ -197,6 +210,35 @@ class ReservationsIntegrationTest {
         assertThat(reservationRepository.findAll()).hasSize(1);
     }
 
+    @Test
+    @DisplayName("A completed reservation does not block the charger")
+    void createReservation_CompletedReservationDoesNotBlock() {
+        reservationRepository.save(Reservation.builder()
+                .user(testClient)
+                .charger(testCharger)
+                .startTime(startTime)
+                .estimatedEndTime(endTime)
+                .status(ReservationStatus.COMPLETED)
+                .build());
+
+        var reservation = Map.of(
+                "clientId", testClient.getId(),
+                "chargerId", testCharger.getId(),
+                "startTime", startTime.plusMinutes(30).toString(),
+                "estimatedEndTime", endTime.toString(),
+                "batteryLevelStart", 20.0,
+                "estimatedKwh", 30.0
+        );
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(reservation)
+                .when()
+                .post("/api/reservations")
+                .then()
+                .statusCode(201);
+    }
+
     @Test
     @DisplayName("Create reservation and verify charger status")
     void createReservation_VerifiesChargerStatus() {
@@ -255,4 +297,134 @@ class ReservationsIntegrationTest {
         assertThat(savedReservation.getCharger().getId()).isEqualTo(testCharger.getId());
         assertThat(savedReservation.getCharger().getStation().getId()).isEqualTo(testCharger.getStation().getId());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Reservation summary pages a client's history and counts it by status")
+    void reservationSummary_PagesHistoryWithCounts() {
+        for (int i = 0; i < 3; i++) {
+            reservationRepository.save(Reservation.builder()
+                    .user(testClient)
+                    .charger(testCharger)
+                    .startTime(startTime.plusDays(i))
+                    .estimatedEndTime(endTime.plusDays(i))
+                    .status(i == 0 ? ReservationStatus.ACTIVE : ReservationStatus.COMPLETED)
+                    .build());
+        }
+
+        Integer cursor = given()
+                .queryParam("limit", 2)
+                .when()
+                .get("/api/reservations/client/" + testClient.getId() + "/summary")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(3))
+                .body("countsByStatus.ACTIVE", equalTo(1))
+                .body("countsByStatus.COMPLETED", equalTo(2))
+                .body("items.size()", equalTo(2))
+                .body("items[0].charger.station.name", equalTo("Test Station"))
+                .extract()
+                .path("nextCursor");
+
+        given()
+                .queryParam("after", cursor)
+                .queryParam("limit", 2)
+                .when()
+                .get("/api/reservations/client/" + testClient.getId() + "/summary")
+                .then()
+                .statusCode(200)
+                .body("items.size()", equalTo(1))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @DisplayName("Reservation pages and the stream load each row's client and station in the same query")
+    void reservationPageAndStream_FetchRelationsInOneQuery() {
+        for (int i = 0; i < 3; i++) {
+            Client client = clientRepository.save(Client.builder()
+                    .name("Client " + i)
+                    .email("client" + i + "@example.com")
+                    .passwordHash("hashedPassword")
+                    .role(UserRole.CLIENT)
+                    .build());
+            reservationRepository.save(Reservation.builder()
+                    .user(client)
+                    .charger(testCharger)
+                    .startTime(startTime.plusDays(i))
+                    .estimatedEndTime(endTime.plusDays(i))
+                    .status(ReservationStatus.ACTIVE)
+                    .build());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            KeysetPage<Reservation> page = reservationService.getReservationsPage(null, 10);
+            assertThat(page.getItems()).hasSize(3);
+            assertThat(page.getItems()).allSatisfy(r -> assertThat(r.getCharger().getStation().getName()).isEqualTo("Test Station"));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+            statistics.clear();
+            List<String> names = new ArrayList<>();
+            reservationService.streamReservations(r -> names.add(r.getUser().getName()));
+            assertThat(names).containsExactly("Client 0", "Client 1", "Client 2");
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        given()
+                .queryParam("after", -1)
+                .when()
+                .get("/api/reservations")
+                .then()
+                .statusCode(400)
+                .body("error", equalTo("Invalid cursor"));
+    }
+
+    private Map<String, Object> bulkItem(LocalDateTime from, LocalDateTime to) {
+        return Map.of(
+                "clientId", testClient.getId(),
+                "chargerId", testCharger.getId(),
+                "startTime", from.toString(),
+                "estimatedEndTime", to.toString(),
+                "estimatedCost", 5.00
+        );
+    }
+
+    @Test
+    @DisplayName("Bulk booking reports each item and honours the batch mode")
+    void bulkReservations_ReportPerItemResults() {
+        var batch = List.of(
+                bulkItem(startTime, endTime),
+                bulkItem(startTime.plusHours(1), endTime.plusHours(1)),
+                bulkItem(endTime, endTime.plusHours(1))
+        );
+
+        // The second item overlaps the first, so an all-or-nothing batch books nothing
+        given()
+                .contentType(ContentType.JSON)
+                .body(batch)
+                .when()
+                .post("/api/reservations/bulk")
+                .then()
+                .statusCode(400)
+                .body("mode", equalTo("ALL_OR_NOTHING"))
+                .body("booked", equalTo(0))
+                .body("results[1].error", containsString("already reserved"));
+        assertThat(reservationRepository.count()).isZero();
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("mode", "BEST_EFFORT")
+                .body(batch)
+                .when()
+                .post("/api/reservations/bulk")
+                .then()
+                .statusCode(201)
+                .body("requested", equalTo(3))
+                .body("booked", equalTo(2))
+                .body("results.booked", contains(true, false, true))
+                .body("results[0].reservationId", notNullValue());
+        assertThat(reservationRepository.count()).isEqualTo(2);
+    }
+}
@@ -20,6 +20,7 @@ import java.math.BigDecimal;
 import java.util.*;
 
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -167,4 +168,136 @@ class StationIntegrationTest {
                 .body("chargers[0].chargerType", anyOf(equalTo("DC_FAST"), equalTo("AC_STANDARD")))
                 .body("chargers[1].chargerType", anyOf(equalTo("DC_FAST"), equalTo("AC_STANDARD")));
     }
+
+    @Test
+    void testSearchAvailableStations_ReturnsStationsWithinRadius() {
+        Station near = stationRepository.save(Station.builder()
+                .name("Near").address("Rua A").city("Aveiro").latitude(40.640).longitude(-8.650).build());
+        Station far = stationRepository.save(Station.builder()
+                .name("Far").address("Rua B").city("Faro").latitude(37.019).longitude(-7.930).build());
+
+        chargerRepository.saveAll(List.of(
+                Charger.builder().station(near).chargerType(ChargerType.DC_FAST)
+                        .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.30)).build(),
+                Charger.builder().station(near).chargerType(ChargerType.AC_STANDARD)
+                        .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.20)).build(),
+                Charger.builder().station(far).chargerType(ChargerType.DC_FAST)
+                        .status(ChargerStatus.AVAILABLE).pricePerKwh(BigDecimal.valueOf(0.30)).build()
+        ));
+
+        given().queryParam("datetime", "2030-01-07T10:00")
+                .queryParam("chargerTypes", "DC_FAST")
+                .queryParam("lat", 40.633)
+                .queryParam("lng", -8.660)
+                .queryParam("radiusKm", 50)
+                .when().get("/api/stations/availability")
+                .then().statusCode(200)
+                .body("size()", equalTo(1))
+                .body("[0].name", equalTo("Near"))
+                .body("[0].availableChargers", equalTo(1))
+                .body("[0].chargers[0].chargerType", equalTo("DC_FAST"));
+    }
+
+    @Test
+    void testNearbyStations_TracksCreateAndDelete() {
+        Integer aveiroId = given().contentType(ContentType.JSON)
+                .body(Map.of("name", "Aveiro", "address", "Rua A", "city", "Aveiro",
+                        "latitude", 40.640, "longitude", -8.650))
+                .when().post("/api/stations")
+                .then().statusCode(200)
+                .extract().path("id");
+        given().contentType(ContentType.JSON)
+                .body(Map.of("name", "Porto", "address", "Rua B", "city", "Porto",
+                        "latitude", 41.150, "longitude", -8.610))
+                .when().post("/api/stations")
+                .then().statusCode(200);
+
+        given().queryParam("lat", 40.633).queryParam("lng", -8.660).queryParam("limit", 2)
+                .when().get("/api/stations/nearby")
+                .then().statusCode(200)
+                .body("size()", equalTo(2))
+                .body("[0].name", equalTo("Aveiro"))
+                .body("[1].name", equalTo("Porto"));
+
+        given().when().delete("/api/stations/" + aveiroId).then().statusCode(204);
+
+        given().queryParam("lat", 40.633).queryParam("lng", -8.660).queryParam("radiusKm", 10)
+                .when().get("/api/stations/nearby")
+                .then().statusCode(200)
+                .body("size()", equalTo(0));
+    }
+
+    @Test
+    void testListStations_KeysetPagesAndNdjsonStreamCoverEveryStation() {
+        for (int i = 0; i < 5; i++) {
+            stationRepository.save(Station.builder().name("Paged " + i).address("Rua " + i).city("Aveiro")
+                    .latitude(40.0 + i).longitude(-8.0).build());
+        }
+
+        List<String> names = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            var request = given().queryParam("limit", 2);
+            if (cursor != null) {
+                request.queryParam("after", cursor);
+            }
+            var page = request.when().get("/api/stations")
+                    .then().statusCode(200)
+                    .extract().jsonPath();
+            names.addAll(page.getList("items.name", String.class));
+            cursor = page.getObject("nextCursor", Long.class);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(names).containsExactly("Paged 0", "Paged 1", "Paged 2", "Paged 3", "Paged 4");
+
+        String body = given().when().get("/api/stations/stream")
+                .then().statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+        assertThat(body.lines().toList()).hasSize(5).allMatch(line -> line.startsWith("{\"id\":"));
+    }
+
+    @Test
+    void testListStations_InvalidLimit_ReturnsBadRequest() {
+        given().queryParam("limit", 0)
+                .when().get("/api/stations")
+                .then().statusCode(400)
+                .body("error", containsString("Limit"));
+    }
+
+    @Test
+    void testImportCsv_CreatesStationsAndChargersAndStreamsReport() {
+        stationRepository.save(Station.builder().name("Existing").address("Rua X").city("Aveiro")
+                .latitude(40.64).longitude(-8.65).build());
+        String csv = """
+                name,address,city,latitude,longitude,chargerType,status,pricePerKwh
+                Porto Hub,Rua A,Porto,41.15,-8.61,DC_FAST,,0.30
+                Porto Hub,Rua A,Porto,41.15,-8.61,AC_STANDARD,,0.15
+                Existing,Rua X,Aveiro,40.64,-8.65,DC_FAST,,0.25
+                Braga,Rua B,Braga,41.55,-8.42,,,
+                Braga,Rua B,Braga,41.55,-8.42,,,
+                """;
+
+        String body = given().contentType("text/csv").body(csv)
+                .when().post("/api/stations/import")
+                .then().statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract().asString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).anyMatch(line -> line.contains("\"type\":\"ERROR\"") && line.contains("\"line\":6"));
+        assertThat(lines.get(lines.size() - 1))
+                .contains("\"type\":\"DONE\"", "\"stationsCreated\":2", "\"chargersCreated\":3", "\"errors\":1");
+
+        assertThat(stationRepository.count()).isEqualTo(3);
+        Station porto = stationRepository.findByLatitudeAndLongitude(41.15, -8.61).orElseThrow();
+        assertThat(chargerRepository.findByStationId(porto.getId())).hasSize(2);
+        given().queryParam("lat", 41.15).queryParam("lng", -8.61).queryParam("radiusKm", 1)
+                .when().get("/api/stations/nearby")
+                .then().statusCode(200)
+                .body("name", hasItem("Porto Hub"));
+    }
 }
@@ -47,7 +47,10 @@ class ChargerTest {
                 ChargerStatus.AVAILABLE,
                 new BigDecimal("0.25"),
                 LocalDateTime.of(2024, 12, 1, 10, 0),
-                "Note A"
+                "Note A",
+                null,
+                null,
+                null
         );
 
         Charger charger2 = new Charger(
@@ -57,7 +60,10 @@ class ChargerTest {
                 ChargerStatus.AVAILABLE,
                 new BigDecimal("0.25"),
                 LocalDateTime.of(2024, 12, 1, 10, 0),
-                "Note A"
+                "Note A",
+                null,
+                null,
+                null
         );
 
         // Como @EqualsAndHashCode(), equals() depende de todos os campos não transientes.
@@ -142,7 +148,7 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_SameObjects() {
         Station station = new Station();
-        Charger charger = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
+        Charger charger = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
 
         assertEquals(charger, charger);
         assertEquals(charger.hashCode(), charger.hashCode());
@@ -160,7 +166,10 @@ class ChargerTest {
                 ChargerStatus.AVAILABLE,
                 new BigDecimal("0.25"),
                 LocalDateTime.of(2024, 12, 1, 10, 0),
-                "Note A"
+                "Note A",
+                null,
+                null,
+                null
         );
 
         Charger charger2 = new Charger(
@@ -170,7 +179,10 @@ class ChargerTest {
                 ChargerStatus.AVAILABLE,
                 new BigDecimal("0.25"),
                 LocalDateTime.of(2024, 12, 1, 10, 0),
-                "Note A"
+                "Note A",
+                null,
+                null,
+                null
         );
 
         assertEquals(charger1, charger2);
@@ -184,8 +196,8 @@ class ChargerTest {
         Station station2 = new Station();
         station2.setId(2L);
 
-        Charger charger1 = new Charger(1L, station1, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
-        Charger charger2 = new Charger(1L, station2, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
+        Charger charger1 = new Charger(1L, station1, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
+        Charger charger2 = new Charger(1L, station2, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
 
         assertNotEquals(charger1, charger2);
     }
@@ -193,8 +205,8 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_DifferentChargerType() {
         Station station = new Station();
-        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
-        Charger charger2 = new Charger(1L, station, ChargerType.AC_STANDARD, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
+        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
+        Charger charger2 = new Charger(1L, station, ChargerType.AC_STANDARD, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
 
         assertNotEquals(charger1, charger2);
     }
@@ -202,8 +214,8 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_DifferentStatus() {
         Station station = new Station();
-        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
-        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.IN_USE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
+        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
+        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.IN_USE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
 
         assertNotEquals(charger1, charger2);
     }
@@ -211,8 +223,8 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_DifferentPricePerKwh() {
         Station station = new Station();
-        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
-        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.30"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
+        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
+        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.30"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
 
         assertNotEquals(charger1, charger2);
     }
@@ -220,8 +232,8 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_DifferentLastMaintenance() {
         Station station = new Station();
-        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
-        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 2, 10, 0), "Note A");
+        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
+        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 2, 10, 0), "Note A", null, null, null);
 
         assertNotEquals(charger1, charger2);
     }
@@ -229,8 +241,8 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_DifferentMaintenanceNote() {
         Station station = new Station();
-        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
-        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note B");
+        Charger charger1 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
+        Charger charger2 = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note B", null, null, null);
 
         assertNotEquals(charger1, charger2);
     }
@@ -238,7 +250,7 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_AgainstNull() {
         Station station = new Station();
-        Charger charger = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
+        Charger charger = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
 
         assertFalse(charger.equals(null));
     }
@@ -246,7 +258,7 @@ class ChargerTest {
     @Test
     void testEqualsAndHashCode_AgainstDifferentClass() {
         Station station = new Station();
-        Charger charger = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A");
+        Charger charger = new Charger(1L, station, ChargerType.DC_FAST, ChargerStatus.AVAILABLE, new BigDecimal("0.25"), LocalDateTime.of(2024, 12, 1, 10, 0), "Note A", null, null, null);
         Object differentObject = new Object();
 
         assertFalse(charger.equals(differentObject));
@@ -0,0 +1,74 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Station;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogCacheTest {
+
+    private CatalogCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogCache(2);
+        loads = new AtomicInteger();
+    }
+
+    private List<String> load() {
+        loads.incrementAndGet();
+        return List.of("value");
+    }
+
+    @Test
+    void get_CachesLoadedValuesAndCountsHits() {
+        cache.get("a", this::load);
+        cache.get("a", this::load);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L).containsEntry("size", 1);
+    }
+
+    @Test
+    void get_EvictsLeastRecentlyUsedBeyondMaxEntries() {
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+        cache.get("a", this::load);
+        cache.get("c", this::load);
+
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.stats()).containsEntry("evictions", 2L);
+    }
+
+    @Test
+    void get_LoadRacingWithInvalidationIsNotStored() {
+        cache.get(CatalogCache.stationKey(1L), () -> {
+            cache.invalidateStation(1L);
+            return load();
+        });
+        cache.get(CatalogCache.stationKey(1L), this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void chargerChange_InvalidatesStationEntries() {
+        cache.get(CatalogCache.stationChargersKey(1L), this::load);
+        cache.get(CatalogCache.allStationsKey(), this::load);
+
+        Charger charger = Charger.builder().id(5L).station(Station.builder().id(1L).build()).build();
+        cache.onChargerChanged(new ChargerChangedEvent(charger, false));
+
+        assertThat(cache.stats()).containsEntry("size", 0);
+    }
+}
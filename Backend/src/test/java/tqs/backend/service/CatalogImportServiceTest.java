@@ -0,0 +1,186 @@
+package tqs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tqs.backend.dto.CatalogImportEvent;
+import tqs.backend.dto.StationDTO;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.StationRepository;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+class CatalogImportServiceTest {
+
+    private StationRepository stationRepository;
+    private ChargerRepository chargerRepository;
+    private CatalogImportService importService;
+
+    private final List<Station> savedStations = new ArrayList<>();
+    private final List<Charger> savedChargers = new ArrayList<>();
+    private final List<CatalogImportEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stationRepository = mock(StationRepository.class);
+        chargerRepository = mock(ChargerRepository.class);
+        AtomicLong ids = new AtomicLong(100);
+        when(stationRepository.findAllSummaries()).thenReturn(List.of(
+                new StationDTO(1L, "Existing", "Aveiro", 40.64, -8.65)));
+        when(stationRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Station> batch = new ArrayList<>();
+            for (Station station : (Iterable<Station>) invocation.getArgument(0)) {
+                station.setId(ids.incrementAndGet());
+                batch.add(station);
+            }
+            savedStations.addAll(batch);
+            return batch;
+        });
+        when(stationRepository.getReferenceById(any())).thenAnswer(invocation ->
+                Station.builder().id(invocation.getArgument(0)).build());
+        when(chargerRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            List<Charger> batch = new ArrayList<>();
+            ((Iterable<Charger>) invocation.getArgument(0)).forEach(batch::add);
+            savedChargers.addAll(batch);
+            return batch;
+        });
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        importService = new CatalogImportService(stationRepository, chargerRepository, transactionTemplate,
+                new ObjectMapper(), mock(ChargerStatusCounters.class), 3);
+    }
+
+    private CatalogImportEvent importCsv(String csv) {
+        return importService.importCatalog(new StringReader(csv), CatalogImportService.Format.CSV, events::add);
+    }
+
+    @Test
+    void whenImportCsv_thenCreateStationsOncePerCoordinatesAndAttachChargers() {
+        CatalogImportEvent done = importCsv("""
+                name,address,city,latitude,longitude,chargerType,status,pricePerKwh
+                Porto Hub,"Rua A, 1",Porto,41.15,-8.61,DC_FAST,,0.30
+                Porto Hub,"Rua A, 1",Porto,41.15,-8.61,ac_standard,IN_USE,0.15
+                Braga,Rua B,Braga,41.55,-8.42,,,
+                Existing,Rua C,Aveiro,40.64,-8.65,DC_ULTRA_FAST,,0.40
+                """);
+
+        assertThat(done.getType()).isEqualTo(CatalogImportEvent.Type.DONE);
+        assertThat(done.getRowsRead()).isEqualTo(4);
+        assertThat(done.getStationsCreated()).isEqualTo(2);
+        assertThat(done.getChargersCreated()).isEqualTo(3);
+        assertThat(done.getErrors()).isZero();
+
+        assertThat(savedStations).extracting(Station::getName).containsExactly("Porto Hub", "Braga");
+        assertThat(savedStations.get(0).getAddress()).isEqualTo("Rua A, 1");
+        assertThat(savedChargers).extracting(charger -> charger.getStation().getId())
+                .containsExactly(101L, 101L, 1L);
+        assertThat(savedChargers).extracting(Charger::getChargerType)
+                .containsExactly(ChargerType.DC_FAST, ChargerType.AC_STANDARD, ChargerType.DC_ULTRA_FAST);
+        assertThat(savedChargers).extracting(Charger::getStatus)
+                .containsExactly(ChargerStatus.AVAILABLE, ChargerStatus.IN_USE, ChargerStatus.AVAILABLE);
+    }
+
+    @Test
+    void whenImportHasBadRows_thenReportThemAndKeepTheRest() {
+        CatalogImportEvent done = importCsv("""
+                name,address,city,latitude,longitude,chargerType
+                ,Rua A,Porto,41.15,-8.61,
+                Braga,Rua B,Braga,north,-8.42,
+                Existing,Rua C,Aveiro,40.64,-8.65,
+                Coimbra,Rua D,Coimbra,40.21,-8.43,PLASMA
+                Leiria,Rua E,Leiria,39.74,-8.81,
+                Leiria again,Rua E,Leiria,39.74,-8.81,
+                """);
+
+        assertThat(done.getRowsRead()).isEqualTo(6);
+        assertThat(done.getStationsCreated()).isEqualTo(1);
+        assertThat(done.getErrors()).isEqualTo(5);
+        assertThat(events).filteredOn(event -> event.getType() == CatalogImportEvent.Type.ERROR)
+                .extracting(CatalogImportEvent::getLine, CatalogImportEvent::getMessage)
+                .containsExactly(
+                        tuple(2L, "Name is required"),
+                        tuple(3L, "Invalid latitude: north"),
+                        tuple(4L, "Station already exists at this location"),
+                        tuple(5L, "Invalid chargerType: PLASMA"),
+                        tuple(7L, "Station already exists at this location"));
+    }
+
+    @Test
+    void whenImportSpansSeveralBatches_thenReportProgressAfterEach() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            ndjson.append("{\"name\":\"S").append(i).append("\",\"address\":\"A\",\"city\":\"C\",")
+                    .append("\"latitude\":").append(38 + i * 0.1).append(",\"longitude\":-9.1}\n");
+        }
+
+        CatalogImportEvent done = importService.importCatalog(
+                new StringReader(ndjson.toString()), CatalogImportService.Format.NDJSON, events::add);
+
+        assertThat(done.getStationsCreated()).isEqualTo(7);
+        assertThat(events).filteredOn(event -> event.getType() == CatalogImportEvent.Type.PROGRESS)
+                .extracting(CatalogImportEvent::getStationsCreated)
+                .containsExactly(3L, 6L, 7L);
+        verify(stationRepository, times(3)).saveAll(anyIterable());
+        verify(stationRepository, times(1)).findAllSummaries();
+        verify(stationRepository, never()).findByLatitudeAndLongitude(any(), any());
+    }
+
+    @Test
+    void whenBatchFails_thenReportItsRowsAndContinue() {
+        when(chargerRepository.saveAll(anyIterable()))
+                .thenThrow(new IllegalStateException("constraint violated"))
+                .thenAnswer(invocation -> List.of());
+
+        CatalogImportEvent done = importCsv("""
+                name,address,city,latitude,longitude,chargerType
+                Porto,Rua A,Porto,41.15,-8.61,DC_FAST
+                Porto,Rua A,Porto,41.15,-8.61,DC_FAST
+                Porto,Rua A,Porto,41.15,-8.61,DC_FAST
+                """);
+
+        // The first batch held the station and two chargers; the station is recreated for the last row
+        assertThat(done.getErrors()).isEqualTo(3);
+        assertThat(done.getStationsCreated()).isEqualTo(1);
+        assertThat(done.getChargersCreated()).isEqualTo(1);
+        assertThat(events).filteredOn(event -> event.getType() == CatalogImportEvent.Type.ERROR)
+                .allMatch(event -> event.getMessage().startsWith("Batch failed"));
+    }
+
+    @Test
+    void whenCsvHeaderIsIncomplete_thenRejectTheFile() {
+        CatalogImportEvent done = importCsv("""
+                name,city
+                Porto,Porto
+                """);
+
+        assertThat(done.getRowsRead()).isZero();
+        assertThat(done.getErrors()).isEqualTo(1);
+        assertThat(events.get(0).getMessage()).isEqualTo("CSV header is missing the address column");
+        verify(stationRepository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void testSplitCsvHonoursQuotes() {
+        assertThat(CatalogImportService.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\",,"))
+                .containsExactly("a", "b, c", "say \"hi\"", "", "");
+    }
+
+    private static org.assertj.core.groups.Tuple tuple(Object... values) {
+        return org.assertj.core.groups.Tuple.tuple(values);
+    }
+}
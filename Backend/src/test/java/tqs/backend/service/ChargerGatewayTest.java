@@ -0,0 +1,156 @@
+package tqs.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import tqs.backend.dto.MeterValue;
+import tqs.backend.dto.MeterValuesRequest;
+import tqs.backend.model.enums.ChargerStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChargerGatewayTest {
+
+    private final ChargerService chargerService = mock(ChargerService.class);
+    private final ChargerLivenessTracker livenessTracker = mock(ChargerLivenessTracker.class);
+    private final TelemetryService telemetryService = mock(TelemetryService.class);
+    private final ChargerGateway gateway = new ChargerGateway(chargerService, livenessTracker, telemetryService,
+            new ObjectMapper(), 60);
+
+    private static class RecordingLink implements ChargerGateway.Link {
+        private final List<String> closed = new ArrayList<>();
+
+        @Override
+        public void send(String message) {
+            // replies are returned by handle
+        }
+
+        @Override
+        public void close(String reason) {
+            closed.add(reason);
+        }
+    }
+
+    private ChargerGateway.Connection connect(long chargerId) {
+        when(chargerService.chargerExists(chargerId)).thenReturn(true);
+        return gateway.connect(chargerId, new RecordingLink());
+    }
+
+    @Test
+    void whenUnknownChargerConnects_thenRefused() {
+        assertThat(gateway.connect(99L, new RecordingLink())).isNull();
+        assertThat(gateway.isConnected(99L)).isFalse();
+        assertThat(gateway.stats()).containsEntry("refusedConnections", 1L);
+    }
+
+    @Test
+    void whenChargerReconnects_thenOlderConnectionIsClosed() {
+        when(chargerService.chargerExists(1L)).thenReturn(true);
+        RecordingLink first = new RecordingLink();
+        ChargerGateway.Connection old = gateway.connect(1L, first);
+        gateway.connect(1L, new RecordingLink());
+
+        assertThat(first.closed).hasSize(1);
+        // The old connection closing afterwards must not drop the new one
+        gateway.disconnect(old);
+        assertThat(gateway.isConnected(1L)).isTrue();
+        assertThat(gateway.stats()).containsEntry("connected", 1);
+    }
+
+    @Test
+    void whenBootNotificationOrHeartbeat_thenAnsweredWithCallResult() {
+        ChargerGateway.Connection connection = connect(1L);
+
+        String boot = gateway.handle(connection, "[2,\"m1\",\"BootNotification\",{\"chargePointVendor\":\"X\",\"chargePointModel\":\"Y\"}]");
+        String heartbeat = gateway.handle(connection, "[2,\"m2\",\"Heartbeat\",{}]");
+
+        assertThat(boot).startsWith("[3,\"m1\",{\"status\":\"Accepted\"").contains("\"interval\":60");
+        assertThat(heartbeat).startsWith("[3,\"m2\",{\"currentTime\":");
+        // Connecting and each message count as signs of life
+        verify(livenessTracker, times(3)).heartbeat(1L);
+    }
+
+    @Test
+    void whenStatusNotification_thenEachReportIsCheckedAgainstTheStoredStatus() {
+        ChargerGateway.Connection connection = connect(1L);
+        when(chargerService.applyReportedStatus(eq(1L), any(), any())).thenReturn(true, false, true);
+
+        String reply = gateway.handle(connection, "[2,\"m1\",\"StatusNotification\",{\"connectorId\":1,\"status\":\"Faulted\",\"errorCode\":\"GroundFailure\"}]");
+        gateway.handle(connection, "[2,\"m2\",\"StatusNotification\",{\"connectorId\":1,\"status\":\"Faulted\",\"errorCode\":\"GroundFailure\"}]");
+        gateway.handle(connection, "[2,\"m3\",\"StatusNotification\",{\"connectorId\":1,\"status\":\"Charging\",\"errorCode\":\"NoError\"}]");
+
+        assertThat(reply).isEqualTo("[3,\"m1\",{}]");
+        // A repeated report still goes to the service, which skips it unless an operator changed the charger since
+        verify(chargerService, times(2)).applyReportedStatus(1L, ChargerStatus.MAINTENANCE, "Reported by charger: Faulted (GroundFailure)");
+        // Only MAINTENANCE carries a note
+        verify(chargerService).applyReportedStatus(1L, ChargerStatus.IN_USE, null);
+        assertThat(gateway.stats()).containsEntry("statusChanges", 2L);
+    }
+
+    @Test
+    void whenCallIsUnsupportedOrInvalid_thenCallErrorIsReturned() {
+        ChargerGateway.Connection connection = connect(1L);
+
+        assertThat(gateway.handle(connection, "[2,\"m1\",\"DataTransfer\",{}]"))
+                .startsWith("[4,\"m1\",\"NotImplemented\"");
+        assertThat(gateway.handle(connection, "[2,\"m2\",\"StatusNotification\",{\"status\":\"Exploded\"}]"))
+                .startsWith("[4,\"m2\",\"PropertyConstraintViolation\"");
+        assertThat(gateway.handle(connection, "not json")).isNull();
+        assertThat(gateway.handle(connection, "[3,\"m9\",{}]")).isNull();
+        verify(chargerService, never()).applyReportedStatus(anyLong(), any(), any());
+    }
+
+    @Test
+    void whenChargerWasDeleted_thenStatusNotificationFailsWithInternalError() {
+        ChargerGateway.Connection connection = connect(1L);
+        when(chargerService.applyReportedStatus(eq(1L), any(), any()))
+                .thenThrow(new IllegalArgumentException("Charger not found"));
+
+        assertThat(gateway.handle(connection, "[2,\"m1\",\"StatusNotification\",{\"status\":\"Available\"}]"))
+                .isEqualTo("[4,\"m1\",\"InternalError\",\"Charger not found\",{}]");
+    }
+
+    @Test
+    void whenMeterValues_thenEnergyReadingsAreIngestedForTheConnectedCharger() {
+        ChargerGateway.Connection connection = connect(1L);
+        when(telemetryService.ingest(any(MeterValuesRequest.class))).thenReturn(2);
+
+        String reply = gateway.handle(connection, "[2,\"m1\",\"MeterValues\",{\"connectorId\":1,\"transactionId\":7,\"meterValue\":["
+                + "{\"timestamp\":\"2025-05-01T10:00:00+01:00\",\"sampledValue\":["
+                + "{\"value\":\"16\",\"measurand\":\"Current.Import\",\"unit\":\"A\"},{\"value\":\"1200.5\"}]},"
+                + "{\"timestamp\":\"2025-05-01T09:01:00Z\",\"sampledValue\":["
+                + "{\"value\":\"1.3\",\"measurand\":\"Energy.Active.Import.Register\",\"unit\":\"kWh\"}]},"
+                + "{\"timestamp\":\"2025-05-01T09:02:00Z\",\"sampledValue\":[{\"value\":\"230\",\"measurand\":\"Voltage\"}]}]}]");
+
+        assertThat(reply).isEqualTo("[3,\"m1\",{}]");
+        ArgumentCaptor<MeterValuesRequest> request = ArgumentCaptor.forClass(MeterValuesRequest.class);
+        verify(telemetryService).ingest(request.capture());
+        assertThat(request.getValue().getChargerId()).isEqualTo(1L);
+        assertThat(request.getValue().getMeterValues()).extracting(MeterValue::getTransactionId,
+                        MeterValue::getTimestamp, MeterValue::getEnergyWh)
+                .containsExactly(
+                        tuple(7L, LocalDateTime.of(2025, 5, 1, 9, 0), 1200.5),
+                        tuple(7L, LocalDateTime.of(2025, 5, 1, 9, 1), 1300.0));
+        assertThat(gateway.stats()).containsEntry("meterReadings", 2L);
+    }
+
+    @Test
+    void whenMeterValuesAreOutsideATransactionOrInvalid_thenNothingIsIngested() {
+        ChargerGateway.Connection connection = connect(1L);
+
+        assertThat(gateway.handle(connection, "[2,\"m1\",\"MeterValues\",{\"connectorId\":1,\"meterValue\":["
+                + "{\"timestamp\":\"2025-05-01T09:00:00Z\",\"sampledValue\":[{\"value\":\"10\"}]}]}]"))
+                .isEqualTo("[3,\"m1\",{}]");
+        assertThat(gateway.handle(connection, "[2,\"m2\",\"MeterValues\",{\"transactionId\":7,\"meterValue\":["
+                + "{\"timestamp\":\"yesterday\",\"sampledValue\":[{\"value\":\"10\"}]}]}]"))
+                .startsWith("[4,\"m2\",\"PropertyConstraintViolation\"");
+        verify(telemetryService, never()).ingest(any());
+    }
+}
@@ -0,0 +1,170 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.Test;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.model.Charger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChargerLivenessTrackerTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+    private static final String NOTE = "No heartbeat for more than 10 s";
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final ChargerService chargerService = mock(ChargerService.class);
+    // Not started: the test ticks it
+    private final ChargerLivenessTracker tracker =
+            new ChargerLivenessTracker(chargerService, TIMEOUT_MS, 1000, 16, now::get);
+
+    private void advance(long ms) {
+        now.addAndGet(ms);
+        tracker.tick();
+    }
+
+    // Every charger of the batch settled as changed, or not
+    private static Map<Long, Boolean> settled(List<Long> ids, boolean changed) {
+        return ids.stream().collect(Collectors.toMap(id -> id, id -> changed));
+    }
+
+    private void markAll(boolean changed) {
+        when(chargerService.markUnresponsive(anyList(), eq(NOTE)))
+                .thenAnswer(invocation -> settled(invocation.getArgument(0), changed));
+    }
+
+    @Test
+    void whenChargerKeepsSendingHeartbeats_thenItStaysLive() {
+        tracker.heartbeat(1L);
+        for (int i = 0; i < 30; i++) {
+            advance(1000);
+            tracker.heartbeat(1L);
+        }
+
+        assertThat(tracker.isLive(1L)).isTrue();
+        verify(chargerService, never()).markUnresponsive(anyList(), any());
+        assertThat(tracker.stats()).containsEntry("live", 1).containsEntry("stale", 0).containsEntry("heartbeats", 31L);
+    }
+
+    @Test
+    void whenChargersGoSilent_thenTheyAreMarkedTogetherAndDropped() {
+        markAll(true);
+        tracker.heartbeat(1L);
+        tracker.heartbeat(2L);
+        tracker.heartbeat(3L);
+        tracker.heartbeat(4L);
+        advance(5_000);
+        tracker.heartbeat(4L);
+
+        advance(5_000);
+
+        // One call for the tick, not one per charger
+        verify(chargerService).markUnresponsive(argThat((List<Long> ids) -> ids.size() == 3 && ids.containsAll(List.of(1L, 2L, 3L))), eq(NOTE));
+        verify(chargerService, never()).markUnresponsive(anyLong(), any());
+        assertThat(tracker.isLive(1L)).isFalse();
+        assertThat(tracker.isLive(4L)).isTrue();
+        assertThat(tracker.stats()).containsEntry("live", 1).containsEntry("stale", 3).containsEntry("markedStale", 3L);
+    }
+
+    @Test
+    void whenSilentChargerIsHeardAgain_thenItsStatusIsRestored() {
+        markAll(true);
+        when(chargerService.restoreResponsive(1L)).thenReturn(true);
+        tracker.heartbeat(1L);
+        advance(TIMEOUT_MS);
+
+        tracker.heartbeat(1L);
+        tracker.heartbeat(1L);
+        advance(1000);
+
+        verify(chargerService).restoreResponsive(1L);
+        assertThat(tracker.isLive(1L)).isTrue();
+        assertThat(tracker.stats()).containsEntry("restored", 1L).containsEntry("live", 1).containsEntry("stale", 0);
+
+        // And it is tracked again from there
+        advance(TIMEOUT_MS);
+        verify(chargerService, times(2)).markUnresponsive(List.of(1L), NOTE);
+    }
+
+    @Test
+    void whenChargerWasNotChanged_thenNothingIsRestored() {
+        // e.g. it was under maintenance already
+        markAll(false);
+        tracker.heartbeat(1L);
+        advance(TIMEOUT_MS);
+
+        tracker.heartbeat(1L);
+        advance(1000);
+
+        verify(chargerService, never()).restoreResponsive(anyLong());
+        assertThat(tracker.isLive(1L)).isTrue();
+    }
+
+    @Test
+    void whenMarkingFails_thenItIsRetriedOnNextTick() {
+        when(chargerService.markUnresponsive(List.of(1L), NOTE))
+                .thenThrow(new RuntimeException("database down"))
+                .thenReturn(Map.of(1L, true));
+        tracker.heartbeat(1L);
+        advance(TIMEOUT_MS);
+        assertThat(tracker.isLive(1L)).isTrue();
+
+        advance(1000);
+
+        verify(chargerService, times(2)).markUnresponsive(List.of(1L), NOTE);
+        assertThat(tracker.isLive(1L)).isFalse();
+    }
+
+    @Test
+    void whenOneChargerOfTheBatchIsNotSettled_thenOnlyItIsRetried() {
+        // e.g. its version kept changing
+        when(chargerService.markUnresponsive(anyList(), eq(NOTE)))
+                .thenReturn(Map.of(1L, true))
+                .thenReturn(Map.of(2L, true));
+        tracker.heartbeat(1L);
+        tracker.heartbeat(2L);
+        advance(TIMEOUT_MS);
+        assertThat(tracker.isLive(1L)).isFalse();
+        assertThat(tracker.isLive(2L)).isTrue();
+
+        advance(1000);
+
+        verify(chargerService).markUnresponsive(List.of(2L), NOTE);
+        assertThat(tracker.isLive(2L)).isFalse();
+        assertThat(tracker.stats()).containsEntry("stale", 2).containsEntry("markedStale", 2L);
+    }
+
+    @Test
+    void whenChargerSilencedBeforeRestartReports_thenItIsRestored() {
+        when(chargerService.getSilencedChargerIds()).thenReturn(List.of(7L));
+        tracker.start();
+        tracker.shutdown();
+        when(chargerService.restoreResponsive(7L)).thenReturn(true);
+
+        tracker.heartbeat(7L);
+        tracker.heartbeat(8L);
+        advance(1000);
+
+        verify(chargerService).restoreResponsive(7L);
+        verify(chargerService, never()).restoreResponsive(8L);
+    }
+
+    @Test
+    void whenChargerIsDeleted_thenItIsForgotten() {
+        tracker.heartbeat(1L);
+        advance(1000);
+
+        tracker.onChargerChanged(new ChargerChangedEvent(Charger.builder().id(1L).build(), true));
+        advance(TIMEOUT_MS);
+
+        assertThat(tracker.isLive(1L)).isFalse();
+        verify(chargerService, never()).markUnresponsive(anyList(), any());
+        assertThat(tracker.stats()).containsEntry("live", 0).containsEntry("stale", 0);
+    }
+}
@@ -5,11 +5,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import tqs.backend.model.Charger;
 import tqs.backend.repository.ChargerRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import tqs.backend.model.enums.ChargerStatus;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,6 +29,15 @@ class ChargerServiceTest {
     @Mock
     private ChargerRepository chargerRepository;
 
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Mock
+    private ChargerStatusCounters statusCounters;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private ChargerService chargerService;
 
@@ -179,13 +193,189 @@ class ChargerServiceTest {
         verify(chargerRepository, times(1)).save(any(Charger.class));
     }
 
+    @Test
+    void whenChargerReportsNewStatus_thenStatusAndNoteAreSaved() {
+        charger1.setStatus(ChargerStatus.AVAILABLE);
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+
+        boolean changed = chargerService.applyReportedStatus(1L, ChargerStatus.MAINTENANCE, "Reported by charger: Faulted");
+
+        assertThat(changed).isTrue();
+        assertThat(charger1.getStatus()).isEqualTo(ChargerStatus.MAINTENANCE);
+        assertThat(charger1.getMaintenanceNote()).isEqualTo("Reported by charger: Faulted");
+        verify(chargerRepository).save(charger1);
+    }
+
+    @Test
+    void whenChargerReportsSameStatus_thenNothingIsSaved() {
+        charger1.setStatus(ChargerStatus.AVAILABLE);
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+
+        assertThat(chargerService.applyReportedStatus(1L, ChargerStatus.AVAILABLE, "Reported by charger: Available")).isFalse();
+        verify(chargerRepository, never()).save(any(Charger.class));
+    }
+
+    @Test
+    void whenChargerUnderOperatorMaintenanceReportsAvailable_thenStatusIsKept() {
+        charger1.setStatus(ChargerStatus.UNDER_MAINTENANCE);
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+
+        assertThat(chargerService.applyReportedStatus(1L, ChargerStatus.AVAILABLE, null)).isFalse();
+        assertThat(charger1.getStatus()).isEqualTo(ChargerStatus.UNDER_MAINTENANCE);
+        verify(chargerRepository, never()).save(any(Charger.class));
+    }
+
+    @Test
+    void whenChargerReportsInUseAfterFault_thenNoteIsCleared() {
+        charger1.setStatus(ChargerStatus.MAINTENANCE);
+        charger1.setMaintenanceNote("Reported by charger: Faulted");
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+
+        assertThat(chargerService.applyReportedStatus(1L, ChargerStatus.IN_USE, "Reported by charger: Charging")).isTrue();
+        assertThat(charger1.getStatus()).isEqualTo(ChargerStatus.IN_USE);
+        assertThat(charger1.getMaintenanceNote()).isNull();
+    }
+
+    @Test
+    void whenGatewayKeyIssued_thenOnlyThatKeyIsValid() {
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+
+        String key = chargerService.issueGatewayKey(1L);
+
+        assertThat(key).hasSize(2 * ChargerService.GATEWAY_KEY_BYTES);
+        assertThat(charger1.getGatewayKeyHash()).isNotEqualTo(key);
+        verify(chargerRepository).save(charger1);
+        assertThat(chargerService.isGatewayKeyValid(1L, key)).isTrue();
+        assertThat(chargerService.isGatewayKeyValid(1L, key + "0")).isFalse();
+        assertThat(chargerService.isGatewayKeyValid(1L, chargerService.issueGatewayKey(1L))).isTrue();
+        assertThat(chargerService.isGatewayKeyValid(1L, key)).isFalse();
+    }
+
+    @Test
+    void whenChargerHasNoGatewayKey_thenNoKeyIsValid() {
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+        when(chargerRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThat(chargerService.isGatewayKeyValid(1L, "")).isFalse();
+        assertThat(chargerService.isGatewayKeyValid(9L, "key")).isFalse();
+    }
+
+    @Test
+    void whenMarkUnresponsive_thenRunningChargerChangesAndKeepsItsPreviousStatus() {
+        charger1.setStatus(ChargerStatus.IN_USE);
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+
+        assertThat(chargerService.markUnresponsive(1L, "No heartbeat")).isTrue();
+
+        assertThat(charger1.getStatus()).isEqualTo(ChargerStatus.MAINTENANCE);
+        assertThat(charger1.getMaintenanceNote()).isEqualTo("No heartbeat");
+        assertThat(charger1.getStatusBeforeSilence()).isEqualTo(ChargerStatus.IN_USE);
+        verify(chargerRepository).save(charger1);
+    }
+
+    @Test
+    void whenMarkUnresponsiveUnderMaintenance_thenNothingChanges() {
+        when(chargerRepository.findById(3L)).thenReturn(Optional.of(charger3));
+
+        assertThat(chargerService.markUnresponsive(3L, "No heartbeat")).isFalse();
+
+        assertThat(charger3.getStatus()).isEqualTo(ChargerStatus.UNDER_MAINTENANCE);
+        verify(chargerRepository, never()).save(any(Charger.class));
+    }
+
+    @Test
+    void whenMarkUnresponsiveConflictsWithBooking_thenItIsRetried() {
+        // Each attempt reads the charger again
+        when(chargerRepository.findById(1L)).thenAnswer(invocation -> Optional.of(Charger.builder()
+                .id(1L).status(ChargerStatus.AVAILABLE).station(station1).build()));
+        when(chargerRepository.save(any(Charger.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Charger.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(chargerService.markUnresponsive(1L, "No heartbeat")).isTrue();
+
+        verify(chargerRepository, times(2)).save(any(Charger.class));
+    }
+
+    @Test
+    void whenManyChargersAreMarkedUnresponsive_thenOneTransactionChangesThemAll() {
+        when(chargerRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(charger1, charger2, charger3));
+
+        Map<Long, Boolean> settled = chargerService.markUnresponsive(List.of(1L, 2L, 3L), "No heartbeat");
+
+        assertThat(settled).containsExactlyInAnyOrderEntriesOf(Map.of(1L, true, 2L, true, 3L, false));
+        assertThat(charger2.getStatus()).isEqualTo(ChargerStatus.MAINTENANCE);
+        assertThat(charger2.getStatusBeforeSilence()).isEqualTo(ChargerStatus.IN_USE);
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(chargerRepository).saveAll(List.of(charger1, charger2));
+        verify(chargerRepository, never()).findById(anyLong());
+        verify(statusCounters).changed(station1.getId(), ChargerStatus.AVAILABLE, ChargerStatus.MAINTENANCE);
+        verify(statusCounters).changed(station1.getId(), ChargerStatus.IN_USE, ChargerStatus.MAINTENANCE);
+    }
+
+    @Test
+    void whenBatchConflictsWithBooking_thenItsChargersAreMarkedOneByOne() {
+        when(chargerRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+                Charger.builder().id(1L).status(ChargerStatus.AVAILABLE).station(station1).build(),
+                Charger.builder().id(2L).status(ChargerStatus.IN_USE).station(station1).build()));
+        when(chargerRepository.saveAll(anyList())).thenThrow(new ObjectOptimisticLockingFailureException(Charger.class, 2L));
+        // Read again after the rollback; charger 2 keeps conflicting
+        when(chargerRepository.findById(1L)).thenAnswer(invocation -> Optional.of(Charger.builder()
+                .id(1L).status(ChargerStatus.AVAILABLE).station(station1).build()));
+        when(chargerRepository.findById(2L)).thenAnswer(invocation -> Optional.of(Charger.builder()
+                .id(2L).status(ChargerStatus.IN_USE).station(station1).build()));
+        when(chargerRepository.save(any(Charger.class))).thenAnswer(invocation -> {
+            Charger charger = invocation.getArgument(0);
+            if (charger.getId() == 2L) {
+                throw new ObjectOptimisticLockingFailureException(Charger.class, 2L);
+            }
+            return charger;
+        });
+
+        Map<Long, Boolean> settled = chargerService.markUnresponsive(List.of(1L, 2L), "No heartbeat");
+
+        // Charger 2 is left out for the caller to retry
+        assertThat(settled).containsExactlyEntriesOf(Map.of(1L, true));
+        verify(chargerRepository, times(ChargerService.MAX_STATUS_ATTEMPTS)).findById(2L);
+        // Counted once, by the charger that was changed
+        verify(statusCounters, times(1)).changed(station1.getId(), ChargerStatus.AVAILABLE, ChargerStatus.MAINTENANCE);
+        verify(statusCounters, times(1)).changed(anyLong(), any(), any());
+    }
+
+    @Test
+    void whenRestoreResponsive_thenStatusBeforeSilenceComesBack() {
+        charger1.setStatus(ChargerStatus.MAINTENANCE);
+        charger1.setMaintenanceNote("No heartbeat");
+        charger1.setStatusBeforeSilence(ChargerStatus.IN_USE);
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+
+        assertThat(chargerService.restoreResponsive(1L)).isTrue();
+
+        assertThat(charger1.getStatus()).isEqualTo(ChargerStatus.IN_USE);
+        assertThat(charger1.getMaintenanceNote()).isNull();
+        assertThat(charger1.getStatusBeforeSilence()).isNull();
+    }
+
+    @Test
+    void whenRestoreResponsiveAfterOperatorChange_thenChargerIsLeftAlone() {
+        charger2.setStatus(ChargerStatus.MAINTENANCE);
+        charger2.setMaintenanceNote("Reported by charger: Faulted");
+        when(chargerRepository.findById(2L)).thenReturn(Optional.of(charger2));
+
+        assertThat(chargerService.restoreResponsive(2L)).isFalse();
+
+        assertThat(charger2.getStatus()).isEqualTo(ChargerStatus.MAINTENANCE);
+        verify(chargerRepository, never()).save(any(Charger.class));
+    }
+
     @Test
     void whenGetChargersByStatus_thenReturnFilteredChargers() {
         // Arrange
-        List<Charger> availableChargerEntities = Arrays.asList(charger1);
+        List<ChargerDTO> availableChargerRows = Arrays.asList(new ChargerDTO(charger1.getId(), charger1.getChargerType(),
+                charger1.getStatus(), charger1.getPricePerKwh(), station1.getId(), station1.getName(), station1.getCity()));
 
-        when(chargerRepository.findByStatus(ChargerStatus.AVAILABLE))
-                .thenReturn(availableChargerEntities);
+        when(chargerRepository.findDtosByStatus(ChargerStatus.AVAILABLE))
+                .thenReturn(availableChargerRows);
 
         // Act
         List<ChargerDTO> availableChargers = chargerService.getChargersByStatus(ChargerStatus.AVAILABLE);
@@ -240,4 +430,37 @@ class ChargerServiceTest {
         when(chargerRepository.countByStationIdAndStatus(3L, ChargerStatus.AVAILABLE)).thenReturn(0L);
         assertThat(chargerService.countByStationAndStatus(3L, ChargerStatus.AVAILABLE)).isZero();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void whenCountersAreReady_thenCountsComeFromThemWithoutQuerying() {
+        when(statusCounters.isReady()).thenReturn(true);
+        when(statusCounters.count(ChargerStatus.AVAILABLE)).thenReturn(7L);
+        when(statusCounters.count(1L, ChargerStatus.IN_USE)).thenReturn(2L);
+
+        assertThat(chargerService.countByStatus(ChargerStatus.AVAILABLE)).isEqualTo(7L);
+        assertThat(chargerService.countByStationAndStatus(1L, ChargerStatus.IN_USE)).isEqualTo(2L);
+        verify(chargerRepository, never()).countByStatus(any());
+        verify(chargerRepository, never()).countByStationIdAndStatus(any(), any());
+    }
+
+    @Test
+    void whenUpdateChargerStatus_thenCountersMoveFromPreviousStatus() {
+        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger1));
+        when(chargerRepository.save(charger1)).thenReturn(charger1);
+
+        chargerService.updateChargerStatus(1L, ChargerStatus.IN_USE, null);
+
+        verify(statusCounters).changed(station1.getId(), ChargerStatus.AVAILABLE, ChargerStatus.IN_USE);
+    }
+
+    @Test
+    void whenDeleteCharger_thenStationCatalogIsInvalidated() {
+        when(chargerRepository.findById(3L)).thenReturn(Optional.of(charger3));
+
+        chargerService.deleteCharger(3L);
+
+        verify(chargerRepository).delete(charger3);
+        verify(catalogCache).invalidateStation(station2.getId());
+        verify(statusCounters).removed(station2.getId(), ChargerStatus.UNDER_MAINTENANCE);
+    }
+}
@@ -0,0 +1,179 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import tqs.backend.dto.ChargerStatsDTO;
+import tqs.backend.dto.ChargerStatusCount;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.repository.ChargerRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ChargerStatusCountersTest {
+
+    private ChargerRepository chargerRepository;
+    private ChargerStatusCounters counters;
+
+    @BeforeEach
+    void setup() {
+        chargerRepository = mock(ChargerRepository.class);
+        when(chargerRepository.countGroupedByStationAndStatus()).thenReturn(List.of(
+                new ChargerStatusCount(1L, ChargerStatus.AVAILABLE, 3L),
+                new ChargerStatusCount(1L, ChargerStatus.IN_USE, 1L),
+                new ChargerStatusCount(2L, ChargerStatus.UNDER_MAINTENANCE, 2L),
+                new ChargerStatusCount(null, ChargerStatus.AVAILABLE, 1L)));
+        counters = new ChargerStatusCounters(chargerRepository);
+    }
+
+    @Test
+    void reconcile_LoadsCountsFromDatabase() {
+        assertThat(counters.isReady()).isFalse();
+
+        counters.reconcile();
+
+        assertThat(counters.isReady()).isTrue();
+        assertThat(counters.count(ChargerStatus.AVAILABLE)).isEqualTo(4);
+        assertThat(counters.count(1L, ChargerStatus.AVAILABLE)).isEqualTo(3);
+        assertThat(counters.count(2L, ChargerStatus.UNDER_MAINTENANCE)).isEqualTo(2);
+        assertThat(counters.count(3L, ChargerStatus.AVAILABLE)).isZero();
+    }
+
+    @Test
+    void deltas_AreAppliedPerStationAndStatus() {
+        counters.reconcile();
+
+        counters.added(3L, ChargerStatus.AVAILABLE);
+        counters.changed(1L, ChargerStatus.AVAILABLE, ChargerStatus.IN_USE);
+        counters.changed(1L, ChargerStatus.IN_USE, ChargerStatus.IN_USE);
+        counters.removed(2L, ChargerStatus.UNDER_MAINTENANCE);
+
+        assertThat(counters.count(3L, ChargerStatus.AVAILABLE)).isEqualTo(1);
+        assertThat(counters.count(1L, ChargerStatus.AVAILABLE)).isEqualTo(2);
+        assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(2);
+        assertThat(counters.count(2L, ChargerStatus.UNDER_MAINTENANCE)).isEqualTo(1);
+        assertThat(counters.count(ChargerStatus.AVAILABLE)).isEqualTo(4);
+    }
+
+    @Test
+    void reconcile_CorrectsDriftAndReportsIt() {
+        counters.reconcile();
+        assertThat(counters.snapshot().getLastReconcileCorrections()).isEqualTo(7);
+
+        // Two updates the database never saw
+        counters.added(1L, ChargerStatus.AVAILABLE);
+        counters.removed(2L, ChargerStatus.UNDER_MAINTENANCE);
+        counters.reconcile();
+
+        assertThat(counters.count(1L, ChargerStatus.AVAILABLE)).isEqualTo(3);
+        assertThat(counters.count(2L, ChargerStatus.UNDER_MAINTENANCE)).isEqualTo(2);
+        assertThat(counters.snapshot().getLastReconcileCorrections()).isEqualTo(2);
+    }
+
+    @Test
+    void removeStation_DropsItsCounts() {
+        counters.reconcile();
+
+        counters.removeStation(1L);
+
+        assertThat(counters.count(1L, ChargerStatus.AVAILABLE)).isZero();
+        assertThat(counters.count(ChargerStatus.AVAILABLE)).isEqualTo(1);
+    }
+
+    @Test
+    void snapshot_ReconcilesOnFirstUseAndListsStations() {
+        ChargerStatsDTO stats = counters.snapshot();
+
+        verify(chargerRepository).countGroupedByStationAndStatus();
+        assertThat(stats.getTotal()).isEqualTo(7);
+        assertThat(stats.getTotals()).containsEntry(ChargerStatus.AVAILABLE, 4L)
+                .containsEntry(ChargerStatus.MAINTENANCE, 0L);
+        // Chargers without a station count in the totals only
+        assertThat(stats.getByStation()).containsOnlyKeys(1L, 2L);
+        assertThat(stats.getByStation().get(1L)).containsEntry(ChargerStatus.IN_USE, 1L);
+        assertThat(stats.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void concurrentDeltas_AreNotLost() throws InterruptedException {
+        counters.reconcile();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            pool.execute(() -> counters.changed(1L, ChargerStatus.AVAILABLE, ChargerStatus.IN_USE));
+            pool.execute(() -> counters.changed(1L, ChargerStatus.IN_USE, ChargerStatus.AVAILABLE));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(counters.count(1L, ChargerStatus.AVAILABLE)).isEqualTo(3);
+        assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(1);
+    }
+
+    @Test
+    void deltas_InTransactionWaitForCommitAndAreDroppedOnRollback() {
+        counters.reconcile();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.changed(1L, ChargerStatus.AVAILABLE, ChargerStatus.IN_USE);
+            assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(1);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(2);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.changed(1L, ChargerStatus.AVAILABLE, ChargerStatus.IN_USE);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(2);
+    }
+
+    @Test
+    void reconcile_KeepsCountersWhileAChangeIsBeingCommitted() {
+        counters.reconcile();
+        List<TransactionSynchronization> commit = new ArrayList<>();
+        when(chargerRepository.countGroupedByStationAndStatus()).thenAnswer(invocation -> {
+            if (commit.isEmpty()) {
+                // A change starts committing while the counts are read, and the database already shows it
+                TransactionSynchronizationManager.initSynchronization();
+                counters.changed(1L, ChargerStatus.AVAILABLE, ChargerStatus.IN_USE);
+                commit.addAll(TransactionSynchronizationManager.getSynchronizations());
+                TransactionSynchronizationManager.clearSynchronization();
+                commit.forEach(sync -> sync.beforeCommit(false));
+            }
+            return List.of(
+                    new ChargerStatusCount(1L, ChargerStatus.AVAILABLE, 2L),
+                    new ChargerStatusCount(1L, ChargerStatus.IN_USE, 2L),
+                    new ChargerStatusCount(2L, ChargerStatus.UNDER_MAINTENANCE, 2L),
+                    new ChargerStatusCount(null, ChargerStatus.AVAILABLE, 1L));
+        });
+
+        counters.reconcile();
+        assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(1);
+        // Later attempts see the commit still running and do not count at all
+        verify(chargerRepository, times(2)).countGroupedByStationAndStatus();
+
+        commit.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(2);
+
+        counters.reconcile();
+        assertThat(counters.count(1L, ChargerStatus.IN_USE)).isEqualTo(2);
+        assertThat(counters.snapshot().getLastReconcileCorrections()).isZero();
+    }
+}
@@ -0,0 +1,116 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tqs.backend.event.DiscountChangedEvent;
+import tqs.backend.model.Discount;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.DiscountRepository;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class DiscountMatrixTest {
+
+    private static final Station STATION_1 = Station.builder().id(1L).build();
+    private static final Station STATION_2 = Station.builder().id(2L).build();
+
+    private DiscountRepository discountRepository;
+    private DiscountMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        discountRepository = mock(DiscountRepository.class);
+        matrix = new DiscountMatrix(discountRepository);
+    }
+
+    private Discount discount(long id, Station station, ChargerType type, int day, int from, int to, double percent) {
+        return Discount.builder().id(id).station(station).chargerType(type)
+                .dayOfWeek(day).startHour(from).endHour(to).discountPercent(percent).active(true).build();
+    }
+
+    @Test
+    void rebuild_IndexesActiveDiscountsInclusiveOfBothHours() {
+        Discount inactive = discount(2L, STATION_2, ChargerType.AC_STANDARD, 1, 14, 18, 50.0);
+        inactive.setActive(false);
+        when(discountRepository.findAll()).thenReturn(List.of(
+                discount(1L, STATION_1, ChargerType.AC_STANDARD, 1, 14, 18, 15.0), inactive));
+
+        matrix.rebuild();
+
+        assertThat(matrix.isReady()).isTrue();
+        assertThat(matrix.bestDiscounts(1, 13, ChargerType.AC_STANDARD)).isEmpty();
+        assertThat(matrix.bestDiscounts(1, 14, ChargerType.AC_STANDARD)).containsExactly(entry(1L, 15.0));
+        assertThat(matrix.bestDiscounts(1, 18, ChargerType.AC_STANDARD)).containsExactly(entry(1L, 15.0));
+        assertThat(matrix.bestDiscounts(1, 19, ChargerType.AC_STANDARD)).isEmpty();
+        assertThat(matrix.bestDiscounts(2, 15, ChargerType.AC_STANDARD)).isEmpty();
+        assertThat(matrix.bestDiscounts(1, 15, ChargerType.DC_FAST)).isEmpty();
+    }
+
+    @Test
+    void overlappingDiscounts_HighestPercentWins() {
+        matrix.apply(discount(1L, STATION_1, ChargerType.DC_FAST, 3, 8, 12, 10.0), false);
+        matrix.apply(discount(2L, STATION_1, ChargerType.DC_FAST, 3, 10, 20, 25.0), false);
+
+        assertThat(matrix.bestDiscounts(3, 9, ChargerType.DC_FAST)).containsExactly(entry(1L, 10.0));
+        assertThat(matrix.bestDiscounts(3, 11, ChargerType.DC_FAST)).containsExactly(entry(1L, 25.0));
+
+        matrix.apply(discount(2L, STATION_1, ChargerType.DC_FAST, 3, 10, 20, 25.0), true);
+
+        assertThat(matrix.bestDiscounts(3, 11, ChargerType.DC_FAST)).containsExactly(entry(1L, 10.0));
+        assertThat(matrix.bestDiscounts(3, 15, ChargerType.DC_FAST)).isEmpty();
+    }
+
+    @Test
+    void update_MovesDiscountToItsNewCells() {
+        matrix.onDiscountChanged(new DiscountChangedEvent(discount(1L, STATION_1, ChargerType.DC_FAST, 1, 8, 9, 10.0), false));
+        matrix.onDiscountChanged(new DiscountChangedEvent(discount(1L, STATION_2, ChargerType.AC_STANDARD, 5, 8, 9, 20.0), false));
+
+        assertThat(matrix.bestDiscounts(1, 8, ChargerType.DC_FAST)).isEmpty();
+        assertThat(matrix.bestDiscounts(5, 8, ChargerType.AC_STANDARD)).containsExactly(entry(2L, 20.0));
+    }
+
+    @Test
+    void bestDiscounts_AcrossTypesKeepsHighestPerStation() {
+        matrix.apply(discount(1L, STATION_1, ChargerType.DC_FAST, 1, 0, 23, 10.0), false);
+        matrix.apply(discount(2L, STATION_1, ChargerType.AC_STANDARD, 1, 0, 23, 30.0), false);
+        matrix.apply(discount(3L, STATION_2, ChargerType.AC_STANDARD, 1, 0, 23, 5.0), false);
+
+        assertThat(matrix.bestDiscounts(1, 12, EnumSet.allOf(ChargerType.class)))
+                .containsEntry(1L, 30.0).containsEntry(2L, 5.0);
+    }
+
+    @Test
+    void bestDiscounts_OutOfRangeArgumentsAreEmpty() {
+        assertThat(matrix.bestDiscounts(0, 10, ChargerType.DC_FAST)).isEmpty();
+        assertThat(matrix.bestDiscounts(8, 10, ChargerType.DC_FAST)).isEmpty();
+        assertThat(matrix.bestDiscounts(1, 24, ChargerType.DC_FAST)).isEmpty();
+    }
+
+    @Test
+    void dayOfWeekOutOfRange_IsRejectedAndLeavesMatrixUnchanged() {
+        matrix.apply(discount(1L, STATION_1, ChargerType.DC_FAST, 3, 10, 12, 20.0), false);
+
+        assertThatThrownBy(() -> matrix.apply(discount(1L, STATION_1, ChargerType.DC_FAST, 8, 10, 12, 20.0), false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("dayOfWeek");
+        assertThat(matrix.bestDiscounts(3, 11, ChargerType.DC_FAST)).containsEntry(1L, 20.0);
+
+        // A bad row in the database is skipped on rebuild rather than failing it
+        when(discountRepository.findAll()).thenReturn(List.of(
+                discount(1L, STATION_1, ChargerType.DC_FAST, 0, 10, 12, 20.0),
+                discount(2L, STATION_2, ChargerType.DC_FAST, 3, 10, 12, 30.0)));
+        matrix.rebuild();
+        assertThat(matrix.isReady()).isTrue();
+        assertThat(matrix.bestDiscounts(3, 11, ChargerType.DC_FAST)).containsOnly(entry(2L, 30.0));
+    }
+
+    private static java.util.Map.Entry<Long, Double> entry(Long stationId, Double percent) {
+        return java.util.Map.entry(stationId, percent);
+    }
+}
@@ -0,0 +1,236 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import tqs.backend.dto.LiveEvent;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.event.ReservationChangedEvent;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ReservationStatus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveEventHubTest {
+
+    private LiveEventHub hub = new LiveEventHub(2, 100, 60_000, 60_000, 60_000);
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    private static Charger charger(long id, long stationId, ChargerStatus status) {
+        return Charger.builder().id(id).status(status).station(Station.builder().id(stationId).build()).build();
+    }
+
+    private static ChargerChangedEvent chargerChanged(long id, long stationId, ChargerStatus status) {
+        return new ChargerChangedEvent(charger(id, stationId, status), false);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void burstOfUpdates_IsCoalescedToLatestPerCharger() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        LiveEventHub.Subscriber subscriber = hub.register(emitter, null);
+
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.IN_USE));
+        hub.onChargerChanged(chargerChanged(2L, 10L, ChargerStatus.IN_USE));
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.AVAILABLE));
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.UNDER_MAINTENANCE));
+        subscriber.drain();
+
+        assertThat(emitter.writes).hasSize(1);
+        assertThat(emitter.events()).extracting(LiveEvent::getChargerId, LiveEvent::getChargerStatus)
+                .containsExactly(
+                        org.assertj.core.groups.Tuple.tuple(1L, ChargerStatus.UNDER_MAINTENANCE),
+                        org.assertj.core.groups.Tuple.tuple(2L, ChargerStatus.IN_USE));
+    }
+
+    @Test
+    void stationSubscription_OnlyReceivesItsStations() {
+        RecordingEmitter station10 = new RecordingEmitter();
+        RecordingEmitter everything = new RecordingEmitter();
+        LiveEventHub.Subscriber stationSubscriber = hub.register(station10, Set.of(10L));
+        LiveEventHub.Subscriber allSubscriber = hub.register(everything, null);
+
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.IN_USE));
+        hub.onChargerChanged(chargerChanged(2L, 20L, ChargerStatus.IN_USE));
+        Reservation reservation = Reservation.builder().id(5L).charger(charger(2L, 20L, ChargerStatus.IN_USE))
+                .status(ReservationStatus.COMPLETED).build();
+        hub.onReservationChanged(new ReservationChangedEvent(reservation, false));
+        stationSubscriber.drain();
+        allSubscriber.drain();
+
+        assertThat(station10.events()).extracting(LiveEvent::getChargerId).containsExactly(1L);
+        assertThat(everything.events()).extracting(LiveEvent::getType).containsExactly(
+                LiveEvent.Type.CHARGER_STATUS, LiveEvent.Type.CHARGER_STATUS, LiveEvent.Type.RESERVATION);
+        assertThat(everything.events().get(2).getReservationStatus()).isEqualTo(ReservationStatus.COMPLETED);
+        assertThat(everything.events().get(2).getStationId()).isEqualTo(20L);
+    }
+
+    @Test
+    void subscriberTooFarBehind_GetsSingleResync() {
+        hub = new LiveEventHub(1, 3, 60_000, 60_000, 60_000);
+        RecordingEmitter emitter = new RecordingEmitter();
+        LiveEventHub.Subscriber subscriber = hub.register(emitter, null);
+
+        for (long id = 1; id <= 10; id++) {
+            hub.onChargerChanged(chargerChanged(id, 10L, ChargerStatus.IN_USE));
+        }
+        subscriber.drain();
+        hub.onChargerChanged(chargerChanged(11L, 10L, ChargerStatus.IN_USE));
+        subscriber.drain();
+
+        assertThat(emitter.events()).extracting(LiveEvent::getType)
+                .containsExactly(LiveEvent.Type.RESYNC, LiveEvent.Type.CHARGER_STATUS);
+    }
+
+    @Test
+    void slowSubscriber_HasOneWriteInFlightAndDoesNotHoldBackOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        hub.register(slow, null);
+        hub.register(fast, null);
+
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.IN_USE));
+        hub.flush();
+        waitUntil(() -> slow.started.get() == 1 && fast.writes.size() == 1);
+
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.AVAILABLE));
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.UNDER_MAINTENANCE));
+        hub.flush();
+        waitUntil(() -> fast.writes.size() == 2);
+        assertThat(slow.started.get()).isEqualTo(1);
+
+        release.countDown();
+        waitUntil(() -> slow.writes.size() == 1);
+        hub.flush();
+        waitUntil(() -> slow.writes.size() == 2);
+        assertThat(slow.events()).extracting(LiveEvent::getChargerStatus)
+                .containsExactly(ChargerStatus.IN_USE, ChargerStatus.UNDER_MAINTENANCE);
+    }
+
+    @Test
+    void writeBlockedPastSendTimeout_DropsSubscriberAndFreesSender() throws InterruptedException {
+        hub = new LiveEventHub(1, 100, 60_000, 60_000, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        hub.register(stuck, null);
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.IN_USE));
+        hub.flush();
+        waitUntil(() -> stuck.started.get() == 1);
+
+        // The only sender is blocked, so the fast subscriber waits until the stuck one is given up on
+        hub.register(fast, null);
+        hub.onChargerChanged(chargerChanged(2L, 10L, ChargerStatus.IN_USE));
+        hub.flush();
+        Thread.sleep(100);
+        hub.flush();
+        waitUntil(() -> fast.writes.size() == 1);
+
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+        assertThat(hub.senderPoolSize()).isEqualTo(2);
+        release.countDown();
+        waitUntil(() -> stuck.completed && hub.senderPoolSize() == 1);
+    }
+
+    @Test
+    void failedWrite_RemovesSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.fail = true;
+        LiveEventHub.Subscriber subscriber = hub.register(emitter, null);
+        hub.onChargerChanged(chargerChanged(1L, 10L, ChargerStatus.IN_USE));
+
+        subscriber.drain();
+
+        assertThat(hub.subscriberCount()).isZero();
+    }
+
+    @Test
+    void idleSubscriber_GetsHeartbeatComment() {
+        hub = new LiveEventHub(1, 100, 60_000, 0, 60_000);
+        RecordingEmitter emitter = new RecordingEmitter();
+        LiveEventHub.Subscriber subscriber = hub.register(emitter, null);
+
+        subscriber.drain();
+
+        assertThat(emitter.events()).isEmpty();
+        assertThat(emitter.writes).hasSize(1);
+        assertThat(emitter.writes.get(0)).extracting(ResponseBodyEmitter.DataWithMediaType::getData)
+                .containsExactly(":heartbeat\n\n");
+    }
+
+    /**
+     * Captures each batch written by the hub; can be made to block or fail to stand in for a slow or gone client.
+     */
+    private static class RecordingEmitter extends ResponseBodyEmitter {
+
+        private final List<List<ResponseBodyEmitter.DataWithMediaType>> writes = new CopyOnWriteArrayList<>();
+        private final AtomicInteger started = new AtomicInteger();
+        private final CountDownLatch release;
+        private boolean fail;
+        private volatile boolean completed;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            started.incrementAndGet();
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writes.add(new ArrayList<>(items));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<LiveEvent> events() {
+            List<LiveEvent> events = new ArrayList<>();
+            for (List<DataWithMediaType> write : writes) {
+                for (DataWithMediaType item : write) {
+                    if (item.getData() instanceof LiveEvent event) {
+                        events.add(event);
+                    }
+                }
+            }
+            return events;
+        }
+    }
+}
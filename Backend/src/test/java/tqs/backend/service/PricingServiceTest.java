@@ -0,0 +1,126 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tqs.backend.dto.PriceQuoteDTO;
+import tqs.backend.dto.PriceQuoteRequest;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Discount;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.DiscountRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class PricingServiceTest {
+
+    // 2030-01-07 is a Monday
+    private static final LocalDateTime MONDAY_9 = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private ChargerRepository chargerRepository;
+    private DiscountRepository discountRepository;
+    private DiscountMatrix discountMatrix;
+    private PricingService pricingService;
+
+    private Station station;
+    private Charger charger;
+
+    @BeforeEach
+    void setUp() {
+        chargerRepository = mock(ChargerRepository.class);
+        discountRepository = mock(DiscountRepository.class);
+        discountMatrix = new DiscountMatrix(discountRepository);
+        pricingService = new PricingService(chargerRepository, discountMatrix);
+
+        station = Station.builder().id(1L).name("S1").build();
+        charger = Charger.builder().id(10L).station(station).chargerType(ChargerType.DC_FAST)
+                .pricePerKwh(new BigDecimal("0.40")).build();
+
+        // 20% off on Mondays from 10:00 to 11:59
+        when(discountRepository.findAll()).thenReturn(List.of(Discount.builder()
+                .id(1L).station(station).chargerType(ChargerType.DC_FAST)
+                .dayOfWeek(1).startHour(10).endHour(11).discountPercent(20.0).active(true).build()));
+        discountMatrix.rebuild();
+    }
+
+    @Test
+    void quote_OutsideDiscountHours_UsesBasePrice() {
+        PriceQuoteDTO quote = pricingService.quote(charger, MONDAY_9, MONDAY_9.plusMinutes(30), 10.0);
+
+        assertThat(quote.getEffectivePricePerKwh()).isEqualByComparingTo("0.40");
+        assertThat(quote.getEstimatedCost()).isEqualByComparingTo("4.00");
+        assertThat(quote.getDiscountPercent()).isZero();
+    }
+
+    @Test
+    void quote_WindowCrossingIntoDiscount_IsProrated() {
+        // 09:30-10:30: half the window at full price, half at 20% off
+        PriceQuoteDTO quote = pricingService.quote(charger, MONDAY_9.plusMinutes(30), MONDAY_9.plusMinutes(90), 10.0);
+
+        assertThat(quote.getDiscountPercent()).isCloseTo(10.0, within(1e-9));
+        assertThat(quote.getEffectivePricePerKwh()).isEqualByComparingTo("0.36");
+        assertThat(quote.getEstimatedCost()).isEqualByComparingTo("3.60");
+    }
+
+    @Test
+    void quote_WithoutEndTime_PricesTheStartInstant() {
+        PriceQuoteDTO quote = pricingService.quote(charger, MONDAY_9.plusHours(1), null, null);
+
+        assertThat(quote.getEffectivePricePerKwh()).isEqualByComparingTo("0.32");
+        assertThat(quote.getEstimatedCost()).isNull();
+    }
+
+    @Test
+    void quoteAll_OtherTypeOrStationIsNotDiscounted() {
+        Charger ac = Charger.builder().id(11L).station(station).chargerType(ChargerType.AC_STANDARD)
+                .pricePerKwh(new BigDecimal("0.20")).build();
+        Charger elsewhere = Charger.builder().id(12L).station(Station.builder().id(2L).build())
+                .chargerType(ChargerType.DC_FAST).pricePerKwh(new BigDecimal("0.40")).build();
+
+        List<PriceQuoteDTO> quotes = pricingService.quoteAll(List.of(charger, ac, elsewhere),
+                MONDAY_9.plusHours(1), MONDAY_9.plusHours(2), 1.0);
+
+        assertThat(quotes).extracting(PriceQuoteDTO::getEffectivePricePerKwh)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("0.32"), new BigDecimal("0.20"), new BigDecimal("0.40"));
+    }
+
+    @Test
+    void quoteAll_InvalidWindow_Throws() {
+        assertThatThrownBy(() -> pricingService.quote(charger, MONDAY_9, MONDAY_9.minusHours(1), 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.quote(charger, MONDAY_9, MONDAY_9.plusDays(40), 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.quote(charger, null, null, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void quote_UnknownCharger_Throws() {
+        when(chargerRepository.findWithStationByIdIn(anyCollection())).thenReturn(List.of(charger));
+
+        var request = new PriceQuoteRequest(List.of(10L, 99L), MONDAY_9, MONDAY_9.plusHours(1), 5.0);
+
+        assertThatThrownBy(() -> pricingService.quote(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Charger not found");
+    }
+
+    @Test
+    void quote_ReturnsQuotesInRequestOrder() {
+        Charger other = Charger.builder().id(11L).station(station).chargerType(ChargerType.AC_STANDARD)
+                .pricePerKwh(new BigDecimal("0.30")).build();
+        when(chargerRepository.findWithStationByIdIn(anyCollection())).thenReturn(List.of(charger, other));
+
+        var request = new PriceQuoteRequest(List.of(11L, 10L), MONDAY_9, MONDAY_9.plusHours(1), 5.0);
+
+        assertThat(pricingService.quote(request)).extracting(PriceQuoteDTO::getChargerId).containsExactly(11L, 10L);
+    }
+}
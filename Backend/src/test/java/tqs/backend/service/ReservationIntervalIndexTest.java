@@ -0,0 +1,146 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tqs.backend.dto.ReservationInterval;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.enums.ReservationStatus;
+import tqs.backend.repository.ReservationRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReservationIntervalIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    private ReservationRepository reservationRepository;
+    private ReservationIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        index = new ReservationIntervalIndex(reservationRepository);
+    }
+
+    private Reservation reservation(long id, long chargerId, LocalDateTime start, LocalDateTime end, ReservationStatus status) {
+        return Reservation.builder()
+                .id(id)
+                .charger(Charger.builder().id(chargerId).build())
+                .startTime(start)
+                .estimatedEndTime(end)
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void rebuild_LoadsActiveIntervalsAndBecomesReady() {
+        when(reservationRepository.findIntervalsByStatus(ReservationStatus.ACTIVE)).thenReturn(List.of(
+                new ReservationInterval(1L, 10L, T0, T0.plusHours(2)),
+                new ReservationInterval(2L, 11L, T0.plusHours(5), T0.plusHours(6))
+        ));
+
+        assertThat(index.isReady()).isFalse();
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.hasOverlap(10L, T0.plusHours(1), T0.plusHours(3))).isTrue();
+        assertThat(index.hasOverlap(11L, T0, T0.plusHours(1))).isFalse();
+    }
+
+    @Test
+    void hasOverlap_TouchingIntervalsDoNotOverlap() {
+        index.upsert(reservation(1L, 10L, T0, T0.plusHours(2), ReservationStatus.ACTIVE));
+
+        assertThat(index.hasOverlap(10L, T0.plusHours(2), T0.plusHours(3))).isFalse();
+        assertThat(index.hasOverlap(10L, T0.minusHours(1), T0)).isFalse();
+        assertThat(index.hasOverlap(10L, T0.minusHours(1), T0.plusMinutes(1))).isTrue();
+        assertThat(index.hasOverlap(10L, T0.plusMinutes(30), T0.plusMinutes(45))).isTrue();
+        assertThat(index.hasOverlap(99L, T0, T0.plusHours(2))).isFalse();
+    }
+
+    @Test
+    void hasOverlap_FindsLongReservationStartingWellBeforeWindow() {
+        index.upsert(reservation(1L, 10L, T0.minusDays(1), T0.plusDays(1), ReservationStatus.ACTIVE));
+        index.upsert(reservation(2L, 10L, T0.plusDays(2), T0.plusDays(2).plusHours(1), ReservationStatus.ACTIVE));
+
+        assertThat(index.hasOverlap(10L, T0, T0.plusHours(1))).isTrue();
+        assertThat(index.isBusyAt(10L, T0)).isTrue();
+    }
+
+    @Test
+    void hasOverlap_InvertedWindowMatchesRepositorySemantics() {
+        index.upsert(reservation(1L, 10L, T0, T0.plusHours(1), ReservationStatus.ACTIVE));
+        index.upsert(reservation(2L, 11L, T0.minusDays(3), T0.plusDays(3), ReservationStatus.ACTIVE));
+
+        assertThat(index.hasOverlap(10L, T0, T0.minusDays(2))).isFalse();
+        assertThat(index.hasOverlap(11L, T0, T0.minusDays(2))).isTrue();
+    }
+
+    @Test
+    void isBusyAt_StartInclusiveEndExclusive() {
+        index.upsert(reservation(1L, 10L, T0, T0.plusHours(1), ReservationStatus.ACTIVE));
+
+        assertThat(index.isBusyAt(10L, T0)).isTrue();
+        assertThat(index.isBusyAt(10L, T0.plusHours(1))).isFalse();
+        assertThat(index.overlappingChargerIds(List.of(10L, 11L), T0, T0.plusMinutes(1))).containsExactly(10L);
+    }
+
+    @Test
+    void upsert_CompletedReservationIsRemoved() {
+        Reservation r = reservation(1L, 10L, T0, T0.plusHours(2), ReservationStatus.ACTIVE);
+        index.upsert(r);
+
+        r.setStatus(ReservationStatus.COMPLETED);
+        index.upsert(r);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.isBusyAt(10L, T0)).isFalse();
+    }
+
+    @Test
+    void upsert_MovedReservationReplacesOldInterval() {
+        Reservation r = reservation(1L, 10L, T0, T0.plusHours(2), ReservationStatus.ACTIVE);
+        index.upsert(r);
+
+        r.setStartTime(T0.plusHours(4));
+        r.setEstimatedEndTime(T0.plusHours(5));
+        index.upsert(r);
+
+        assertThat(index.isBusyAt(10L, T0)).isFalse();
+        assertThat(index.isBusyAt(10L, T0.plusHours(4))).isTrue();
+    }
+
+    @Test
+    void remove_CancelledReservationFreesCharger() {
+        Reservation r = reservation(1L, 10L, T0, T0.plusHours(2), ReservationStatus.ACTIVE);
+        index.upsert(r);
+
+        index.remove(r);
+
+        assertThat(index.hasOverlap(10L, T0, T0.plusHours(2))).isFalse();
+    }
+
+    @Test
+    void timeline_LongestDurationShrinksWhenLongReservationsGo() {
+        ReservationIntervalIndex.ChargerTimeline timeline = new ReservationIntervalIndex.ChargerTimeline();
+        timeline.add(1L, T0, T0.plusDays(30));
+        timeline.add(2L, T0.plusDays(40), T0.plusDays(40).plusHours(1));
+        timeline.add(3L, T0.plusDays(50), T0.plusDays(80));
+        assertThat(timeline.maxDuration()).isEqualTo(Duration.ofDays(30));
+
+        timeline.remove(1L);
+        assertThat(timeline.maxDuration()).isEqualTo(Duration.ofDays(30));
+        timeline.remove(3L);
+        assertThat(timeline.maxDuration()).isEqualTo(Duration.ofHours(1));
+        assertThat(timeline.overlaps(T0.plusDays(40), T0.plusDays(40).plusMinutes(30))).isTrue();
+        timeline.remove(2L);
+        assertThat(timeline.maxDuration()).isEqualTo(Duration.ZERO);
+    }
+}
@@ -6,9 +6,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import tqs.backend.dto.BulkReservationItemResult;
+import tqs.backend.dto.BulkReservationMode;
+import tqs.backend.dto.BulkReservationResponse;
+import tqs.backend.dto.PriceQuoteDTO;
+import tqs.backend.dto.ReservationInterval;
 import tqs.backend.dto.ReservationRequest;
 import tqs.backend.dto.ReservationResponse;
+import tqs.backend.dto.ReservationStatusCount;
+import tqs.backend.dto.ReservationSummaryDTO;
 import tqs.backend.model.Charger;
 import tqs.backend.model.Client;
 import tqs.backend.model.Reservation;
@@ -19,6 +27,13 @@ import tqs.backend.repository.ChargerRepository;
 import tqs.backend.repository.ClientRepository;
 import tqs.backend.repository.ReservationRepository;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -28,6 +43,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,9 +58,23 @@ class ReservationServiceTest {
     @Mock
     private ChargerRepository chargerRepository;
 
+    @Mock
+    private ReservationIntervalIndex reservationIndex;
+
+    @Mock
+    private PricingService pricingService;
+
+    @Spy
+    private ChargerLocks chargerLocks = new ChargerLocks(16);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private ReservationService reservationService;
 
+    private static final PriceQuoteDTO QUOTE = PriceQuoteDTO.builder().estimatedCost(new BigDecimal("15.00")).build();
+
     private Client client;
     private Charger charger;
     private Reservation reservation;
@@ -97,7 +127,6 @@ class ReservationServiceTest {
         request.setEstimatedEndTime(endTime);
         request.setBatteryLevelStart(20.0);
         request.setEstimatedKwh(30.0);
-        request.setEstimatedCost(new BigDecimal("15.00"));
     }
 
     @Test
@@ -113,22 +142,33 @@ class ReservationServiceTest {
 
     @Test
     void whenHasOverlappingReservation_thenReturnTrue() {
-        when(reservationRepository.existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeBefore(
-                any(), any(), any())).thenReturn(true);
+        when(reservationRepository.existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(any(), any(), any(), any())).thenReturn(true);
 
         boolean hasOverlap = reservationService.hasOverlappingReservation(1L, startTime, endTime);
 
         assertThat(hasOverlap).isTrue();
         verify(reservationRepository, times(1))
-                .existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeBefore(1L, startTime, endTime);
+                .existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(1L, ReservationStatus.ACTIVE, startTime, endTime);
+    }
+
+    @Test
+    void whenIndexReady_thenOverlapCheckSkipsDatabase() {
+        when(reservationIndex.isReady()).thenReturn(true);
+        when(reservationIndex.hasOverlap(1L, startTime, endTime)).thenReturn(true);
+
+        boolean hasOverlap = reservationService.hasOverlappingReservation(1L, startTime, endTime);
+
+        assertThat(hasOverlap).isTrue();
+        verify(reservationRepository, never())
+                .existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(any(), any(), any(), any());
     }
 
     @Test
     void whenCreateReservation_thenReturnCreatedReservation() {
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger));
-        when(reservationRepository.existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeBefore(
-                any(), any(), any())).thenReturn(false);
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.of(charger));
+        when(pricingService.quote(charger, startTime, endTime, 30.0)).thenReturn(QUOTE);
+        when(reservationRepository.existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(any(), any(), any(), any())).thenReturn(false);
         when(reservationRepository.save(any(Reservation.class))).thenReturn(reservation);
 
         Reservation created = reservationService.createReservation(request);
@@ -139,6 +179,33 @@ class ReservationServiceTest {
         verify(reservationRepository, times(1)).save(any(Reservation.class));
     }
 
+    @Test
+    void whenCreateReservation_thenServerPricesIt() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.of(charger));
+        when(pricingService.quote(charger, startTime, endTime, 30.0))
+                .thenReturn(PriceQuoteDTO.builder().estimatedCost(new BigDecimal("7.20")).build());
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Reservation created = reservationService.createReservation(request);
+
+        assertThat(created.getEstimatedCost()).isEqualByComparingTo("7.20");
+    }
+
+    @Test
+    void whenCreateReservationWithClientCost_thenServerPriceWins() {
+        request.setEstimatedCost(new BigDecimal("0.01"));
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.of(charger));
+        when(pricingService.quote(charger, startTime, endTime, 30.0))
+                .thenReturn(PriceQuoteDTO.builder().estimatedCost(new BigDecimal("7.20")).build());
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Reservation created = reservationService.createReservation(request);
+
+        assertThat(created.getEstimatedCost()).isEqualByComparingTo("7.20");
+    }
+
     @Test
     void whenCreateReservationWithNonExistentClient_thenThrowException() {
         when(clientRepository.findById(1L)).thenReturn(Optional.empty());
@@ -151,7 +218,7 @@ class ReservationServiceTest {
     @Test
     void whenCreateReservationWithNonExistentCharger_thenThrowException() {
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(chargerRepository.findById(1L)).thenReturn(Optional.empty());
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> reservationService.createReservation(request))
                 .isInstanceOf(RuntimeException.class)
@@ -162,7 +229,7 @@ class ReservationServiceTest {
     void whenCreateReservationWithMaintenanceCharger_thenThrowException() {
         charger.setStatus(ChargerStatus.UNDER_MAINTENANCE);
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger));
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.of(charger));
 
         assertThatThrownBy(() -> reservationService.createReservation(request))
                 .isInstanceOf(RuntimeException.class)
@@ -172,15 +239,126 @@ class ReservationServiceTest {
     @Test
     void whenCreateReservationWithOverlappingTime_thenThrowException() {
         when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
-        when(chargerRepository.findById(1L)).thenReturn(Optional.of(charger));
-        when(reservationRepository.existsByChargerIdAndEstimatedEndTimeAfterAndStartTimeBefore(
-                any(), any(), any())).thenReturn(true);
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.of(charger));
+        when(reservationRepository.existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(any(), any(), any(), any())).thenReturn(true);
 
         assertThatThrownBy(() -> reservationService.createReservation(request))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("already reserved");
     }
 
+    @Test
+    void whenCreateReservationLosesRaceWithAnotherInstance_thenRetryRejectsOverlap() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.of(charger));
+        when(pricingService.quote(charger, startTime, endTime, 30.0)).thenReturn(QUOTE);
+        when(reservationRepository.existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(any(), any(), any(), any()))
+                .thenReturn(false, true);
+        when(reservationRepository.save(any(Reservation.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Charger.class, 1L));
+
+        assertThatThrownBy(() -> reservationService.createReservation(request))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("already reserved");
+
+        verify(reservationRepository, times(1)).save(any(Reservation.class));
+    }
+
+    @Test
+    void whenCreateReservationKeepsConflicting_thenGiveUpAfterMaxAttempts() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client));
+        when(chargerRepository.findForBooking(1L)).thenReturn(Optional.of(charger));
+        when(pricingService.quote(charger, startTime, endTime, 30.0)).thenReturn(QUOTE);
+        when(reservationRepository.save(any(Reservation.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Charger.class, 1L));
+
+        assertThatThrownBy(() -> reservationService.createReservation(request))
+                .isInstanceOf(RuntimeException.class)
+                .isNotInstanceOf(OptimisticLockingFailureException.class)
+                .hasMessageContaining("busy");
+
+        verify(reservationRepository, times(ReservationService.MAX_BOOKING_ATTEMPTS)).save(any(Reservation.class));
+    }
+
+    private ReservationRequest bulkItem(Long chargerId, LocalDateTime from, LocalDateTime to) {
+        ReservationRequest item = new ReservationRequest();
+        item.setClientId(1L);
+        item.setChargerId(chargerId);
+        item.setStartTime(from);
+        item.setEstimatedEndTime(to);
+        return item;
+    }
+
+    @Test
+    void whenCreateReservationsBestEffort_thenBookFreeSlotsAndReportConflicts() {
+        Charger other = Charger.builder().id(2L).status(ChargerStatus.AVAILABLE).station(station).build();
+        when(clientRepository.findAllById(any())).thenReturn(List.of(client));
+        when(chargerRepository.findAllForBooking(any())).thenReturn(List.of(charger, other));
+        when(reservationRepository.findIntervalsForChargersBetween(any(), any(), any())).thenReturn(List.of(
+                new ReservationInterval(7L, 2L, startTime, endTime)));
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Reservation> batch = invocation.getArgument(0);
+            long id = 100L;
+            for (Reservation r : batch) {
+                r.setId(id++);
+            }
+            return batch;
+        });
+
+        BulkReservationResponse response = reservationService.createReservations(List.of(
+                bulkItem(1L, startTime, endTime),
+                bulkItem(1L, startTime.plusHours(1), endTime.plusHours(1)),
+                bulkItem(2L, startTime.plusHours(1), endTime.plusHours(1)),
+                bulkItem(1L, endTime, endTime.plusHours(1)),
+                bulkItem(9L, startTime, endTime)
+        ), BulkReservationMode.BEST_EFFORT);
+
+        assertThat(response.getRequested()).isEqualTo(5);
+        assertThat(response.getBooked()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BulkReservationItemResult::isBooked)
+                .containsExactly(true, false, false, true, false);
+        assertThat(response.getResults()).extracting(BulkReservationItemResult::getReservationId)
+                .containsExactly(100L, null, null, 101L, null);
+        assertThat(response.getResults().get(1).getError()).contains("already reserved");
+        assertThat(response.getResults().get(2).getError()).contains("already reserved");
+        assertThat(response.getResults().get(4).getError()).isEqualTo("Charger not found");
+
+        // One lookup per kind regardless of batch size
+        verify(clientRepository, never()).findById(any());
+        verify(chargerRepository, never()).findForBooking(any());
+        verify(reservationRepository, never()).existsByChargerIdAndStatusAndEstimatedEndTimeAfterAndStartTimeBefore(any(), any(), any(), any());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void whenCreateReservationsAllOrNothingHasConflict_thenBookNothing() {
+        TransactionStatus txStatus = new SimpleTransactionStatus();
+        when(transactionTemplate.getTransactionManager().getTransaction(any())).thenReturn(txStatus);
+        Charger maintenance = Charger.builder().id(2L).status(ChargerStatus.UNDER_MAINTENANCE).build();
+        when(clientRepository.findAllById(any())).thenReturn(List.of(client));
+        when(chargerRepository.findAllForBooking(any())).thenReturn(List.of(charger, maintenance));
+
+        BulkReservationResponse response = reservationService.createReservations(List.of(
+                bulkItem(1L, startTime, endTime),
+                bulkItem(2L, startTime, endTime)
+        ), BulkReservationMode.ALL_OR_NOTHING);
+
+        assertThat(response.getBooked()).isZero();
+        assertThat(response.getResults()).noneMatch(BulkReservationItemResult::isBooked);
+        assertThat(response.getResults().get(0).getError()).startsWith("Not booked");
+        assertThat(response.getResults().get(1).getError()).contains("maintenance");
+        assertThat(txStatus.isRollbackOnly()).isTrue();
+        verify(reservationRepository).saveAll(List.of());
+    }
+
+    @Test
+    void whenCreateReservationsWithEmptyBatch_thenThrowException() {
+        List<ReservationRequest> none = List.of();
+        assertThatThrownBy(() -> reservationService.createReservations(none, BulkReservationMode.BEST_EFFORT))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(reservationRepository);
+    }
+
     @Test
     void whenGetReservationsByClientId_thenReturnListOfReservationResponses() {
         when(reservationRepository.findByUserId(1L)).thenReturn(Arrays.asList(reservation));
@@ -344,4 +522,40 @@ class ReservationServiceTest {
         verify(reservationRepository, times(1)).findById(1L);
         verify(reservationRepository, never()).save(any());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Reservation summary counts every status and returns one page")
+    void whenGetReservationSummary_thenCountsAndFirstPage() {
+        Reservation second = Reservation.builder().id(2L).user(client).charger(charger)
+                .status(ReservationStatus.COMPLETED).build();
+        Reservation third = Reservation.builder().id(3L).user(client).charger(charger)
+                .status(ReservationStatus.COMPLETED).build();
+        when(clientRepository.existsById(1L)).thenReturn(true);
+        when(reservationRepository.countByStatusForUser(1L)).thenReturn(List.of(
+                new ReservationStatusCount(ReservationStatus.ACTIVE, 1L),
+                new ReservationStatusCount(ReservationStatus.COMPLETED, 2L)));
+        when(reservationRepository.findPageByUserIdAfter(1L, 0L, Limit.of(3)))
+                .thenReturn(List.of(reservation, second, third));
+
+        ReservationSummaryDTO summary = reservationService.getReservationSummary(1L, null, 2);
+
+        assertThat(summary.getTotal()).isEqualTo(3);
+        assertThat(summary.getCountsByStatus())
+                .containsEntry(ReservationStatus.ACTIVE, 1L)
+                .containsEntry(ReservationStatus.COMPLETED, 2L);
+        assertThat(summary.getItems()).extracting(ReservationResponse::getId).containsExactly(1L, 2L);
+        assertThat(summary.getNextCursor()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Reservation summary of an unknown client")
+    void whenGetReservationSummaryForUnknownClient_thenThrowException() {
+        when(clientRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> reservationService.getReservationSummary(99L, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Client not found");
+
+        verify(reservationRepository, never()).findPageByUserIdAfter(any(), anyLong(), any());
+    }
+}
@@ -0,0 +1,117 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+
+import tqs.backend.dto.StationDetailsDTO;
+import tqs.backend.event.ChargerChangedEvent;
+import tqs.backend.event.ReservationChangedEvent;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Reservation;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ReservationStatus;
+import tqs.backend.repository.ReservationRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StationAvailabilityCacheTest {
+
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2030, 1, 7, 10, 15);
+
+    private StationAvailabilityCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        cache = new StationAvailabilityCache();
+        loads = new AtomicInteger();
+    }
+
+    private StationDetailsDTO load() {
+        loads.incrementAndGet();
+        return new StationDetailsDTO();
+    }
+
+    @Test
+    void bucketStart_TruncatesToQuarterHour() {
+        assertThat(StationAvailabilityCache.bucketStart(LocalDateTime.of(2030, 1, 7, 10, 29, 59)))
+                .isEqualTo(BUCKET);
+        assertThat(StationAvailabilityCache.bucketStart(LocalDateTime.of(2030, 1, 7, 10, 30)))
+                .isEqualTo(LocalDateTime.of(2030, 1, 7, 10, 30));
+    }
+
+    @Test
+    void get_NullResultIsNotCached() {
+        cache.get(1L, BUCKET, () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        cache.get(1L, BUCKET, this::load);
+        cache.get(1L, BUCKET, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reservationChange_EvictsOnlyItsStation() {
+        cache.get(1L, BUCKET, this::load);
+        cache.get(2L, BUCKET, this::load);
+
+        Station station = Station.builder().id(1L).build();
+        Reservation reservation = Reservation.builder().charger(Charger.builder().id(5L).station(station).build()).build();
+        cache.onReservationChanged(new ReservationChangedEvent(reservation, false));
+
+        cache.get(1L, BUCKET, this::load);
+        cache.get(2L, BUCKET, this::load);
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void chargerChange_EvictsItsStation() {
+        cache.get(1L, BUCKET, this::load);
+
+        Charger charger = Charger.builder().id(5L).station(Station.builder().id(1L).build()).build();
+        cache.onChargerChanged(new ChargerChangedEvent(charger, true));
+        cache.get(1L, BUCKET, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void reservationChange_ReachesTheIndexBeforeTheStationIsEvicted() {
+        Station station = Station.builder().id(1L).build();
+        Reservation reservation = Reservation.builder().id(5L).status(ReservationStatus.ACTIVE)
+                .charger(Charger.builder().id(10L).station(station).build())
+                .startTime(BUCKET).estimatedEndTime(BUCKET.plusHours(1)).build();
+        ReservationIntervalIndex index = new ReservationIntervalIndex(mock(ReservationRepository.class));
+        List<Boolean> indexedAtEviction = new ArrayList<>();
+        LocalDateTime during = BUCKET.plusMinutes(30);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(TransactionalEventListenerFactory.class);
+            // Registered first, so only the listener order puts the index ahead
+            context.registerBean(StationAvailabilityCache.class, () -> new StationAvailabilityCache() {
+                @Override
+                public void evictStation(Long stationId) {
+                    indexedAtEviction.add(index.isBusyAt(10L, during));
+                    super.evictStation(stationId);
+                }
+            });
+            context.registerBean(ReservationIntervalIndex.class, () -> index);
+            context.refresh();
+
+            context.publishEvent(new ReservationChangedEvent(reservation, false));
+        }
+
+        assertThat(indexedAtEviction).containsExactly(true);
+    }
+}
@@ -0,0 +1,193 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tqs.backend.dto.StationDTO;
+import tqs.backend.event.StationChangedEvent;
+import tqs.backend.model.Station;
+import tqs.backend.repository.StationRepository;
+import tqs.backend.util.GeoUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+class StationDistanceMatrixTest {
+
+    private final StationRepository stationRepository = mock(StationRepository.class);
+    private final List<StationDTO> stations = new ArrayList<>();
+
+    private void station(long id, double lat, double lng) {
+        stations.add(new StationDTO(id, "S" + id, "City", lat, lng));
+    }
+
+    private StationDistanceMatrix matrix(double radiusKm, Path file) {
+        when(stationRepository.findAllSummaries()).thenReturn(stations);
+        return new StationDistanceMatrix(stationRepository, Runnable::run, radiusKm, file != null ? file.toString() : "", "");
+    }
+
+    private static StationChangedEvent changed(long id, double lat, double lng, boolean removed) {
+        return new StationChangedEvent(Station.builder().id(id).latitude(lat).longitude(lng).build(), removed);
+    }
+
+    @Test
+    void whenBuilt_thenEveryPairWithinRadiusIsListedClosestFirst() {
+        Random random = new Random(7);
+        for (long id = 1; id <= 300; id++) {
+            station(id, 40.0 + random.nextDouble(), -8.5 + random.nextDouble());
+        }
+        StationDistanceMatrix matrix = matrix(20, null);
+        matrix.start();
+
+        assertThat(matrix.isReady()).isTrue();
+        for (StationDTO from : stations) {
+            StationDistanceMatrix.Row row = matrix.neighbours(from.getId());
+            long expected = stations.stream()
+                    .filter(to -> !to.getId().equals(from.getId()))
+                    .filter(to -> GeoUtils.haversineKm(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude()) <= 20)
+                    .count();
+            assertThat(row.size()).isEqualTo(expected);
+            for (int i = 1; i < row.size(); i++) {
+                assertThat(row.distanceKm(i)).isGreaterThanOrEqualTo(row.distanceKm(i - 1));
+            }
+        }
+        long neighbour = matrix.neighbours(1).stationId(0);
+        assertThat(matrix.distanceKm(neighbour, 1)).isEqualTo(matrix.distanceKm(1, neighbour));
+    }
+
+    @Test
+    void whenStationCreatedOrDeleted_thenOnlyNeighbourRowsChange() {
+        station(1, 40.00, -8.00);
+        station(2, 40.10, -8.00);
+        station(3, 41.00, -8.00);
+        StationDistanceMatrix matrix = matrix(25, null);
+        matrix.load();
+        StationDistanceMatrix.Row farRow = matrix.neighbours(3);
+
+        matrix.onStationChanged(changed(4, 40.05, -8.00, false));
+
+        assertThat(matrix.neighbours(4).size()).isEqualTo(2);
+        assertThat(matrix.neighbours(1).stationId(0)).isEqualTo(4);
+        assertThat(matrix.distanceKm(2, 4)).isCloseTo(5.56, within(0.01));
+        assertThat(matrix.neighbours(3)).isSameAs(farRow);
+
+        matrix.onStationChanged(changed(1, 40.00, -8.00, true));
+
+        assertThat(matrix.neighbours(1)).isNull();
+        assertThat(matrix.neighbours(4).size()).isEqualTo(1);
+        assertThat(matrix.distanceKm(2, 1)).isNaN();
+    }
+
+    @Test
+    void whenStationMoves_thenItsDistancesAreRecomputed() {
+        station(1, 40.00, -8.00);
+        station(2, 40.10, -8.00);
+        StationDistanceMatrix matrix = matrix(25, null);
+        matrix.load();
+
+        matrix.onStationChanged(changed(2, 40.20, -8.00, false));
+
+        assertThat(matrix.distanceKm(1, 2)).isCloseTo(22.24, within(0.01));
+        assertThat(matrix.neighbours(1).size()).isEqualTo(1);
+    }
+
+    @Test
+    void whenStationsAddedOneByOne_thenRowsMatchTheFullBuild() {
+        // Clusters across the antimeridian and near the pole as well as in the middle
+        Random random = new Random(11);
+        List<StationDTO> added = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            double lat = id % 3 == 0 ? 79.8 + random.nextDouble() * 0.4 : 40.0 + random.nextDouble() * 0.5;
+            double lng = id % 3 == 1 ? 179.8 + random.nextDouble() * 0.4 : -8.5 + random.nextDouble() * 0.5;
+            added.add(new StationDTO(id, "S" + id, "City", lat, lng > 180 ? lng - 360 : lng));
+        }
+        StationDistanceMatrix matrix = matrix(15, null);
+        matrix.load();
+
+        for (StationDTO station : added) {
+            matrix.onStationChanged(changed(station.getId(), station.getLatitude(), station.getLongitude(), false));
+        }
+
+        StationDistanceMatrix.Snapshot built = StationDistanceMatrix.build(added, 15);
+        for (StationDTO station : added) {
+            StationDistanceMatrix.Row row = matrix.neighbours(station.getId());
+            StationDistanceMatrix.Row expected = built.rows().get(station.getId());
+            assertThat(row.size()).as("neighbours of %d", station.getId()).isEqualTo(expected.size());
+        }
+    }
+
+    @Test
+    void relativeFile_IsResolvedAgainstDataDirectory(@TempDir Path dir) {
+        assertThat(StationDistanceMatrix.resolveFile("distances.bin", dir.toString())).isEqualTo(dir.resolve("distances.bin"));
+        assertThat(StationDistanceMatrix.resolveFile(dir.resolve("elsewhere.bin").toString(), "/unused"))
+                .isEqualTo(dir.resolve("elsewhere.bin"));
+        assertThat(StationDistanceMatrix.resolveFile("distances.bin", ""))
+                .isEqualTo(Path.of(System.getProperty("user.home"), ".nikcharge", "distances.bin").toAbsolutePath());
+        assertThat(StationDistanceMatrix.resolveFile("", dir.toString())).isNull();
+    }
+
+    @Test
+    void whenChangedBeforeBuild_thenChangeIsAppliedAfterIt() {
+        station(1, 40.00, -8.00);
+        StationDistanceMatrix matrix = matrix(25, null);
+
+        matrix.onStationChanged(changed(2, 40.10, -8.00, false));
+        assertThat(matrix.isReady()).isFalse();
+        assertThat(matrix.neighbours(2)).isNull();
+
+        matrix.load();
+
+        assertThat(matrix.distanceKm(1, 2)).isCloseTo(11.12, within(0.01));
+    }
+
+    @Test
+    void whenFileSaved_thenRestartLoadsItAndPatchesChanges(@TempDir Path dir) {
+        Path file = dir.resolve("distances.bin");
+        for (long id = 1; id <= 50; id++) {
+            station(id, 40.0 + id * 0.01, -8.0);
+        }
+        StationDistanceMatrix first = matrix(5, file);
+        first.load();
+        assertThat(file).exists();
+        assertThat(StationDistanceMatrix.read(file, 5).points()).hasSize(50);
+
+        // One station moved and one removed while the application was down
+        stations.set(0, new StationDTO(1L, "S1", "City", 40.3, -8.0));
+        stations.remove(49);
+        StationDistanceMatrix restarted = matrix(5, file);
+        restarted.load();
+
+        StationDistanceMatrix rebuilt = matrix(5, null);
+        rebuilt.load();
+        assertThat(restarted.size()).isEqualTo(49);
+        for (StationDTO station : stations) {
+            StationDistanceMatrix.Row expected = rebuilt.neighbours(station.getId());
+            StationDistanceMatrix.Row actual = restarted.neighbours(station.getId());
+            assertThat(actual.size()).isEqualTo(expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertThat(actual.distanceKm(i)).isEqualTo(expected.distanceKm(i));
+            }
+        }
+        assertThat(restarted.distanceKm(1, 30)).isCloseTo(0, within(0.01));
+    }
+
+    @Test
+    void whenFileWasBuiltForAnotherRadius_thenIgnored(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("distances.bin");
+        station(1, 40.00, -8.00);
+        station(2, 40.10, -8.00);
+        matrix(25, file).load();
+
+        assertThat(StationDistanceMatrix.read(file, 10)).isNull();
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThat(StationDistanceMatrix.read(file, 25)).isNull();
+    }
+}
@@ -2,8 +2,14 @@ package tqs.backend.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import tqs.backend.dto.ChargerDTO;
+import tqs.backend.dto.ChargerResponse;
+import tqs.backend.dto.NearbyStationDTO;
+import tqs.backend.dto.StationAvailabilityDTO;
+import tqs.backend.dto.StationAvailabilityRequest;
 import tqs.backend.dto.StationDetailsDTO;
 import tqs.backend.dto.StationRequest;
+import tqs.backend.dto.StationResponse;
 import tqs.backend.model.Charger;
 import tqs.backend.model.Discount;
 import tqs.backend.model.Station;
@@ -14,12 +20,19 @@ import tqs.backend.repository.DiscountRepository;
 import tqs.backend.repository.StationRepository;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import tqs.backend.repository.ReservationRepository;
 import java.time.LocalDateTime;
@@ -31,6 +44,13 @@ class StationServiceTest {
     private DiscountRepository discountRepository;
     private StationService stationService;
     private ReservationRepository reservationRepository;
+    private ReservationIntervalIndex reservationIndex;
+    private StationAvailabilityCache availabilityCache;
+    private StationSpatialIndex spatialIndex;
+    private CatalogCache catalogCache;
+    private DiscountMatrix discountMatrix;
+    private ChargerStatusCounters statusCounters;
+    private StationDistanceMatrix distanceMatrix;
 
     @BeforeEach
     void setup() {
@@ -38,44 +58,74 @@ class StationServiceTest {
         chargerRepository = mock(ChargerRepository.class);
         discountRepository = mock(DiscountRepository.class);
         reservationRepository = mock(ReservationRepository.class); // NOVO
+        reservationIndex = mock(ReservationIntervalIndex.class);
+        availabilityCache = new StationAvailabilityCache();
+        spatialIndex = mock(StationSpatialIndex.class);
+        catalogCache = new CatalogCache(100);
+        discountMatrix = new DiscountMatrix(discountRepository);
+        statusCounters = mock(ChargerStatusCounters.class);
+        distanceMatrix = mock(StationDistanceMatrix.class);
 
         stationService = new StationService(
-                stationRepository, chargerRepository, discountRepository, reservationRepository
+                stationRepository, chargerRepository, discountRepository, reservationRepository, reservationIndex,
+                availabilityCache, spatialIndex, catalogCache, discountMatrix, statusCounters, distanceMatrix
         );
     }
 
 
     @Test
     void getAllStations_ReturnsList() {
-        var station = Station.builder().id(1L).name("S1").build();
-        when(stationRepository.findAll()).thenReturn(List.of(station));
+        var charger = Charger.builder().id(5L).chargerType(ChargerType.DC_FAST).status(ChargerStatus.AVAILABLE).build();
+        var station = Station.builder().id(1L).name("S1").chargers(List.of(charger)).build();
+        when(stationRepository.findAllWithChargers()).thenReturn(List.of(station));
 
-        List<Station> result = stationService.getAllStations();
+        List<StationResponse> result = stationService.getAllStations();
 
-        assertThat(result).hasSize(1).contains(station);
-        verify(stationRepository).findAll();
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).name()).isEqualTo("S1");
+        assertThat(result.get(0).chargers()).extracting(ChargerResponse::id).containsExactly(5L);
+        verify(stationRepository).findAllWithChargers();
     }
 
     @Test
     void getStationById_Found() {
         var station = Station.builder().id(2L).name("S2").build();
-        when(stationRepository.findById(2L)).thenReturn(Optional.of(station));
+        when(stationRepository.findWithChargersById(2L)).thenReturn(Optional.of(station));
 
-        Station result = stationService.getStationById(2L);
+        StationResponse result = stationService.getStationById(2L);
 
-        assertThat(result).isEqualTo(station);
-        verify(stationRepository).findById(2L);
+        assertThat(result.id()).isEqualTo(2L);
+        assertThat(result.name()).isEqualTo("S2");
+        assertThat(result.chargers()).isEmpty();
+        verify(stationRepository).findWithChargersById(2L);
     }
 
     @Test
     void getStationById_NotFound() {
-        when(stationRepository.findById(3L)).thenReturn(Optional.empty());
+        when(stationRepository.findWithChargersById(3L)).thenReturn(Optional.empty());
 
-        Station result = stationService.getStationById(3L);
+        StationResponse result = stationService.getStationById(3L);
 
         assertThat(result).isNull();
     }
 
+    @Test
+    void getStationById_CachesCopyNotEntity() {
+        var charger = Charger.builder().id(7L).status(ChargerStatus.AVAILABLE).build();
+        var station = Station.builder().id(4L).name("Before").chargers(new ArrayList<>(List.of(charger))).build();
+        when(stationRepository.findWithChargersById(4L)).thenReturn(Optional.of(station));
+
+        stationService.getStationById(4L);
+        station.setName("After");
+        charger.setStatus(ChargerStatus.IN_USE);
+        station.getChargers().clear();
+        StationResponse cached = stationService.getStationById(4L);
+
+        assertThat(cached.name()).isEqualTo("Before");
+        assertThat(cached.chargers()).extracting(ChargerResponse::status).containsExactly(ChargerStatus.AVAILABLE);
+        verify(stationRepository, times(1)).findWithChargersById(4L);
+    }
+
     @Test
     void createStationFromRequest_Success() {
         var req = new StationRequest("New", "Addr", "City", 40.0, -8.0);
@@ -105,19 +155,18 @@ class StationServiceTest {
 
     @Test
     void getStationDetails_ReturnsDetails() {
-        var station = Station.builder()
-                .id(5L).name("DetailStation").address("Addr").city("Porto").latitude(1.1).longitude(2.2)
-                .build();
+        var station = new StationDetailsDTO(5L, "DetailStation", "Addr", "Porto", 1.1, 2.2);
 
-        var charger = Charger.builder()
+        var charger = ChargerDTO.builder()
                 .id(100L)
                 .chargerType(ChargerType.DC_FAST)
                 .status(ChargerStatus.AVAILABLE)
                 .pricePerKwh(BigDecimal.valueOf(0.5)) // CORRIGIDO
+                .stationId(5L)
                 .build();
 
-        when(stationRepository.findById(5L)).thenReturn(Optional.of(station));
-        when(chargerRepository.findByStationId(5L)).thenReturn(List.of(charger));
+        when(stationRepository.findDetailsById(5L)).thenReturn(Optional.of(station));
+        when(chargerRepository.findDtosByStationId(5L)).thenReturn(List.of(charger));
 
         StationDetailsDTO dto = stationService.getStationDetails(5L, LocalDateTime.of(2025, 6, 6, 0, 0));
 
@@ -134,6 +183,7 @@ class StationServiceTest {
         stationService.deleteStation(8L);
 
         verify(stationRepository).deleteById(8L);
+        verify(statusCounters).removeStation(8L);
     }
 
     @Test
@@ -180,7 +230,12 @@ void searchStationsWithDiscount_ReturnsMappedStations() {
                 .build();
 
 
-        when(stationRepository.findAll()).thenReturn(List.of(discountedStation, noDiscountStation));
+        discountedStation.getChargers().forEach(c -> c.setStation(discountedStation));
+        noDiscountStation.getChargers().forEach(c -> c.setStation(noDiscountStation));
+        when(chargerRepository.findWithStationByChargerType(ChargerType.AC_STANDARD))
+                .thenReturn(List.of(discountedStation.getChargers().get(0), noDiscountStation.getChargers().get(0)));
+        when(reservationRepository.findBusyChargerIdsBetween(eq(ChargerType.AC_STANDARD), any(), any()))
+                .thenReturn(Set.of());
 
     var discount = Discount.builder()
             .station(discountedStation)
@@ -211,4 +266,347 @@ void searchStationsWithDiscount_ReturnsMappedStations() {
                              .doesNotContainKey("discountTag");
 }
     
+
+    @Test
+    void searchAvailableStations_ExcludesBusyAndMaintenanceChargers() {
+        var station = Station.builder().id(1L).name("S1").latitude(40.0).longitude(-8.0).build();
+        var free = Charger.builder().id(10L).station(station).chargerType(ChargerType.DC_FAST)
+                .status(ChargerStatus.AVAILABLE).build();
+        var busy = Charger.builder().id(11L).station(station).chargerType(ChargerType.DC_FAST)
+                .status(ChargerStatus.AVAILABLE).build();
+        var maintenance = Charger.builder().id(12L).station(station).chargerType(ChargerType.DC_FAST)
+                .status(ChargerStatus.UNDER_MAINTENANCE).build();
+        LocalDateTime datetime = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+        when(chargerRepository.findWithStationByTypeInArea(anySet(), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(List.of(free, busy, maintenance));
+        when(reservationRepository.findBusyChargerIdsAt(anySet(), eq(datetime))).thenReturn(Set.of(11L));
+
+        var request = StationAvailabilityRequest.builder()
+                .datetime(datetime)
+                .chargerTypes(Set.of(ChargerType.DC_FAST))
+                .build();
+
+        List<StationAvailabilityDTO> result = stationService.searchAvailableStations(request);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getAvailableChargers()).isEqualTo(1);
+        assertThat(result.get(0).getChargers()).extracting(ChargerDTO::getId).containsExactly(10L);
+        assertThat(result.get(0).getDiscountTag()).isNull();
+    }
+
+    @Test
+    void searchAvailableStations_UsesBestDiscountAndSortsByDistance() {
+        var near = Station.builder().id(1L).name("Near").latitude(40.01).longitude(-8.0).build();
+        var far = Station.builder().id(2L).name("Far").latitude(40.2).longitude(-8.0).build();
+        var outside = Station.builder().id(3L).name("Outside").latitude(41.5).longitude(-8.0).build();
+        LocalDateTime datetime = LocalDateTime.of(2030, 1, 7, 10, 0); // Monday
+
+        when(chargerRepository.findWithStationByTypeInArea(anySet(), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(List.of(
+                        Charger.builder().id(20L).station(far).chargerType(ChargerType.AC_STANDARD).status(ChargerStatus.AVAILABLE).build(),
+                        Charger.builder().id(21L).station(near).chargerType(ChargerType.AC_STANDARD).status(ChargerStatus.AVAILABLE).build(),
+                        Charger.builder().id(22L).station(outside).chargerType(ChargerType.AC_STANDARD).status(ChargerStatus.AVAILABLE).build()
+                ));
+        when(reservationRepository.findBusyChargerIdsAt(anySet(), eq(datetime))).thenReturn(Set.of());
+        when(discountRepository.findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerTypeIn(
+                eq(1), eq(10), eq(10), anySet()))
+                .thenReturn(List.of(
+                        Discount.builder().station(near).discountPercent(10.0).build(),
+                        Discount.builder().station(near).discountPercent(25.0).build()
+                ));
+
+        var request = StationAvailabilityRequest.builder()
+                .datetime(datetime)
+                .lat(40.0).lng(-8.0).radiusKm(50.0)
+                .build();
+
+        List<StationAvailabilityDTO> result = stationService.searchAvailableStations(request);
+
+        assertThat(result).extracting(StationAvailabilityDTO::getName).containsExactly("Near", "Far");
+        assertThat(result.get(0).getDiscountTag()).isEqualTo("25% off");
+        assertThat(result.get(1).getDiscountTag()).isNull();
+    }
+
+    @Test
+    void searchAvailableStations_AcrossTheAntimeridian_QueriesBothSides() {
+        var east = Station.builder().id(1L).name("East").latitude(-17.0).longitude(179.9).build();
+        var west = Station.builder().id(2L).name("West").latitude(-17.0).longitude(-179.9).build();
+        LocalDateTime datetime = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+        when(chargerRepository.findWithStationByTypeInArea(anySet(), anyDouble(), anyDouble(), anyDouble(), eq(180.0)))
+                .thenReturn(List.of(Charger.builder().id(30L).station(east).chargerType(ChargerType.AC_STANDARD)
+                        .status(ChargerStatus.AVAILABLE).build()));
+        when(chargerRepository.findWithStationByTypeInArea(anySet(), anyDouble(), anyDouble(), eq(-180.0), anyDouble()))
+                .thenReturn(List.of(Charger.builder().id(31L).station(west).chargerType(ChargerType.AC_STANDARD)
+                        .status(ChargerStatus.AVAILABLE).build()));
+        when(reservationRepository.findBusyChargerIdsAt(anySet(), eq(datetime))).thenReturn(Set.of());
+
+        var request = StationAvailabilityRequest.builder()
+                .datetime(datetime)
+                .lat(-17.0).lng(179.95).radiusKm(30.0)
+                .build();
+
+        List<StationAvailabilityDTO> result = stationService.searchAvailableStations(request);
+
+        assertThat(result).extracting(StationAvailabilityDTO::getName).containsExactly("East", "West");
+        verify(chargerRepository, times(2)).findWithStationByTypeInArea(anySet(), anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void searchAvailableStations_NonPositiveRadius_Throws() {
+        var request = StationAvailabilityRequest.builder().lat(40.0).lng(-8.0).radiusKm(0.0).build();
+
+        assertThatThrownBy(() -> stationService.searchAvailableStations(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Radius");
+    }
+
+    @Test
+    void searchStationsWithDiscount_UsesSingleBusyChargerQuery() {
+        var station = Station.builder().id(1L).name("S1").latitude(1.0).longitude(2.0).build();
+        var free = Charger.builder().id(1L).station(station).chargerType(ChargerType.DC_FAST).build();
+        var busy = Charger.builder().id(2L).station(station).chargerType(ChargerType.DC_FAST).build();
+        var fullyBooked = Station.builder().id(2L).name("S2").latitude(3.0).longitude(4.0).build();
+        var booked = Charger.builder().id(3L).station(fullyBooked).chargerType(ChargerType.DC_FAST).build();
+
+        when(chargerRepository.findWithStationByChargerType(ChargerType.DC_FAST)).thenReturn(List.of(free, busy, booked));
+        when(reservationRepository.findBusyChargerIdsBetween(eq(ChargerType.DC_FAST), any(), any()))
+                .thenReturn(Set.of(2L, 3L));
+
+        List<Map<String, Object>> result = stationService.searchStationsWithDiscount(3, 10, ChargerType.DC_FAST);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0)).containsEntry("id", 1L).containsEntry("availableChargers", 1);
+        verify(reservationRepository, times(1)).findBusyChargerIdsBetween(eq(ChargerType.DC_FAST), any(), any());
+        verify(stationRepository, never()).findAll();
+    }
+
+    @Test
+    void getStationDetails_UsesReservationIndexWhenReady() {
+        var station = new StationDetailsDTO(5L, "Indexed", null, null, 1.0, 2.0);
+        var free = ChargerDTO.builder().id(1L).stationId(5L).chargerType(ChargerType.DC_FAST).build();
+        var busy = ChargerDTO.builder().id(2L).stationId(5L).chargerType(ChargerType.DC_FAST).build();
+        LocalDateTime datetime = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+        when(stationRepository.findDetailsById(5L)).thenReturn(Optional.of(station));
+        when(chargerRepository.findDtosByStationId(5L)).thenReturn(List.of(free, busy));
+        when(reservationIndex.isReady()).thenReturn(true);
+        when(reservationIndex.overlappingChargerIds(List.of(1L, 2L), datetime, datetime.plusMinutes(15)))
+                .thenReturn(Set.of(2L));
+
+        StationDetailsDTO dto = stationService.getStationDetails(5L, datetime);
+
+        assertThat(dto.getChargers()).extracting(ChargerDTO::getId).containsExactly(1L);
+        verify(reservationRepository, never()).findBusyChargerIdsByStationBetween(any(), any(), any());
+    }
+
+    @Test
+    void getStationDetails_WithoutIndex_UsesStationScopedQuery() {
+        var station = new StationDetailsDTO(6L, "Scoped", null, null, 1.0, 2.0);
+        var free = ChargerDTO.builder().id(1L).stationId(6L).chargerType(ChargerType.AC_STANDARD).build();
+        var busy = ChargerDTO.builder().id(2L).stationId(6L).chargerType(ChargerType.AC_STANDARD).build();
+        LocalDateTime datetime = LocalDateTime.of(2030, 1, 7, 10, 7);
+        LocalDateTime bucket = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+        when(stationRepository.findDetailsById(6L)).thenReturn(Optional.of(station));
+        when(chargerRepository.findDtosByStationId(6L)).thenReturn(List.of(free, busy));
+        when(reservationRepository.findBusyChargerIdsByStationBetween(6L, bucket, bucket.plusMinutes(15)))
+                .thenReturn(Set.of(2L));
+
+        StationDetailsDTO dto = stationService.getStationDetails(6L, datetime);
+
+        assertThat(dto.getChargers()).extracting(ChargerDTO::getId).containsExactly(1L);
+        verify(reservationRepository).findBusyChargerIdsByStationBetween(6L, bucket, bucket.plusMinutes(15));
+    }
+
+    @Test
+    void getStationDetails_SameBucket_ServedFromSnapshot() {
+        var station = new StationDetailsDTO(7L, "Cached", null, null, 1.0, 2.0);
+        var charger = ChargerDTO.builder().id(1L).stationId(7L).chargerType(ChargerType.AC_STANDARD).build();
+
+        when(stationRepository.findDetailsById(7L)).thenReturn(Optional.of(station));
+        when(chargerRepository.findDtosByStationId(7L)).thenReturn(List.of(charger));
+        when(reservationRepository.findBusyChargerIdsByStationBetween(eq(7L), any(), any())).thenReturn(Set.of());
+
+        stationService.getStationDetails(7L, LocalDateTime.of(2030, 1, 7, 10, 1));
+        stationService.getStationDetails(7L, LocalDateTime.of(2030, 1, 7, 10, 14));
+        stationService.getStationDetails(7L, LocalDateTime.of(2030, 1, 7, 10, 15));
+
+        verify(stationRepository, times(2)).findDetailsById(7L);
+    }
+
+    @Test
+    void getStationDetails_AfterEviction_Reloads() {
+        var station = new StationDetailsDTO(8L, "Evicted", null, null, 1.0, 2.0);
+        LocalDateTime datetime = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+        when(stationRepository.findDetailsById(8L)).thenReturn(Optional.of(station));
+        when(chargerRepository.findDtosByStationId(8L)).thenReturn(List.of());
+
+        stationService.getStationDetails(8L, datetime);
+        availabilityCache.evictStation(8L);
+        stationService.getStationDetails(8L, datetime);
+
+        verify(stationRepository, times(2)).findDetailsById(8L);
+    }
+
+    @Test
+    void findNearbyStations_UsesSpatialIndexWhenReady() {
+        var nearby = NearbyStationDTO.builder().id(1L).distanceKm(0.4).build();
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.nearest(40.6, -8.6, 5, 10.0)).thenReturn(List.of(nearby));
+
+        assertThat(stationService.findNearbyStations(40.6, -8.6, 10.0, 5)).containsExactly(nearby);
+        verify(stationRepository, never()).findAll();
+    }
+
+    @Test
+    void findNearbyStations_WithoutIndex_RanksAllStations() {
+        var far = Station.builder().id(1L).name("Porto").latitude(41.15).longitude(-8.61).build();
+        var near = Station.builder().id(2L).name("Aveiro").latitude(40.64).longitude(-8.65).build();
+        var noCoords = Station.builder().id(3L).name("Unknown").build();
+        when(stationRepository.findAll()).thenReturn(List.of(far, near, noCoords));
+
+        List<NearbyStationDTO> result = stationService.findNearbyStations(40.63, -8.66, null, 5);
+
+        assertThat(result).extracting(NearbyStationDTO::getId).containsExactly(2L, 1L);
+        assertThat(stationService.findNearbyStations(40.63, -8.66, 10.0, 5))
+                .extracting(NearbyStationDTO::getId).containsExactly(2L);
+    }
+
+    @Test
+    void findNearbyStations_InvalidArguments_Throw() {
+        assertThatThrownBy(() -> stationService.findNearbyStations(91.0, 0.0, null, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stationService.findNearbyStations(0.0, 0.0, -1.0, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stationService.findNearbyStations(0.0, 0.0, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findNeighbourStations_UsesDistanceMatrixWhenRadiusFits() {
+        var origin = Station.builder().id(1L).latitude(40.64).longitude(-8.65).build();
+        var first = Station.builder().id(2L).name("Ilhavo").latitude(40.60).longitude(-8.67).build();
+        var second = Station.builder().id(3L).name("Ovar").latitude(40.86).longitude(-8.63).build();
+        when(stationRepository.findById(1L)).thenReturn(Optional.of(origin));
+        when(distanceMatrix.isReady()).thenReturn(true);
+        when(distanceMatrix.getRadiusKm()).thenReturn(25.0);
+        when(distanceMatrix.neighbours(1L)).thenReturn(new StationDistanceMatrix.Row(
+                new long[]{2L, 3L}, new float[]{4.8f, 24.5f}));
+        when(stationRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(second, first));
+        when(stationRepository.findAllById(List.of(2L))).thenReturn(List.of(first));
+
+        List<NearbyStationDTO> result = stationService.findNeighbourStations(1L, null, 5);
+
+        assertThat(result).extracting(NearbyStationDTO::getId).containsExactly(2L, 3L);
+        assertThat(result.get(0).getDistanceKm()).isCloseTo(4.8, within(0.001));
+        assertThat(stationService.findNeighbourStations(1L, 10.0, 5))
+                .extracting(NearbyStationDTO::getId).containsExactly(2L);
+        verify(spatialIndex, never()).nearest(anyDouble(), anyDouble(), anyInt(), any());
+    }
+
+    @Test
+    void findNeighbourStations_RadiusBeyondMatrix_FallsBackToSpatialIndex() {
+        var origin = Station.builder().id(1L).latitude(40.64).longitude(-8.65).build();
+        var self = NearbyStationDTO.builder().id(1L).distanceKm(0).build();
+        var other = NearbyStationDTO.builder().id(4L).distanceKm(60).build();
+        when(stationRepository.findById(1L)).thenReturn(Optional.of(origin));
+        when(distanceMatrix.isReady()).thenReturn(true);
+        when(distanceMatrix.getRadiusKm()).thenReturn(25.0);
+        when(spatialIndex.isReady()).thenReturn(true);
+        when(spatialIndex.nearest(40.64, -8.65, 6, 100.0)).thenReturn(List.of(self, other));
+
+        assertThat(stationService.findNeighbourStations(1L, 100.0, 5)).containsExactly(other);
+        verify(distanceMatrix, never()).neighbours(anyLong());
+    }
+
+    @Test
+    void findNeighbourStations_UnknownStation_Throws() {
+        when(stationRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> stationService.findNeighbourStations(9L, null, 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Station not found");
+    }
+
+    @Test
+    void getAllStations_SecondCallServedFromCatalogCache() {
+        when(stationRepository.findAllWithChargers()).thenReturn(List.of(Station.builder().id(1L).name("S1").build()));
+
+        stationService.getAllStations();
+        stationService.getAllStations();
+
+        verify(stationRepository, times(1)).findAllWithChargers();
+        assertThat(stationService.getCatalogCacheStats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void createStationFromRequest_InvalidatesStationList() {
+        when(stationRepository.findAllWithChargers()).thenReturn(List.of());
+        when(stationRepository.findByLatitudeAndLongitude(1.0, 2.0)).thenReturn(Optional.empty());
+        when(stationRepository.save(any(Station.class))).thenAnswer(inv -> {
+            Station saved = inv.getArgument(0);
+            saved.setId(11L);
+            return saved;
+        });
+
+        stationService.getAllStations();
+        stationService.createStationFromRequest(new StationRequest("New", "Rua", "Aveiro", 1.0, 2.0));
+        stationService.getAllStations();
+
+        verify(stationRepository, times(2)).findAllWithChargers();
+    }
+
+    @Test
+    void deleteStation_InvalidatesCachedStation() {
+        var station = Station.builder().id(12L).name("Gone").build();
+        when(stationRepository.findWithChargersById(12L)).thenReturn(Optional.of(station));
+        when(stationRepository.existsById(12L)).thenReturn(true);
+
+        stationService.getStationById(12L);
+        stationService.deleteStation(12L);
+        stationService.getStationById(12L);
+
+        verify(stationRepository, times(2)).findWithChargersById(12L);
+    }
+
+    @Test
+    void searchStationsWithDiscount_DuplicateDiscountsForStation_UsesHighest() {
+        var station = Station.builder().id(1L).name("Twice").latitude(40.0).longitude(-8.0).build();
+        when(chargerRepository.findWithStationByChargerType(ChargerType.DC_FAST))
+                .thenReturn(List.of(Charger.builder().id(1L).station(station).chargerType(ChargerType.DC_FAST).build()));
+        when(reservationRepository.findBusyChargerIdsBetween(eq(ChargerType.DC_FAST), any(), any())).thenReturn(Set.of());
+        when(discountRepository.findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerType(
+                2, 9, 9, ChargerType.DC_FAST))
+                .thenReturn(List.of(
+                        Discount.builder().station(station).discountPercent(10.0).build(),
+                        Discount.builder().station(station).discountPercent(30.0).build()
+                ));
+
+        List<Map<String, Object>> result = stationService.searchStationsWithDiscount(2, 9, ChargerType.DC_FAST);
+
+        assertThat(result).singleElement().satisfies(m -> assertThat(m).containsEntry("discountTag", "30% off"));
+    }
+
+    @Test
+    void searchStationsWithDiscount_MatrixReady_SkipsDiscountQuery() {
+        var station = Station.builder().id(1L).name("Matrix").latitude(40.0).longitude(-8.0).build();
+        when(discountRepository.findAll()).thenReturn(List.of(
+                Discount.builder().id(1L).station(station).chargerType(ChargerType.DC_FAST)
+                        .dayOfWeek(2).startHour(8).endHour(10).discountPercent(15.0).active(true).build()
+        ));
+        discountMatrix.rebuild();
+        when(chargerRepository.findWithStationByChargerType(ChargerType.DC_FAST))
+                .thenReturn(List.of(Charger.builder().id(1L).station(station).chargerType(ChargerType.DC_FAST).build()));
+        when(reservationRepository.findBusyChargerIdsBetween(eq(ChargerType.DC_FAST), any(), any())).thenReturn(Set.of());
+
+        List<Map<String, Object>> result = stationService.searchStationsWithDiscount(2, 9, ChargerType.DC_FAST);
+
+        assertThat(result).singleElement().satisfies(m -> assertThat(m).containsEntry("discountTag", "15% off"));
+        verify(discountRepository, never())
+                .findByActiveTrueAndDayOfWeekAndStartHourLessThanEqualAndEndHourGreaterThanEqualAndChargerType(
+                        anyInt(), anyInt(), anyInt(), any());
+    }
 }
@@ -0,0 +1,103 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tqs.backend.dto.NearbyStationDTO;
+import tqs.backend.event.StationChangedEvent;
+import tqs.backend.model.Station;
+import tqs.backend.repository.StationRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class StationSpatialIndexTest {
+
+    private StationRepository stationRepository;
+    private StationSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        stationRepository = mock(StationRepository.class);
+        when(stationRepository.findAll()).thenReturn(List.of(
+                station(1L, 40.640, -8.650),   // Aveiro
+                station(2L, 41.150, -8.610),   // Porto
+                station(3L, 38.722, -9.139),   // Lisboa
+                station(4L, 37.019, -7.930)    // Faro
+        ));
+        index = new StationSpatialIndex(stationRepository);
+        index.rebuild();
+    }
+
+    private Station station(long id, double lat, double lng) {
+        return Station.builder().id(id).name("S" + id).latitude(lat).longitude(lng).build();
+    }
+
+    @Test
+    void rebuild_LoadsAllStations() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void withinRadius_ReturnsClosestFirst() {
+        List<NearbyStationDTO> result = index.withinRadius(40.633, -8.660, 80, 10);
+
+        assertThat(result).extracting(NearbyStationDTO::getId).containsExactly(1L, 2L);
+        assertThat(result.get(0).getDistanceKm()).isLessThan(2.0);
+    }
+
+    @Test
+    void nearest_ExpandsUntilKStationsFound() {
+        assertThat(index.nearest(40.633, -8.660, 3, null))
+                .extracting(NearbyStationDTO::getId).containsExactly(1L, 2L, 3L);
+        assertThat(index.nearest(40.633, -8.660, 10, null)).hasSize(4);
+        assertThat(index.nearest(40.633, -8.660, 3, 10.0))
+                .extracting(NearbyStationDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void nearest_MatchesBruteForceRanking() {
+        double lat = 39.5;
+        double lng = -8.0;
+        List<Long> expected = index.withinRadius(lat, lng, 20000, 4).stream().map(NearbyStationDTO::getId).toList();
+
+        assertThat(index.nearest(lat, lng, 4, null)).extracting(NearbyStationDTO::getId).isEqualTo(expected);
+    }
+
+    @Test
+    void withinRadius_WrapsAroundAntimeridian() {
+        index.upsert(station(10L, -16.50, 179.90));
+        index.upsert(station(11L, -16.50, -179.90));
+
+        assertThat(index.withinRadius(-16.50, 179.99, 50, 10))
+                .extracting(NearbyStationDTO::getId).containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    @Test
+    void withinRadius_CoversPoles() {
+        index.upsert(station(12L, 89.90, 10.0));
+        index.upsert(station(13L, 89.90, -170.0));
+
+        assertThat(index.withinRadius(89.95, 100.0, 50, 10))
+                .extracting(NearbyStationDTO::getId).containsExactlyInAnyOrder(12L, 13L);
+    }
+
+    @Test
+    void stationEvents_KeepIndexInSync() {
+        index.onStationChanged(new StationChangedEvent(station(1L, 37.02, -7.93), false));
+        assertThat(index.nearest(40.633, -8.660, 1, null)).extracting(NearbyStationDTO::getId).containsExactly(2L);
+
+        index.onStationChanged(new StationChangedEvent(station(2L, 41.150, -8.610), true));
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.nearest(40.633, -8.660, 1, null)).extracting(NearbyStationDTO::getId).containsExactly(3L);
+    }
+
+    @Test
+    void upsert_IgnoresStationsWithoutCoordinates() {
+        index.upsert(Station.builder().id(20L).name("No coords").build());
+
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,206 @@
+package tqs.backend.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.checkout.SessionCreateParams;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import tqs.backend.dto.PaymentSession;
+import tqs.backend.exception.PaymentGatewayUnavailableException;
+import tqs.backend.util.CircuitBreaker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class StripePaymentGatewayTest {
+
+    private StripeClient stripeClient;
+    private StripePaymentGateway gateway;
+    private Session session;
+
+    @BeforeEach
+    void setup() {
+        stripeClient = mock(StripeClient.class);
+        session = new Session();
+        session.setId("cs_test_1");
+        session.setPaymentStatus("paid");
+        session.setMetadata(Map.of("reservationId", "7"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            gateway.shutdown();
+        }
+    }
+
+    private StripePaymentGateway gateway(int maxConcurrent, int maxQueued, long timeoutMs, int maxAttempts, int failureThreshold) {
+        gateway = new StripePaymentGateway(stripeClient, maxConcurrent, maxQueued, 1000, 3000, timeoutMs,
+                maxAttempts, 5, 20, new CircuitBreaker(failureThreshold, 60_000));
+        return gateway;
+    }
+
+    private static SessionCreateParams params() {
+        return SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl("http://localhost/success")
+                .setCancelUrl("http://localhost/cancel")
+                .build();
+    }
+
+    @Test
+    void whenStripeAnswers_thenSessionIsMapped() throws Exception {
+        when(stripeClient.retrieveCheckoutSession(eq("cs_test_1"), any())).thenReturn(session);
+
+        PaymentSession result = gateway(2, 2, 5000, 3, 5).retrieveCheckoutSession("cs_test_1").get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getId()).isEqualTo("cs_test_1");
+        assertThat(result.getPaymentStatus()).isEqualTo("paid");
+        assertThat(result.getMetadata()).containsEntry("reservationId", "7");
+    }
+
+    @Test
+    void whenCreateFailsTransiently_thenRetryWithSameIdempotencyKey() throws Exception {
+        when(stripeClient.createCheckoutSession(any(), any()))
+                .thenThrow(new ApiConnectionException("connection reset"))
+                .thenThrow(new RateLimitException("slow down", null, "req_1", "rate_limit", 429, null))
+                .thenReturn(session);
+
+        PaymentSession result = gateway(2, 2, 5000, 3, 5).createCheckoutSession(params()).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.getId()).isEqualTo("cs_test_1");
+        ArgumentCaptor<RequestOptions> options = ArgumentCaptor.forClass(RequestOptions.class);
+        verify(stripeClient, times(3)).createCheckoutSession(any(), options.capture());
+        List<RequestOptions> attempts = options.getAllValues();
+        assertThat(attempts.get(0).getIdempotencyKey()).isNotBlank();
+        assertThat(attempts).extracting(RequestOptions::getIdempotencyKey).containsOnly(attempts.get(0).getIdempotencyKey());
+        assertThat(attempts.get(0).getConnectTimeout()).isEqualTo(1000);
+        assertThat(attempts.get(0).getReadTimeout()).isEqualTo(3000);
+        assertThat(attempts.get(0).getMaxNetworkRetries()).isZero();
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void whenStripeRejectsRequest_thenFailWithoutRetry() throws Exception {
+        InvalidRequestException invalid = new InvalidRequestException("No such session", "id", "req_2", "resource_missing", 404, null);
+        when(stripeClient.retrieveCheckoutSession(any(), any())).thenThrow(invalid);
+
+        CompletableFuture<PaymentSession> result = gateway(2, 2, 5000, 3, 1).retrieveCheckoutSession("cs_missing");
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(invalid);
+        verify(stripeClient, times(1)).retrieveCheckoutSession(any(), any());
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void whenRetriesAreExhausted_thenFailWithLastError() throws Exception {
+        ApiException serverError = new ApiException("Stripe is down", "req_3", "api_error", 503, null);
+        when(stripeClient.retrieveCheckoutSession(any(), any())).thenThrow(serverError);
+
+        CompletableFuture<PaymentSession> result = gateway(2, 2, 5000, 2, 5).retrieveCheckoutSession("cs_test_1");
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(serverError);
+        verify(stripeClient, times(2)).retrieveCheckoutSession(any(), any());
+    }
+
+    @Test
+    void whenFailuresReachThreshold_thenBreakerRefusesCalls() throws Exception {
+        when(stripeClient.retrieveCheckoutSession(any(), any())).thenThrow(new ApiConnectionException("timed out"));
+        gateway(2, 2, 5000, 1, 2);
+
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<PaymentSession> failed = gateway.retrieveCheckoutSession("cs_test_1");
+            assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ApiConnectionException.class);
+        }
+        CompletableFuture<PaymentSession> refused = gateway.retrieveCheckoutSession("cs_test_1");
+
+        assertThatThrownBy(() -> refused.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(PaymentGatewayUnavailableException.class);
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        verify(stripeClient, times(2)).retrieveCheckoutSession(any(), any());
+    }
+
+    @Test
+    void whenPoolAndQueueAreFull_thenRefuseStraightAway() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(stripeClient.retrieveCheckoutSession(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return session;
+        });
+        gateway(1, 1, 5000, 1, 5);
+
+        CompletableFuture<PaymentSession> running = gateway.retrieveCheckoutSession("cs_test_1");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<PaymentSession> queued = gateway.retrieveCheckoutSession("cs_test_1");
+        CompletableFuture<PaymentSession> refused = gateway.retrieveCheckoutSession("cs_test_1");
+
+        assertThatThrownBy(() -> refused.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(PaymentGatewayUnavailableException.class);
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).getId()).isEqualTo("cs_test_1");
+        assertThat(queued.get(5, TimeUnit.SECONDS).getId()).isEqualTo("cs_test_1");
+    }
+
+    @Test
+    void whenStripeIsTooSlow_thenTimeOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch returned = new CountDownLatch(1);
+        when(stripeClient.retrieveCheckoutSession(any(), any())).thenAnswer(invocation -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                return session;
+            } finally {
+                returned.countDown();
+            }
+        });
+
+        CompletableFuture<PaymentSession> result = gateway(1, 1, 100, 1, 5).retrieveCheckoutSession("cs_test_1");
+
+        try {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TimeoutException.class);
+        } finally {
+            // Let the stub return before tearDown shuts the workers down, which would interrupt it mid-wait
+            release.countDown();
+            assertThat(returned.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void retryableErrors_AreNetworkRateLimitAndServerErrors() {
+        assertThat(StripePaymentGateway.isRetryable(new ApiConnectionException("reset"))).isTrue();
+        assertThat(StripePaymentGateway.isRetryable(new RateLimitException("slow", null, null, null, 429, null))).isTrue();
+        assertThat(StripePaymentGateway.isRetryable(new ApiException("down", null, null, 502, null))).isTrue();
+        assertThat(StripePaymentGateway.isRetryable(new InvalidRequestException("bad", null, null, null, 400, null))).isFalse();
+    }
+
+    @Test
+    void backoff_StaysWithinExponentialCeiling() {
+        gateway(1, 1, 1000, 3, 5);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(gateway.backoff(1)).isBetween(0L, 5L);
+            assertThat(gateway.backoff(2)).isBetween(0L, 10L);
+            assertThat(gateway.backoff(10)).isBetween(0L, 20L);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import tqs.backend.dto.MeterValue;
+import tqs.backend.dto.MeterValuesRequest;
+import tqs.backend.model.Charger;
+import tqs.backend.model.ChargingSession;
+import tqs.backend.model.Reservation;
+import tqs.backend.repository.ChargingSessionRepository;
+import tqs.backend.repository.ReservationRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TelemetryServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 5, 1, 10, 0);
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ChargingSessionRepository chargingSessionRepository = mock(ChargingSessionRepository.class);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    // Not started: tests drain and flush on their own thread
+    private TelemetryService service(int ringCapacity) {
+        return new TelemetryService(reservationRepository, chargingSessionRepository, transactionTemplate,
+                ringCapacity, 100, 1000, 2, 2);
+    }
+
+    private static Reservation reservation(long id, long chargerId) {
+        Charger charger = Charger.builder().id(chargerId).pricePerKwh(new BigDecimal("0.40")).build();
+        return Reservation.builder().id(id).charger(charger)
+                .estimatedKwh(20.0).estimatedCost(new BigDecimal("6.00")).build();
+    }
+
+    private static MeterValuesRequest readings(long chargerId, long transactionId, double... registerWh) {
+        List<MeterValue> values = new ArrayList<>();
+        for (int i = 0; i < registerWh.length; i++) {
+            values.add(new MeterValue(transactionId, T0.plusMinutes(i), registerWh[i]));
+        }
+        return new MeterValuesRequest(chargerId, values);
+    }
+
+    @Test
+    void whenReadingsFlushed_thenSessionHoldsEnergyAndCostSinceFirstReading() {
+        Reservation reservation = reservation(1L, 5L);
+        when(reservationRepository.findWithSessionByIdIn(anyCollection())).thenReturn(List.of(reservation));
+        TelemetryService service = service(64);
+
+        service.ingest(readings(5L, 1L, 120_000, 121_500));
+        service.ingest(readings(5L, 1L, 120_000, 121_500, 125_000));
+        service.drain();
+        service.flush();
+
+        ChargingSession session = reservation.getChargingSession();
+        assertThat(session).isNotNull();
+        assertThat(session.getReservation()).isSameAs(reservation);
+        assertThat(session.getStartTime()).isEqualTo(T0);
+        assertThat(session.getLastReadingAt()).isEqualTo(T0.plusMinutes(2));
+        assertThat(session.getEnergyDeliveredKwh()).isEqualTo(5.0);
+        // Booked rate: 6.00 for 20 kWh
+        assertThat(session.getTotalCost()).isEqualByComparingTo("1.50");
+        verify(chargingSessionRepository).saveAll(List.of(session));
+        assertThat(service.stats()).containsEntry("flushedSessions", 1L).containsEntry("pendingSessions", 0);
+    }
+
+    @Test
+    void whenLaterReadingsFlushed_thenExistingSessionIsExtended() {
+        Reservation reservation = reservation(1L, 5L);
+        reservation.setEstimatedCost(null);
+        ChargingSession session = ChargingSession.builder().reservation(reservation)
+                .startTime(T0).meterStartWh(120_000.0).lastReadingAt(T0).meterLastWh(121_000.0).build();
+        reservation.setChargingSession(session);
+        when(reservationRepository.findWithSessionByIdIn(anyCollection())).thenReturn(List.of(reservation));
+        TelemetryService service = service(64);
+
+        MeterValuesRequest later = new MeterValuesRequest(5L, List.of(new MeterValue(1L, T0.plusMinutes(30), 130_000.0)));
+        service.ingest(later);
+        service.drain();
+        service.flush();
+
+        assertThat(session.getStartTime()).isEqualTo(T0);
+        assertThat(session.getEnergyDeliveredKwh()).isEqualTo(10.0);
+        // Nothing booked, so the charger's price applies
+        assertThat(session.getTotalCost()).isEqualByComparingTo("4.00");
+        verify(chargingSessionRepository).saveAll(List.of());
+    }
+
+    @Test
+    void whenTransactionUnknownOrOnAnotherCharger_thenReadingsAreDropped() {
+        Reservation reservation = reservation(1L, 5L);
+        when(reservationRepository.findWithSessionByIdIn(anyCollection())).thenReturn(List.of(reservation));
+        TelemetryService service = service(64);
+
+        service.ingest(readings(9L, 1L, 1000, 2000));
+        service.ingest(readings(5L, 2L, 1000, 2000));
+        service.drain();
+        service.flush();
+
+        assertThat(reservation.getChargingSession()).isNull();
+        assertThat(service.stats()).containsEntry("unknownTransactions", 2L).containsEntry("pendingSessions", 0);
+    }
+
+    @Test
+    void whenFlushFails_thenTotalsStayPendingForNextFlush() {
+        Reservation reservation = reservation(1L, 5L);
+        when(reservationRepository.findWithSessionByIdIn(anyCollection()))
+                .thenThrow(new RuntimeException("database down"))
+                .thenReturn(List.of(reservation));
+        TelemetryService service = service(64);
+        service.ingest(readings(5L, 1L, 1000, 3000));
+        service.drain();
+
+        service.flush();
+        assertThat(service.stats()).containsEntry("pendingSessions", 1).containsEntry("failedFlushes", 1L);
+
+        service.flush();
+        assertThat(reservation.getChargingSession().getEnergyDeliveredKwh()).isEqualTo(2.0);
+        assertThat(service.stats()).containsEntry("pendingSessions", 0);
+    }
+
+    @Test
+    void whenOneBatchKeepsFailing_thenOtherBatchesAreWrittenAndItIsDropped() {
+        Reservation good = reservation(1L, 5L);
+        Reservation other = reservation(2L, 5L);
+        when(reservationRepository.findWithSessionByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<?> ids = inv.getArgument(0);
+            if (ids.contains(3L)) {
+                throw new RuntimeException("bad row");
+            }
+            return Stream.of(good, other).filter(r -> ids.contains(r.getId())).toList();
+        });
+        TelemetryService service = service(64);
+        service.ingest(readings(5L, 1L, 1000, 2000));
+        service.ingest(readings(5L, 2L, 1000, 2000));
+        service.ingest(readings(5L, 3L, 1000, 2000));
+        service.drain();
+
+        service.flush();
+        service.flush();
+
+        assertThat(good.getChargingSession()).isNotNull();
+        assertThat(other.getChargingSession()).isNotNull();
+        assertThat(service.stats()).containsEntry("pendingSessions", 0).containsEntry("droppedSessions", 1L);
+    }
+
+    @Test
+    void whenBufferFull_thenWholeBatchIsRefused() {
+        TelemetryService service = service(4);
+        service.ingest(readings(5L, 1L, 1, 2, 3));
+
+        assertThatThrownBy(() -> service.ingest(readings(5L, 1L, 4, 5)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(service.stats()).containsEntry("accepted", 3L).containsEntry("refused", 2L).containsEntry("buffered", 3);
+    }
+
+    @Test
+    void whenReadingIncomplete_thenBatchIsRejected() {
+        TelemetryService service = service(64);
+        MeterValuesRequest request = new MeterValuesRequest(5L,
+                List.of(new MeterValue(1L, T0, 10.0), new MeterValue(1L, null, 20.0)));
+
+        assertThatThrownBy(() -> service.ingest(request)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.ingest(new MeterValuesRequest(null, List.of())))
+                .hasMessage("Charger ID is required");
+        assertThat(service.stats()).containsEntry("buffered", 0);
+    }
+}
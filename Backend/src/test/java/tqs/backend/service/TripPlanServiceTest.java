@@ -0,0 +1,203 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tqs.backend.dto.TripPlanRequest;
+import tqs.backend.dto.TripPlanResponse;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Client;
+import tqs.backend.model.Station;
+import tqs.backend.model.TripPlan;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+import tqs.backend.repository.ClientRepository;
+import tqs.backend.repository.TripPlanRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TripPlanServiceTest {
+
+    @Mock
+    private TripPlanner tripPlanner;
+
+    @Mock
+    private TripPlanRepository tripPlanRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private ChargerRepository chargerRepository;
+
+    @InjectMocks
+    private TripPlanService tripPlanService;
+
+    private static TripPlanRequest request() {
+        TripPlanRequest request = new TripPlanRequest();
+        request.setClientId(1L);
+        request.setStartLatitude(40.64);
+        request.setStartLongitude(-8.65);
+        request.setDestinationLatitude(37.02);
+        request.setDestinationLongitude(-7.93);
+        request.setBatteryLevelStart(80.0);
+        request.setDepartureTime(LocalDateTime.of(2025, 6, 1, 9, 0));
+        return request;
+    }
+
+    private static Client client() {
+        return Client.builder().id(1L).batteryCapacityKwh(60.0).fullRangeKm(300.0).build();
+    }
+
+    @Test
+    void whenRouteHasStops_thenSavePlanWithOrderedStops() {
+        Station station = Station.builder().id(3L).name("Coimbra Sul").city("Coimbra").latitude(40.2).longitude(-8.4).build();
+        Charger charger = Charger.builder().id(30L).chargerType(ChargerType.DC_FAST).station(station).build();
+        TripPlanner.Stop stop = new TripPlanner.Stop(3L, 30L, ChargerType.DC_FAST, 40.2, -8.4,
+                51.04, 34.03, 0.63, 20.0);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client()));
+        when(tripPlanner.plan(40.64, -8.65, 37.02, -7.93, 0.8, 300.0, 60.0, Set.of()))
+                .thenReturn(new TripPlanner.Route(List.of(stop), 200.0, 251.04, 192.0, 0.13));
+        when(chargerRepository.findWithStationByIdIn(List.of(30L))).thenReturn(List.of(charger));
+        when(tripPlanRepository.save(any(TripPlan.class))).thenAnswer(invocation -> {
+            TripPlan plan = invocation.getArgument(0);
+            plan.setId(7L);
+            return plan;
+        });
+
+        TripPlanResponse response = tripPlanService.planTrip(request());
+
+        assertThat(response.getId()).isEqualTo(7L);
+        assertThat(response.getStartLocation()).isEqualTo("40.64000,-8.65000");
+        assertThat(response.getTotalDistanceKm()).isEqualTo(251.0);
+        assertThat(response.getArrivalBattery()).isEqualTo(13.0);
+        assertThat(response.getEstimatedArrival()).isEqualTo(LocalDateTime.of(2025, 6, 1, 12, 12));
+        assertThat(response.getStops()).singleElement().satisfies(dto -> {
+            assertThat(dto.getStopOrder()).isEqualTo(1);
+            assertThat(dto.getChargerId()).isEqualTo(30L);
+            assertThat(dto.getStationName()).isEqualTo("Coimbra Sul");
+            assertThat(dto.getEstimatedArrival()).isEqualTo(LocalDateTime.of(2025, 6, 1, 9, 34, 2));
+            assertThat(dto.getEstimatedBattery()).isEqualTo(63.0);
+        });
+
+        ArgumentCaptor<TripPlan> saved = ArgumentCaptor.forClass(TripPlan.class);
+        verify(tripPlanRepository).save(saved.capture());
+        assertThat(saved.getValue().getStops().get(0).getTripPlan()).isSameAs(saved.getValue());
+    }
+
+    @Test
+    void whenStopChargerWasDeleted_thenPlanAgainAroundIt() {
+        Station station = Station.builder().id(4L).name("Pombal").latitude(39.9).longitude(-8.6).build();
+        Charger replacement = Charger.builder().id(40L).chargerType(ChargerType.DC_FAST).station(station).build();
+        TripPlanner.Stop gone = new TripPlanner.Stop(3L, 30L, ChargerType.DC_FAST, 40.2, -8.4, 51.04, 34.03, 0.63, 20.0);
+        TripPlanner.Stop stop = new TripPlanner.Stop(4L, 40L, ChargerType.DC_FAST, 39.9, -8.6, 82.3, 55.0, 0.52, 25.0);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client()));
+        when(tripPlanner.plan(40.64, -8.65, 37.02, -7.93, 0.8, 300.0, 60.0, Set.of()))
+                .thenReturn(new TripPlanner.Route(List.of(gone), 200.0, 251.04, 192.0, 0.13));
+        when(tripPlanner.plan(40.64, -8.65, 37.02, -7.93, 0.8, 300.0, 60.0, Set.of(30L)))
+                .thenReturn(new TripPlanner.Route(List.of(stop), 180.0, 262.3, 201.0, 0.11));
+        when(chargerRepository.findWithStationByIdIn(List.of(30L))).thenReturn(List.of());
+        when(chargerRepository.findWithStationByIdIn(List.of(40L))).thenReturn(List.of(replacement));
+        when(tripPlanRepository.save(any(TripPlan.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TripPlanResponse response = tripPlanService.planTrip(request());
+
+        assertThat(response.getStops()).singleElement().satisfies(dto -> {
+            assertThat(dto.getChargerId()).isEqualTo(40L);
+            assertThat(dto.getStationName()).isEqualTo("Pombal");
+        });
+    }
+
+    @Test
+    void whenChargersKeepDisappearingUnderTheRoute_thenThrowAndSaveNothing() {
+        TripPlanner.Stop gone = new TripPlanner.Stop(3L, 30L, ChargerType.DC_FAST, 40.2, -8.4, 51.04, 34.03, 0.63, 20.0);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client()));
+        when(tripPlanner.plan(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anySet()))
+                .thenReturn(new TripPlanner.Route(List.of(gone), 200.0, 251.04, 192.0, 0.13));
+        when(chargerRepository.findWithStationByIdIn(List.of(30L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> tripPlanService.planTrip(request()))
+                .isInstanceOf(IllegalStateException.class);
+        verify(tripPlanner, times(TripPlanService.MAX_ROUTE_ATTEMPTS))
+                .plan(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anySet());
+        verify(tripPlanRepository, never()).save(any());
+    }
+
+    @Test
+    void whenDestinationIsDirectlyReachable_thenNoChargerLookup() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client()));
+        when(tripPlanner.plan(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anySet()))
+                .thenReturn(new TripPlanner.Route(List.of(), 150.0, 150.0, 100.0, 0.3));
+        when(tripPlanRepository.save(any(TripPlan.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TripPlanResponse response = tripPlanService.planTrip(request());
+
+        assertThat(response.getStops()).isEmpty();
+        verifyNoInteractions(chargerRepository);
+    }
+
+    @Test
+    void whenNoRoute_thenThrowAndSaveNothing() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(client()));
+        when(tripPlanner.plan(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble(), anySet()))
+                .thenReturn(null);
+
+        assertThatThrownBy(() -> tripPlanService.planTrip(request()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No route found within the vehicle's range");
+        verify(tripPlanRepository, never()).save(any());
+    }
+
+    @Test
+    void whenClientHasNoVehicleData_thenThrow() {
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(Client.builder().id(1L).build()));
+
+        assertThatThrownBy(() -> tripPlanService.planTrip(request()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Client has no battery capacity or range set");
+        verifyNoInteractions(tripPlanner);
+    }
+
+    @Test
+    void whenBatteryLevelOutOfRange_thenThrow() {
+        TripPlanRequest request = request();
+        request.setBatteryLevelStart(120.0);
+
+        assertThatThrownBy(() -> tripPlanService.planTrip(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Battery level must be between 0 and 100");
+    }
+
+    @Test
+    void whenCoordinatesMissing_thenThrow() {
+        TripPlanRequest request = request();
+        request.setDestinationLongitude(null);
+
+        assertThatThrownBy(() -> tripPlanService.planTrip(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Start and destination coordinates are required");
+    }
+
+    @Test
+    void whenTripPlanMissing_thenThrow() {
+        when(tripPlanRepository.findWithStopsById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> tripPlanService.getTripPlan(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Trip plan not found");
+    }
+}
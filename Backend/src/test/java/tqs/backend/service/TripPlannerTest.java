@@ -0,0 +1,223 @@
+package tqs.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import tqs.backend.dto.RoutableCharger;
+import tqs.backend.model.Charger;
+import tqs.backend.model.Station;
+import tqs.backend.model.enums.ChargerStatus;
+import tqs.backend.model.enums.ChargerType;
+import tqs.backend.repository.ChargerRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TripPlannerTest {
+
+    // Roughly 111 km per degree of latitude, so stations along a meridian are easy to reason about
+    private static final double LNG = -8.0;
+
+    private final List<RoutableCharger> chargers = new ArrayList<>();
+
+    private void station(long id, double lat, ChargerType type) {
+        chargers.add(new RoutableCharger(id, lat, LNG, id * 10, type));
+    }
+
+    private TripPlanner planner(double maxEdgeKm) {
+        StationReachabilityGraph graph = mock(StationReachabilityGraph.class);
+        when(graph.current()).thenReturn(StationReachabilityGraph.build(chargers, maxEdgeKm));
+        return new TripPlanner(graph, 0.1, 0.8, 90, 5);
+    }
+
+    @Test
+    void whenDestinationIsWithinRange_thenNoStops() {
+        station(1, 39.0, ChargerType.DC_FAST);
+
+        TripPlanner.Route route = planner(300).plan(38.0, LNG, 39.5, LNG, 0.9, 400, 60);
+
+        assertThat(route.stops()).isEmpty();
+        assertThat(route.totalDistanceKm()).isCloseTo(166.8, within(1.0));
+        assertThat(route.arrivalSoc()).isCloseTo(0.9 - 166.8 / 400, within(0.01));
+    }
+
+    @Test
+    void whenTripIsLongerThanRange_thenStopOnTheWay() {
+        // 534 km trip, 300 km range: 80% charge covers 210 km per leg
+        for (int i = 1; i <= 10; i++) {
+            station(i, 38.0 + i * 0.5, ChargerType.DC_FAST);
+        }
+
+        TripPlanner.Route route = planner(300).plan(38.0, LNG, 42.8, LNG, 0.8, 300, 60);
+
+        assertThat(route).isNotNull();
+        assertThat(route.stops()).hasSize(2);
+        assertThat(route.stops()).allSatisfy(stop -> {
+            assertThat(stop.distanceFromPreviousKm()).isLessThanOrEqualTo(210.0);
+            assertThat(stop.arrivalSoc()).isGreaterThanOrEqualTo(0.1 - 1e-9);
+        });
+        assertThat(route.finalLegKm()).isLessThanOrEqualTo(210.0);
+        assertThat(route.totalDistanceKm()).isCloseTo(533.7, within(1.0));
+        assertThat(route.stops().get(0).arrivalMinutes()).isLessThan(route.stops().get(1).arrivalMinutes());
+    }
+
+    @Test
+    void whenStationsOfferDifferentPower_thenPreferShorterCharging() {
+        // Two stations at the same distance from the start: the ultra-fast one costs less time
+        chargers.add(new RoutableCharger(1L, 39.5, LNG - 0.05, 10L, ChargerType.AC_STANDARD));
+        chargers.add(new RoutableCharger(2L, 39.5, LNG + 0.05, 20L, ChargerType.DC_ULTRA_FAST));
+
+        TripPlanner.Route route = planner(300).plan(38.0, LNG, 41.0, LNG, 0.8, 300, 60);
+
+        assertThat(route.stops()).singleElement()
+                .satisfies(stop -> assertThat(stop.chargerType()).isEqualTo(ChargerType.DC_ULTRA_FAST));
+    }
+
+    @Test
+    void whenStationHasSeveralChargers_thenStopAtTheFastest() {
+        chargers.add(new RoutableCharger(1L, 39.5, LNG, 11L, ChargerType.AC_STANDARD));
+        chargers.add(new RoutableCharger(1L, 39.5, LNG, 12L, ChargerType.DC_FAST));
+
+        TripPlanner.Route route = planner(300).plan(38.0, LNG, 41.0, LNG, 0.8, 300, 60);
+
+        assertThat(route.stops()).singleElement()
+                .satisfies(stop -> assertThat(stop.chargerId()).isEqualTo(12L));
+    }
+
+    @Test
+    void whenChargerIsExcluded_thenRouteAvoidsIt() {
+        chargers.add(new RoutableCharger(1L, 39.5, LNG - 0.05, 10L, ChargerType.AC_STANDARD));
+        chargers.add(new RoutableCharger(2L, 39.5, LNG + 0.05, 20L, ChargerType.DC_ULTRA_FAST));
+
+        TripPlanner.Route route = planner(300).plan(38.0, LNG, 41.0, LNG, 0.8, 300, 60, Set.of(20L));
+
+        assertThat(route.stops()).singleElement()
+                .satisfies(stop -> assertThat(stop.chargerId()).isEqualTo(10L));
+        assertThat(planner(300).plan(38.0, LNG, 41.0, LNG, 0.8, 300, 60, Set.of(10L, 20L))).isNull();
+    }
+
+    @Test
+    void whenGapIsLongerThanRange_thenNoRoute() {
+        station(1, 39.0, ChargerType.DC_FAST);
+        station(2, 42.0, ChargerType.DC_FAST);
+
+        assertThat(planner(300).plan(38.0, LNG, 43.0, LNG, 0.8, 300, 60)).isNull();
+    }
+
+    @Test
+    void whenBatteryIsBelowReserve_thenReject() {
+        station(1, 39.0, ChargerType.DC_FAST);
+
+        assertThatThrownBy(() -> planner(300).plan(38.0, LNG, 43.0, LNG, 0.05, 300, 60))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Battery level is too low to start the trip");
+    }
+
+    @Test
+    void whenGraphIsNotBuilt_thenNotReady() {
+        TripPlanner planner = new TripPlanner(mock(StationReachabilityGraph.class), 0.1, 0.8, 90, 5);
+
+        assertThatThrownBy(() -> planner.plan(38.0, LNG, 43.0, LNG, 0.8, 300, 60))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void graphIsChangedOnlyByRoutableChanges() {
+        station(1, 40.0, ChargerType.DC_FAST);
+        station(2, 41.0, ChargerType.AC_STANDARD);
+        StationReachabilityGraph.Graph graph = StationReachabilityGraph.build(chargers, 200);
+        Station first = Station.builder().id(1L).latitude(40.0).longitude(LNG).build();
+
+        // Between routable statuses, or a rename, the graph stays as it is
+        assertThat(graph.isChangedBy(charger(10L, first, ChargerType.DC_FAST, ChargerStatus.IN_USE), false)).isFalse();
+        assertThat(graph.isChangedBy(Station.builder().id(1L).name("Renamed").latitude(40.0).longitude(LNG).build(), false)).isFalse();
+        // A routable charger leaving, changing type or a new one joining
+        assertThat(graph.isChangedBy(charger(10L, first, ChargerType.DC_FAST, ChargerStatus.UNDER_MAINTENANCE), false)).isTrue();
+        assertThat(graph.isChangedBy(charger(10L, first, ChargerType.DC_FAST, ChargerStatus.AVAILABLE), true)).isTrue();
+        assertThat(graph.isChangedBy(charger(10L, first, ChargerType.DC_ULTRA_FAST, ChargerStatus.AVAILABLE), false)).isTrue();
+        assertThat(graph.isChangedBy(charger(11L, first, ChargerType.AC_STANDARD, ChargerStatus.AVAILABLE), false)).isTrue();
+        // An unroutable charger that stays so
+        assertThat(graph.isChangedBy(charger(12L, first, ChargerType.AC_STANDARD, ChargerStatus.MAINTENANCE), false)).isFalse();
+        // A station moved, deleted or added
+        assertThat(graph.isChangedBy(Station.builder().id(1L).latitude(40.5).longitude(LNG).build(), false)).isTrue();
+        assertThat(graph.isChangedBy(first, true)).isTrue();
+        assertThat(graph.isChangedBy(Station.builder().id(3L).latitude(42.0).longitude(LNG).build(), false)).isTrue();
+    }
+
+    private static Charger charger(Long id, Station station, ChargerType type, ChargerStatus status) {
+        return Charger.builder().id(id).station(station).chargerType(type).status(status).build();
+    }
+
+    @Test
+    void build_KeepsOneEdgePerSectorAndRing() {
+        // A dense square of stations around the first one
+        int id = 1;
+        station(id++, 40.0, ChargerType.DC_FAST);
+        for (int x = -20; x <= 20; x++) {
+            for (int y = -20; y <= 20; y++) {
+                if (x != 0 || y != 0) {
+                    chargers.add(new RoutableCharger((long) id, 40.0 + y * 0.1, LNG + x * 0.13, id * 10L, ChargerType.DC_FAST));
+                    id++;
+                }
+            }
+        }
+
+        StationReachabilityGraph.Graph graph = StationReachabilityGraph.build(chargers, 200);
+
+        int center = 0;
+        int edges = graph.offsets[center + 1] - graph.offsets[center];
+        assertThat(graph.size()).isEqualTo(chargers.size());
+        assertThat(edges).isPositive().isLessThanOrEqualTo(StationReachabilityGraph.SECTORS * StationReachabilityGraph.RINGS);
+        for (int e = graph.offsets[center]; e < graph.offsets[center + 1]; e++) {
+            assertThat(graph.lengthsKm[e]).isLessThanOrEqualTo(200f);
+            assertThat(graph.targets[e]).isNotEqualTo(center);
+        }
+    }
+
+    @Test
+    void whenStationsFaceEachOtherAcrossTheAntimeridian_thenTheyAreLinked() {
+        // Fiji, about 106 km apart
+        chargers.add(new RoutableCharger(1L, -17.0, 179.5, 10L, ChargerType.DC_FAST));
+        chargers.add(new RoutableCharger(2L, -17.0, -179.5, 20L, ChargerType.DC_FAST));
+
+        StationReachabilityGraph.Graph graph = StationReachabilityGraph.build(chargers, 200);
+
+        for (int node = 0; node < 2; node++) {
+            assertThat(graph.offsets[node + 1] - graph.offsets[node]).isEqualTo(1);
+            assertThat(graph.targets[graph.offsets[node]]).isEqualTo(1 - node);
+            assertThat(graph.lengthsKm[graph.offsets[node]]).isCloseTo(106.4f, within(1.0f));
+        }
+    }
+
+    @Test
+    void whenRebuildIsAlreadyRunning_thenAnotherCallDoesNothing() throws Exception {
+        station(1, 39.0, ChargerType.DC_FAST);
+        ChargerRepository chargerRepository = mock(ChargerRepository.class);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(chargerRepository.findRoutable(any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return chargers;
+        });
+        StationReachabilityGraph graph = new StationReachabilityGraph(chargerRepository, 300);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(graph::rebuild);
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        graph.rebuild();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        verify(chargerRepository, times(1)).findRoutable(any());
+        assertThat(graph.current().size()).isEqualTo(1);
+    }
+}
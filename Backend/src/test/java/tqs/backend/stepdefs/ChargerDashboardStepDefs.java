@@ -9,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import tqs.backend.controller.ChargerController;
+import tqs.backend.dto.ChargerResponse;
 import tqs.backend.model.Charger;
 import tqs.backend.model.enums.ChargerStatus;
 import tqs.backend.model.enums.ChargerType;
@@ -41,7 +42,7 @@ public class ChargerDashboardStepDefs {
     @Autowired
     private StationRepository stationRepository;
 
-    private List<Charger> chargerList;
+    private List<ChargerResponse> chargerList;
     private ResponseEntity<?> response;
     private Station testStation;
     private Map<String, Long> chargerIdMap = new HashMap<>();
@@ -168,19 +169,19 @@ public class ChargerDashboardStepDefs {
         assertNotNull(responseBody, "Response body should not be null");
         
         if (responseBody instanceof List<?>) {
-            chargerList = (List<Charger>) responseBody;
+            chargerList = (List<ChargerResponse>) responseBody;
             assertNotNull(chargerList, "Charger list should not be null");
             
             // Calculate status counts
             statusCounts.clear();
             for (ChargerStatus status : ChargerStatus.values()) {
                 long count = chargerList.stream()
-                        .filter(c -> c.getStatus() == status)
+                        .filter(c -> c.status() == status)
                         .count();
                 statusCounts.put(status, count);
             }
         } else {
-            fail("Response body should be a List<Charger>");
+            fail("Response body should be a List<ChargerResponse>");
         }
     }
 
@@ -189,7 +190,7 @@ public class ChargerDashboardStepDefs {
         assertNotNull(chargerList, "Charger list must be initialized before filtering");
         ChargerStatus filterStatus = ChargerStatus.valueOf(status.toUpperCase().replace(" ", "_"));
         chargerList = chargerList.stream()
-                .filter(c -> c.getStatus() == filterStatus)
+                .filter(c -> c.status() == filterStatus)
                 .toList();
     }
 
@@ -197,7 +198,7 @@ public class ChargerDashboardStepDefs {
     public void iSortChargersByStatus() {
         assertNotNull(chargerList, "Charger list must be initialized before sorting");
         chargerList = chargerList.stream()
-                .sorted(Comparator.comparing(c -> c.getStatus().name()))
+                .sorted(Comparator.comparing(c -> c.status().name()))
                 .toList();
     }
 
@@ -206,8 +207,9 @@ public class ChargerDashboardStepDefs {
         assertNotNull(chargerList, "Charger list should not be null");
         assertTrue(chargerList.size() > 0, "Charger list should not be empty");
         chargerList.forEach(charger -> {
-            assertNotNull(charger.getStation(), "Charger should have a station");
-            assertEquals(testStation.getId(), charger.getStation().getId(), "Charger should belong to the test station");
+            Station station = chargerRepository.findById(charger.id()).map(Charger::getStation).orElse(null);
+            assertNotNull(station, "Charger should have a station");
+            assertEquals(testStation.getId(), station.getId(), "Charger should belong to the test station");
         });
     }
 
@@ -217,14 +219,14 @@ public class ChargerDashboardStepDefs {
         Long actualId = chargerIdMap.get(chargerId);
         assertNotNull(actualId, "Charger ID mapping should exist for " + chargerId);
         
-        Charger foundCharger = chargerList.stream()
-                .filter(c -> c.getId().equals(actualId))
+        ChargerResponse foundCharger = chargerList.stream()
+                .filter(c -> c.id().equals(actualId))
                 .findFirst()
                 .orElse(null);
         
         assertNotNull(foundCharger, "Charger with ID " + chargerId + " should be found");
         assertEquals(ChargerStatus.valueOf(status.toUpperCase().replace(" ", "_")), 
-                    foundCharger.getStatus(),
+                    foundCharger.status(),
                     "Charger status should be " + status);
     }
 
@@ -234,11 +236,11 @@ public class ChargerDashboardStepDefs {
         assertTrue(chargerList.size() >= 3, "Should have at least 3 chargers");
         
         boolean hasAvailable = chargerList.stream()
-                .anyMatch(c -> c.getStatus() == ChargerStatus.AVAILABLE);
+                .anyMatch(c -> c.status() == ChargerStatus.AVAILABLE);
         boolean hasInUse = chargerList.stream()
-                .anyMatch(c -> c.getStatus() == ChargerStatus.IN_USE);
+                .anyMatch(c -> c.status() == ChargerStatus.IN_USE);
         boolean hasUnderMaintenance = chargerList.stream()
-                .anyMatch(c -> c.getStatus() == ChargerStatus.UNDER_MAINTENANCE);
+                .anyMatch(c -> c.status() == ChargerStatus.UNDER_MAINTENANCE);
 
         assertTrue(hasAvailable, "Should have at least one available charger");
         assertTrue(hasInUse, "Should have at least one in-use charger");
@@ -273,7 +275,7 @@ public class ChargerDashboardStepDefs {
         assertTrue(chargerList.size() > 0, "Should have at least one charger");
         
         chargerList.forEach(charger -> 
-            assertEquals(expectedStatus, charger.getStatus(), 
+            assertEquals(expectedStatus, charger.status(), 
                     "All chargers should have status " + status));
     }
 
@@ -283,8 +285,8 @@ public class ChargerDashboardStepDefs {
         assertTrue(chargerList.size() > 1, "Should have at least two chargers to verify sorting");
         
         for (int i = 0; i < chargerList.size() - 1; i++) {
-            String currentStatus = chargerList.get(i).getStatus().name();
-            String nextStatus = chargerList.get(i + 1).getStatus().name();
+            String currentStatus = chargerList.get(i).status().name();
+            String nextStatus = chargerList.get(i + 1).status().name();
             assertTrue(currentStatus.compareTo(nextStatus) <= 0, 
                     "Chargers should be sorted by status alphabetically");
         }
@@ -294,8 +296,8 @@ public class ChargerDashboardStepDefs {
     public void eachChargerShouldHaveValidIdAndStatus() {
         assertNotNull(chargerList, "Charger list should not be null");
         chargerList.forEach(charger -> {
-            assertNotNull(charger.getId(), "Charger should have an ID");
-            assertNotNull(charger.getStatus(), "Charger should have a status");
+            assertNotNull(charger.id(), "Charger should have an ID");
+            assertNotNull(charger.status(), "Charger should have a status");
         });
     }
 
@@ -303,8 +305,8 @@ public class ChargerDashboardStepDefs {
     public void theChargerShouldHaveAValidPricePerKWh() {
         assertNotNull(chargerList, "Charger list should not be null");
         chargerList.forEach(charger -> {
-            assertNotNull(charger.getPricePerKwh(), "Charger should have a price per kWh");
-            assertTrue(charger.getPricePerKwh().compareTo(BigDecimal.ZERO) > 0, 
+            assertNotNull(charger.pricePerKwh(), "Charger should have a price per kWh");
+            assertTrue(charger.pricePerKwh().compareTo(BigDecimal.ZERO) > 0, 
                     "Price per kWh should be greater than zero");
         });
     }
@@ -313,21 +315,21 @@ public class ChargerDashboardStepDefs {
     public void eachChargerShouldHaveAValidPricePerKWh() {
         assertNotNull(chargerList, "Charger list should not be null");
         chargerList.forEach(charger -> {
-            assertNotNull(charger.getPricePerKwh(), "Charger should have a price per kWh");
-            assertTrue(charger.getPricePerKwh().compareTo(BigDecimal.ZERO) > 0, 
+            assertNotNull(charger.pricePerKwh(), "Charger should have a price per kWh");
+            assertTrue(charger.pricePerKwh().compareTo(BigDecimal.ZERO) > 0, 
                     "Price per kWh should be greater than zero");
-            assertTrue(charger.getPricePerKwh().compareTo(BigDecimal.valueOf(1.0)) <= 0,
+            assertTrue(charger.pricePerKwh().compareTo(BigDecimal.valueOf(1.0)) <= 0,
                     "Price per kWh should not exceed 1.0");
             
             // Check if price is reasonable based on charger type
-            if (charger.getChargerType() == ChargerType.AC_STANDARD) {
-                assertTrue(charger.getPricePerKwh().compareTo(BigDecimal.valueOf(0.30)) <= 0,
+            if (charger.chargerType() == ChargerType.AC_STANDARD) {
+                assertTrue(charger.pricePerKwh().compareTo(BigDecimal.valueOf(0.30)) <= 0,
                         "AC Standard charger price should not exceed 0.30");
-            } else if (charger.getChargerType() == ChargerType.DC_FAST) {
-                assertTrue(charger.getPricePerKwh().compareTo(BigDecimal.valueOf(0.50)) <= 0,
+            } else if (charger.chargerType() == ChargerType.DC_FAST) {
+                assertTrue(charger.pricePerKwh().compareTo(BigDecimal.valueOf(0.50)) <= 0,
                         "DC Fast charger price should not exceed 0.50");
-            } else if (charger.getChargerType() == ChargerType.DC_ULTRA_FAST) {
-                assertTrue(charger.getPricePerKwh().compareTo(BigDecimal.valueOf(0.70)) <= 0,
+            } else if (charger.chargerType() == ChargerType.DC_ULTRA_FAST) {
+                assertTrue(charger.pricePerKwh().compareTo(BigDecimal.valueOf(0.70)) <= 0,
                         "DC Ultra Fast charger price should not exceed 0.70");
             }
         });
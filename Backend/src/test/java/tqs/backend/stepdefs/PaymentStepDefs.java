@@ -45,7 +45,7 @@ public class PaymentStepDefs {
         when(mockSession.getPaymentStatus()).thenReturn("paid");
         
         // Mock session creation to return the mock session with dynamic metadata
-        when(stripeClient.createCheckoutSession(any(SessionCreateParams.class))).thenAnswer(invocation -> {
+        when(stripeClient.createCheckoutSession(any(SessionCreateParams.class), any())).thenAnswer(invocation -> {
             SessionCreateParams params = invocation.getArgument(0);
             System.out.println("Creating mock session with params: " + params);
             Map<String, String> metadata = new HashMap<>();
@@ -56,7 +56,7 @@ public class PaymentStepDefs {
             return mockSession;
         });
         
-        when(stripeClient.retrieveCheckoutSession(any())).thenReturn(mockSession);
+        when(stripeClient.retrieveCheckoutSession(any(), any())).thenReturn(mockSession);
 
         // Ensure reservations are properly persisted with all required fields
         if (activeReservation != null) {
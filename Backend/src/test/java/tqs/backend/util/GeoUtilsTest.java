@@ -0,0 +1,83 @@
+package tqs.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoUtilsTest {
+
+    @Test
+    void boundingBoxes_AwayFromTheAntimeridianIsOneBox() {
+        List<double[]> boxes = GeoUtils.boundingBoxes(40.0, -8.0, 50.0);
+
+        assertThat(boxes).hasSize(1);
+        assertThat(boxes.get(0)[0]).isLessThan(40.0);
+        assertThat(boxes.get(0)[1]).isGreaterThan(40.0);
+        assertThat(boxes.get(0)[2]).isLessThan(-8.0);
+        assertThat(boxes.get(0)[3]).isGreaterThan(-8.0);
+    }
+
+    @Test
+    void boundingBoxes_AcrossTheAntimeridianIsSplitInTwo() {
+        // Fiji, about 0.47 degrees of longitude each way for 50 km
+        List<double[]> east = GeoUtils.boundingBoxes(-17.0, 179.8, 50.0);
+        List<double[]> west = GeoUtils.boundingBoxes(-17.0, -179.8, 50.0);
+
+        assertThat(east).hasSize(2);
+        assertThat(east.get(0)[2]).isCloseTo(179.33, within(0.01));
+        assertThat(east.get(0)[3]).isEqualTo(180.0);
+        assertThat(east.get(1)[2]).isEqualTo(-180.0);
+        assertThat(east.get(1)[3]).isCloseTo(-179.73, within(0.01));
+
+        assertThat(west).hasSize(2);
+        assertThat(west.get(0)[2]).isCloseTo(179.73, within(0.01));
+        assertThat(west.get(0)[3]).isEqualTo(180.0);
+        assertThat(west.get(1)[2]).isEqualTo(-180.0);
+        assertThat(west.get(1)[3]).isCloseTo(-179.33, within(0.01));
+        for (double[] box : east) {
+            assertThat(box[2]).isLessThanOrEqualTo(box[3]);
+        }
+    }
+
+    @Test
+    void boundingBoxes_NearAPoleCoversAllLongitudes() {
+        List<double[]> boxes = GeoUtils.boundingBoxes(89.9, 179.0, 50.0);
+
+        assertThat(boxes).hasSize(1);
+        assertThat(boxes.get(0)[1]).isEqualTo(90.0);
+        assertThat(boxes.get(0)[2]).isEqualTo(-180.0);
+        assertThat(boxes.get(0)[3]).isEqualTo(180.0);
+    }
+
+    @Test
+    void lngSpanDegrees_CoversTheWholeCircle() {
+        // 500 km at 60 degrees north: r / (R cos lat) would give 8.99 degrees, short of the circle
+        double span = GeoUtils.lngSpanDegrees(60.0, 500.0);
+        double angular = 500.0 / GeoUtils.EARTH_RADIUS_KM;
+        double lat = Math.toRadians(60.0);
+        double widest = 0;
+        for (double bearing = 0; bearing < 360; bearing += 0.01) {
+            double b = Math.toRadians(bearing);
+            double lat2 = Math.asin(Math.sin(lat) * Math.cos(angular) + Math.cos(lat) * Math.sin(angular) * Math.cos(b));
+            double dLng = Math.atan2(Math.sin(b) * Math.sin(angular) * Math.cos(lat),
+                    Math.cos(angular) - Math.sin(lat) * Math.sin(lat2));
+            widest = Math.max(widest, Math.abs(Math.toDegrees(dLng)));
+        }
+
+        assertThat(span).isCloseTo(9.02, within(0.01));
+        assertThat(span).isGreaterThanOrEqualTo(widest).isCloseTo(widest, within(1e-4));
+        assertThat(GeoUtils.boundingBoxes(60.0, 0.0, 500.0).get(0)[3]).isEqualTo(span);
+        assertThat(GeoUtils.lngSpanDegrees(85.0, 600.0)).isEqualTo(180.0);
+    }
+
+    @Test
+    void lngDelta_TakesTheShortWayRound() {
+        assertThat(GeoUtils.lngDelta(179.9, -179.9)).isCloseTo(0.2, within(1e-9));
+        assertThat(GeoUtils.lngDelta(-179.9, 179.9)).isCloseTo(-0.2, within(1e-9));
+        assertThat(GeoUtils.lngDelta(-8.0, 10.0)).isCloseTo(18.0, within(1e-9));
+        assertThat(GeoUtils.lngDelta(0.0, 180.0)).isEqualTo(180.0);
+    }
+}
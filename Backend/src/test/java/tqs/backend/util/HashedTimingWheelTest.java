@@ -0,0 +1,75 @@
+package tqs.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedTimingWheelTest {
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void rejectsWheelSizeThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new HashedTimingWheel<String>(100, 10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void expiresItemsOnTheFirstTickNotBeforeTheirDueTime() {
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 250);
+        wheel.schedule("c", 300);
+
+        wheel.advance(299, expired::add);
+        assertThat(expired).containsExactly("a");
+
+        wheel.advance(300, expired::add);
+        assertThat(expired).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void keepsItemsDueOnALaterTurnOfTheWheel() {
+        // Same slot as 200, two turns later
+        wheel.schedule("later", 200 + 2 * 800);
+        wheel.schedule("now", 200);
+
+        assertThat(wheel.advance(1000, expired::add)).isEqualTo(1);
+        assertThat(expired).containsExactly("now");
+
+        wheel.advance(1799, expired::add);
+        assertThat(expired).containsExactly("now");
+        wheel.advance(1800, expired::add);
+        assertThat(expired).containsExactly("now", "later");
+    }
+
+    @Test
+    void pastDueItemExpiresOnNextTick() {
+        wheel.advance(500, expired::add);
+        wheel.schedule("late", 100);
+
+        wheel.advance(599, expired::add);
+        assertThat(expired).isEmpty();
+        wheel.advance(600, expired::add);
+        assertThat(expired).containsExactly("late");
+    }
+
+    @Test
+    void itemRescheduledAWholeTurnAheadIsNotExpiredTwice() {
+        wheel.schedule("x", 100);
+
+        wheel.advance(100, item -> {
+            expired.add(item);
+            wheel.schedule(item, 100 + 800);
+        });
+
+        assertThat(expired).containsExactly("x");
+        assertThat(wheel.size()).isEqualTo(1);
+        wheel.advance(900, expired::add);
+        assertThat(expired).containsExactly("x", "x");
+    }
+}
@@ -0,0 +1,92 @@
+package tqs.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MeterReadingRingTest {
+
+    @Test
+    void rejectsCapacityThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new MeterReadingRing(1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void drainsReadingsInClaimOrderAndFreesTheirSlots() {
+        MeterReadingRing ring = new MeterReadingRing(4);
+        long position = ring.claim(3);
+        for (int i = 0; i < 3; i++) {
+            ring.put(position + i, 1, 10 + i, 1000L * i, 100.0 * i);
+        }
+        assertThat(ring.claim(2)).isEqualTo(-1);
+
+        List<Long> transactions = new ArrayList<>();
+        assertThat(ring.drain((charger, transaction, at, wh) -> transactions.add(transaction), 2)).isEqualTo(2);
+
+        assertThat(transactions).containsExactly(10L, 11L);
+        assertThat(ring.size()).isEqualTo(1);
+        assertThat(ring.claim(3)).isEqualTo(3);
+    }
+
+    @Test
+    void stopsAtFirstSlotNotYetPublished() {
+        MeterReadingRing ring = new MeterReadingRing(8);
+        long first = ring.claim(1);
+        long second = ring.claim(1);
+        ring.put(second, 1, 2, 0, 0);
+
+        assertThat(ring.drain((charger, transaction, at, wh) -> { }, 8)).isZero();
+
+        ring.put(first, 1, 1, 0, 0);
+        assertThat(ring.drain((charger, transaction, at, wh) -> { }, 8)).isEqualTo(2);
+    }
+
+    @Test
+    void keepsEveryReadingFromConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MeterReadingRing ring = new MeterReadingRing(1024);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long charger = p;
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; ) {
+                    long position = ring.claim(10);
+                    if (position < 0) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    for (int j = 0; j < 10; j++, i++) {
+                        ring.put(position + j, charger, i, i, 1);
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        long[] lastPerCharger = {-1, -1, -1, -1};
+        boolean[] ordered = {true};
+        long drained = 0;
+        while (drained < (long) producers * perProducer) {
+            drained += ring.drain((charger, transaction, at, wh) -> {
+                ordered[0] &= transaction == lastPerCharger[(int) charger] + 1;
+                lastPerCharger[(int) charger] = transaction;
+            }, 256);
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+
+        assertThat(ordered[0]).isTrue();
+        assertThat(lastPerCharger).containsOnly(perProducer - 1L);
+        assertThat(ring.size()).isZero();
+    }
+}
@@ -9,7 +9,7 @@ import dayjs from "dayjs";
 const chargerLabelToEnum = {
     "Fast (DC)": "DC_FAST",
     "Standard (AC)": "AC_STANDARD",
-    "Ultra-fast (DC)": "DC_ULTRAFAST"
+    "Ultra-fast (DC)": "DC_ULTRA_FAST"
 };
 
 const calculateDistance = (lat1, lon1, lat2, lon2) => {
@@ -58,51 +58,25 @@ const FiltersPanel = ({ userLocation, setUserLocation, selectedChargerTypes, set
             const chargerTypes = chargerTypesOverride || selectedChargerTypes;
 
             if (chargerTypes.length > 0 && datetime) {
-                const dayOfWeek = dayjs(datetime).day();
-                const hour = dayjs(datetime).hour();
-
-                const fetches = chargerTypes.map(async type => {
-                    const typeParam = chargerLabelToEnum[type];
-                    const url = `/api/stations/search?dayOfWeek=${dayOfWeek}&hour=${hour}&chargerType=${typeParam}`;
-                    const res = await axios.get(url); // ✅ axios
-                    return res.data;
+                const params = new URLSearchParams({
+                    datetime: dayjs(datetime).format("YYYY-MM-DDTHH:mm"),
+                    chargerTypes: chargerTypes.map(type => chargerLabelToEnum[type]).join(",")
                 });
 
-                const results = await Promise.all(fetches);
-                const allStations = results.flat();
-
-                const uniqueStations = Array.from(
-                    new Map(allStations.map(station => [station.id, station])).values()
-                );
-
-                const detailedStations = await Promise.all(
-                    uniqueStations.map(async (station) => {
-                        const datetimeParam = encodeURIComponent(dayjs(datetime).format("YYYY-MM-DDTHH:mm"));
-                        const detailsUrl = `/api/stations/${station.id}/details?datetime=${datetimeParam}`;
-                        try {
-                            const detailsRes = await axios.get(detailsUrl); // ✅ axios
-                            const details = detailsRes.data;
-                            return {
-                                ...details,
-                                imageUrl: station.imageUrl || null,
-                                distance: (userLocation?.lat && userLocation?.lng)
-                                    ? calculateDistance(
-                                        userLocation.lat,
-                                        userLocation.lng,
-                                        details.latitude,
-                                        details.longitude
-                                    )
-                                    : "–",
-                                availableChargers: details.chargers.length
-                            };
-                        } catch (err) {
-                            console.error("❌ Failed to fetch details for station", station.id);
-                            return null;
-                        }
-                    })
-                );
-
-                stations = detailedStations;
+                const res = await axios.get(`/api/stations/availability?${params.toString()}`); // ✅ axios
+
+                stations = res.data.map(station => ({
+                    ...station,
+                    imageUrl: null,
+                    distance: (userLocation?.lat && userLocation?.lng)
+                        ? calculateDistance(
+                            userLocation.lat,
+                            userLocation.lng,
+                            station.latitude,
+                            station.longitude
+                        )
+                        : "–"
+                }));
             } else {
                 // fallback: fetch all
                 let url = `/api/stations?lat=${lat}&lng=${lng}`;